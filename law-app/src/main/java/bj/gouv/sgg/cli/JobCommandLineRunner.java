@@ -32,6 +32,7 @@ import java.util.Arrays;
  *   java -jar law-api.jar --job=fullJob --doc=loi-2024-15 --force ✅ (retraitement complet)
  *   java -jar law-api.jar --job=fixJob ✅ (correction et amélioration continue)
  *   java -jar law-api.jar --job=orchestrate ✅ (orchestration continue Ctrl+C pour arrêter)
+ *   java -jar law-api.jar --job=migrateStorage --law.storage.layout=sharded (voir StorageMigrationRunner)
  * 
  * Arguments supportés:
  *   --job=<jobName>          : Nom du job à exécuter
@@ -50,6 +51,7 @@ import java.util.Arrays;
  *   - fullJob               : --doc (OBLIGATOIRE), --force (optionnel) - Pipeline complet ✅
  *   - fixJob                : (tous documents) - Détection et correction automatique ✅
  *   - orchestrate           : Orchestration continue (arrêt: Ctrl+C) ✅
+ *   - migrateStorage        : Migration flat ↔ sharded des fichiers, --dry-run (optionnel)
  * 
  * Note: --force nécessite --doc pour pdfToJsonJob (force + document spécifique)
  */
@@ -0,0 +1,44 @@
+package bj.gouv.sgg.cli;
+
+import bj.gouv.sgg.service.StorageLayoutMigrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Runner CLI pour migrer les fichiers existants vers le layout {@code law.storage.layout}.
+ *
+ * Usage:
+ *   java -jar law-app.jar --spring.main.web-application-type=none --job=migrateStorage --law.storage.layout=sharded
+ *   java -jar law-app.jar --job=migrateStorage --law.storage.layout=sharded --dry-run
+ *
+ * La migration est relançable : les fichiers déjà déplacés sont ignorés.
+ */
+@Slf4j
+@Component
+@Order(1) // Avant JobCommandLineRunner
+@RequiredArgsConstructor
+public class StorageMigrationRunner implements CommandLineRunner {
+
+    private static final String MIGRATE_ARG = "--job=migrateStorage";
+    private static final String DRY_RUN_ARG = "--dry-run";
+
+    private final StorageLayoutMigrator migrator;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (Arrays.stream(args).noneMatch(MIGRATE_ARG::equals)) {
+            return;
+        }
+
+        boolean dryRun = Arrays.asList(args).contains(DRY_RUN_ARG);
+        StorageLayoutMigrator.Report report = migrator.migrate(dryRun);
+
+        // Pas de Job Spring Batch correspondant : sortie avant JobCommandLineRunner
+        System.exit(report.failed() > 0 ? 1 : 0);
+    }
+}
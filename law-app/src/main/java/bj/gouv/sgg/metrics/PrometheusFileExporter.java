@@ -0,0 +1,95 @@
+package bj.gouv.sgg.metrics;
+
+import bj.gouv.sgg.config.LawProperties;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export hors ligne des métriques au format texte Prometheus.
+ *
+ * <p>L'application tourne sans serveur web : le registre Prometheus est donc écrit
+ * périodiquement dans {@code law.metrics.export-file} (écriture temporaire puis renommage
+ * atomique), et une dernière fois à l'arrêt. Le fichier peut être lu par le collecteur
+ * textfile de node_exporter ou archivé pour analyse. Si le mode web est réactivé,
+ * le même contenu est servi par {@code /actuator/prometheus}.
+ *
+ * <p>Contient les métriques {@code law.*} ({@link LawMetrics}, {@link QueueDepthMetrics})
+ * ainsi que celles publiées par Spring Batch (jobs, steps, chunks).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrometheusFileExporter {
+
+    private final ObjectProvider<PrometheusMeterRegistry> registryProvider;
+    private final LawProperties properties;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        LawProperties.Metrics config = properties.getMetrics();
+        if (!config.isExportEnabled() || registryProvider.getIfAvailable() == null) {
+            log.info("📉 Export Prometheus désactivé");
+            return;
+        }
+
+        int interval = Math.max(1, config.getExportIntervalSeconds());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::export, interval, interval, TimeUnit.SECONDS);
+        log.info("📈 Export Prometheus toutes les {}s vers {}", interval, config.getExportFile());
+    }
+
+    /**
+     * Écrit l'état courant du registre dans le fichier d'export.
+     */
+    public void export() {
+        PrometheusMeterRegistry registry = registryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Path target = Paths.get(properties.getMetrics().getExportFile());
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, registry.scrape(), StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Export des métriques impossible ({}): {}", target, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            export(); // Dernier instantané à l'arrêt
+        }
+    }
+}
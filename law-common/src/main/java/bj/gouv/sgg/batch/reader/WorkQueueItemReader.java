@@ -0,0 +1,311 @@
+package bj.gouv.sgg.batch.reader;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.model.WorkItem;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.WorkQueueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reader d'étape alimenté par la file durable {@code work_queue} ({@link WorkQueueService}).
+ *
+ * <p>Les documents sont réservés par lots avec un bail, prolongé par un heartbeat tant que
+ * l'étape tourne. Une entrée passe DONE dans la transaction du chunk qui écrit le document
+ * (ou dès que le processor le filtre), et en échec (nouvelle tentative différée) si le
+ * document est skippé. Plusieurs threads d'une étape, et plusieurs processus exécutant
+ * la même étape, se partagent ainsi le travail sans double traitement.
+ *
+ * <p>Le reader historique ({@code delegate}) reste utilisé pour un document ciblé
+ * ({@code --doc}) et quand {@code law.queue.enabled=false}.
+ *
+ * <p>Implémente les interfaces listener : le StepBuilder l'enregistre automatiquement
+ * comme listener d'étape, de process, d'écriture et de skip.
+ */
+@Slf4j
+public class WorkQueueItemReader implements ItemReader<LawDocument>, StepExecutionListener,
+        ItemProcessListener<LawDocument, LawDocument>, ItemWriteListener<LawDocument>,
+        SkipListener<LawDocument, LawDocument> {
+
+    private final WorkStage stage;
+    private final ItemReader<LawDocument> delegate;
+    private final WorkQueueService workQueueService;
+    private final LawDocumentRepository lawDocumentRepository;
+    private final LawProperties.Queue config;
+
+    private final Queue<LawDocument> buffer = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Long> claimedItems = new ConcurrentHashMap<>(); // id document → id entrée work_queue
+    private final ReentrantLock claimLock = new ReentrantLock();            // Un seul claim à la fois par étape locale
+
+    private volatile boolean bypass = true;
+    private volatile boolean exhausted;
+    private volatile String owner;
+    private String typeFilter;
+    private Integer maxDocuments;
+    private int claimedCount;
+    private ScheduledExecutorService heartbeat;
+
+    public WorkQueueItemReader(WorkStage stage,
+                               ItemReader<LawDocument> delegate,
+                               WorkQueueService workQueueService,
+                               LawDocumentRepository lawDocumentRepository,
+                               LawProperties properties) {
+        this.stage = stage;
+        this.delegate = delegate;
+        this.workQueueService = workQueueService;
+        this.lawDocumentRepository = lawDocumentRepository;
+        this.config = properties.getQueue();
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        JobParameters parameters = stepExecution.getJobParameters();
+        String targetDocument = firstNonBlank(parameters.getString("doc"), parameters.getString("documentId"));
+        bypass = !config.isEnabled() || targetDocument != null;
+        if (bypass) {
+            return;
+        }
+
+        String type = firstNonBlank(parameters.getString("type"), null);
+        typeFilter = type != null ? type.toLowerCase() : null;
+        maxDocuments = parseMaxDocuments(parameters.getString("maxDocuments"));
+        owner = WorkQueueService.newWorkerId(stage);
+        buffer.clear();
+        claimedItems.clear();
+        claimedCount = 0;
+        exhausted = false;
+        refill();
+
+        int period = Math.max(1, config.getHeartbeatSeconds());
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "work-queue-heartbeat-" + stage.name().toLowerCase());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::renewLeases, period, period, TimeUnit.SECONDS);
+        log.info("🧾 [{}] Lecture par file durable (worker {}{})", stage, owner,
+                typeFilter != null ? ", type=" + typeFilter : "");
+    }
+
+    @Override
+    public LawDocument read() throws Exception {
+        if (bypass) {
+            return delegate.read();
+        }
+        LawDocument next = buffer.poll();
+        while (next == null && !exhausted) {
+            claimNextBatch();
+            next = buffer.poll();
+        }
+        return next;
+    }
+
+    @Override
+    public void afterProcess(LawDocument item, LawDocument result) {
+        if (!bypass && result == null) {
+            complete(List.of(item)); // Filtré par le processor : rien à faire pour cette étape
+        }
+    }
+
+    @Override
+    public void afterWrite(Chunk<? extends LawDocument> items) {
+        if (!bypass) {
+            complete(items.getItems());
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(LawDocument item, Throwable t) {
+        fail(item, t);
+    }
+
+    @Override
+    public void onSkipInWrite(LawDocument item, Throwable t) {
+        fail(item, t);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (bypass) {
+            return null;
+        }
+        heartbeat.shutdownNow();
+
+        // Réservés mais jamais lus : rendus sans compter de tentative
+        List<Long> unread = new ArrayList<>();
+        for (LawDocument document = buffer.poll(); document != null; document = buffer.poll()) {
+            Long itemId = claimedItems.remove(document.getId());
+            if (itemId != null) {
+                unread.add(itemId);
+            }
+        }
+        workQueueService.release(owner, unread);
+
+        // Lus mais sans issue connue (étape interrompue) : comptés comme échec
+        List<Long> unfinished = List.copyOf(claimedItems.values());
+        claimedItems.clear();
+        workQueueService.fail(owner, unfinished, "Étape terminée avant la fin du traitement");
+
+        log.info("🧾 [{}] File durable: {} réservé(s), {} rendu(s), {} interrompu(s)",
+                stage, claimedCount, unread.size(), unfinished.size());
+        return null;
+    }
+
+    private void claimNextBatch() {
+        claimLock.lock();
+        try {
+            if (!buffer.isEmpty() || exhausted) {
+                return;
+            }
+            int wanted = config.getClaimBatchSize();
+            if (maxDocuments != null) {
+                wanted = Math.min(wanted, maxDocuments - claimedCount);
+            }
+            if (wanted <= 0) {
+                exhausted = true;
+                return;
+            }
+
+            List<WorkItem> items = workQueueService.claim(stage, typeFilter, owner, wanted);
+            if (items.isEmpty() && refill() > 0) {
+                // Documents produits entre-temps par l'étape amont
+                items = workQueueService.claim(stage, typeFilter, owner, wanted);
+            }
+            if (items.isEmpty()) {
+                exhausted = true;
+                return;
+            }
+            claimedCount += items.size();
+            enqueueClaimed(items);
+        } finally {
+            claimLock.unlock();
+        }
+    }
+
+    /**
+     * Charge les documents réservés ; ceux qui ont déjà quitté le statut d'entrée
+     * (traités hors file) sont terminés sans traitement.
+     */
+    private void enqueueClaimed(List<WorkItem> items) {
+        Map<Long, LawDocument> documents = lawDocumentRepository.findAllById(
+                        items.stream().map(WorkItem::getLawDocumentId).toList()).stream()
+                .collect(Collectors.toMap(LawDocument::getId, Function.identity()));
+        List<Long> stale = new ArrayList<>();
+
+        for (WorkItem item : items) {
+            LawDocument document = documents.get(item.getLawDocumentId());
+            if (document == null || document.getStatus() != stage.getInputStatus()) {
+                stale.add(item.getId());
+                continue;
+            }
+            claimedItems.put(document.getId(), item.getId());
+            buffer.add(document);
+        }
+        if (!stale.isEmpty()) {
+            log.debug("⏭️ [{}] {} entrée(s) obsolète(s) terminée(s) sans traitement", stage, stale.size());
+            workQueueService.complete(owner, stale);
+        }
+    }
+
+    private int refill() {
+        try {
+            return workQueueService.refill(stage);
+        } catch (DataIntegrityViolationException e) {
+            // Alimentation concurrente par un autre processus : ses entrées suffisent
+            log.debug("[{}] Alimentation concurrente de la file: {}", stage, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void renewLeases() {
+        try {
+            workQueueService.heartbeat(owner, List.copyOf(claimedItems.values()));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ [{}] Heartbeat work_queue en échec: {}", stage, e.getMessage());
+        }
+    }
+
+    /**
+     * Passe les entrées DONE dans la transaction du chunk ; elles ne quittent les entrées
+     * suivies (heartbeat, échec en fin d'étape) qu'une fois ce chunk commité. Sur rollback,
+     * le bail reste renouvelé et l'entrée est reprise ou comptée en échec.
+     */
+    private void complete(Collection<? extends LawDocument> documents) {
+        Map<Long, Long> completed = new HashMap<>();
+        for (LawDocument document : documents) {
+            Long itemId = claimedItems.get(document.getId());
+            if (itemId != null) {
+                completed.put(document.getId(), itemId);
+            }
+        }
+        workQueueService.complete(owner, List.copyOf(completed.values()));
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            completed.forEach(claimedItems::remove);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                completed.forEach(claimedItems::remove);
+            }
+        });
+    }
+
+    private void fail(LawDocument document, Throwable t) {
+        if (bypass) {
+            return;
+        }
+        Long itemId = claimedItems.remove(document.getId());
+        if (itemId != null) {
+            workQueueService.fail(owner, List.of(itemId), t.getClass().getSimpleName() + ": " + t.getMessage());
+        }
+    }
+
+    private static Integer parseMaxDocuments(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ Invalid maxDocuments value: {}", value);
+            return null;
+        }
+    }
+
+    private static String firstNonBlank(String first, String second) {
+        if (first != null && !first.isBlank()) {
+            return first.trim();
+        }
+        return second != null && !second.isBlank() ? second.trim() : null;
+    }
+}
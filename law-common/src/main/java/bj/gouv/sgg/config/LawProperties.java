@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "law")
@@ -15,11 +18,20 @@ public class LawProperties {
     private int endYear;
     
     private Directories directories = new Directories();
+    private Storage storage = new Storage();
     private Http http = new Http();
     private Ocr ocr = new Ocr();
     private Batch batch = new Batch();
     private Capacity capacity = new Capacity();
     private Groq groq = new Groq();
+    private Fix fix = new Fix();
+    private RateLimit rateLimit = new RateLimit();
+    private Fetch fetch = new Fetch();
+    private Metrics metrics = new Metrics();
+    private Search search = new Search();
+    private QueryApi queryApi = new QueryApi();
+    private Queue queue = new Queue();
+    private Priority priority = new Priority();
 
 
     @Data
@@ -30,6 +42,14 @@ public class LawProperties {
         private String articles = "articles";    // Sous-répertoire pour les JSON
     }
     
+    @Data
+    public static class Storage {
+        private String compression = "none";  // Fichiers OCR / JSON : none (.txt, .json) ou gzip (.txt.gz, .json.gz)
+        private int compressionLevel = 6;      // Niveau gzip (1 = rapide … 9 = compact)
+        private String layout = "flat";        // flat ({type}/{id}) ou sharded ({type}/{année}/{tranche}/{id})
+        private int shardBucketSize = 100;     // Numéros par tranche en layout sharded (0000, 0100, …)
+    }
+    
     @Data
     public static class Http {
         private int timeout;
@@ -40,6 +60,10 @@ public class LawProperties {
         private String language;
         private int dpi;
         private double qualityThreshold;
+        private String tessdataCacheDir = "data/cache/tessdata"; // Cache persistant des .traineddata (réutilisé entre exécutions)
+        private int initialDpi = 200;            // Premier rendu OCR d'une page (résolution adaptative ; 0 ou ≥ dpi = toujours dpi)
+        private int minPageConfidence = 75;      // Confiance moyenne Tesseract (0-100) sous laquelle la page est re-rendue à dpi
+        private int binaryThreshold = 0;         // Rendu OCR : 0 = niveaux de gris 8 bits (binarisation Otsu par Tesseract), 1-255 = binarisé au rendu
     }
     
     @Data
@@ -77,4 +101,77 @@ public class LawProperties {
     public static class Groq {
         private String apiKey;           // API key Groq (optionnel)
     }
+    
+    @Data
+    public static class Fix {
+        private int sweepBatchSize = 500;        // Documents re-balayés par exécution (balayage complet lent)
+        private int changedPageSize = 1000;      // Documents modifiés chargés par requête (pagination par id)
+        private int fullSweepIntervalHours = 24; // Délai entre deux balayages complets du corpus
+        private int stuckPendingHours = 24;      // Âge au-delà duquel un document PENDING est bloqué
+        private int stuckFetchedHours = 24;      // Âge au-delà duquel un document FETCHED est bloqué
+        private int stuckDownloadedHours = 72;   // Âge au-delà duquel un document DOWNLOADED est bloqué (OCR lent)
+        private int stuckExtractedHours = 24;    // Âge au-delà duquel un document EXTRACTED est bloqué
+        private int stuckPageSize = 500;         // Documents bloqués chargés par requête (pagination par id)
+    }
+    
+    @Data
+    public static class RateLimit {
+        private double initialRate = 5.0;   // Débit initial par hôte et canal (requêtes/s)
+        private double minRate = 0.2;       // Débit plancher (requêtes/s)
+        private double maxRate = 50.0;      // Débit plafond (requêtes/s)
+        private double burst = 5.0;         // Jetons accumulables (rafale autorisée)
+    }
+    
+    @Data
+    public static class Fetch {
+        private boolean asyncProbing = true;  // Probes HEAD asynchrones (sinon 1 probe bloquante par thread)
+        private int maxInFlight = 200;        // Probes simultanément en vol
+        private int maxConnections = 20;      // Connexions HTTP persistantes vers le portail
+        private int ioThreads = 2;            // Threads I/O du client asynchrone
+        private int consecutiveNotFoundToStop = 100; // Série de NOT_FOUND au-delà du plus grand numéro trouvé qui termine une année (0 = désactivé)
+    }
+    
+    @Data
+    public static class Metrics {
+        private boolean exportEnabled = true;                 // Export périodique des métriques au format Prometheus
+        private String exportFile = "data/metrics/law.prom";  // Fichier lu par node_exporter (textfile) ou scrapé hors ligne
+        private int exportIntervalSeconds = 15;               // Intervalle d'écriture du fichier
+    }
+
+    @Data
+    public static class Search {
+        private boolean enabled = true;                       // Index plein texte Lucene des articles consolidés
+        private String indexDir = "data/index/articles";      // Répertoire de l'index (sur disque, hors base)
+        private int maxResults = 100;                         // Plafond de résultats par requête
+        private int commitEveryDocuments = 50;                // Reconstruction : commit Lucene tous les N articles indexés
+    }
+
+    @Data
+    public static class QueryApi {
+        private int cacheMaxDocuments = 1000;                 // Documents complets gardés en mémoire (LRU)
+        private int cacheTtlSeconds = 60;                     // Fraîcheur max d'un document en cache (et Cache-Control max-age)
+        private int defaultPageSize = 50;                     // Taille de page des listes (pagination par clé)
+        private int maxPageSize = 500;                        // Plafond de taille de page
+    }
+
+    @Data
+    public static class Queue {
+        private boolean enabled = false;                      // Étapes download / pdfToJson / consolidate alimentées par la file work_queue
+        private String claimStrategy = "auto";                // auto | skip-locked (MySQL 8, PostgreSQL) | conditional-update (H2, autres)
+        private int claimBatchSize = 20;                      // Documents réservés par requête de claim
+        private int leaseSeconds = 600;                       // Durée d'un bail ; un bail expiré est repris par un autre worker
+        private int heartbeatSeconds = 60;                    // Renouvellement des baux des documents en cours
+        private int maxAttempts = 3;                          // Échecs avant passage en FAILED
+        private int retryDelaySeconds = 300;                  // Délai avant nouvelle tentative après un échec
+    }
+
+    @Data
+    public static class Priority {
+        private boolean enabled = true;                       // Ordre par score (sinon année / numéro décroissants)
+        private int currentYearBonus = 1000;                  // Textes de l'année en cours traités avant tout le reste
+        private Map<String, Integer> typeWeights = new HashMap<>(Map.of("loi", 50, "decret", 0)); // Poids par type de document
+        private int agePenaltyPerYear = 5;                    // Pénalité par année d'ancienneté du texte
+        private int maxAgePenalty = 300;                      // Plafond de la pénalité (au-delà : ordre année / numéro)
+        private double backlogShare = 0.2;                    // Part de chaque lot réservée aux documents en attente depuis le plus longtemps (anti-famine, 0 = désactivé)
+    }
 }
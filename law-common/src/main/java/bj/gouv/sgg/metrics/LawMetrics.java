@@ -0,0 +1,160 @@
+package bj.gouv.sgg.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point d'entrée unique des métriques Micrometer du pipeline.
+ *
+ * <p>Noms et tags partagés par tous les modules :
+ * <ul>
+ *   <li>{@code law.stage.items} (counter, tags stage/outcome) : items traités par étape,
+ *       le débit items/s s'obtient par {@code rate()}</li>
+ *   <li>{@code law.http.requests} (timer, tags host/channel/status) : latence et codes HTTP
+ *       des probes HEAD et téléchargements GET</li>
+ *   <li>{@code law.http.rate} (gauge, tag key) : débit courant du limiteur adaptatif</li>
+ *   <li>{@code law.download.bytes} (counter) : octets PDF téléchargés</li>
+ *   <li>{@code law.ocr.page} (timer) : temps OCR par page</li>
+ *   <li>{@code law.ocr.page.escalated} (counter) : pages re-rendues à {@code law.ocr.dpi}
+ *       après un premier OCR de confiance insuffisante</li>
+ *   <li>{@code law.ai.call} (timer, tags provider/model/outcome) : latence des appels IA</li>
+ *   <li>{@code law.db.batch.size} (summary, tag operation) : taille des lots écrits en base</li>
+ * </ul>
+ *
+ * <p>Sans registre Spring (tests, modules hors application), les métriques vont au
+ * registre global Micrometer, sans effet si aucun registre n'y est attaché.
+ */
+@Component
+public class LawMetrics {
+
+    public static final String STAGE_FETCH = "fetch";
+    public static final String STAGE_DOWNLOAD = "download";
+    public static final String STAGE_EXTRACT = "extract";
+    public static final String STAGE_CONSOLIDATE = "consolidate";
+
+    private final MeterRegistry registry;
+
+    @Autowired
+    public LawMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this(registryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public LawMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Compte les items d'une étape par résultat (ex: FETCHED, NOT_FOUND, FAILED).
+     */
+    public void recordItems(String stage, String outcome, long count) {
+        if (count <= 0) {
+            return;
+        }
+        Counter.builder("law.stage.items")
+            .description("Items traités par étape du pipeline")
+            .tag("stage", stage)
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment(count);
+    }
+
+    /**
+     * Enregistre une réponse HTTP (500 pour une erreur réseau).
+     */
+    public void recordHttpResponse(String host, String channel, int statusCode, long latencyNanos) {
+        Timer.builder("law.http.requests")
+            .description("Latence des requêtes HTTP vers le portail")
+            .tag("host", host)
+            .tag("channel", channel)
+            .tag("status", String.valueOf(statusCode))
+            .register(registry)
+            .record(Math.max(0, latencyNanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Expose le débit courant d'un seau du limiteur (lu à chaque collecte).
+     */
+    public void registerHttpRate(String key, Supplier<Number> rate) {
+        Gauge.builder("law.http.rate", rate)
+            .description("Débit autorisé par le limiteur adaptatif (req/s)")
+            .tag("key", key)
+            .register(registry);
+    }
+
+    /**
+     * Compte les octets téléchargés.
+     */
+    public void recordDownloadBytes(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        Counter.builder("law.download.bytes")
+            .description("Octets PDF téléchargés")
+            .baseUnit("bytes")
+            .register(registry)
+            .increment(bytes);
+    }
+
+    /**
+     * Enregistre le temps OCR d'une page.
+     */
+    public void recordOcrPage(long nanos) {
+        Timer.builder("law.ocr.page")
+            .description("Temps OCR par page")
+            .register(registry)
+            .record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Compte une page OCR re-rendue à la résolution configurée (résolution adaptative).
+     */
+    public void recordOcrEscalation() {
+        Counter.builder("law.ocr.page.escalated")
+            .description("Pages OCR re-rendues à la résolution configurée")
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Enregistre la latence d'un appel IA.
+     *
+     * @param outcome "success" ou "error"
+     */
+    public void recordAiCall(String provider, String model, String outcome, long nanos) {
+        Timer.builder("law.ai.call")
+            .description("Latence des appels IA")
+            .tag("provider", provider)
+            .tag("model", model != null ? model : "unknown")
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enregistre la taille d'un lot écrit en base (insert, update, transition...).
+     */
+    public void recordDbBatch(String operation, int size) {
+        if (size <= 0) {
+            return;
+        }
+        DistributionSummary.builder("law.db.batch.size")
+            .description("Taille des lots écrits en base")
+            .tag("operation", operation)
+            .register(registry)
+            .record(size);
+    }
+}
@@ -0,0 +1,64 @@
+package bj.gouv.sgg.metrics;
+
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Profondeur de file par {@link LawDocument.ProcessingStatus} : gauge {@code law.documents.status}
+ * (tag status), lue à chaque collecte.
+ *
+ * <p>Les comptages sont mis en cache quelques secondes : une collecte déclenche au plus
+ * une série de {@code COUNT} par fenêtre, quel que soit le nombre de statuts.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueueDepthMetrics {
+
+    private static final long CACHE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final LawDocumentRepository lawDocumentRepository;
+    private final LawMetrics metrics;
+
+    private final Map<LawDocument.ProcessingStatus, Long> counts = new EnumMap<>(LawDocument.ProcessingStatus.class);
+    private long lastRefreshNanos;
+    private boolean loaded;
+
+    @PostConstruct
+    public void registerGauges() {
+        for (LawDocument.ProcessingStatus status : LawDocument.ProcessingStatus.values()) {
+            Gauge.builder("law.documents.status", () -> count(status))
+                .description("Documents par statut de traitement")
+                .tag("status", status.name())
+                .register(metrics.getRegistry());
+        }
+    }
+
+    /**
+     * Retourne le nombre de documents d'un statut (cache de 10 s).
+     */
+    synchronized long count(LawDocument.ProcessingStatus status) {
+        long now = System.nanoTime();
+        if (!loaded || now - lastRefreshNanos >= CACHE_NANOS) {
+            try {
+                for (LawDocument.ProcessingStatus s : LawDocument.ProcessingStatus.values()) {
+                    counts.put(s, lawDocumentRepository.countByStatus(s));
+                }
+                loaded = true;
+            } catch (RuntimeException e) {
+                log.debug("Comptage des statuts indisponible: {}", e.getMessage());
+            }
+            lastRefreshNanos = now;
+        }
+        return counts.getOrDefault(status, 0L);
+    }
+}
@@ -6,8 +6,15 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "law_documents")
+@Table(name = "law_documents",
+    indexes = {
+        @Index(name = "idx_law_documents_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_law_documents_status_changed_at", columnList = "status, status_changed_at")
+    }
+)
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,12 +49,37 @@ public class LawDocument {
     @Column(length = 20)
     private ProcessingStatus status;
     
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;  // Entrée dans le statut courant (détection des blocages)
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;  // Dernière modification (suivi incrémental du fixJob)
+    
     @Transient  // Ne pas persister en base (trop volumineux)
     private byte[] pdfContent;  // Contenu PDF téléchargé
     
     @Transient  // Ne pas persister en base (trop volumineux)
     private String ocrContent;  // Contenu OCR extrait
     
+    /**
+     * Change le statut et horodate l'entrée dans le nouveau statut (si différent).
+     */
+    public void setStatus(ProcessingStatus status) {
+        if (this.status != status) {
+            this.statusChangedAt = LocalDateTime.now();
+        }
+        this.status = status;
+    }
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+        if (this.statusChangedAt == null) {
+            this.statusChangedAt = this.updatedAt;
+        }
+    }
+    
     public String getDocumentId() {
         return String.format("%s-%d-%d", type, year, number);
     }
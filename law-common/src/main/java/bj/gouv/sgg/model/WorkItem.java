@@ -0,0 +1,83 @@
+package bj.gouv.sgg.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée de la file durable : un document à traiter par une étape.
+ *
+ * <p>Un worker réserve une entrée en posant un bail ({@code leaseOwner}, {@code leaseExpiresAt}) ;
+ * un bail expiré (worker arrêté ou bloqué) rend l'entrée à nouveau réservable.
+ * Les colonnes type / année / numéro sont copiées du document pour filtrer et trier
+ * la file sans jointure ; {@code priority} est le score de {@code DocumentPriorityPolicy},
+ * calculé à l'alimentation de la file.
+ */
+@Entity
+@Table(name = "work_queue",
+    uniqueConstraints = @UniqueConstraint(name = "uk_work_queue_stage_document", columnNames = {"stage", "law_document_id"}),
+    indexes = @Index(name = "idx_work_queue_claim", columnList = "stage, status, priority, document_year, document_number")
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WorkStage stage;
+
+    @Column(name = "law_document_id", nullable = false)
+    private Long lawDocumentId;
+
+    @Column(name = "document_type", length = 20)
+    private String documentType;
+
+    @Column(name = "document_year")
+    private int documentYear;
+
+    @Column(name = "document_number")
+    private int documentNumber;
+
+    private Integer priority;  // Score de priorité (null = pas encore calculé)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    private int attempts;  // Réservations ayant abouti à un traitement (succès ou échec)
+
+    @Column(name = "enqueued_at")
+    private LocalDateTime enqueuedAt;  // Entrée dans la file (ordre d'attente de l'arriéré, jamais décalée)
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;  // Pas de réservation avant cette date (délai de reprise après échec)
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;  // Dernière transition (fin de traitement pour DONE / FAILED)
+
+    public enum Status {
+        READY,
+        CLAIMED,
+        DONE,
+        FAILED
+    }
+}
@@ -0,0 +1,19 @@
+package bj.gouv.sgg.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Étapes du pipeline alimentées par la file durable {@code work_queue}.
+ * Chaque étape consomme les documents d'un statut d'entrée.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum WorkStage {
+
+    DOWNLOAD(LawDocument.ProcessingStatus.FETCHED),
+    EXTRACT(LawDocument.ProcessingStatus.DOWNLOADED),
+    CONSOLIDATE(LawDocument.ProcessingStatus.EXTRACTED);
+
+    private final LawDocument.ProcessingStatus inputStatus;
+}
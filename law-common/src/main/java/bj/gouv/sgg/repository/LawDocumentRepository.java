@@ -1,11 +1,17 @@
 package bj.gouv.sgg.repository;
 
 import bj.gouv.sgg.model.LawDocument;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +27,12 @@ public interface LawDocumentRepository extends JpaRepository<LawDocument, Long>
      */
     Optional<LawDocument> findByTypeAndYearAndNumber(String type, int year, int number);
     
+    /**
+     * Trouve les documents d'un type et d'une année parmi un ensemble de numéros.
+     * Utilisé pour résoudre un chunk en quelques requêtes au lieu d'une par document.
+     */
+    List<LawDocument> findByTypeAndYearAndNumberIn(String type, int year, Collection<Integer> numbers);
+    
     /**
      * Trouve tous les documents avec un statut donné.
      */
@@ -65,4 +77,71 @@ public interface LawDocumentRepository extends JpaRepository<LawDocument, Long>
     List<LawDocument> findByTypeYearAndStatus(@Param("type") String type, 
                                                 @Param("year") int year, 
                                                 @Param("status") LawDocument.ProcessingStatus status);
+    
+    /**
+     * Trouve la page suivante (par id croissant, après un id donné) des documents modifiés
+     * depuis une date donnée (hors statut exclu).
+     * Utilisé par le fixJob pour l'analyse incrémentale ; les documents sans date de modification
+     * (antérieurs au suivi) sont couverts par le balayage complet, qui la renseigne.
+     */
+    @Query("SELECT d FROM LawDocument d WHERE (d.status IS NULL OR d.status <> :excludedStatus) " +
+           "AND d.updatedAt >= :since AND d.id > :afterId ORDER BY d.id")
+    List<LawDocument> findChangedSince(@Param("since") LocalDateTime since,
+                                       @Param("excludedStatus") LawDocument.ProcessingStatus excludedStatus,
+                                       @Param("afterId") long afterId,
+                                       Pageable pageable);
+    
+    /**
+     * Renseigne la date de modification des documents antérieurs au suivi (une seule fois par document).
+     * L'UPDATE JPQL contourne @PreUpdate : la date fournie est conservée telle quelle.
+     * @return nombre de lignes renseignées
+     */
+    @Modifying
+    @Query("UPDATE LawDocument d SET d.updatedAt = :updatedAt WHERE d.id IN :ids AND d.updatedAt IS NULL")
+    int backfillUpdatedAt(@Param("ids") Collection<Long> ids,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Trouve la tranche suivante de documents (par id croissant) après un id donné.
+     * Utilisé par le balayage complet lent du fixJob.
+     */
+    @Query("SELECT d FROM LawDocument d WHERE d.id > :afterId AND (d.status IS NULL OR d.status <> :excludedStatus) ORDER BY d.id")
+    List<LawDocument> findSliceAfterId(@Param("afterId") long afterId,
+                                       @Param("excludedStatus") LawDocument.ProcessingStatus excludedStatus,
+                                       Pageable pageable);
+    
+    /**
+     * Trouve la page suivante (par id croissant, après un id donné) des documents entrés
+     * dans un statut avant une date donnée (documents bloqués).
+     * Sans horodatage de statut (lignes antérieures au suivi), la date de modification sert de référence.
+     */
+    @Query("SELECT d FROM LawDocument d WHERE d.status = :status AND d.id > :afterId " +
+           "AND COALESCE(d.statusChangedAt, d.updatedAt) < :before ORDER BY d.id")
+    List<LawDocument> findStuckInStatus(@Param("status") LawDocument.ProcessingStatus status,
+                                        @Param("before") LocalDateTime before,
+                                        @Param("afterId") long afterId,
+                                        Pageable pageable);
+    
+    /**
+     * Verrouille (SELECT ... FOR UPDATE) les documents encore dans un des statuts attendus et retourne leurs ids.
+     * Les lignes verrouillées sont exactement celles que {@link #transitionStatus} déplacera ensuite.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.id FROM LawDocument d WHERE d.id IN :ids AND d.status IN :expectedStatuses")
+    List<Long> lockIdsInStatus(@Param("ids") Collection<Long> ids,
+                               @Param("expectedStatuses") Collection<LawDocument.ProcessingStatus> expectedStatuses);
+    
+    /**
+     * Transition de statut ensembliste : déplace les documents encore dans un des statuts attendus.
+     * Les horodatages sont positionnés explicitement (un UPDATE JPQL contourne @PreUpdate) ;
+     * le contexte de persistance est vidé pour ne pas garder d'entités au statut périmé.
+     * @return nombre de lignes effectivement déplacées
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LawDocument d SET d.status = :newStatus, d.statusChangedAt = :changedAt, d.updatedAt = :changedAt " +
+           "WHERE d.id IN :ids AND d.status IN :expectedStatuses")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("expectedStatuses") Collection<LawDocument.ProcessingStatus> expectedStatuses,
+                         @Param("newStatus") LawDocument.ProcessingStatus newStatus,
+                         @Param("changedAt") LocalDateTime changedAt);
 }
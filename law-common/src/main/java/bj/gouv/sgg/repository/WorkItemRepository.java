@@ -0,0 +1,206 @@
+package bj.gouv.sgg.repository;
+
+import bj.gouv.sgg.model.WorkItem;
+import bj.gouv.sgg.model.WorkStage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository de la file durable {@code work_queue}.
+ *
+ * <p>Les requêtes de réservation sont natives : {@code FOR UPDATE SKIP LOCKED} n'a pas
+ * d'équivalent JPQL. Les statuts y sont écrits en clair (colonnes {@code EnumType.STRING}).
+ */
+@Repository
+public interface WorkItemRepository extends JpaRepository<WorkItem, Long> {
+
+    String CLAIMABLE = "stage = :stage AND (:type IS NULL OR document_type = :type) AND available_at <= :now "
+            + "AND (status = 'READY' OR (status = 'CLAIMED' AND lease_expires_at < :now)) ";
+    String BY_PRIORITY = "ORDER BY COALESCE(priority, 0) DESC, document_year DESC, document_number DESC, id ";
+    // Date d'entrée dans la file (available_at est décalée par fail() et rearmReturned) ;
+    // les entrées antérieures à la colonne retombent sur available_at
+    String LONGEST_WAITING = "ORDER BY COALESCE(enqueued_at, available_at), id ";
+
+    /**
+     * Ajoute à la file les documents du statut d'entrée de l'étape qui n'y sont pas encore.
+     * @return nombre d'entrées créées
+     */
+    @Modifying
+    @Query(value = "INSERT INTO work_queue (stage, law_document_id, document_type, document_year, document_number, "
+            + "status, attempts, enqueued_at, available_at, updated_at) "
+            + "SELECT :stage, d.id, d.type, d.document_year, d.number, 'READY', 0, :now, :now, :now FROM law_documents d "
+            + "WHERE d.status = :inputStatus "
+            + "AND NOT EXISTS (SELECT 1 FROM work_queue q WHERE q.stage = :stage AND q.law_document_id = d.id)",
+            nativeQuery = true)
+    int enqueueMissing(@Param("stage") String stage,
+                       @Param("inputStatus") String inputStatus,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Remet en file les entrées terminées dont le document est revenu dans le statut d'entrée
+     * après leur fin (ex : fixJob qui réinitialise un document pour re-extraction).
+     * @return nombre d'entrées réarmées
+     */
+    @Modifying
+    @Query(value = "UPDATE work_queue SET status = 'READY', attempts = 0, last_error = NULL, priority = NULL, "
+            + "available_at = :now, updated_at = :now "
+            + "WHERE stage = :stage AND status IN ('DONE', 'FAILED') AND EXISTS (SELECT 1 FROM law_documents d "
+            + "WHERE d.id = work_queue.law_document_id AND d.status = :inputStatus "
+            + "AND d.status_changed_at > work_queue.updated_at)",
+            nativeQuery = true)
+    int rearmReturned(@Param("stage") String stage,
+                      @Param("inputStatus") String inputStatus,
+                      @Param("now") LocalDateTime now);
+
+    /**
+     * Groupes (type, année) d'entrées dont la priorité n'est pas encore calculée.
+     */
+    @Query("SELECT DISTINCT w.documentType, w.documentYear FROM WorkItem w WHERE w.stage = :stage AND w.priority IS NULL")
+    List<Object[]> findUnscoredGroups(@Param("stage") WorkStage stage);
+
+    /**
+     * Affecte le score de priorité d'un groupe (type, année) aux entrées qui n'en ont pas.
+     */
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.priority = :priority WHERE w.stage = :stage AND w.documentType = :type "
+            + "AND w.documentYear = :year AND w.priority IS NULL")
+    int assignPriority(@Param("stage") WorkStage stage,
+                       @Param("type") String type,
+                       @Param("year") int year,
+                       @Param("priority") int priority);
+
+    /**
+     * Efface les scores des entrées en attente pour les recalculer
+     * (changement d'année ou de configuration {@code law.priority}).
+     */
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.priority = NULL WHERE w.stage = :stage AND w.status = :ready")
+    int clearPriorities(@Param("stage") WorkStage stage, @Param("ready") WorkItem.Status ready);
+
+    /**
+     * Verrouille les prochaines entrées réservables par priorité décroissante, en sautant
+     * celles déjà verrouillées par un autre worker (MySQL 8+, PostgreSQL).
+     */
+    @Query(value = "SELECT id FROM work_queue WHERE " + CLAIMABLE + BY_PRIORITY + "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockClaimable(@Param("stage") String stage,
+                             @Param("type") String type,
+                             @Param("now") LocalDateTime now,
+                             @Param("limit") int limit);
+
+    /**
+     * Candidats à la réservation par priorité, sans verrou : chaque candidat est ensuite pris
+     * par {@link #claimIfAvailable} (bases sans SKIP LOCKED, ex : H2).
+     */
+    @Query(value = "SELECT id FROM work_queue WHERE " + CLAIMABLE + BY_PRIORITY + "LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findClaimable(@Param("stage") String stage,
+                             @Param("type") String type,
+                             @Param("now") LocalDateTime now,
+                             @Param("limit") int limit);
+
+    /**
+     * Comme {@link #lockClaimable}, mais les entrées en attente depuis le plus longtemps d'abord
+     * (part du lot réservée à l'arriéré).
+     */
+    @Query(value = "SELECT id FROM work_queue WHERE " + CLAIMABLE + LONGEST_WAITING + "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> lockLongestWaiting(@Param("stage") String stage,
+                                  @Param("type") String type,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("limit") int limit);
+
+    /**
+     * Comme {@link #findClaimable}, mais les entrées en attente depuis le plus longtemps d'abord.
+     */
+    @Query(value = "SELECT id FROM work_queue WHERE " + CLAIMABLE + LONGEST_WAITING + "LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findLongestWaiting(@Param("stage") String stage,
+                                  @Param("type") String type,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("limit") int limit);
+
+    /**
+     * Pose le bail sur des entrées déjà verrouillées par {@link #lockClaimable}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE WorkItem w SET w.status = :claimed, w.leaseOwner = :owner, w.leaseExpiresAt = :leaseUntil, "
+            + "w.attempts = w.attempts + 1, w.updatedAt = :now WHERE w.id IN :ids")
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("owner") String owner,
+                    @Param("leaseUntil") LocalDateTime leaseUntil,
+                    @Param("now") LocalDateTime now,
+                    @Param("claimed") WorkItem.Status claimed);
+
+    /**
+     * Réservation conditionnelle d'une entrée : l'UPDATE ne réussit que si l'entrée est
+     * toujours libre (ou son bail expiré). Deux workers concurrents ne peuvent pas l'obtenir tous deux.
+     * @return 1 si l'entrée est réservée, 0 si un autre worker l'a prise
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE work_queue SET status = 'CLAIMED', lease_owner = :owner, lease_expires_at = :leaseUntil, "
+            + "attempts = attempts + 1, updated_at = :now WHERE id = :id AND available_at <= :now "
+            + "AND (status = 'READY' OR (status = 'CLAIMED' AND lease_expires_at < :now))",
+            nativeQuery = true)
+    int claimIfAvailable(@Param("id") Long id,
+                         @Param("owner") String owner,
+                         @Param("leaseUntil") LocalDateTime leaseUntil,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Prolonge les baux encore détenus par un worker (heartbeat).
+     * @return nombre de baux prolongés (moins que demandé : baux perdus)
+     */
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.leaseExpiresAt = :leaseUntil "
+            + "WHERE w.id IN :ids AND w.leaseOwner = :owner AND w.status = :claimed")
+    int extendLeases(@Param("ids") Collection<Long> ids,
+                     @Param("owner") String owner,
+                     @Param("leaseUntil") LocalDateTime leaseUntil,
+                     @Param("claimed") WorkItem.Status claimed);
+
+    /**
+     * Termine des entrées réservées par un worker (DONE), ou les rend à la file (READY)
+     * avec {@code attemptsDelta = -1} pour une réservation restée sans traitement.
+     */
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.status = :newStatus, w.leaseOwner = NULL, w.leaseExpiresAt = NULL, "
+            + "w.attempts = w.attempts + :attemptsDelta, w.updatedAt = :now "
+            + "WHERE w.id IN :ids AND w.leaseOwner = :owner AND w.status = :claimed")
+    int finish(@Param("ids") Collection<Long> ids,
+               @Param("owner") String owner,
+               @Param("newStatus") WorkItem.Status newStatus,
+               @Param("attemptsDelta") int attemptsDelta,
+               @Param("now") LocalDateTime now,
+               @Param("claimed") WorkItem.Status claimed);
+
+    /**
+     * Enregistre l'échec d'entrées réservées par un worker : elles repassent dans {@code newStatus}
+     * (FAILED si {@code minAttempts} est atteint, sinon READY à partir de {@code retryAt}).
+     * Appelée d'abord pour FAILED avec le nombre max de tentatives, puis pour READY avec 0.
+     */
+    @Modifying
+    @Query("UPDATE WorkItem w SET w.status = :newStatus, w.leaseOwner = NULL, w.leaseExpiresAt = NULL, "
+            + "w.availableAt = :retryAt, w.lastError = :error, w.updatedAt = :now "
+            + "WHERE w.id IN :ids AND w.leaseOwner = :owner AND w.status = :claimed AND w.attempts >= :minAttempts")
+    int fail(@Param("ids") Collection<Long> ids,
+             @Param("owner") String owner,
+             @Param("minAttempts") int minAttempts,
+             @Param("newStatus") WorkItem.Status newStatus,
+             @Param("retryAt") LocalDateTime retryAt,
+             @Param("error") String error,
+             @Param("now") LocalDateTime now,
+             @Param("claimed") WorkItem.Status claimed);
+
+    /**
+     * Compte les entrées d'une étape dans un statut (profondeur de file).
+     */
+    long countByStageAndStatus(WorkStage stage, WorkItem.Status status);
+}
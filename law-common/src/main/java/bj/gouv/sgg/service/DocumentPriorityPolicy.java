@@ -0,0 +1,141 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.LawDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ordre de traitement des documents en attente d'une étape (download, pdfToJson, consolidate).
+ *
+ * <p><b>Score</b> = poids du type + bonus année en cours − pénalité d'ancienneté (plafonnée).
+ * À score égal : année puis numéro décroissants (ordre historique des readers).
+ *
+ * <p><b>Anti-famine</b> : une part de chaque lot ({@code law.priority.backlog-share}) est
+ * réservée aux documents qui attendent depuis le plus longtemps, quel que soit leur score.
+ * L'arriéré avance donc à chaque exécution même quand les nouveaux textes affluent.
+ *
+ * <p>Avec {@code law.priority.enabled=false}, l'ordre historique (année / numéro décroissants)
+ * est conservé.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentPriorityPolicy {
+
+    private static final Comparator<LawDocument> RECENT_FIRST = Comparator.comparingInt(LawDocument::getYear)
+            .thenComparingInt(LawDocument::getNumber)
+            .reversed();
+
+    private static final Comparator<LawDocument> LONGEST_WAITING = Comparator.comparing(
+            LawDocument::getStatusChangedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(RECENT_FIRST);
+
+    private final LawProperties properties;
+
+    /**
+     * Score de priorité d'un document (plus élevé = traité plus tôt).
+     */
+    public int score(String type, int year) {
+        LawProperties.Priority config = config();
+        int currentYear = Year.now().getValue();
+        int score = type != null ? config.getTypeWeights().getOrDefault(type.toLowerCase(), 0) : 0;
+        if (year >= currentYear) {
+            score += config.getCurrentYearBonus();
+        }
+        int age = Math.max(0, currentYear - year);
+        score -= Math.min(config.getMaxAgePenalty(), age * config.getAgePenaltyPerYear());
+        return score;
+    }
+
+    /**
+     * Ordre décroissant de priorité, sans part réservée à l'arriéré.
+     */
+    public Comparator<LawDocument> comparator() {
+        if (!config().isEnabled()) {
+            return RECENT_FIRST;
+        }
+        return Comparator.comparingInt((LawDocument document) -> score(document.getType(), document.getYear()))
+                .reversed()
+                .thenComparing(RECENT_FIRST);
+    }
+
+    /**
+     * Ordonne les documents d'une étape et applique la limite éventuelle.
+     *
+     * <p>Une position sur {@code 1 / backlog-share} est prise par le document qui attend
+     * depuis le plus longtemps (entrée dans le statut courant), les autres suivent le score.
+     *
+     * @param documents Documents en attente
+     * @param limit Nombre maximum de documents retournés (null = tous)
+     * @return Documents dans l'ordre de traitement
+     */
+    public List<LawDocument> order(List<LawDocument> documents, Integer limit) {
+        int size = limit != null ? Math.max(0, Math.min(limit, documents.size())) : documents.size();
+        List<LawDocument> byPriority = documents.stream().sorted(comparator()).toList();
+        int period = backlogPeriod();
+        if (period == 0) {
+            return byPriority.subList(0, size);
+        }
+
+        List<LawDocument> byWaiting = documents.stream().sorted(LONGEST_WAITING).toList();
+        Iterator<LawDocument> priorityIterator = byPriority.iterator();
+        Iterator<LawDocument> waitingIterator = byWaiting.iterator();
+        Set<LawDocument> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<LawDocument> ordered = new ArrayList<>(size);
+
+        while (ordered.size() < size) {
+            boolean backlogTurn = (ordered.size() + 1) % period == 0;
+            LawDocument next = nextNotTaken(backlogTurn ? waitingIterator : priorityIterator, taken);
+            if (next == null) {
+                next = nextNotTaken(backlogTurn ? priorityIterator : waitingIterator, taken);
+            }
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    /**
+     * Nombre de places d'un lot de réservation réservées à l'arriéré (file durable).
+     * Au moins une dès que la part est positive, comme {@link #order} : un petit lot
+     * ne prive pas l'arriéré de sa place.
+     */
+    public int backlogSlots(int batchSize) {
+        double share = Math.max(0.0, Math.min(1.0, config().getBacklogShare()));
+        if (!config().isEnabled() || batchSize <= 1 || share <= 0.0) {
+            return 0;
+        }
+        return Math.max(1, (int) Math.floor(batchSize * share));
+    }
+
+    private int backlogPeriod() {
+        double share = config().getBacklogShare();
+        if (!config().isEnabled() || share <= 0.0) {
+            return 0;
+        }
+        return Math.max(1, (int) Math.round(1.0 / Math.min(1.0, share)));
+    }
+
+    private static LawDocument nextNotTaken(Iterator<LawDocument> iterator, Set<LawDocument> taken) {
+        while (iterator.hasNext()) {
+            LawDocument candidate = iterator.next();
+            if (taken.add(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private LawProperties.Priority config() {
+        return properties.getPriority();
+    }
+}
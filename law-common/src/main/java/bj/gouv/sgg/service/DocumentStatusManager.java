@@ -1,5 +1,6 @@
 package bj.gouv.sgg.service;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.LawDocumentRepository;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +8,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Service de gestion des statuts de traitement des documents.
  * Met à jour le statut dans l'entité LawDocument.
@@ -17,8 +29,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class DocumentStatusManager {
     
     private static final String INVALID_DOCUMENT_ID_MSG = "❌ Invalid documentId format: {}";
+    private static final int TRANSITION_BATCH_SIZE = 500; // Taille max de la liste IN par UPDATE
     
     private final LawDocumentRepository lawDocumentRepository;
+    private final LawMetrics metrics;
     
     /**
      * Met à jour le statut d'un document.
@@ -87,6 +101,101 @@ public class DocumentStatusManager {
         log.info("📊 Bulk status update: {} documents {} -> {}", documents.size(), fromStatus, toStatus);
     }
     
+    /**
+     * Transition de statut ensembliste avec protection optimiste.
+     * Déplace vers {@code newStatus} les documents encore dans {@code expectedStatus} :
+     * par lot, un {@code SELECT ... FOR UPDATE} des lignes déplaçables puis un {@code UPDATE ... WHERE id IN (...)}.
+     *
+     * @param documents Documents à déplacer (clé : id, ou type/année/numéro si absent)
+     * @param expectedStatus Statut attendu en base
+     * @param newStatus Nouveau statut
+     * @return documentIds effectivement déplacés
+     */
+    @Transactional
+    public Set<String> transitionStatus(Collection<? extends LawDocument> documents,
+                                        LawDocument.ProcessingStatus expectedStatus,
+                                        LawDocument.ProcessingStatus newStatus) {
+        return transitionStatus(documents, EnumSet.of(expectedStatus), newStatus);
+    }
+    
+    /**
+     * Transition de statut ensembliste depuis un des statuts attendus.
+     * Les documents dont le statut a été modifié entre-temps par une autre étape ne bougent pas.
+     *
+     * @param documents Documents à déplacer (clé : id, ou type/année/numéro si absent)
+     * @param expectedStatuses Statuts attendus en base
+     * @param newStatus Nouveau statut
+     * @return documentIds effectivement déplacés
+     */
+    @Transactional
+    public Set<String> transitionStatus(Collection<? extends LawDocument> documents,
+                                        Collection<LawDocument.ProcessingStatus> expectedStatuses,
+                                        LawDocument.ProcessingStatus newStatus) {
+        Set<String> moved = new LinkedHashSet<>();
+        if (documents.isEmpty()) {
+            return moved;
+        }
+        
+        Map<Long, String> documentIdsById = resolveIds(documents);
+        List<Long> ids = new ArrayList<>(documentIdsById.keySet());
+        LocalDateTime changedAt = LocalDateTime.now();
+        
+        for (int from = 0; from < ids.size(); from += TRANSITION_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + TRANSITION_BATCH_SIZE, ids.size()));
+            // Lignes verrouillées jusqu'au commit : l'UPDATE déplace exactement celles-ci
+            List<Long> movableIds = lawDocumentRepository.lockIdsInStatus(batch, expectedStatuses);
+            if (!movableIds.isEmpty()) {
+                lawDocumentRepository.transitionStatus(movableIds, expectedStatuses, newStatus, changedAt);
+            }
+            metrics.recordDbBatch("status-transition", movableIds.size());
+            movableIds.forEach(id -> moved.add(documentIdsById.get(id)));
+        }
+        
+        int notMoved = documents.size() - moved.size();
+        if (notMoved > 0) {
+            log.warn("⚠️ Bulk transition {} -> {}: {} document(s) not in expected status, left unchanged",
+                     expectedStatuses, newStatus, notMoved);
+        }
+        log.info("📊 Bulk transition {} -> {}: {}/{} documents moved",
+                 expectedStatuses, newStatus, moved.size(), documents.size());
+        return moved;
+    }
+    
+    /**
+     * Résout les ids des documents : id connu, sinon une requête par (type, année).
+     */
+    private Map<Long, String> resolveIds(Collection<? extends LawDocument> documents) {
+        Map<Long, String> documentIdsById = new LinkedHashMap<>();
+        Map<String, List<LawDocument>> withoutId = new LinkedHashMap<>();
+        
+        for (LawDocument document : documents) {
+            if (document.getId() != null) {
+                documentIdsById.put(document.getId(), document.getDocumentId());
+            } else {
+                withoutId.computeIfAbsent(document.getType() + "|" + document.getYear(), k -> new ArrayList<>())
+                    .add(document);
+            }
+        }
+        
+        for (List<LawDocument> group : withoutId.values()) {
+            LawDocument first = group.get(0);
+            List<Integer> numbers = group.stream().map(LawDocument::getNumber).toList();
+            Map<Integer, Long> idsByNumber = new HashMap<>();
+            lawDocumentRepository.findByTypeAndYearAndNumberIn(first.getType(), first.getYear(), numbers)
+                .forEach(found -> idsByNumber.put(found.getNumber(), found.getId()));
+            
+            for (LawDocument document : group) {
+                Long id = idsByNumber.get(document.getNumber());
+                if (id != null) {
+                    documentIdsById.put(id, document.getDocumentId());
+                } else {
+                    log.error("❌ Document not found for status transition: {}", document.getDocumentId());
+                }
+            }
+        }
+        return documentIdsById;
+    }
+    
     /**
      * Enregistre une erreur pour un document.
      */
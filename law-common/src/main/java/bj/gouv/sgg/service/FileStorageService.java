@@ -5,20 +5,51 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service de gestion du stockage des fichiers (PDF, OCR, JSON).
  * Fournit les chemins normalisés et les opérations de lecture/écriture.
+ * 
+ * <p><b>Compression</b> : avec {@code law.storage.compression=gzip}, les fichiers OCR et JSON
+ * sont écrits compressés à côté du chemin logique ({@code loi-2024-15.json.gz}). La lecture est
+ * transparente et accepte les deux formes : les fichiers existants non compressés restent
+ * lisibles pendant la migration et sont remplacés à leur prochaine réécriture.
+ * Passer par {@link #readOcr}, {@link #readJson}, {@link #ocrExists} et {@link #jsonExists}
+ * plutôt que par les chemins bruts.
+ * 
+ * <p><b>Layout</b> : avec {@code law.storage.layout=sharded}, chaque type est découpé par année
+ * puis par tranche de numéros ({@code pdfs/loi/2024/0000/loi-2024-15.pdf}) pour garder des
+ * répertoires de quelques centaines d'entrées au plus. Les écritures suivent le layout configuré ;
+ * les lectures et tests d'existence cherchent d'abord dans ce layout puis dans l'autre, le temps
+ * que {@link StorageLayoutMigrator} déplace les fichiers existants.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
     
+    private static final String GZIP = "gzip";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String SHARDED = "sharded";
+    private static final Pattern SHARDABLE_ID = Pattern.compile("^[a-z]+-(\\d{4})-(\\d+)$");
+    
     private final LawProperties lawProperties;
     
     /**
@@ -26,67 +57,111 @@ public class FileStorageService {
      * 
      * @param type Le type du document ("loi" ou "decret")
      * @param documentId L'identifiant unique du document (ex: "loi-2024-15")
-     * @return Le chemin complet vers le fichier PDF
+     * @return Le chemin complet vers le fichier PDF (layout configuré)
      */
     public Path pdfPath(String type, String documentId) {
-        validateType(type);
-        validateDocumentId(documentId);
-        
-        return Paths.get(lawProperties.getDirectories().getData())
-                .resolve(lawProperties.getDirectories().getPdfs())
-                .resolve(type)
-                .resolve(documentId + ".pdf");
+        return documentPath(lawProperties.getDirectories().getPdfs(), type, documentId, ".pdf", isShardedLayout());
     }
     
     /**
      * Obtient le chemin vers le fichier OCR d'un document.
      */
     public Path ocrPath(String type, String documentId) {
-        validateType(type);
-        validateDocumentId(documentId);
-        
-        return Paths.get(lawProperties.getDirectories().getData())
-                .resolve(lawProperties.getDirectories().getOcr())
-                .resolve(type)
-                .resolve(documentId + ".txt");
+        return documentPath(lawProperties.getDirectories().getOcr(), type, documentId, ".txt", isShardedLayout());
     }
     
     /**
      * Obtient le chemin vers le fichier JSON d'un document.
      */
     public Path jsonPath(String type, String documentId) {
-        validateType(type);
-        validateDocumentId(documentId);
-        
-        return Paths.get(lawProperties.getDirectories().getData())
-                .resolve(lawProperties.getDirectories().getArticles())
-                .resolve(type)
-                .resolve(documentId + ".json");
+        return documentPath(lawProperties.getDirectories().getArticles(), type, documentId, ".json", isShardedLayout());
+    }
+    
+    /**
+     * Chemin du PDF existant, quel que soit son layout (configuré d'abord, puis l'autre).
+     * Si le PDF n'existe dans aucun layout, retourne {@link #pdfPath}.
+     */
+    public Path resolvePdfPath(String type, String documentId) {
+        String pdfs = lawProperties.getDirectories().getPdfs();
+        Path preferred = documentPath(pdfs, type, documentId, ".pdf", isShardedLayout());
+        if (Files.exists(preferred)) {
+            return preferred;
+        }
+        Path other = documentPath(pdfs, type, documentId, ".pdf", !isShardedLayout());
+        return Files.exists(other) ? other : preferred;
     }
     
     /**
      * Vérifie si le PDF d'un document existe.
      */
     public boolean pdfExists(String type, String documentId) {
-        return Files.exists(pdfPath(type, documentId));
+        return Files.exists(resolvePdfPath(type, documentId));
     }
     
     /**
      * Vérifie si le fichier OCR d'un document existe.
      */
     public boolean ocrExists(String type, String documentId) {
-        return Files.exists(ocrPath(type, documentId));
+        return artifactExists(resolveArtifact(lawProperties.getDirectories().getOcr(), type, documentId, ".txt"));
     }
     
     /**
      * Vérifie si le fichier JSON d'un document existe.
      */
     public boolean jsonExists(String type, String documentId) {
-        return Files.exists(jsonPath(type, documentId));
+        return artifactExists(resolveArtifact(lawProperties.getDirectories().getArticles(), type, documentId, ".json"));
     }
     
     /**
-     * Sauvegarde un PDF sur disque.
+     * Répertoire de tranche d'un document relatif au répertoire de son type
+     * ({@code loi-2024-15} → {@code 2024/0000}), ou {@code null} si l'ID ne suit pas
+     * le format {type}-{année}-{numéro} (le fichier reste alors à plat).
+     */
+    public Path shardDirectory(String documentId) {
+        Matcher matcher = SHARDABLE_ID.matcher(documentId);
+        if (!matcher.matches()) {
+            return null;
+        }
+        int bucketSize = Math.max(1, lawProperties.getStorage().getShardBucketSize());
+        long number = Long.parseLong(matcher.group(2));
+        return Paths.get(matcher.group(1), String.format("%04d", (number / bucketSize) * bucketSize));
+    }
+    
+    /**
+     * Indique si le layout configuré est {@code sharded}.
+     */
+    public boolean isShardedLayout() {
+        return SHARDED.equalsIgnoreCase(lawProperties.getStorage().getLayout());
+    }
+    
+    private Path documentPath(String directory, String type, String documentId, String extension, boolean sharded) {
+        validateType(type);
+        validateDocumentId(documentId);
+        
+        Path typeDirectory = Paths.get(lawProperties.getDirectories().getData())
+                .resolve(directory)
+                .resolve(type);
+        Path shard = sharded ? shardDirectory(documentId) : null;
+        return (shard != null ? typeDirectory.resolve(shard) : typeDirectory).resolve(documentId + extension);
+    }
+    
+    /**
+     * Chemin logique (sans .gz) d'un fichier OCR/JSON existant dans l'un des deux layouts,
+     * à défaut celui du layout configuré.
+     */
+    private Path resolveArtifact(String directory, String type, String documentId, String extension) {
+        Path preferred = documentPath(directory, type, documentId, extension, isShardedLayout());
+        if (artifactExists(preferred)) {
+            return preferred;
+        }
+        Path other = documentPath(directory, type, documentId, extension, !isShardedLayout());
+        return artifactExists(other) ? other : preferred;
+    }
+    
+    /**
+     * Sauvegarde un PDF sur disque de manière durable : fichier temporaire synchronisé (fsync)
+     * puis renommage atomique. Au retour, le PDF est complet sur disque, ce qui permet de
+     * persister ensuite les résultats en base sans risque de référencer un fichier tronqué.
      * 
      * @param type Le type du document
      * @param documentId L'identifiant du document
@@ -96,17 +171,38 @@ public class FileStorageService {
     public void savePdf(String type, String documentId, byte[] pdfContent) throws IOException {
         Path path = pdfPath(type, documentId);
         Files.createDirectories(path.getParent());
-        Files.write(path, pdfContent);
+        writeDurably(path, pdfContent);
+        Files.deleteIfExists(documentPath(lawProperties.getDirectories().getPdfs(), type, documentId, ".pdf",
+                !isShardedLayout()));
         log.debug("✅ PDF saved: {}", path);
     }
     
+    /**
+     * Écrit un fichier via un fichier temporaire synchronisé puis renommé atomiquement.
+     */
+    private void writeDurably(Path path, byte[] content) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
     /**
      * Sauvegarde un fichier OCR sur disque.
      */
     public void saveOcr(String type, String documentId, String ocrContent) throws IOException {
-        Path path = ocrPath(type, documentId);
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, ocrContent);
+        Path path = writeArtifact(ocrPath(type, documentId), ocrContent);
+        deleteArtifact(documentPath(lawProperties.getDirectories().getOcr(), type, documentId, ".txt", !isShardedLayout()));
         log.debug("✅ OCR saved: {}", path);
     }
     
@@ -114,9 +210,8 @@ public class FileStorageService {
      * Sauvegarde un fichier JSON sur disque.
      */
     public void saveJson(String type, String documentId, String jsonContent) throws IOException {
-        Path path = jsonPath(type, documentId);
-        Files.createDirectories(path.getParent());
-        Files.writeString(path, jsonContent);
+        Path path = writeArtifact(jsonPath(type, documentId), jsonContent);
+        deleteArtifact(documentPath(lawProperties.getDirectories().getArticles(), type, documentId, ".json", !isShardedLayout()));
         log.debug("✅ JSON saved: {}", path);
     }
     
@@ -124,21 +219,87 @@ public class FileStorageService {
      * Lit le contenu d'un PDF.
      */
     public byte[] readPdf(String type, String documentId) throws IOException {
-        return Files.readAllBytes(pdfPath(type, documentId));
+        return Files.readAllBytes(resolvePdfPath(type, documentId));
     }
     
     /**
      * Lit le contenu d'un fichier OCR.
      */
     public String readOcr(String type, String documentId) throws IOException {
-        return Files.readString(ocrPath(type, documentId));
+        return readArtifact(resolveArtifact(lawProperties.getDirectories().getOcr(), type, documentId, ".txt"));
     }
     
     /**
      * Lit le contenu d'un fichier JSON.
      */
     public String readJson(String type, String documentId) throws IOException {
-        return Files.readString(jsonPath(type, documentId));
+        return readArtifact(resolveArtifact(lawProperties.getDirectories().getArticles(), type, documentId, ".json"));
+    }
+    
+    /**
+     * Écrit durablement un fichier texte (OCR/JSON) au format configuré, puis supprime l'autre
+     * forme éventuelle pour qu'une seule version du document subsiste.
+     * 
+     * @return Le chemin réellement écrit
+     */
+    private Path writeArtifact(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Path gzipPath = gzipSibling(path);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        
+        if (isCompressionEnabled()) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 3 + 64);
+            int level = lawProperties.getStorage().getCompressionLevel();
+            try (GZIPOutputStream gzip = new LeveledGzipOutputStream(buffer, level)) {
+                gzip.write(bytes);
+            }
+            writeDurably(gzipPath, buffer.toByteArray());
+            Files.deleteIfExists(path);
+            return gzipPath;
+        }
+        
+        writeDurably(path, bytes);
+        Files.deleteIfExists(gzipPath);
+        return path;
+    }
+    
+    /**
+     * Lit un fichier texte (OCR/JSON) quelle que soit sa forme, en privilégiant la forme
+     * configurée (une écriture interrompue entre écriture et suppression laisse les deux).
+     */
+    private String readArtifact(Path path) throws IOException {
+        Path gzipPath = gzipSibling(path);
+        boolean preferGzip = isCompressionEnabled();
+        Path first = preferGzip ? gzipPath : path;
+        Path second = preferGzip ? path : gzipPath;
+        Path source = Files.exists(first) ? first : second;
+        
+        if (source == gzipPath && Files.exists(gzipPath)) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipPath), 64 * 1024)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return Files.readString(path); // NoSuchFileException si aucune forme n'existe
+    }
+    
+    private boolean artifactExists(Path path) {
+        return Files.exists(path) || Files.exists(gzipSibling(path));
+    }
+    
+    /**
+     * Supprime les deux formes d'un fichier OCR/JSON (copie laissée dans l'autre layout).
+     */
+    private void deleteArtifact(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(gzipSibling(path));
+    }
+    
+    private boolean isCompressionEnabled() {
+        return GZIP.equalsIgnoreCase(lawProperties.getStorage().getCompression());
+    }
+    
+    private static Path gzipSibling(Path path) {
+        return path.resolveSibling(path.getFileName() + GZIP_SUFFIX);
     }
     
     /**
@@ -171,4 +332,15 @@ public class FileStorageService {
             throw new SecurityException("Invalid document ID: " + documentId);
         }
     }
+    
+    /**
+     * GZIPOutputStream avec niveau de compression configurable.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(level);
+        }
+    }
 }
@@ -0,0 +1,201 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Migration des fichiers existants (PDF, OCR, JSON) vers le layout configuré
+ * ({@code law.storage.layout}).
+ *
+ * <p>Vers {@code sharded}, chaque fichier à plat {@code pdfs/loi/loi-2024-15.pdf} est déplacé dans
+ * {@code pdfs/loi/2024/0000/}. Vers {@code flat}, l'opération inverse est appliquée puis les
+ * répertoires de tranche vides sont supprimés. Les déplacements sont des renommages atomiques
+ * sur le même système de fichiers : un fichier est toujours lisible dans l'un des deux layouts,
+ * la migration peut donc tourner pendant le pipeline et être relancée après interruption.
+ *
+ * <p>Si la destination existe déjà, elle a été écrite par le pipeline dans le layout configuré
+ * (donc plus récente) : la copie de l'ancien layout est supprimée.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageLayoutMigrator {
+
+    private static final List<String> TYPES = List.of("loi", "decret");
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final LawProperties lawProperties;
+    private final FileStorageService fileStorageService;
+
+    /**
+     * Résultat d'une migration.
+     *
+     * @param moved Fichiers déplacés
+     * @param duplicatesRemoved Copies obsolètes supprimées (destination déjà présente)
+     * @param skipped Fichiers laissés en place (ID hors format, fichier temporaire)
+     * @param failed Fichiers en erreur
+     */
+    public record Report(int moved, int duplicatesRemoved, int skipped, int failed) {
+    }
+
+    /**
+     * Déplace tous les fichiers vers le layout configuré.
+     *
+     * @param dryRun Si true, journalise les déplacements sans toucher au disque
+     * @return Compteurs de la migration
+     */
+    public Report migrate(boolean dryRun) {
+        boolean toSharded = fileStorageService.isShardedLayout();
+        LawProperties.Directories directories = lawProperties.getDirectories();
+        Counters counters = new Counters();
+
+        log.info("🚚 Migration du stockage vers le layout {}{}", toSharded ? "sharded" : "flat",
+                dryRun ? " (dry-run)" : "");
+
+        for (String directory : List.of(directories.getPdfs(), directories.getOcr(), directories.getArticles())) {
+            for (String type : TYPES) {
+                Path typeDirectory = Paths.get(directories.getData()).resolve(directory).resolve(type);
+                if (!Files.isDirectory(typeDirectory)) {
+                    continue;
+                }
+                try {
+                    if (toSharded) {
+                        shard(typeDirectory, dryRun, counters);
+                    } else {
+                        flatten(typeDirectory, dryRun, counters);
+                    }
+                } catch (IOException e) {
+                    log.error("❌ Lecture impossible de {}: {}", typeDirectory, e.getMessage());
+                    counters.failed++;
+                }
+            }
+        }
+
+        Report report = new Report(counters.moved, counters.duplicatesRemoved, counters.skipped, counters.failed);
+        log.info("✅ Migration terminée: {} déplacés, {} doublons supprimés, {} ignorés, {} erreurs",
+                report.moved(), report.duplicatesRemoved(), report.skipped(), report.failed());
+        return report;
+    }
+
+    /**
+     * Flat → sharded : seuls les fichiers directement sous le répertoire du type sont concernés.
+     */
+    private void shard(Path typeDirectory, boolean dryRun, Counters counters) throws IOException {
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(typeDirectory)) {
+            files = entries.filter(Files::isRegularFile).toList();
+        }
+        for (Path file : files) {
+            String fileName = file.getFileName().toString();
+            Path shard = fileName.endsWith(TMP_SUFFIX) ? null : fileStorageService.shardDirectory(documentIdOf(fileName));
+            if (shard == null) {
+                log.debug("⏭️ Fichier laissé à plat: {}", file);
+                counters.skipped++;
+                continue;
+            }
+            move(file, typeDirectory.resolve(shard).resolve(fileName), dryRun, counters);
+        }
+    }
+
+    /**
+     * Sharded → flat : fichiers des répertoires {année}/{tranche}, puis suppression des répertoires vides.
+     */
+    private void flatten(Path typeDirectory, boolean dryRun, Counters counters) throws IOException {
+        List<Path> files = new ArrayList<>();
+        List<Path> shardDirectories = new ArrayList<>();
+        try (Stream<Path> entries = Files.walk(typeDirectory, 3)) {
+            entries.filter(path -> !path.equals(typeDirectory)).forEach(path -> {
+                if (Files.isDirectory(path)) {
+                    shardDirectories.add(path);
+                } else if (!path.getParent().equals(typeDirectory)) {
+                    files.add(path);
+                }
+            });
+        }
+        for (Path file : files) {
+            if (!Files.isRegularFile(file) || file.getFileName().toString().endsWith(TMP_SUFFIX)) {
+                counters.skipped++;
+                continue;
+            }
+            move(file, typeDirectory.resolve(file.getFileName()), dryRun, counters);
+        }
+        if (!dryRun) {
+            shardDirectories.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+            for (Path directory : shardDirectories) {
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (DirectoryNotEmptyException e) {
+                    log.debug("📁 Répertoire conservé (non vide): {}", directory);
+                }
+            }
+        }
+    }
+
+    private void move(Path source, Path target, boolean dryRun, Counters counters) {
+        try {
+            // Le document peut déjà exister dans le layout cible sous l'autre forme (compressée ou non)
+            Path existing = Files.exists(target) ? target : otherForm(target);
+            if (Files.exists(existing)) {
+                log.debug("🗑️ Copie obsolète supprimée: {} (déjà présent: {})", source, existing);
+                if (!dryRun) {
+                    Files.delete(source);
+                }
+                counters.duplicatesRemoved++;
+                return;
+            }
+            log.debug("🚚 {} → {}", source, target);
+            if (!dryRun) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(source, target);
+                }
+            }
+            counters.moved++;
+        } catch (IOException e) {
+            log.warn("⚠️ Déplacement impossible {} → {}: {}", source, target, e.getMessage());
+            counters.failed++;
+        }
+    }
+
+    /**
+     * Même document sous l'autre forme : {@code x.json} ↔ {@code x.json.gz}.
+     */
+    private static Path otherForm(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.endsWith(GZIP_SUFFIX)
+                ? path.resolveSibling(fileName.substring(0, fileName.length() - GZIP_SUFFIX.length()))
+                : path.resolveSibling(fileName + GZIP_SUFFIX);
+    }
+
+    /**
+     * ID du document porté par un nom de fichier ({@code loi-2024-15.json.gz} → {@code loi-2024-15}).
+     */
+    private static String documentIdOf(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static final class Counters {
+        private int moved;
+        private int duplicatesRemoved;
+        private int skipped;
+        private int failed;
+    }
+}
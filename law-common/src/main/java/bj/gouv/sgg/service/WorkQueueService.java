@@ -0,0 +1,285 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.WorkItem;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.WorkItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File durable de travail par étape ({@code work_queue}).
+ *
+ * <p>Les workers (threads ou processus) réservent des lots de documents en posant un bail
+ * limité dans le temps, le prolongent par heartbeat pendant le traitement, puis terminent
+ * l'entrée (DONE) ou enregistrent un échec (nouvelle tentative différée, puis FAILED).
+ * Un bail expiré rend l'entrée réservable par un autre worker : un processus arrêté
+ * brutalement ne bloque rien au-delà de {@code law.queue.lease-seconds}.
+ *
+ * <p><b>Réservation</b> :
+ * <ul>
+ *   <li>MySQL 8+ / PostgreSQL : {@code SELECT … FOR UPDATE SKIP LOCKED} puis pose du bail,
+ *       les workers concurrents sautent les lignes verrouillées au lieu de les attendre</li>
+ *   <li>Autres bases (H2) : UPDATE conditionnel ligne par ligne, qui n'aboutit que si
+ *       l'entrée est encore libre</li>
+ * </ul>
+ * Aucune des deux ne repose sur un verrou global ni sur {@code synchronized}.
+ *
+ * <p><b>Ordre</b> : score de {@link DocumentPriorityPolicy} (calculé à l'alimentation),
+ * sauf pour la part de chaque lot réservée aux entrées en attente depuis le plus longtemps.
+ *
+ * <p>Les réservations, heartbeats, échecs et libérations s'exécutent dans leur propre
+ * transaction : un rollback de chunk ne rend pas une réservation invisible aux autres workers.
+ * {@link #complete} rejoint au contraire la transaction courante pour que l'entrée passe
+ * DONE dans la même transaction que l'écriture du résultat.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WorkQueueService {
+
+    private static final String SKIP_LOCKED = "skip-locked";
+    private static final String CONDITIONAL_UPDATE = "conditional-update";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final WorkItemRepository workItemRepository;
+    private final LawProperties lawProperties;
+    private final DataSource dataSource;
+    private final DocumentPriorityPolicy priorityPolicy;
+
+    private final Map<WorkStage, Integer> scoredYears = new ConcurrentHashMap<>(); // Année du dernier recalcul des scores par étape
+    private volatile Boolean skipLocked;
+
+    /**
+     * Alimente la file d'une étape : documents du statut d'entrée absents de la file,
+     * et entrées terminées dont le document est revenu dans ce statut. Les scores de priorité
+     * des entrées nouvelles sont calculés ; ceux de toutes les entrées en attente le sont
+     * au premier appel du processus et à chaque changement d'année.
+     *
+     * @return nombre d'entrées devenues réservables
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refill(WorkStage stage) {
+        LocalDateTime now = LocalDateTime.now();
+        String inputStatus = stage.getInputStatus().name();
+        int rearmed = workItemRepository.rearmReturned(stage.name(), inputStatus, now);
+        int added = workItemRepository.enqueueMissing(stage.name(), inputStatus, now);
+        if (added + rearmed > 0) {
+            log.info("📥 [{}] File alimentée: {} nouveau(x), {} réarmé(s)", stage, added, rearmed);
+        }
+        assignPriorities(stage);
+        return added + rearmed;
+    }
+
+    /**
+     * Réserve jusqu'à {@code max} entrées réservables d'une étape, par priorité décroissante ;
+     * {@link DocumentPriorityPolicy#backlogSlots} places du lot vont aux entrées en attente
+     * depuis le plus longtemps.
+     *
+     * @param stage Étape
+     * @param documentType Filtre de type (null = tous)
+     * @param owner Identifiant du worker (voir {@link #newWorkerId})
+     * @param max Nombre maximum d'entrées
+     * @return Entrées réservées par ce worker (aucune n'est réservée par un autre)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<WorkItem> claim(WorkStage stage, String documentType, String owner, int max) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusSeconds(config().getLeaseSeconds());
+        int backlogSlots = priorityPolicy.backlogSlots(max);
+
+        List<Long> claimed = new ArrayList<>(
+                claimIds(stage, documentType, owner, max - backlogSlots, false, now, leaseUntil));
+        if (claimed.size() < max) {
+            // Places restantes (arriéré, ou priorité épuisée) : entrées en attente depuis le plus longtemps
+            claimed.addAll(claimIds(stage, documentType, owner, max - claimed.size(), true, now, leaseUntil));
+        }
+
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        log.debug("🔒 [{}] {} entrée(s) réservée(s) par {}", stage, claimed.size(), owner);
+        return workItemRepository.findAllById(claimed).stream()
+                .sorted(Comparator.comparingInt((WorkItem item) -> item.getPriority() != null ? item.getPriority() : 0)
+                        .thenComparingInt(WorkItem::getDocumentYear)
+                        .thenComparingInt(WorkItem::getDocumentNumber).reversed())
+                .toList();
+    }
+
+    /**
+     * Prolonge les baux des entrées encore détenues par le worker.
+     *
+     * @return nombre de baux prolongés
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int heartbeat(String owner, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(config().getLeaseSeconds());
+        int extended = workItemRepository.extendLeases(itemIds, owner, leaseUntil, WorkItem.Status.CLAIMED);
+        if (extended < itemIds.size()) {
+            log.warn("⚠️ {} bail(s) perdu(s) par {} (expirés et repris par un autre worker)",
+                    itemIds.size() - extended, owner);
+        }
+        return extended;
+    }
+
+    /**
+     * Termine des entrées traitées (DONE), dans la transaction courante.
+     */
+    @Transactional
+    public int complete(String owner, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return workItemRepository.finish(itemIds, owner, WorkItem.Status.DONE, 0,
+                LocalDateTime.now(), WorkItem.Status.CLAIMED);
+    }
+
+    /**
+     * Enregistre l'échec de traitement d'entrées : nouvelle tentative après
+     * {@code law.queue.retry-delay-seconds}, ou FAILED une fois {@code law.queue.max-attempts} atteint.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void fail(String owner, Collection<Long> itemIds, String error) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        int failed = workItemRepository.fail(itemIds, owner, config().getMaxAttempts(), WorkItem.Status.FAILED,
+                now, message, now, WorkItem.Status.CLAIMED);
+        workItemRepository.fail(itemIds, owner, 0, WorkItem.Status.READY,
+                now.plusSeconds(config().getRetryDelaySeconds()), message, now, WorkItem.Status.CLAIMED);
+        if (failed > 0) {
+            log.warn("❌ {} entrée(s) en FAILED après {} tentatives: {}", failed, config().getMaxAttempts(), message);
+        }
+    }
+
+    /**
+     * Rend à la file des entrées réservées mais jamais traitées (fin d'étape),
+     * sans compter de tentative.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int release(String owner, Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        return workItemRepository.finish(itemIds, owner, WorkItem.Status.READY, -1,
+                LocalDateTime.now(), WorkItem.Status.CLAIMED);
+    }
+
+    /**
+     * Identifiant unique de worker : hôte, pid, étape et suffixe aléatoire
+     * (plusieurs exécutions d'une même étape dans un processus restent distinctes).
+     */
+    public static String newWorkerId(WorkStage stage) {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        String id = host + ":" + ProcessHandle.current().pid() + ":" + stage.name().toLowerCase()
+                + ":" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() > 100 ? id.substring(id.length() - 100) : id;
+    }
+
+    /**
+     * Réserve jusqu'à {@code max} entrées dans l'ordre de priorité, ou dans l'ordre
+     * d'attente ({@code longestWaiting}). Les entrées déjà réservées par le premier passage
+     * ne sont plus réservables et ne sont pas reprises par le second.
+     */
+    private List<Long> claimIds(WorkStage stage, String documentType, String owner, int max,
+                                boolean longestWaiting, LocalDateTime now, LocalDateTime leaseUntil) {
+        if (max <= 0) {
+            return List.of();
+        }
+        if (useSkipLocked()) {
+            List<Long> locked = longestWaiting
+                    ? workItemRepository.lockLongestWaiting(stage.name(), documentType, now, max)
+                    : workItemRepository.lockClaimable(stage.name(), documentType, now, max);
+            if (!locked.isEmpty()) {
+                workItemRepository.markClaimed(locked, owner, leaseUntil, now, WorkItem.Status.CLAIMED);
+            }
+            return locked;
+        }
+
+        List<Long> claimed = new ArrayList<>();
+        // Candidats en surplus : certains seront pris par d'autres workers entre lecture et UPDATE
+        List<Long> candidates = longestWaiting
+                ? workItemRepository.findLongestWaiting(stage.name(), documentType, now, max * 2)
+                : workItemRepository.findClaimable(stage.name(), documentType, now, max * 2);
+        for (Long id : candidates) {
+            if (claimed.size() == max) {
+                break;
+            }
+            if (workItemRepository.claimIfAvailable(id, owner, leaseUntil, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Calcule le score des entrées qui n'en ont pas, par groupe (type, année).
+     */
+    private void assignPriorities(WorkStage stage) {
+        int currentYear = Year.now().getValue();
+        Integer scoredYear = scoredYears.put(stage, currentYear);
+        if (scoredYear == null || scoredYear != currentYear) {
+            workItemRepository.clearPriorities(stage, WorkItem.Status.READY);
+        }
+        for (Object[] group : workItemRepository.findUnscoredGroups(stage)) {
+            String type = (String) group[0];
+            int year = ((Number) group[1]).intValue();
+            workItemRepository.assignPriority(stage, type, year, priorityPolicy.score(type, year));
+        }
+    }
+
+    private boolean useSkipLocked() {
+        if (skipLocked == null) {
+            String strategy = config().getClaimStrategy();
+            skipLocked = SKIP_LOCKED.equalsIgnoreCase(strategy)
+                    || (!CONDITIONAL_UPDATE.equalsIgnoreCase(strategy) && databaseSupportsSkipLocked());
+            log.info("🔒 Réservation work_queue: {}", skipLocked ? "SELECT … FOR UPDATE SKIP LOCKED" : "UPDATE conditionnel");
+        }
+        return skipLocked;
+    }
+
+    private boolean databaseSupportsSkipLocked() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metadata = connection.getMetaData();
+            String product = metadata.getDatabaseProductName();
+            return ("MySQL".equalsIgnoreCase(product) && metadata.getDatabaseMajorVersion() >= 8)
+                    || "PostgreSQL".equalsIgnoreCase(product);
+        } catch (SQLException e) {
+            log.warn("⚠️ Détection de la base impossible, réservation par UPDATE conditionnel: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private LawProperties.Queue config() {
+        return lawProperties.getQueue();
+    }
+}
@@ -0,0 +1,263 @@
+package bj.gouv.sgg.util;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limiteur de débit adaptatif par token-bucket, avec un état par hôte et par canal
+ * (HEAD pour le fetch, GET pour le download).
+ *
+ * <p><b>Principe</b> :
+ * <ul>
+ *   <li>Chaque clé {@code host:canal} possède un seau de jetons rechargé à {@code rate} jetons/s</li>
+ *   <li>Une réservation ne bloque pas le seau : elle retourne le délai avant le jeton attribué,
+ *       ce qui étale les requêtes des threads au lieu de les endormir/réveiller ensemble</li>
+ *   <li>Le débit s'ajuste en continu (AIMD) : +1 req/s par seconde de réponses saines,
+ *       ÷2 sur 429, ×0.9 si la latence se dégrade (EWMA rapide face à une référence lente)
+ *       ou sur erreur serveur</li>
+ * </ul>
+ *
+ * <p>Partagé par le fetch (HEAD), le download (GET) et le fetch unitaire. Chaque réponse
+ * alimente aussi les métriques {@code law.http.requests} et {@code law.http.rate}.
+ */
+@Slf4j
+@Component
+public class AdaptiveRateLimiter {
+
+    public static final String CHANNEL_HEAD = "HEAD";
+    public static final String CHANNEL_GET = "GET";
+
+    // Une seule baisse par fenêtre : les réponses en vol d'une même rafale ne comptent qu'une fois
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double LATENCY_DEGRADATION_FACTOR = 3.0; // EWMA > 3× latence de référence → congestion
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+    // Référence lente (~50 réponses) : une réponse anormalement rapide (cache, erreur immédiate)
+    // ne la fige pas, et elle suit un changement durable de latence du portail
+    private static final double LATENCY_BASELINE_ALPHA = 0.02;
+
+    private final LawProperties.RateLimit config;
+    private final LawMetrics metrics;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public AdaptiveRateLimiter(LawProperties properties, LawMetrics metrics) {
+        this.config = properties.getRateLimit();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Construit la clé du seau à partir de l'hôte de l'URL et du canal.
+     */
+    public static String key(String url, String channel) {
+        String host;
+        try {
+            host = URI.create(url).getHost();
+        } catch (IllegalArgumentException e) {
+            host = null;
+        }
+        return (host != null ? host : "unknown") + ":" + channel;
+    }
+
+    /**
+     * Réserve un jeton et retourne le délai (ns) avant de pouvoir émettre la requête.
+     * Ne bloque pas : utilisable pour planifier une requête asynchrone.
+     */
+    public long reserve(String key) {
+        return bucket(key).reserve(System.nanoTime());
+    }
+
+    /**
+     * Prend un jeton s'il est disponible immédiatement.
+     */
+    public boolean tryAcquire(String key) {
+        return bucket(key).tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Réserve un jeton et attend uniquement le délai propre à cette réservation.
+     */
+    public void acquire(String key) {
+        long waitNanos = reserve(key);
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Enregistre une réponse observée et ajuste le débit de la clé.
+     *
+     * @param key Clé du seau ({@link #key(String, String)})
+     * @param statusCode Code HTTP (500 pour une erreur réseau)
+     * @param latencyNanos Latence observée
+     */
+    public void onResponse(String key, int statusCode, long latencyNanos) {
+        bucket(key).onResponse(key, statusCode, latencyNanos, System.nanoTime());
+        int separator = key.lastIndexOf(':');
+        metrics.recordHttpResponse(separator > 0 ? key.substring(0, separator) : key,
+                                   separator > 0 ? key.substring(separator + 1) : "unknown",
+                                   statusCode, latencyNanos);
+    }
+
+    /**
+     * Retourne les statistiques d'une clé.
+     */
+    public Stats getStats(String key) {
+        return bucket(key).stats(key);
+    }
+
+    private Bucket bucket(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(key, k -> {
+            Bucket created = new Bucket(config, System.nanoTime());
+            metrics.registerHttpRate(k, created::currentRate);
+            return created;
+        });
+    }
+
+    /**
+     * Seau de jetons d'une clé (état protégé par le moniteur de l'instance).
+     */
+    private static final class Bucket {
+        private final LawProperties.RateLimit config;
+        private double rate;
+        private double tokens;
+        private long lastRefillNanos;
+        private long lastDecreaseNanos;
+        private double latencyEwmaNanos;
+        private double baselineLatencyNanos;
+        private long totalResponses;
+        private long count429;
+
+        Bucket(LawProperties.RateLimit config, long now) {
+            this.config = config;
+            this.rate = clamp(config.getInitialRate());
+            this.tokens = config.getBurst();
+            this.lastRefillNanos = now;
+            this.lastDecreaseNanos = now - DECREASE_COOLDOWN_NANOS;
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            if (tokens >= 0) {
+                return 0L;
+            }
+            return (long) (-tokens / rate * 1_000_000_000L);
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void onResponse(String key, int statusCode, long latencyNanos, long now) {
+            refill(now);
+            totalResponses++;
+
+            if (statusCode == 429) {
+                count429++;
+                if (canDecrease(now)) {
+                    double previous = rate;
+                    rate = clamp(rate * 0.5);
+                    tokens = Math.min(tokens, 0); // Vider la rafale disponible
+                    lastDecreaseNanos = now;
+                    log.warn("rate-limit-decrease key={} reason=429 rate={} -> {}",
+                             key, String.format("%.2f", previous), String.format("%.2f", rate));
+                }
+                return;
+            }
+
+            if (latencyNanos > 0) {
+                latencyEwmaNanos = latencyEwmaNanos == 0
+                    ? latencyNanos
+                    : LATENCY_EWMA_ALPHA * latencyNanos + (1 - LATENCY_EWMA_ALPHA) * latencyEwmaNanos;
+                baselineLatencyNanos = baselineLatencyNanos == 0
+                    ? latencyNanos
+                    : LATENCY_BASELINE_ALPHA * latencyNanos + (1 - LATENCY_BASELINE_ALPHA) * baselineLatencyNanos;
+            }
+
+            boolean serverError = statusCode >= 500;
+            boolean latencyDegraded = latencyEwmaNanos > LATENCY_DEGRADATION_FACTOR * baselineLatencyNanos;
+            if (serverError || latencyDegraded) {
+                if (canDecrease(now)) {
+                    rate = clamp(rate * 0.9);
+                    lastDecreaseNanos = now;
+                    log.debug("rate-limit-decrease key={} reason={} rate={}",
+                              key, serverError ? "server-error" : "latency", String.format("%.2f", rate));
+                }
+                return;
+            }
+
+            // Augmentation additive : ~ +1 req/s par seconde de réponses saines
+            rate = clamp(rate + 1.0 / rate);
+        }
+
+        synchronized double currentRate() {
+            return rate;
+        }
+
+        synchronized Stats stats(String key) {
+            double rate429 = totalResponses > 0 ? (double) count429 / totalResponses : 0;
+            return new Stats(key, rate, totalResponses, count429, rate429,
+                             latencyEwmaNanos / 1_000_000.0);
+        }
+
+        private boolean canDecrease(long now) {
+            return now - lastDecreaseNanos >= DECREASE_COOLDOWN_NANOS;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(config.getBurst(), tokens + elapsed * rate / 1_000_000_000L);
+                lastRefillNanos = now;
+            }
+        }
+
+        private double clamp(double value) {
+            return Math.max(config.getMinRate(), Math.min(config.getMaxRate(), value));
+        }
+    }
+
+    /**
+     * Statistiques d'une clé.
+     */
+    public static class Stats {
+        public final String key;
+        public final double ratePerSecond;
+        public final long totalResponses;
+        public final long count429;
+        public final double rate429;
+        public final double latencyEwmaMs;
+
+        public Stats(String key, double ratePerSecond, long totalResponses, long count429,
+                     double rate429, double latencyEwmaMs) {
+            this.key = key;
+            this.ratePerSecond = ratePerSecond;
+            this.totalResponses = totalResponses;
+            this.count429 = count429;
+            this.rate429 = rate429;
+            this.latencyEwmaMs = latencyEwmaMs;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("key=%s rate=%.2f/s total=%d 429=%d rate429=%.2f latencyMs=%.0f",
+                                key, ratePerSecond, totalResponses, count429, rate429, latencyEwmaMs);
+        }
+    }
+}
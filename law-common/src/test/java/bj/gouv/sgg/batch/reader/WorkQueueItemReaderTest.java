@@ -0,0 +1,173 @@
+package bj.gouv.sgg.batch.reader;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.model.WorkItem;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.WorkQueueService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkQueueItemReaderTest {
+
+    @Mock
+    private ItemReader<LawDocument> delegate;
+    @Mock
+    private WorkQueueService workQueueService;
+    @Mock
+    private LawDocumentRepository lawDocumentRepository;
+
+    private LawProperties properties;
+    private WorkQueueItemReader reader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LawProperties();
+        properties.getQueue().setEnabled(true);
+        reader = new WorkQueueItemReader(WorkStage.EXTRACT, delegate, workQueueService, lawDocumentRepository, properties);
+    }
+
+    @Test
+    void givenClaimedDocuments_whenWrittenOrInterrupted_thenCompletedOrFailed() throws Exception {
+        // Given - deux entrées réservées, la seconde n'aboutit jamais (étape interrompue)
+        LawDocument first = document(10L, 2024, 15);
+        LawDocument second = document(20L, 2024, 14);
+        when(workQueueService.claim(eq(WorkStage.EXTRACT), isNull(), anyString(), eq(20)))
+                .thenReturn(List.of(item(1L, first), item(2L, second)))
+                .thenReturn(List.of());
+        when(lawDocumentRepository.findAllById(List.of(10L, 20L))).thenReturn(List.of(first, second));
+        reader.beforeStep(stepExecution(new JobParameters()));
+
+        // When
+        LawDocument read1 = reader.read();
+        LawDocument read2 = reader.read();
+        LawDocument end = reader.read();
+        reader.afterWrite(new Chunk<>(List.of(read1)));
+        reader.afterStep(stepExecution(new JobParameters()));
+
+        // Then
+        assertThat(read1).isSameAs(first);
+        assertThat(read2).isSameAs(second);
+        assertThat(end).isNull();
+        verify(workQueueService).complete(anyString(), eq(List.of(1L)));
+        verify(workQueueService).fail(anyString(), eq(List.of(2L)), anyString());
+        verify(delegate, never()).read();
+    }
+
+    @Test
+    void givenChunkRolledBack_whenStepEnds_thenWrittenEntryStillTrackedAndFailed() throws Exception {
+        // Given - écriture dans une transaction de chunk qui n'est jamais commitée
+        LawDocument first = document(10L, 2024, 15);
+        when(workQueueService.claim(eq(WorkStage.EXTRACT), isNull(), anyString(), eq(20)))
+                .thenReturn(List.of(item(1L, first)))
+                .thenReturn(List.of());
+        when(lawDocumentRepository.findAllById(List.of(10L))).thenReturn(List.of(first));
+        reader.beforeStep(stepExecution(new JobParameters()));
+        LawDocument read = reader.read();
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reader.afterWrite(new Chunk<>(List.of(read)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization(); // Rollback : afterCommit jamais appelé
+        }
+        reader.afterStep(stepExecution(new JobParameters()));
+
+        // Then - l'entrée reste suivie jusqu'au commit : comptée en échec en fin d'étape
+        verify(workQueueService).complete(anyString(), eq(List.of(1L)));
+        verify(workQueueService).fail(anyString(), eq(List.of(1L)), anyString());
+    }
+
+    @Test
+    void givenChunkCommitted_whenStepEnds_thenWrittenEntryNoLongerTracked() throws Exception {
+        // Given
+        LawDocument first = document(10L, 2024, 15);
+        when(workQueueService.claim(eq(WorkStage.EXTRACT), isNull(), anyString(), eq(20)))
+                .thenReturn(List.of(item(1L, first)))
+                .thenReturn(List.of());
+        when(lawDocumentRepository.findAllById(List.of(10L))).thenReturn(List.of(first));
+        reader.beforeStep(stepExecution(new JobParameters()));
+        LawDocument read = reader.read();
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reader.afterWrite(new Chunk<>(List.of(read)));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        reader.afterStep(stepExecution(new JobParameters()));
+
+        // Then
+        verify(workQueueService).fail(anyString(), eq(List.of()), anyString());
+    }
+
+    @Test
+    void givenTargetDocument_whenRead_thenLegacyReaderUsedAndQueueUntouched() throws Exception {
+        // Given
+        LawDocument target = document(10L, 2024, 15);
+        when(delegate.read()).thenReturn(target, (LawDocument) null);
+        reader.beforeStep(stepExecution(new JobParametersBuilder().addString("doc", "loi-2024-15").toJobParameters()));
+
+        // When
+        LawDocument read = reader.read();
+        reader.afterWrite(new Chunk<>(List.of(read)));
+        LawDocument end = reader.read();
+
+        // Then
+        assertThat(read).isSameAs(target);
+        assertThat(end).isNull();
+        verifyNoInteractions(workQueueService);
+        verify(lawDocumentRepository, never()).findAllById(any());
+    }
+
+    private static StepExecution stepExecution(JobParameters parameters) {
+        JobExecution jobExecution = new JobExecution(new JobInstance(1L, "pdfToJsonJob"), 1L, parameters);
+        return new StepExecution("pdfToJsonStep", jobExecution);
+    }
+
+    private static LawDocument document(Long id, int year, int number) {
+        return LawDocument.builder().id(id).type("loi").year(year).number(number)
+                .status(LawDocument.ProcessingStatus.DOWNLOADED).build();
+    }
+
+    private static WorkItem item(Long id, LawDocument document) {
+        return WorkItem.builder()
+                .id(id)
+                .stage(WorkStage.EXTRACT)
+                .lawDocumentId(document.getId())
+                .documentType(document.getType())
+                .documentYear(document.getYear())
+                .documentNumber(document.getNumber())
+                .status(WorkItem.Status.CLAIMED)
+                .build();
+    }
+}
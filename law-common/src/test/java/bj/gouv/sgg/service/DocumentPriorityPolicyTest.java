@@ -0,0 +1,77 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.LawDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentPriorityPolicyTest {
+
+    private static final int CURRENT_YEAR = Year.now().getValue();
+
+    private LawProperties properties;
+    private DocumentPriorityPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LawProperties();
+        policy = new DocumentPriorityPolicy(properties);
+    }
+
+    @Test
+    void givenBacklogAndNewTexts_whenOrderWithoutBacklogShare_thenCurrentYearThenTypeWeightThenAge() {
+        // Given
+        properties.getPriority().setBacklogShare(0);
+        LawDocument oldDecret = document(1L, "decret", 1975, 12, 400);
+        LawDocument newDecret = document(2L, "decret", CURRENT_YEAR, 3, 1);
+        LawDocument recentLoi = document(3L, "loi", CURRENT_YEAR - 2, 8, 30);
+        LawDocument recentDecret = document(4L, "decret", CURRENT_YEAR - 2, 40, 30);
+
+        // When
+        List<LawDocument> ordered = policy.order(List.of(oldDecret, recentDecret, recentLoi, newDecret), null);
+
+        // Then
+        assertThat(ordered).containsExactly(newDecret, recentLoi, recentDecret, oldDecret);
+        assertThat(policy.score("decret", CURRENT_YEAR)).isGreaterThan(policy.score("loi", CURRENT_YEAR - 1));
+    }
+
+    @Test
+    void givenBacklogShareAndLimit_whenOrder_thenLongestWaitingDocumentGetsReservedSlot() {
+        // Given - 1 place sur 2 pour l'arriéré, limite de 4 documents
+        properties.getPriority().setBacklogShare(0.5);
+        LawDocument oldest = document(1L, "decret", 1970, 1, 900);
+        LawDocument secondOldest = document(2L, "decret", 1971, 1, 800);
+        LawDocument new1 = document(3L, "loi", CURRENT_YEAR, 10, 1);
+        LawDocument new2 = document(4L, "loi", CURRENT_YEAR, 9, 1);
+        LawDocument new3 = document(5L, "loi", CURRENT_YEAR, 8, 1);
+
+        // When
+        List<LawDocument> ordered = policy.order(List.of(new1, new2, new3, secondOldest, oldest), 4);
+
+        // Then
+        assertThat(ordered).containsExactly(new1, oldest, new2, secondOldest);
+        assertThat(policy.backlogSlots(20)).isEqualTo(10);
+        assertThat(policy.backlogSlots(1)).isZero();
+        properties.getPriority().setBacklogShare(0.05);
+        assertThat(policy.backlogSlots(10)).isEqualTo(1);
+        properties.getPriority().setBacklogShare(0);
+        assertThat(policy.backlogSlots(10)).isZero();
+    }
+
+    private static LawDocument document(Long id, String type, int year, int number, int waitingDays) {
+        return LawDocument.builder()
+                .id(id)
+                .type(type)
+                .year(year)
+                .number(number)
+                .status(LawDocument.ProcessingStatus.DOWNLOADED)
+                .statusChangedAt(LocalDateTime.now().minusDays(waitingDays))
+                .build();
+    }
+}
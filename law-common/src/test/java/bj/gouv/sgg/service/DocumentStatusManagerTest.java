@@ -1,15 +1,21 @@
 package bj.gouv.sgg.service;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.LawDocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -27,7 +33,7 @@ class DocumentStatusManagerTest {
 
     @BeforeEach
     void setUp() {
-        documentStatusManager = new DocumentStatusManager(lawDocumentRepository);
+        documentStatusManager = new DocumentStatusManager(lawDocumentRepository, new LawMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -140,4 +146,47 @@ class DocumentStatusManagerTest {
         assert doc1.getStatus() == LawDocument.ProcessingStatus.FETCHED;
         assert doc2.getStatus() == LawDocument.ProcessingStatus.FETCHED;
     }
+
+    @Test
+    void givenDocumentsInExpectedStatus_whenTransitionStatus_thenSingleUpdateMovesAll() {
+        // Given
+        LawDocument doc1 = LawDocument.builder().id(1L).type("loi").year(2024).number(1).build();
+        LawDocument doc2 = LawDocument.builder().id(2L).type("loi").year(2024).number(2).build();
+
+        when(lawDocumentRepository.lockIdsInStatus(anyCollection(), anyCollection()))
+                .thenReturn(List.of(1L, 2L));
+        when(lawDocumentRepository.transitionStatus(anyCollection(), anyCollection(),
+                eq(LawDocument.ProcessingStatus.DOWNLOADED), any()))
+                .thenReturn(2);
+
+        // When
+        Set<String> moved = documentStatusManager.transitionStatus(List.of(doc1, doc2),
+                LawDocument.ProcessingStatus.FETCHED, LawDocument.ProcessingStatus.DOWNLOADED);
+
+        // Then - Un verrouillage et un seul UPDATE, aucun save unitaire
+        assertThat(moved).containsExactly("loi-2024-1", "loi-2024-2");
+        verify(lawDocumentRepository, times(1)).transitionStatus(anyCollection(), anyCollection(), any(), any());
+        verify(lawDocumentRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void givenConcurrentlyChangedDocument_whenTransitionStatus_thenReturnsOnlyMovedRows() {
+        // Given - doc2 a changé de statut entre-temps (autre étape)
+        LawDocument doc1 = LawDocument.builder().id(1L).type("loi").year(2024).number(1).build();
+        LawDocument doc2 = LawDocument.builder().id(2L).type("loi").year(2024).number(2).build();
+
+        when(lawDocumentRepository.lockIdsInStatus(List.of(1L, 2L), EnumSet.of(LawDocument.ProcessingStatus.FETCHED)))
+                .thenReturn(List.of(1L));
+        when(lawDocumentRepository.transitionStatus(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(1);
+
+        // When
+        Set<String> moved = documentStatusManager.transitionStatus(List.of(doc1, doc2),
+                LawDocument.ProcessingStatus.FETCHED, LawDocument.ProcessingStatus.DOWNLOADED);
+
+        // Then - Seule la ligne verrouillée est déplacée et retournée
+        assertThat(moved).containsExactly("loi-2024-1");
+        verify(lawDocumentRepository).transitionStatus(eq(List.of(1L)), anyCollection(),
+                eq(LawDocument.ProcessingStatus.DOWNLOADED), any());
+    }
 }
@@ -32,6 +32,8 @@ class FileStorageServiceTest {
     @Mock
     private LawProperties.Directories directories;
 
+    private final LawProperties.Storage storage = new LawProperties.Storage();
+
     private FileStorageService fileStorageService;
 
     @TempDir
@@ -44,6 +46,7 @@ class FileStorageServiceTest {
         when(directories.getPdfs()).thenReturn("pdfs");
         when(directories.getOcr()).thenReturn("ocr");
         when(directories.getArticles()).thenReturn("articles");
+        when(lawProperties.getStorage()).thenReturn(storage);
 
         fileStorageService = new FileStorageService(lawProperties);
     }
@@ -255,4 +258,91 @@ class FileStorageServiceTest {
         assertThat(Files.exists(existingDir)).isTrue();
         assertThat(Files.isDirectory(existingDir)).isTrue();
     }
+
+    @Test
+    void givenExistingPdf_whenSavePdf_thenReplacedAtomicallyWithoutTempFile() throws IOException {
+        // Given
+        fileStorageService.savePdf("loi", "loi-2024-15", "%PDF-old".getBytes());
+
+        // When
+        fileStorageService.savePdf("loi", "loi-2024-15", "%PDF-new".getBytes());
+
+        // Then
+        Path pdf = fileStorageService.pdfPath("loi", "loi-2024-15");
+        assertThat(Files.readString(pdf)).isEqualTo("%PDF-new");
+        assertThat(pdf.resolveSibling("loi-2024-15.pdf.tmp")).doesNotExist();
+    }
+
+    @Test
+    void givenLegacyPlainJson_whenGzipEnabledAndRewritten_thenReadTransparentlyAndPlainRemoved() throws IOException {
+        // Given - fichier existant non compressé, puis activation de la compression
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"title\":\"Loi portant code général des impôts\"}");
+        storage.setCompression("gzip");
+
+        // When
+        String legacy = fileStorageService.readJson("loi", "loi-2024-15");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"title\":\"Loi de finances rectificative\"}");
+
+        // Then
+        Path plain = fileStorageService.jsonPath("loi", "loi-2024-15");
+        assertThat(legacy).contains("code général des impôts");
+        assertThat(plain).doesNotExist();
+        assertThat(plain.resolveSibling("loi-2024-15.json.gz")).exists();
+        assertThat(fileStorageService.jsonExists("loi", "loi-2024-15")).isTrue();
+        assertThat(fileStorageService.readJson("loi", "loi-2024-15")).contains("finances rectificative");
+    }
+
+    @Test
+    void givenCompressedOcr_whenCompressionDisabled_thenStillReadable() throws IOException {
+        // Given
+        storage.setCompression("gzip");
+        String text = "Article 1er : Le présent décret entre en vigueur. ".repeat(50);
+        fileStorageService.saveOcr("decret", "decret-2024-100", text);
+        storage.setCompression("none");
+
+        // When
+        String read = fileStorageService.readOcr("decret", "decret-2024-100");
+
+        // Then
+        Path gz = fileStorageService.ocrPath("decret", "decret-2024-100").resolveSibling("decret-2024-100.txt.gz");
+        assertThat(read).isEqualTo(text);
+        assertThat(Files.size(gz)).isLessThan(text.length() / 4);
+        assertThat(fileStorageService.ocrExists("decret", "decret-2024-100")).isTrue();
+    }
+
+    @Test
+    void givenShardedLayout_whenPaths_thenGroupedByYearAndNumberBucket() {
+        // Given
+        storage.setLayout("sharded");
+
+        // When
+        Path pdf = fileStorageService.pdfPath("loi", "loi-2024-15");
+        Path json = fileStorageService.jsonPath("decret", "decret-1987-1234");
+
+        // Then
+        assertThat(tempDir.relativize(pdf)).isEqualTo(Path.of("pdfs", "loi", "2024", "0000", "loi-2024-15.pdf"));
+        assertThat(tempDir.relativize(json)).isEqualTo(Path.of("articles", "decret", "1987", "1200", "decret-1987-1234.json"));
+    }
+
+    @Test
+    void givenFlatFilesThenShardedLayout_whenRead_thenResolvedInLegacyLayoutUntilRewritten() throws IOException {
+        // Given - fichiers écrits à plat avant le passage au layout sharded
+        fileStorageService.savePdf("loi", "loi-2024-15", "%PDF-1.4".getBytes());
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"title\":\"Loi de finances\"}");
+        Path flatJson = fileStorageService.jsonPath("loi", "loi-2024-15");
+        storage.setLayout("sharded");
+
+        // When
+        boolean pdfFound = fileStorageService.pdfExists("loi", "loi-2024-15");
+        String legacyJson = fileStorageService.readJson("loi", "loi-2024-15");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"title\":\"Loi de finances rectificative\"}");
+
+        // Then
+        assertThat(pdfFound).isTrue();
+        assertThat(fileStorageService.resolvePdfPath("loi", "loi-2024-15").getParent()).hasFileName("loi");
+        assertThat(legacyJson).contains("Loi de finances");
+        assertThat(flatJson).doesNotExist();
+        assertThat(fileStorageService.jsonPath("loi", "loi-2024-15")).exists();
+        assertThat(fileStorageService.readJson("loi", "loi-2024-15")).contains("rectificative");
+    }
 }
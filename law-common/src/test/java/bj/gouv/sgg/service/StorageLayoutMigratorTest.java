@@ -0,0 +1,105 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StorageLayoutMigratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LawProperties properties;
+    private FileStorageService fileStorageService;
+    private StorageLayoutMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LawProperties();
+        properties.getDirectories().setData(tempDir.toString());
+        fileStorageService = new FileStorageService(properties);
+        migrator = new StorageLayoutMigrator(properties, fileStorageService);
+    }
+
+    @Test
+    void givenFlatFiles_whenMigrateToSharded_thenMovedAndStillReadable() throws IOException {
+        // Given - layout flat : PDF, OCR compressé, JSON, plus un fichier hors format
+        fileStorageService.savePdf("loi", "loi-2024-15", "%PDF-1.4".getBytes());
+        properties.getStorage().setCompression("gzip");
+        fileStorageService.saveOcr("decret", "decret-1995-230", "Article 1er");
+        properties.getStorage().setCompression("none");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{}");
+        Files.writeString(tempDir.resolve("pdfs/loi/notes.txt"), "manuel");
+        properties.getStorage().setLayout("sharded");
+
+        // When
+        StorageLayoutMigrator.Report report = migrator.migrate(false);
+
+        // Then
+        assertThat(report.moved()).isEqualTo(3);
+        assertThat(report.skipped()).isEqualTo(1);
+        assertThat(report.failed()).isZero();
+        assertThat(tempDir.resolve("pdfs/loi/2024/0000/loi-2024-15.pdf")).exists();
+        assertThat(tempDir.resolve("ocr/decret/1995/0200/decret-1995-230.txt.gz")).exists();
+        assertThat(tempDir.resolve("pdfs/loi/loi-2024-15.pdf")).doesNotExist();
+        assertThat(fileStorageService.readOcr("decret", "decret-1995-230")).isEqualTo("Article 1er");
+    }
+
+    @Test
+    void givenShardedFilesAndStaleCopy_whenMigrateToFlat_thenFlattenedAndShardDirectoriesRemoved() throws IOException {
+        // Given - JSON réécrit à plat alors qu'une ancienne copie sharded subsiste
+        properties.getStorage().setLayout("sharded");
+        fileStorageService.savePdf("loi", "loi-2024-15", "%PDF-1.4".getBytes());
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"v\":1}");
+        Path stale = fileStorageService.jsonPath("loi", "loi-2024-15");
+        Files.copy(stale, tempDir.resolve("stale.json"));
+        properties.getStorage().setLayout("flat");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"v\":2}");
+        Files.copy(tempDir.resolve("stale.json"), stale);
+
+        // When
+        StorageLayoutMigrator.Report dryRun = migrator.migrate(true);
+        boolean untouchedByDryRun = Files.exists(tempDir.resolve("pdfs/loi/2024/0000/loi-2024-15.pdf"));
+        StorageLayoutMigrator.Report report = migrator.migrate(false);
+
+        // Then
+        assertThat(dryRun.moved()).isEqualTo(1);
+        assertThat(untouchedByDryRun).isTrue();
+        assertThat(tempDir.resolve("pdfs/loi/2024")).doesNotExist();
+        assertThat(report.moved()).isEqualTo(1);
+        assertThat(report.duplicatesRemoved()).isEqualTo(1);
+        assertThat(tempDir.resolve("pdfs/loi/loi-2024-15.pdf")).exists();
+        assertThat(tempDir.resolve("articles/loi/2024")).doesNotExist();
+        assertThat(fileStorageService.readJson("loi", "loi-2024-15")).isEqualTo("{\"v\":2}");
+    }
+
+    @Test
+    void givenStalePlainCopyAndCompressedTarget_whenMigrateToFlat_thenStaleCopyRemoved() throws IOException {
+        // Given - ancienne copie sharded non compressée, version courante compressée à plat
+        properties.getStorage().setLayout("sharded");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"v\":1}");
+        Path stale = fileStorageService.jsonPath("loi", "loi-2024-15");
+        Files.copy(stale, tempDir.resolve("stale.json"));
+        properties.getStorage().setLayout("flat");
+        properties.getStorage().setCompression("gzip");
+        fileStorageService.saveJson("loi", "loi-2024-15", "{\"v\":2}");
+        Files.copy(tempDir.resolve("stale.json"), stale);
+
+        // When
+        StorageLayoutMigrator.Report report = migrator.migrate(false);
+
+        // Then
+        assertThat(report.moved()).isZero();
+        assertThat(report.duplicatesRemoved()).isEqualTo(1);
+        assertThat(tempDir.resolve("articles/loi/loi-2024-15.json")).doesNotExist();
+        assertThat(tempDir.resolve("articles/loi/loi-2024-15.json.gz")).exists();
+        assertThat(fileStorageService.readJson("loi", "loi-2024-15")).isEqualTo("{\"v\":2}");
+    }
+}
@@ -0,0 +1,119 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.WorkItem;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.WorkItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorkQueueServiceTest {
+
+    @Mock
+    private WorkItemRepository workItemRepository;
+    @Mock
+    private DataSource dataSource;
+
+    private LawProperties properties;
+    private WorkQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LawProperties();
+        service = new WorkQueueService(workItemRepository, properties, dataSource, new DocumentPriorityPolicy(properties));
+    }
+
+    @Test
+    void givenConditionalUpdateAndConcurrentWorker_whenClaim_thenOnlyRowsWonAreReturned() {
+        // Given - la ligne 2 est prise par un autre worker entre lecture et UPDATE
+        properties.getQueue().setClaimStrategy("conditional-update");
+        properties.getPriority().setBacklogShare(0); // Lot entier dans l'ordre de priorité
+        when(workItemRepository.findClaimable(eq("EXTRACT"), isNull(), any(), eq(4))).thenReturn(List.of(1L, 2L, 3L));
+        when(workItemRepository.claimIfAvailable(eq(1L), eq("worker-a"), any(), any())).thenReturn(1);
+        when(workItemRepository.claimIfAvailable(eq(2L), eq("worker-a"), any(), any())).thenReturn(0);
+        when(workItemRepository.claimIfAvailable(eq(3L), eq("worker-a"), any(), any())).thenReturn(1);
+        when(workItemRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(item(1L, 2019, 7), item(3L, 2024, 15)));
+
+        // When
+        List<WorkItem> claimed = service.claim(WorkStage.EXTRACT, null, "worker-a", 2);
+
+        // Then
+        assertThat(claimed).extracting(WorkItem::getId).containsExactly(3L, 1L);
+        verify(workItemRepository, never()).lockClaimable(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void givenSkipLockedStrategy_whenClaimThenFail_thenLeaseSetAndExhaustedEntriesFailed() {
+        // Given
+        properties.getQueue().setClaimStrategy("skip-locked");
+        properties.getQueue().setMaxAttempts(3);
+        // 20 places dont 4 réservées à l'arriéré (backlog-share 0.2)
+        when(workItemRepository.lockClaimable(eq("DOWNLOAD"), eq("loi"), any(), eq(16))).thenReturn(List.of(5L));
+        when(workItemRepository.lockLongestWaiting(eq("DOWNLOAD"), eq("loi"), any(), eq(19))).thenReturn(List.of());
+        when(workItemRepository.findAllById(List.of(5L))).thenReturn(List.of(item(5L, 2024, 15)));
+
+        // When
+        List<WorkItem> claimed = service.claim(WorkStage.DOWNLOAD, "loi", "worker-b", 20);
+        service.fail("worker-b", List.of(5L), "IOException: timeout");
+
+        // Then
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(workItemRepository).markClaimed(eq(List.of(5L)), eq("worker-b"), leaseUntil.capture(), any(),
+                eq(WorkItem.Status.CLAIMED));
+        assertThat(claimed).hasSize(1);
+        assertThat(leaseUntil.getValue()).isAfter(LocalDateTime.now().plusSeconds(500));
+        verify(workItemRepository).fail(eq(List.of(5L)), eq("worker-b"), eq(3), eq(WorkItem.Status.FAILED),
+                any(), eq("IOException: timeout"), any(), eq(WorkItem.Status.CLAIMED));
+        verify(workItemRepository).fail(eq(List.of(5L)), eq("worker-b"), eq(0), eq(WorkItem.Status.READY),
+                any(), eq("IOException: timeout"), any(), eq(WorkItem.Status.CLAIMED));
+    }
+
+    @Test
+    void givenNewEntries_whenRefill_thenPrioritiesScoredPerTypeAndYear() {
+        // Given
+        int currentYear = Year.now().getValue();
+        when(workItemRepository.enqueueMissing(eq("EXTRACT"), eq("DOWNLOADED"), any())).thenReturn(3);
+        when(workItemRepository.findUnscoredGroups(WorkStage.EXTRACT)).thenReturn(List.of(
+                new Object[]{"loi", currentYear}, new Object[]{"decret", 1960}));
+
+        // When
+        int added = service.refill(WorkStage.EXTRACT);
+
+        // Then
+        assertThat(added).isEqualTo(3);
+        verify(workItemRepository).clearPriorities(WorkStage.EXTRACT, WorkItem.Status.READY);
+        verify(workItemRepository).assignPriority(WorkStage.EXTRACT, "loi", currentYear, 1050);
+        verify(workItemRepository).assignPriority(WorkStage.EXTRACT, "decret", 1960, -300);
+    }
+
+    private static WorkItem item(Long id, int year, int number) {
+        return WorkItem.builder()
+                .id(id)
+                .stage(WorkStage.EXTRACT)
+                .lawDocumentId(id * 10)
+                .documentType("loi")
+                .documentYear(year)
+                .documentNumber(number)
+                .status(WorkItem.Status.CLAIMED)
+                .build();
+    }
+}
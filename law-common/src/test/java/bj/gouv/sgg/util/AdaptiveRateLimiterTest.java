@@ -0,0 +1,144 @@
+package bj.gouv.sgg.util;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour AdaptiveRateLimiter.
+ */
+class AdaptiveRateLimiterTest {
+
+    private static final String HEAD_KEY = "sgg.gouv.bj:HEAD";
+
+    private AdaptiveRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        LawProperties properties = new LawProperties();
+        properties.getRateLimit().setInitialRate(10.0);
+        properties.getRateLimit().setBurst(2.0);
+        limiter = new AdaptiveRateLimiter(properties, new LawMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void givenUrlsOnSameHost_whenKey_thenSeparatedByChannel() {
+        // When
+        String head = AdaptiveRateLimiter.key("https://sgg.gouv.bj/doc/loi-2024-1", AdaptiveRateLimiter.CHANNEL_HEAD);
+        String get = AdaptiveRateLimiter.key("https://sgg.gouv.bj/doc/loi-2024-1/download", AdaptiveRateLimiter.CHANNEL_GET);
+
+        // Then
+        assertThat(head).isEqualTo(HEAD_KEY);
+        assertThat(get).isEqualTo("sgg.gouv.bj:GET");
+    }
+
+    @Test
+    void givenBurstExhausted_whenReserve_thenReturnsIncreasingDelays() {
+        // Given - 2 jetons de rafale disponibles
+        assertThat(limiter.reserve(HEAD_KEY)).isZero();
+        assertThat(limiter.reserve(HEAD_KEY)).isZero();
+
+        // When
+        long first = limiter.reserve(HEAD_KEY);
+        long second = limiter.reserve(HEAD_KEY);
+
+        // Then - réservations étalées (~100 ms puis ~200 ms à 10 req/s)
+        assertThat(first).isPositive();
+        assertThat(second).isGreaterThan(first);
+        assertThat(limiter.tryAcquire(HEAD_KEY)).isFalse();
+    }
+
+    @Test
+    void given429_whenOnResponse_thenRateHalvedOncePerWindow() {
+        // When - rafale de 429 concurrents
+        limiter.onResponse(HEAD_KEY, 429, 1_000_000);
+        limiter.onResponse(HEAD_KEY, 429, 1_000_000);
+        limiter.onResponse(HEAD_KEY, 429, 1_000_000);
+
+        // Then
+        AdaptiveRateLimiter.Stats stats = limiter.getStats(HEAD_KEY);
+        assertThat(stats.ratePerSecond).isEqualTo(5.0);
+        assertThat(stats.count429).isEqualTo(3);
+    }
+
+    @Test
+    void givenHealthyResponses_whenOnResponse_thenRateIncreasesSmoothly() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(HEAD_KEY, 200, 1_000_000);
+        }
+
+        // Then - ~ +1 req/s pour 10 réponses à 10 req/s
+        double rate = limiter.getStats(HEAD_KEY).ratePerSecond;
+        assertThat(rate).isGreaterThan(10.0).isLessThan(11.5);
+    }
+
+    @Test
+    void givenSingleFastOutlier_whenOnResponse_thenLatencyBaselineNotPinnedAndRateKeepsIncreasing() {
+        // Given - latence stable de 100 ms
+        for (int i = 0; i < 20; i++) {
+            limiter.onResponse(HEAD_KEY, 200, 100_000_000L);
+        }
+        double before = limiter.getStats(HEAD_KEY).ratePerSecond;
+
+        // When - une réponse anormalement rapide (1 ms), puis retour à 100 ms
+        limiter.onResponse(HEAD_KEY, 200, 1_000_000L);
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(HEAD_KEY, 200, 100_000_000L);
+        }
+
+        // Then - pas de fausse congestion : le débit continue d'augmenter
+        assertThat(limiter.getStats(HEAD_KEY).ratePerSecond).isGreaterThan(before);
+    }
+
+    @Test
+    void givenSustainedLatencyIncrease_whenOnResponse_thenRateDecreased() {
+        // Given - latence stable de 10 ms
+        for (int i = 0; i < 20; i++) {
+            limiter.onResponse(HEAD_KEY, 200, 10_000_000L);
+        }
+        double before = limiter.getStats(HEAD_KEY).ratePerSecond;
+
+        // When - la latence passe durablement à 100 ms
+        for (int i = 0; i < 10; i++) {
+            limiter.onResponse(HEAD_KEY, 200, 100_000_000L);
+        }
+
+        // Then
+        assertThat(limiter.getStats(HEAD_KEY).ratePerSecond).isLessThan(before);
+    }
+
+    @Test
+    void givenDistinctKeys_whenOnResponse_thenStatesAreIndependent() {
+        // When
+        limiter.onResponse(HEAD_KEY, 429, 1_000_000);
+
+        // Then
+        assertThat(limiter.getStats("sgg.gouv.bj:GET").ratePerSecond).isEqualTo(10.0);
+    }
+
+    @Test
+    void givenResponses_whenOnResponse_thenLatencyAndRateExported() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LawProperties properties = new LawProperties();
+        AdaptiveRateLimiter instrumented = new AdaptiveRateLimiter(properties, new LawMetrics(registry));
+
+        // When
+        instrumented.onResponse(HEAD_KEY, 200, 5_000_000L);
+        instrumented.onResponse(HEAD_KEY, 429, 5_000_000L);
+
+        // Then - un timer par hôte/canal/code et une gauge de débit par clé
+        Timer ok = registry.find("law.http.requests")
+            .tags("host", "sgg.gouv.bj", "channel", "HEAD", "status", "200").timer();
+        assertThat(ok).isNotNull();
+        assertThat(ok.count()).isEqualTo(1);
+        assertThat(registry.find("law.http.requests").tag("status", "429").timer()).isNotNull();
+        assertThat(registry.find("law.http.rate").tag("key", HEAD_KEY).gauge().value()).isPositive();
+    }
+}
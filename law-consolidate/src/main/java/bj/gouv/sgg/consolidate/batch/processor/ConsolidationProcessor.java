@@ -68,7 +68,7 @@ public class ConsolidationProcessor implements ItemProcessor<LawDocument, LawDoc
             if (wasConsolidated) {
                 log.info("✅ [{}] Consolidation réussie", docId);
             } else {
-                log.info("⏭️ [{}] Confiance inférieure, données existantes conservées", docId);
+                log.info("⏭️ [{}] JSON inchangé ou confiance inférieure, données existantes conservées", docId);
             }
 
             return document;
@@ -2,13 +2,13 @@ package bj.gouv.sgg.consolidate.batch.reader;
 
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentPriorityPolicy;
 import bj.gouv.sgg.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
 
@@ -18,7 +18,7 @@ import java.util.List;
  * <p><b>Critères de lecture</b> :
  * <ul>
  *   <li>Status : {@code EXTRACTED} (JSON généré par law-ocr-json)</li>
- *   <li>Ordre : Chronologique (année DESC, numéro DESC)</li>
+ *   <li>Ordre : {@link DocumentPriorityPolicy} (année en cours d'abord, part réservée à l'arriéré)</li>
  * </ul>
  * 
  * <p><b>Fonctionnement</b> :
@@ -42,6 +42,7 @@ public class JsonFileItemReader implements ItemReader<LawDocument> {
     
     private final LawDocumentRepository lawDocumentRepository;
     private final FileStorageService fileStorageService;
+    private final DocumentPriorityPolicy priorityPolicy;
     
     private Iterator<LawDocument> documentIterator;
     private int totalDocuments = 0;
@@ -69,7 +70,6 @@ public class JsonFileItemReader implements ItemReader<LawDocument> {
             String docId = doc.getDocumentId();
             
             // Vérifier existence du fichier JSON
-            Path jsonPath = fileStorageService.jsonPath(doc.getType(), docId);
             if (!fileStorageService.jsonExists(doc.getType(), docId)) {
                 log.debug("⏭️ [{}] JSON non trouvé, skip (extraction pas encore faite)", docId);
                 skippedNoJson++;
@@ -120,6 +120,7 @@ public class JsonFileItemReader implements ItemReader<LawDocument> {
             log.info("🎯 Filtrage par type='{}' appliqué: {} documents", typeFilter, documents.size());
         }
         
+        documents = priorityPolicy.order(documents, null);
         totalDocuments = documents.size();
         documentIterator = documents.iterator();
         
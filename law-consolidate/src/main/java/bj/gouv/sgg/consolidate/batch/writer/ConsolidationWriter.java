@@ -1,20 +1,27 @@
 package bj.gouv.sgg.consolidate.batch.writer;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.LawDocument;
-import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentStatusManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * ItemWriter Spring Batch pour sauvegarder les résultats de consolidation.
  * 
  * <p><b>Responsabilités</b> :
  * <ul>
  *   <li>Mettre à jour status document (CONSOLIDATED ou FAILED)</li>
- *   <li>Persister modifications en base de données</li>
+ *   <li>Persister les statuts du chunk en une transition ensembliste depuis EXTRACTED</li>
  *   <li>Logger résultats par statut</li>
  * </ul>
  * 
@@ -33,40 +40,50 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class ConsolidationWriter implements ItemWriter<LawDocument> {
     
-    private final LawDocumentRepository lawDocumentRepository;
+    private final DocumentStatusManager statusManager;
+    private final LawMetrics metrics;
     
     @Override
     public void write(Chunk<? extends LawDocument> chunk) {
+        Map<LawDocument.ProcessingStatus, List<LawDocument>> byStatus = new EnumMap<>(LawDocument.ProcessingStatus.class);
+        for (LawDocument document : chunk) {
+            if (document.getStatus() != null) {
+                byStatus.computeIfAbsent(document.getStatus(), k -> new ArrayList<>()).add(document);
+            }
+        }
+        
         int consolidated = 0;
         int failed = 0;
         
-        for (LawDocument document : chunk) {
-            String docId = document.getDocumentId();
-            
+        // Une transition ensembliste par statut cible, depuis EXTRACTED (statut lu par le reader)
+        for (Map.Entry<LawDocument.ProcessingStatus, List<LawDocument>> entry : byStatus.entrySet()) {
+            LawDocument.ProcessingStatus status = entry.getKey();
+            Set<String> moved;
             try {
-                // Sauvegarder status avec flush immédiat pour garantir commit
-                LawDocument saved = lawDocumentRepository.saveAndFlush(document);
-                
-                // Vérification post-sauvegarde
-                if (saved.getStatus() != document.getStatus()) {
-                    log.error("❌ [{}] CRITICAL: Status not persisted! Expected {} but got {}", 
-                             docId, document.getStatus(), saved.getStatus());
-                }
-                
-                if (saved.getStatus() == LawDocument.ProcessingStatus.CONSOLIDATED) {
+                moved = statusManager.transitionStatus(entry.getValue(), LawDocument.ProcessingStatus.EXTRACTED, status);
+            } catch (Exception e) {
+                // En cas d'erreur, logger mais ne pas arrêter le job
+                log.error("❌ Erreur sauvegarde status {} ({} documents): {}", 
+                         status, entry.getValue().size(), e.getMessage(), e);
+                failed += entry.getValue().size();
+                metrics.recordItems(LawMetrics.STAGE_CONSOLIDATE, "ERROR", entry.getValue().size());
+                continue;
+            }
+            metrics.recordItems(LawMetrics.STAGE_CONSOLIDATE, status.name(), moved.size());
+            
+            for (LawDocument document : entry.getValue()) {
+                String docId = document.getDocumentId();
+                if (!moved.contains(docId)) {
+                    log.warn("⚠️ [{}] Statut modifié par une autre étape - {} non appliqué", docId, status);
+                } else if (status == LawDocument.ProcessingStatus.CONSOLIDATED) {
                     consolidated++;
                     log.info("✅ [{}] Status mis à jour → CONSOLIDATED", docId);
-                } else if (saved.getStatus() == LawDocument.ProcessingStatus.FAILED) {
+                } else if (status == LawDocument.ProcessingStatus.FAILED) {
                     failed++;
                     log.warn("⚠️ [{}] Status mis à jour → FAILED", docId);
                 } else {
-                    log.debug("📝 [{}] Status: {}", docId, saved.getStatus());
+                    log.debug("📝 [{}] Status: {}", docId, status);
                 }
-                
-            } catch (Exception e) {
-                // En cas d'erreur, logger mais ne pas arrêter le job
-                log.error("❌ [{}] Erreur sauvegarde status: {}", docId, e.getMessage(), e);
-                failed++;
             }
         }
         
@@ -4,7 +4,11 @@ import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.consolidate.batch.processor.ConsolidationProcessor;
 import bj.gouv.sgg.consolidate.batch.reader.JsonFileItemReader;
 import bj.gouv.sgg.consolidate.batch.writer.ConsolidationWriter;
+import bj.gouv.sgg.batch.reader.WorkQueueItemReader;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.WorkQueueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -62,6 +66,8 @@ public class ConsolidateJobConfiguration {
     private final JobRepository jobRepository;
     private final LawProperties properties;
     private final PlatformTransactionManager transactionManager;
+    private final WorkQueueService workQueueService;
+    private final LawDocumentRepository lawDocumentRepository;
     
     /**
      * Job Spring Batch pour consolider les documents extraits.
@@ -94,7 +100,7 @@ public class ConsolidateJobConfiguration {
         
         return new StepBuilder("consolidateStep", jobRepository)
             .<LawDocument, LawDocument>chunk(chunkSize, transactionManager)
-            .reader(reader)
+            .reader(new WorkQueueItemReader(WorkStage.CONSOLIDATE, reader, workQueueService, lawDocumentRepository, properties))
             .processor(processor)
             .writer(writer)
             .faultTolerant()
@@ -0,0 +1,23 @@
+package bj.gouv.sgg.consolidate.exception;
+
+/**
+ * Exception levée par l'index plein texte des articles consolidés.
+ *
+ * <p><b>Cas d'usage</b> :
+ * <ul>
+ *   <li>Requête de recherche invalide (syntaxe booléenne ou phrase mal formée)</li>
+ *   <li>Index illisible ou non inscriptible (répertoire, verrou, disque plein)</li>
+ * </ul>
+ *
+ * @see bj.gouv.sgg.consolidate.search.ArticleSearchService
+ */
+public class ArticleSearchException extends RuntimeException {
+
+    public ArticleSearchException(String message) {
+        super(message);
+    }
+
+    public ArticleSearchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
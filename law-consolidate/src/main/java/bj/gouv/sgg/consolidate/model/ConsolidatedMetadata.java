@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
  * <ul>
  *   <li>PK : {@code id} (auto-increment)</li>
  *   <li>UK : {@code documentId} (1 metadata par document)</li>
- *   <li>Index : {@code documentType}, {@code documentYear}, {@code promulgationDate}</li>
+ *   <li>Index : {@code documentType}, {@code documentYear}, {@code (documentYear, documentNumber)}, {@code promulgationDate}</li>
  * </ul>
  * 
  * <p><b>Idempotence</b> : La contrainte {@code UNIQUE(documentId)} garantit
@@ -34,6 +34,7 @@ import java.time.LocalDateTime;
     indexes = {
         @Index(name = "idx_cm_document_type", columnList = "documentType"),
         @Index(name = "idx_cm_document_year", columnList = "documentYear"),
+        @Index(name = "idx_cm_year_number", columnList = "documentYear, documentNumber"),
         @Index(name = "idx_cm_promulgation_date", columnList = "promulgationDate"),
         @Index(name = "idx_cm_consolidated_at", columnList = "consolidatedAt")
     },
@@ -125,6 +126,13 @@ public class ConsolidatedMetadata {
     @Column(length = 500)
     private String sourceUrl;
     
+    /**
+     * Empreinte SHA-256 (hex) du fichier JSON consommé lors de la dernière consolidation.
+     * Un JSON identique n'est ni re-parsé ni ré-écrit en base.
+     */
+    @Column(length = 64)
+    private String sourceSha256;
+    
     /**
      * Confiance de l'extraction (0.0 à 1.0).
      * Héritée du fichier JSON (_metadata.confidence).
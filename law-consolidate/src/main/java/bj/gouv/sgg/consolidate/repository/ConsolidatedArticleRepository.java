@@ -1,7 +1,9 @@
 package bj.gouv.sgg.consolidate.repository;
 
 import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -91,6 +93,18 @@ public interface ConsolidatedArticleRepository extends JpaRepository<Consolidate
      */
     void deleteByDocumentId(String documentId);
     
+    /**
+     * Met à jour en une seule requête la confiance d'extraction de tous les articles d'un document.
+     * À appeler avant de charger les articles du document dans la transaction.
+     * 
+     * @param documentId ID du document (ex: "loi-2024-15")
+     * @param confidence Nouvelle confiance (0.0 à 1.0)
+     * @return Nombre d'articles mis à jour
+     */
+    @Modifying
+    @Query("UPDATE ConsolidatedArticle a SET a.extractionConfidence = :confidence WHERE a.documentId = :documentId")
+    int updateExtractionConfidence(@Param("documentId") String documentId, @Param("confidence") Double confidence);
+    
     /**
      * Compte le nombre total d'articles consolidés.
      * 
@@ -98,4 +112,32 @@ public interface ConsolidatedArticleRepository extends JpaRepository<Consolidate
      */
     @Query("SELECT COUNT(a) FROM ConsolidatedArticle a")
     long countAllArticles();
+
+    /**
+     * Page d'articles par clé (ID strictement supérieur), pour parcourir toute la table
+     * sans OFFSET (reconstruction de l'index de recherche).
+     *
+     * @param id Dernier ID de la page précédente (0 pour commencer)
+     * @param pageable Taille de page (page 0)
+     * @return Articles suivants triés par ID ASC
+     */
+    List<ConsolidatedArticle> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Page d'articles par clé (ID ASC) avec filtres optionnels type / année.
+     *
+     * @param documentType Filtre type (null = tous)
+     * @param year Filtre année (null = toutes)
+     * @param afterId Dernier ID de la page précédente (0 pour commencer)
+     * @param pageable Taille de page (page 0)
+     * @return Articles suivants triés par ID ASC
+     */
+    @Query("SELECT a FROM ConsolidatedArticle a "
+            + "WHERE (:documentType IS NULL OR a.documentType = :documentType) "
+            + "AND (:year IS NULL OR a.documentYear = :year) "
+            + "AND a.id > :afterId ORDER BY a.id ASC")
+    List<ConsolidatedArticle> findPageAfter(@Param("documentType") String documentType,
+                                            @Param("year") Integer year,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
 }
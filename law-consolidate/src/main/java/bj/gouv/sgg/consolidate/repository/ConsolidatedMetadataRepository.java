@@ -1,6 +1,7 @@
 package bj.gouv.sgg.consolidate.repository;
 
 import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -103,4 +104,31 @@ public interface ConsolidatedMetadataRepository extends JpaRepository<Consolidat
      * @return Nombre de documents de l'année donnée
      */
     long countByDocumentYear(Integer year);
+
+    /**
+     * Page de documents par clé (année DESC, numéro DESC, id DESC), filtres optionnels.
+     * Strictement après le curseur {@code (afterYear, afterNumber, afterId)} : pas d'OFFSET,
+     * coût constant quelle que soit la profondeur de la page.
+     *
+     * @param documentType Filtre type (null = tous)
+     * @param year Filtre année (null = toutes)
+     * @param afterYear Année du dernier élément de la page précédente ({@code Integer.MAX_VALUE} pour la 1re page)
+     * @param afterNumber Numéro du dernier élément de la page précédente
+     * @param afterId ID du dernier élément de la page précédente
+     * @param pageable Taille de page (page 0)
+     * @return Documents suivants
+     */
+    @Query("SELECT m FROM ConsolidatedMetadata m "
+            + "WHERE (:documentType IS NULL OR m.documentType = :documentType) "
+            + "AND (:year IS NULL OR m.documentYear = :year) "
+            + "AND (m.documentYear < :afterYear "
+            + "  OR (m.documentYear = :afterYear AND (m.documentNumber < :afterNumber "
+            + "  OR (m.documentNumber = :afterNumber AND m.id < :afterId)))) "
+            + "ORDER BY m.documentYear DESC, m.documentNumber DESC, m.id DESC")
+    List<ConsolidatedMetadata> findPageAfter(@Param("documentType") String documentType,
+                                             @Param("year") Integer year,
+                                             @Param("afterYear") Integer afterYear,
+                                             @Param("afterNumber") Integer afterNumber,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
 }
@@ -1,8 +1,10 @@
 package bj.gouv.sgg.consolidate.repository;
 
 import bj.gouv.sgg.consolidate.model.ConsolidatedSignatory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -110,4 +112,22 @@ public interface ConsolidatedSignatoryRepository extends JpaRepository<Consolida
      */
     @Query("SELECT DISTINCT s.name, s.role FROM ConsolidatedSignatory s ORDER BY s.name")
     List<Object[]> findDistinctSignatories();
+
+    /**
+     * Page de signataires par clé (ID ASC) avec filtres optionnels type / année.
+     *
+     * @param documentType Filtre type (null = tous)
+     * @param year Filtre année (null = toutes)
+     * @param afterId Dernier ID de la page précédente (0 pour commencer)
+     * @param pageable Taille de page (page 0)
+     * @return Signataires suivants triés par ID ASC
+     */
+    @Query("SELECT s FROM ConsolidatedSignatory s "
+            + "WHERE (:documentType IS NULL OR s.documentType = :documentType) "
+            + "AND (:year IS NULL OR s.documentYear = :year) "
+            + "AND s.id > :afterId ORDER BY s.id ASC")
+    List<ConsolidatedSignatory> findPageAfter(@Param("documentType") String documentType,
+                                              @Param("year") Integer year,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
 }
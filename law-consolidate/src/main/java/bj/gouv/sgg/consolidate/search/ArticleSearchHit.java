@@ -0,0 +1,23 @@
+package bj.gouv.sgg.consolidate.search;
+
+/**
+ * Article trouvé par une recherche plein texte.
+ *
+ * @param documentId   ID du document (ex: "loi-2024-15")
+ * @param documentType Type de document (loi, decret)
+ * @param documentYear Année du document
+ * @param documentNumber Numéro du document
+ * @param articleIndex Numéro de l'article dans le document
+ * @param score        Pertinence (BM25)
+ * @param excerpt      Début du contenu de l'article, lu depuis l'index (pas depuis la base)
+ */
+public record ArticleSearchHit(
+        String documentId,
+        String documentType,
+        int documentYear,
+        int documentNumber,
+        int articleIndex,
+        float score,
+        String excerpt
+) {
+}
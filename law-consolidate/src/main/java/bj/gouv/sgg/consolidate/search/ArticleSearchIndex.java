@@ -0,0 +1,346 @@
+package bj.gouv.sgg.consolidate.search;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.exception.ArticleSearchException;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index Lucene embarqué (sur disque) des articles consolidés.
+ *
+ * <p><b>Structure</b> : un document Lucene par article ; {@code documentId}, type et année
+ * sont indexés tels quels (filtres), le contenu passe par l'analyse française
+ * (minuscules, élisions "l'", accents, racinisation légère).
+ *
+ * <p><b>Mises à jour</b> : {@link #replaceDocument} remplace atomiquement tous les articles
+ * d'un document ({@code updateDocuments} sur le terme documentId). {@link ArticleSearchService}
+ * les commite après chaque transaction ; le searcher est rafraîchi à chaque commit (et, s'il
+ * reste des modifications en attente, à la recherche suivante), pas à chaque écriture.
+ * Une reconstruction complète commite tous les {@code law.search.commit-every-documents}
+ * articles ainsi qu'à l'arrêt.
+ *
+ * <p><b>Amorçage</b> : une reconstruction complète réussie est inscrite dans les données
+ * utilisateur du commit Lucene ({@link #isBootstrapped()}), conservées par les commits suivants.
+ *
+ * <p>Ouverture paresseuse : l'index n'est ouvert qu'au premier usage.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ArticleSearchIndex {
+
+    static final String F_DOCUMENT_ID = "documentId";
+    static final String F_TYPE = "documentType";
+    static final String F_YEAR = "documentYear";
+    static final String F_NUMBER = "documentNumber";
+    static final String F_ARTICLE_INDEX = "articleIndex";
+    static final String F_CONTENT = "content";
+
+    private static final int EXCERPT_LENGTH = 280;
+    private static final String BOOTSTRAP_MARKER = "bootstrapped";
+
+    private final LawProperties properties;
+    private final Analyzer analyzer = new FrenchAnalyzer();
+    private final AtomicInteger uncommittedDocuments = new AtomicInteger();
+
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+
+    /**
+     * Remplace tous les articles indexés d'un document par la nouvelle version.
+     */
+    public void replaceDocument(String documentId, Collection<ConsolidatedArticle> articles) {
+        try {
+            List<Document> documents = new ArrayList<>(articles.size());
+            for (ConsolidatedArticle article : articles) {
+                documents.add(toLuceneDocument(article));
+            }
+            writer().updateDocuments(new Term(F_DOCUMENT_ID, documentId), documents);
+            afterWrite(1);
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot index document " + documentId, e);
+        }
+    }
+
+    /**
+     * Retire un document (tous ses articles) de l'index.
+     */
+    public void deleteDocument(String documentId) {
+        try {
+            writer().deleteDocuments(new Term(F_DOCUMENT_ID, documentId));
+            afterWrite(1);
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot remove document " + documentId + " from index", e);
+        }
+    }
+
+    /**
+     * Ajoute des articles sans suppression préalable (reconstruction complète après {@link #deleteAll()}).
+     */
+    public void addArticles(Collection<ConsolidatedArticle> articles) {
+        try {
+            List<Document> documents = new ArrayList<>(articles.size());
+            for (ConsolidatedArticle article : articles) {
+                documents.add(toLuceneDocument(article));
+            }
+            writer().addDocuments(documents);
+            afterWrite(documents.size());
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot add articles to index", e);
+        }
+    }
+
+    /**
+     * Vide l'index et retire le marqueur d'amorçage (jusqu'à {@link #markBootstrapped()}).
+     */
+    public void deleteAll() {
+        try {
+            IndexWriter current = writer();
+            current.deleteAll();
+            current.setLiveCommitData(Map.<String, String>of().entrySet());
+            afterWrite(1);
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot clear index", e);
+        }
+    }
+
+    /**
+     * Nombre d'articles présents dans l'index (modifications non commitées comprises).
+     */
+    public int articleCount() {
+        try {
+            return writer().getDocStats().numDocs;
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot open index", e);
+        }
+    }
+
+    /**
+     * Indique si l'index a été reconstruit intégralement depuis la base (marqueur commité).
+     */
+    public boolean isBootstrapped() {
+        try {
+            Iterable<Map.Entry<String, String>> commitData = writer().getLiveCommitData();
+            if (commitData != null) {
+                for (Map.Entry<String, String> entry : commitData) {
+                    if (BOOTSTRAP_MARKER.equals(entry.getKey())) {
+                        return Boolean.parseBoolean(entry.getValue());
+                    }
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot open index", e);
+        }
+    }
+
+    /**
+     * Inscrit le marqueur d'amorçage, rendu durable au prochain {@link #commit()}.
+     */
+    public void markBootstrapped() {
+        try {
+            writer().setLiveCommitData(Map.of(BOOTSTRAP_MARKER, "true").entrySet());
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot open index", e);
+        }
+    }
+
+    /**
+     * Exécute une recherche : texte analysé (phrase, booléens, préfixes) + filtres non scorés.
+     *
+     * @param query Requête
+     * @param limit Nombre maximum de résultats retournés
+     */
+    public ArticleSearchResult search(ArticleSearchQuery query, int limit) {
+        long start = System.nanoTime();
+        Query luceneQuery = buildQuery(query);
+        try {
+            SearcherManager manager = searcherManager();
+            manager.maybeRefresh();
+            IndexSearcher searcher = manager.acquire();
+            try {
+                TopDocs top = searcher.search(luceneQuery, Math.max(1, limit));
+                StoredFields storedFields = searcher.storedFields();
+                List<ArticleSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    hits.add(toHit(storedFields.document(scoreDoc.doc), scoreDoc.score));
+                }
+                long tookMillis = (System.nanoTime() - start) / 1_000_000;
+                return new ArticleSearchResult(top.totalHits.value, tookMillis, hits);
+            } finally {
+                manager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new ArticleSearchException("Search failed: " + query.getText(), e);
+        }
+    }
+
+    /**
+     * Rend durables les modifications en attente et rafraîchit le searcher.
+     */
+    public void commit() {
+        IndexWriter current = writer;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (current.hasUncommittedChanges()) {
+                current.commit();
+                searcherManager.maybeRefresh();
+                log.debug("💾 Search index committed ({} documents)", uncommittedDocuments.getAndSet(0));
+            }
+        } catch (IOException e) {
+            throw new ArticleSearchException("Cannot commit search index", e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            commit();
+            searcherManager.close();
+            writer.close();
+            log.info("🔒 Search index closed");
+        } catch (IOException | ArticleSearchException e) {
+            log.warn("⚠️ Search index close failed: {}", e.getMessage());
+        } finally {
+            writer = null;
+            searcherManager = null;
+        }
+    }
+
+    private Query buildQuery(ArticleSearchQuery query) {
+        if (query.getText() == null || query.getText().isBlank()) {
+            throw new ArticleSearchException("Search text is required");
+        }
+        QueryParser parser = new QueryParser(F_CONTENT, analyzer); // Non thread-safe : une instance par requête
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        Query textQuery;
+        try {
+            textQuery = parser.parse(query.getText());
+        } catch (ParseException e) {
+            throw new ArticleSearchException("Invalid search query: " + query.getText(), e);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (query.getDocumentType() != null && !query.getDocumentType().isBlank()) {
+            builder.add(new TermQuery(new Term(F_TYPE, query.getDocumentType())), BooleanClause.Occur.FILTER);
+        }
+        if (query.getYearFrom() != null || query.getYearTo() != null) {
+            int from = query.getYearFrom() != null ? query.getYearFrom() : Integer.MIN_VALUE;
+            int to = query.getYearTo() != null ? query.getYearTo() : Integer.MAX_VALUE;
+            builder.add(IntPoint.newRangeQuery(F_YEAR, from, to), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private static Document toLuceneDocument(ConsolidatedArticle article) {
+        Document document = new Document();
+        document.add(new StringField(F_DOCUMENT_ID, article.getDocumentId(), Field.Store.YES));
+        if (article.getDocumentType() != null) {
+            document.add(new StringField(F_TYPE, article.getDocumentType(), Field.Store.YES));
+        }
+        int year = article.getDocumentYear() != null ? article.getDocumentYear() : 0;
+        document.add(new IntPoint(F_YEAR, year));
+        document.add(new StoredField(F_YEAR, year));
+        document.add(new StoredField(F_NUMBER, article.getDocumentNumber() != null ? article.getDocumentNumber() : 0));
+        document.add(new StoredField(F_ARTICLE_INDEX, article.getArticleIndex()));
+        document.add(new TextField(F_CONTENT, article.getContent(), Field.Store.YES));
+        return document;
+    }
+
+    private static ArticleSearchHit toHit(Document document, float score) {
+        return new ArticleSearchHit(
+                document.get(F_DOCUMENT_ID),
+                document.get(F_TYPE),
+                document.getField(F_YEAR).numericValue().intValue(),
+                document.getField(F_NUMBER).numericValue().intValue(),
+                document.getField(F_ARTICLE_INDEX).numericValue().intValue(),
+                score,
+                excerpt(document.get(F_CONTENT)));
+    }
+
+    private static String excerpt(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int cut = content.lastIndexOf(' ', EXCERPT_LENGTH);
+        return content.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "…";
+    }
+
+    private void afterWrite(int documents) {
+        if (uncommittedDocuments.addAndGet(documents) >= properties.getSearch().getCommitEveryDocuments()) {
+            commit();
+        }
+    }
+
+    private IndexWriter writer() throws IOException {
+        IndexWriter current = writer;
+        if (current == null) {
+            open();
+            current = writer;
+        }
+        return current;
+    }
+
+    private SearcherManager searcherManager() throws IOException {
+        SearcherManager current = searcherManager;
+        if (current == null) {
+            open();
+            current = searcherManager;
+        }
+        return current;
+    }
+
+    private synchronized void open() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        Path indexDir = Path.of(properties.getSearch().getIndexDir());
+        Files.createDirectories(indexDir);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        IndexWriter opened = new IndexWriter(FSDirectory.open(indexDir), config);
+        searcherManager = new SearcherManager(opened, null);
+        writer = opened;
+        log.info("🔎 Search index opened: {} ({} articles)", indexDir, opened.getDocStats().numDocs);
+    }
+}
@@ -0,0 +1,30 @@
+package bj.gouv.sgg.consolidate.search;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Requête de recherche plein texte sur les articles consolidés.
+ *
+ * <p><b>Syntaxe du texte</b> (analyse française : accents, pluriels et élisions normalisés) :
+ * <ul>
+ *   <li>{@code marchés publics} : tous les termes (ET implicite)</li>
+ *   <li>{@code "code des marchés publics"} : phrase exacte</li>
+ *   <li>{@code douane OR fiscalité}, {@code impôt NOT foncier}, {@code +budget -rectificative} : booléens</li>
+ *   <li>{@code financ*} : préfixe</li>
+ * </ul>
+ *
+ * <p>Les filtres type / années ne modifient pas le score.
+ */
+@Getter
+@Builder
+public class ArticleSearchQuery {
+
+    private final String text;             // Texte de la requête (obligatoire)
+    private final String documentType;     // Filtre type (loi, decret), optionnel
+    private final Integer yearFrom;        // Filtre année minimale incluse, optionnel
+    private final Integer yearTo;          // Filtre année maximale incluse, optionnel
+
+    @Builder.Default
+    private final int limit = 20;          // Nombre de résultats (plafonné par law.search.max-results)
+}
@@ -0,0 +1,17 @@
+package bj.gouv.sgg.consolidate.search;
+
+import java.util.List;
+
+/**
+ * Résultat d'une recherche plein texte.
+ *
+ * @param totalHits  Nombre total d'articles correspondants (au-delà de la page retournée)
+ * @param tookMillis Durée de la recherche
+ * @param hits       Articles les plus pertinents, par score décroissant
+ */
+public record ArticleSearchResult(long totalHits, long tookMillis, List<ArticleSearchHit> hits) {
+
+    public static ArticleSearchResult empty() {
+        return new ArticleSearchResult(0, 0, List.of());
+    }
+}
@@ -0,0 +1,187 @@
+package bj.gouv.sgg.consolidate.search;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.exception.ArticleSearchException;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche plein texte sur les articles consolidés, servie par l'index Lucene embarqué
+ * ({@link ArticleSearchIndex}) : aucune requête SQL n'est émise pour rechercher.
+ *
+ * <p><b>Maintenance incrémentale</b> : {@link bj.gouv.sgg.consolidate.service.ConsolidationService}
+ * notifie chaque document écrit ou supprimé. Dans une transaction, l'index n'est mis à jour
+ * qu'après le commit (un rollback du chunk ne laisse pas d'articles fantômes dans l'index),
+ * puis le commit Lucene est fait aussitôt : un arrêt brutal ne perd pas de mises à jour
+ * déjà commitées en base. Une erreur d'indexation est journalisée sans faire échouer la
+ * consolidation ; {@link #reindexAll()} reconstruit l'index depuis la base.
+ *
+ * <p><b>Amorçage</b> : tant qu'aucune reconstruction complète n'a été commitée dans l'index
+ * (première activation, ou index alimenté seulement par des mises à jour incrémentales),
+ * il est reconstruit au premier usage : les articles consolidés avant l'existence de
+ * l'index y sont ainsi toujours présents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArticleSearchService {
+
+    private static final int REINDEX_PAGE_SIZE = 1000;
+
+    private final ArticleSearchIndex index;
+    private final ConsolidatedArticleRepository articleRepository;
+    private final LawProperties properties;
+
+    private volatile boolean bootstrapped;
+
+    /**
+     * Recherche les articles correspondant à la requête.
+     *
+     * @param query Texte et filtres
+     * @return Articles les plus pertinents (vide si la recherche est désactivée)
+     * @throws ArticleSearchException si la syntaxe de la requête est invalide
+     */
+    public ArticleSearchResult search(ArticleSearchQuery query) {
+        if (!properties.getSearch().isEnabled()) {
+            return ArticleSearchResult.empty();
+        }
+        ensureBootstrapped();
+        int limit = Math.min(Math.max(1, query.getLimit()), properties.getSearch().getMaxResults());
+        ArticleSearchResult result = index.search(query, limit);
+        log.debug("🔎 '{}' → {} résultats en {} ms", query.getText(), result.totalHits(), result.tookMillis());
+        return result;
+    }
+
+    /**
+     * Notifie l'écriture (création ou remplacement) des articles d'un document.
+     */
+    public void onArticlesReplaced(String documentId, List<ConsolidatedArticle> articles) {
+        if (!properties.getSearch().isEnabled()) {
+            return;
+        }
+        List<ConsolidatedArticle> snapshot = List.copyOf(articles);
+        afterCommit(documentId, () -> index.replaceDocument(documentId, snapshot));
+    }
+
+    /**
+     * Notifie la suppression des données consolidées d'un document.
+     */
+    public void onDocumentDeleted(String documentId) {
+        if (!properties.getSearch().isEnabled()) {
+            return;
+        }
+        afterCommit(documentId, () -> index.deleteDocument(documentId));
+    }
+
+    /**
+     * Reconstruit entièrement l'index depuis la base (pagination par clé sur l'ID).
+     *
+     * @return Nombre d'articles indexés
+     */
+    public synchronized long reindexAll() {
+        long start = System.currentTimeMillis();
+        log.info("🔄 Reconstruction de l'index de recherche...");
+        index.deleteAll();
+
+        long indexed = 0;
+        long lastId = 0L;
+        List<ConsolidatedArticle> page;
+        do {
+            page = articleRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REINDEX_PAGE_SIZE));
+            if (!page.isEmpty()) {
+                index.addArticles(page);
+                indexed += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == REINDEX_PAGE_SIZE);
+
+        index.markBootstrapped();
+        index.commit();
+        bootstrapped = true;
+        log.info("✅ Index de recherche reconstruit : {} articles en {} ms",
+                indexed, System.currentTimeMillis() - start);
+        return indexed;
+    }
+
+    private void ensureBootstrapped() {
+        if (bootstrapped) {
+            return;
+        }
+        synchronized (this) {
+            if (bootstrapped) {
+                return;
+            }
+            if (index.isBootstrapped()) {
+                bootstrapped = true;
+            } else {
+                reindexAll();
+            }
+        }
+    }
+
+    /**
+     * Applique la mise à jour après le commit de la transaction courante, ou immédiatement
+     * hors transaction. Les mises à jour d'une même transaction sont regroupées par document.
+     */
+    private void afterCommit(String documentId, Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyAndCommit(Map.of(documentId, update));
+            return;
+        }
+        PendingIndexUpdates pending = (PendingIndexUpdates) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingIndexUpdates();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.updates.put(documentId, update); // La dernière version du document l'emporte
+    }
+
+    /**
+     * Applique les mises à jour puis les rend durables (un commit Lucene par transaction).
+     */
+    private void applyAndCommit(Map<String, Runnable> updates) {
+        for (Map.Entry<String, Runnable> entry : updates.entrySet()) {
+            applySafely(entry.getKey(), entry.getValue());
+        }
+        try {
+            index.commit();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Commit de l'index plein texte échoué : {}", e.getMessage());
+        }
+    }
+
+    private void applySafely(String documentId, Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            // ArticleSearchException comme erreur Lucene inattendue : la consolidation est déjà commitée
+            log.warn("⚠️ [{}] Indexation plein texte échouée : {}", documentId, e.getMessage());
+        }
+    }
+
+    private final class PendingIndexUpdates implements TransactionSynchronization {
+
+        private final Map<String, Runnable> updates = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            applyAndCommit(new LinkedHashMap<>(updates));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ArticleSearchService.this);
+        }
+    }
+}
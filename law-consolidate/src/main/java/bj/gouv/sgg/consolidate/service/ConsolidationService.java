@@ -7,6 +7,7 @@ import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
 import bj.gouv.sgg.consolidate.repository.ConsolidatedMetadataRepository;
 import bj.gouv.sgg.consolidate.repository.ConsolidatedSignatoryRepository;
 import bj.gouv.sgg.consolidate.exception.ConsolidationException;
+import bj.gouv.sgg.consolidate.search.ArticleSearchService;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.service.FileStorageService;
 import com.google.gson.Gson;
@@ -18,12 +19,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Service de consolidation des données JSON vers MySQL.
@@ -82,6 +88,7 @@ public class ConsolidationService {
     private final ConsolidatedArticleRepository articleRepository;
     private final ConsolidatedMetadataRepository metadataRepository;
     private final ConsolidatedSignatoryRepository signatoryRepository;
+    private final ArticleSearchService articleSearchService;
     private final Gson gson;
     
     // JSON field names constants
@@ -102,7 +109,12 @@ public class ConsolidationService {
      * supérieure à l'existante. Sinon, les données existantes sont conservées.
      * 
      * @param document Document à consolider (doit avoir status EXTRACTED)
-     * @return true si consolidé/mis à jour, false si skip (confiance inférieure)
+     * <p>
+     * <b>JSON inchangé</b> : l'empreinte SHA-256 du JSON consommé est enregistrée
+     * dans les métadonnées ; un JSON identique est ignoré sans parsing ni écriture.
+     * Sinon seules les lignes (articles, signataires) qui diffèrent sont écrites.
+     * 
+     * @return true si consolidé/mis à jour, false si skip (JSON inchangé ou confiance inférieure)
      * @throws ConsolidationException Si erreur parsing JSON ou persistance BD
      */
     @Transactional
@@ -113,14 +125,22 @@ public class ConsolidationService {
             log.info("🔄 [{}] Démarrage consolidation...", docId);
 
             // 1. Charger JSON depuis filesystem
-            Path jsonPath = fileStorageService.jsonPath(document.getType(), docId);
-
-            if (!Files.exists(jsonPath)) {
+            if (!fileStorageService.jsonExists(document.getType(), docId)) {
                 throw new ConsolidationException(
-                        String.format("JSON file not found: %s", jsonPath));
+                        String.format("JSON file not found: %s", fileStorageService.jsonPath(document.getType(), docId)));
+            }
+
+            // Contenu décompressé : l'empreinte ne dépend pas du format de stockage
+            String jsonContent = fileStorageService.readJson(document.getType(), docId);
+            String sourceSha256 = sha256(jsonContent.getBytes(StandardCharsets.UTF_8));
+            ConsolidatedMetadata existingMetadata = metadataRepository.findByDocumentId(docId).orElse(null);
+
+            // 1b. JSON identique à la dernière consolidation : aucune lecture ni écriture supplémentaire
+            if (existingMetadata != null && sourceSha256.equals(existingMetadata.getSourceSha256())) {
+                log.info("⏭️ [{}] JSON inchangé depuis la dernière consolidation, skip", docId);
+                return false;
             }
 
-            String jsonContent = Files.readString(jsonPath);
             JsonObject jsonDoc = gson.fromJson(jsonContent, JsonObject.class);
 
             // 2. Parser métadonnées extraction
@@ -132,19 +152,21 @@ public class ConsolidationService {
             log.debug("📊 [{}] Confiance: {}, Source: {}", docId, confidence, source);
 
             // 3. Vérifier confiance existante (skip si inférieure)
-            if (isDocumentConsolidated(docId)) {
-                ConsolidatedMetadata existingMetadata = metadataRepository.findByDocumentId(docId).orElse(null);
-                if (existingMetadata != null && existingMetadata.getExtractionConfidence() >= confidence) {
+            if (existingMetadata != null) {
+                if (existingMetadata.getExtractionConfidence() >= confidence) {
                     log.info("⏭️ [{}] Confiance existante ({}) >= nouvelle ({}), skip",
                             docId, existingMetadata.getExtractionConfidence(), confidence);
+                    // Mémoriser l'empreinte : ce JSON sera ignoré sans parsing au prochain passage
+                    existingMetadata.setSourceSha256(sourceSha256);
+                    metadataRepository.save(existingMetadata);
                     return false;
                 }
                 log.info("🔄 [{}] Confiance supérieure ({} > {}), mise à jour...",
-                        docId, confidence, existingMetadata != null ? existingMetadata.getExtractionConfidence() : 0.0);
+                        docId, confidence, existingMetadata.getExtractionConfidence());
             }
 
             // 4. Consolider métadonnées document
-            consolidateMetadata(jsonDoc, document, confidence, source, timestamp);
+            consolidateMetadata(jsonDoc, document, existingMetadata, confidence, source, timestamp, sourceSha256);
 
             // 5. Consolider articles
             JsonArray articles = jsonDoc.getAsJsonArray(FIELD_ARTICLES);
@@ -175,15 +197,15 @@ public class ConsolidationService {
      * Consolide les métadonnées d'un document.
      * Idempotent : UPDATE si existe, INSERT sinon.
      */
-    private void consolidateMetadata(JsonObject jsonDoc, LawDocument document,
-            double confidence, String source, String timestamp) {
+    private void consolidateMetadata(JsonObject jsonDoc, LawDocument document, ConsolidatedMetadata existing,
+            double confidence, String source, String timestamp, String sourceSha256) {
         String docId = document.getDocumentId();
 
-        // Récupérer ou créer metadata
-        ConsolidatedMetadata metadata = metadataRepository.findByDocumentId(docId)
-                .orElse(ConsolidatedMetadata.builder()
+        // Réutiliser metadata existante (déjà chargée) ou créer
+        ConsolidatedMetadata metadata = existing != null ? existing
+                : ConsolidatedMetadata.builder()
                         .documentId(docId)
-                        .build());
+                        .build();
 
         // Mapper champs
         metadata.setDocumentType(document.getType());
@@ -219,6 +241,7 @@ public class ConsolidationService {
         metadata.setExtractionConfidence(confidence);
         metadata.setExtractionMethod(source);
         metadata.setExtractionTimestamp(timestamp);
+        metadata.setSourceSha256(sourceSha256);
         metadata.setConsolidatedAt(LocalDateTime.now());
 
         metadataRepository.save(metadata);
@@ -226,13 +249,26 @@ public class ConsolidationService {
     }
 
     /**
-     * Consolide les articles d'un document.
-     * Idempotent : UPDATE si existe, INSERT sinon.
+     * Consolide les articles d'un document par différence avec l'existant.
+     *
+     * <p>La confiance (propre à l'extraction, pas à l'article) est mise à jour en une requête
+     * pour tout le document. Les articles existants sont ensuite chargés en une requête ; seuls
+     * les articles nouveaux ou dont le contenu / la provenance ont changé sont écrits, et les
+     * articles disparus du JSON sont supprimés.
      */
     private void consolidateArticles(JsonArray articles, LawDocument document,
             double confidence, String source) {
         String docId = document.getDocumentId();
-        List<ConsolidatedArticle> consolidatedArticles = new ArrayList<>();
+        // Avant le chargement : les entités lues portent déjà la nouvelle confiance
+        articleRepository.updateExtractionConfidence(docId, confidence);
+        Map<Integer, ConsolidatedArticle> existingByIndex = new HashMap<>();
+        for (ConsolidatedArticle existing : articleRepository.findByDocumentIdOrderByArticleIndexAsc(docId)) {
+            existingByIndex.put(existing.getArticleIndex(), existing);
+        }
+
+        List<ConsolidatedArticle> currentArticles = new ArrayList<>(articles.size());
+        List<ConsolidatedArticle> changedArticles = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
 
         for (int i = 0; i < articles.size(); i++) {
             JsonObject articleJson = articles.get(i).getAsJsonObject();
@@ -240,12 +276,18 @@ public class ConsolidationService {
             String content = articleJson.get("content").getAsString();
 
             // Récupérer ou créer article
-            ConsolidatedArticle article = articleRepository
-                    .findByDocumentIdAndArticleIndex(docId, index)
-                    .orElse(ConsolidatedArticle.builder()
-                            .documentId(docId)
-                            .articleIndex(index)
-                            .build());
+            ConsolidatedArticle article = existingByIndex.remove(index);
+            if (article == null) {
+                article = ConsolidatedArticle.builder()
+                        .documentId(docId)
+                        .articleIndex(index)
+                        .build();
+            }
+            currentArticles.add(article);
+
+            if (article.getId() != null && isArticleUnchanged(article, content, source)) {
+                continue;
+            }
 
             // Mapper champs
             article.setContent(content);
@@ -254,22 +296,42 @@ public class ConsolidationService {
             article.setDocumentNumber(document.getNumber());
             article.setExtractionConfidence(confidence);
             article.setExtractionMethod(source);
-            article.setConsolidatedAt(LocalDateTime.now());
+            article.setConsolidatedAt(now);
+
+            changedArticles.add(article);
+        }
+
+        // Articles absents de la nouvelle extraction
+        if (!existingByIndex.isEmpty()) {
+            articleRepository.deleteAll(existingByIndex.values());
+        }
+
+        // Batch save pour performance (lignes modifiées uniquement)
+        articleRepository.saveAll(changedArticles);
+        log.debug("💾 [{}] Articles : {} écrits, {} inchangés, {} supprimés", docId, changedArticles.size(),
+                currentArticles.size() - changedArticles.size(), existingByIndex.size());
 
-            consolidatedArticles.add(article);
+        // Index plein texte mis à jour après commit de la transaction
+        if (!changedArticles.isEmpty() || !existingByIndex.isEmpty()) {
+            articleSearchService.onArticlesReplaced(docId, currentArticles);
         }
+    }
 
-        // Batch save pour performance
-        articleRepository.saveAll(consolidatedArticles);
-        log.debug("💾 [{}] {} articles sauvegardés", docId, consolidatedArticles.size());
+    private static boolean isArticleUnchanged(ConsolidatedArticle article, String content, String source) {
+        return Objects.equals(article.getContent(), content)
+                && Objects.equals(article.getExtractionMethod(), source);
     }
 
     /**
      * Consolide les signataires d'un document.
-     * Idempotent : UPDATE si existe, INSERT sinon.
+     * Idempotent : seuls les signataires nouveaux ou modifiés sont écrits (même principe que les articles).
      */
     private void consolidateSignatories(JsonArray signatories, LawDocument document) {
         String docId = document.getDocumentId();
+        Map<Integer, ConsolidatedSignatory> existingByOrder = new HashMap<>();
+        for (ConsolidatedSignatory existing : signatoryRepository.findByDocumentIdOrderBySignatoryOrderAsc(docId)) {
+            existingByOrder.put(existing.getSignatoryOrder(), existing);
+        }
         List<ConsolidatedSignatory> consolidatedSignatories = new ArrayList<>();
 
         for (int i = 0; i < signatories.size(); i++) {
@@ -279,13 +341,31 @@ public class ConsolidationService {
             String role = signatoryJson.get("role").getAsString();
             String name = signatoryJson.get("name").getAsString();
 
+            // Dates mandat (optionnelles)
+            LocalDate mandateStart = null;
+            LocalDate mandateEnd = null;
+            if (signatoryJson.has(FIELD_MANDATE_START) && !signatoryJson.get(FIELD_MANDATE_START).isJsonNull()) {
+                mandateStart = LocalDate.parse(signatoryJson.get(FIELD_MANDATE_START).getAsString());
+            }
+            if (signatoryJson.has(FIELD_MANDATE_END) && !signatoryJson.get(FIELD_MANDATE_END).isJsonNull()) {
+                mandateEnd = LocalDate.parse(signatoryJson.get(FIELD_MANDATE_END).getAsString());
+            }
+
             // Récupérer ou créer signataire
-            ConsolidatedSignatory signatory = signatoryRepository
-                    .findByDocumentIdAndSignatoryOrder(docId, order)
-                    .orElse(ConsolidatedSignatory.builder()
-                            .documentId(docId)
-                            .signatoryOrder(order)
-                            .build());
+            ConsolidatedSignatory signatory = existingByOrder.remove(order);
+            if (signatory == null) {
+                signatory = ConsolidatedSignatory.builder()
+                        .documentId(docId)
+                        .signatoryOrder(order)
+                        .build();
+            } else if (Objects.equals(signatory.getRole(), role)
+                    && Objects.equals(signatory.getName(), name)
+                    && Objects.equals(signatory.getDocumentType(), document.getType())
+                    && Objects.equals(signatory.getDocumentYear(), document.getYear())
+                    && (mandateStart == null || mandateStart.equals(signatory.getMandateStart()))
+                    && (mandateEnd == null || mandateEnd.equals(signatory.getMandateEnd()))) {
+                continue; // Inchangé
+            }
 
             // Mapper champs
             signatory.setRole(role);
@@ -293,21 +373,36 @@ public class ConsolidationService {
             signatory.setDocumentType(document.getType());
             signatory.setDocumentYear(document.getYear());
             signatory.setConsolidatedAt(LocalDateTime.now());
-
-            // Dates mandat (optionnelles)
-            if (signatoryJson.has(FIELD_MANDATE_START) && !signatoryJson.get(FIELD_MANDATE_START).isJsonNull()) {
-                signatory.setMandateStart(LocalDate.parse(signatoryJson.get(FIELD_MANDATE_START).getAsString()));
+            if (mandateStart != null) {
+                signatory.setMandateStart(mandateStart);
             }
-            if (signatoryJson.has(FIELD_MANDATE_END) && !signatoryJson.get(FIELD_MANDATE_END).isJsonNull()) {
-                signatory.setMandateEnd(LocalDate.parse(signatoryJson.get(FIELD_MANDATE_END).getAsString()));
+            if (mandateEnd != null) {
+                signatory.setMandateEnd(mandateEnd);
             }
 
             consolidatedSignatories.add(signatory);
         }
 
-        // Batch save pour performance
+        // Signataires absents de la nouvelle extraction
+        if (!existingByOrder.isEmpty()) {
+            signatoryRepository.deleteAll(existingByOrder.values());
+        }
+
+        // Batch save pour performance (lignes modifiées uniquement)
         signatoryRepository.saveAll(consolidatedSignatories);
-        log.debug("💾 [{}] {} signataires sauvegardés", docId, consolidatedSignatories.size());
+        log.debug("💾 [{}] Signataires : {} écrits, {} supprimés", docId, consolidatedSignatories.size(),
+                existingByOrder.size());
+    }
+
+    /**
+     * Empreinte SHA-256 (hex) du contenu JSON.
+     */
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
@@ -333,6 +428,7 @@ public class ConsolidationService {
         articleRepository.deleteByDocumentId(documentId);
         signatoryRepository.deleteByDocumentId(documentId);
         metadataRepository.deleteByDocumentId(documentId);
+        articleSearchService.onDocumentDeleted(documentId);
 
         log.info("✅ [{}] Données consolidées supprimées", documentId);
     }
@@ -0,0 +1,136 @@
+package bj.gouv.sgg.consolidate.search;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.exception.ArticleSearchException;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArticleSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ArticleSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        LawProperties properties = new LawProperties();
+        properties.getSearch().setIndexDir(tempDir.resolve("articles").toString());
+        index = new ArticleSearchIndex(properties);
+
+        index.replaceDocument("loi-2024-15", List.of(
+                article("loi-2024-15", "loi", 2024, 15, 1, "Le présent code régit les marchés publics en République du Bénin."),
+                article("loi-2024-15", "loi", 2024, 15, 2, "Les dispositions fiscales applicables aux marchés sont fixées par décret.")));
+        index.replaceDocument("decret-2019-7", List.of(
+                article("decret-2019-7", "decret", 2019, 7, 1, "Le ministre chargé des finances est chargé de l'exécution du marché.")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void givenFrenchVariants_whenSearch_thenAccentsAndPluralsMatch() {
+        // Given - "marche" sans accent, au singulier
+
+        // When
+        ArticleSearchResult result = index.search(ArticleSearchQuery.builder().text("marche").build(), 10);
+
+        // Then
+        assertThat(result.totalHits()).isEqualTo(3);
+        assertThat(result.hits()).extracting(ArticleSearchHit::documentId)
+                .contains("loi-2024-15", "decret-2019-7");
+    }
+
+    @Test
+    void givenPhraseAndFilters_whenSearch_thenOnlyMatchingArticlesReturned() {
+        // Given
+        ArticleSearchQuery phrase = ArticleSearchQuery.builder().text("\"marchés publics\"").build();
+        ArticleSearchQuery filtered = ArticleSearchQuery.builder()
+                .text("marchés").documentType("decret").yearFrom(2015).yearTo(2020).build();
+
+        // When
+        ArticleSearchResult phraseResult = index.search(phrase, 10);
+        ArticleSearchResult filteredResult = index.search(filtered, 10);
+
+        // Then
+        assertThat(phraseResult.hits()).singleElement()
+                .satisfies(hit -> {
+                    assertThat(hit.documentId()).isEqualTo("loi-2024-15");
+                    assertThat(hit.articleIndex()).isEqualTo(1);
+                });
+        assertThat(filteredResult.hits()).singleElement()
+                .satisfies(hit -> assertThat(hit.documentYear()).isEqualTo(2019));
+    }
+
+    @Test
+    void givenDocumentReplacedThenDeleted_whenSearch_thenIndexFollowsChanges() {
+        // Given - nouvelle version à un seul article
+        index.replaceDocument("loi-2024-15", List.of(
+                article("loi-2024-15", "loi", 2024, 15, 1, "Le budget de l'État est voté chaque année.")));
+
+        // When
+        long afterReplace = index.search(ArticleSearchQuery.builder().text("marchés").build(), 10).totalHits();
+        index.deleteDocument("decret-2019-7");
+        long afterDelete = index.search(ArticleSearchQuery.builder().text("marchés").build(), 10).totalHits();
+
+        // Then
+        assertThat(afterReplace).isEqualTo(1);
+        assertThat(afterDelete).isZero();
+        assertThat(index.articleCount()).isEqualTo(1);
+    }
+
+    @Test
+    void givenIncrementalUpdatesOnly_whenReopened_thenNotBootstrappedUntilMarkerCommitted() {
+        // Given - index non vide alimenté seulement par des mises à jour incrémentales
+        index.commit();
+        index.close();
+
+        // When / Then
+        assertThat(index.articleCount()).isEqualTo(3);
+        assertThat(index.isBootstrapped()).isFalse();
+
+        index.markBootstrapped();
+        index.commit();
+        index.close();
+        assertThat(index.isBootstrapped()).as("marqueur conservé à la réouverture").isTrue();
+
+        index.deleteAll();
+        index.commit();
+        index.close();
+        assertThat(index.isBootstrapped()).as("reconstruction interrompue : marqueur retiré").isFalse();
+    }
+
+    @Test
+    void givenInvalidSyntax_whenSearch_thenArticleSearchException() {
+        // Given
+        ArticleSearchQuery query = ArticleSearchQuery.builder().text("\"marchés publics").build();
+
+        // When / Then
+        assertThatThrownBy(() -> index.search(query, 10))
+                .isInstanceOf(ArticleSearchException.class)
+                .hasMessageContaining("Invalid search query");
+    }
+
+    private static ConsolidatedArticle article(String documentId, String type, int year, int number,
+                                               int articleIndex, String content) {
+        return ConsolidatedArticle.builder()
+                .documentId(documentId)
+                .documentType(type)
+                .documentYear(year)
+                .documentNumber(number)
+                .articleIndex(articleIndex)
+                .content(content)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package bj.gouv.sgg.consolidate.search;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleSearchServiceTest {
+
+    @Mock
+    private ArticleSearchIndex index;
+    @Mock
+    private ConsolidatedArticleRepository articleRepository;
+
+    private ArticleSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ArticleSearchService(index, articleRepository, new LawProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenUpdatesInTransaction_whenTransactionCommits_thenAppliedThenIndexCommitted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        List<ConsolidatedArticle> articles = List.of(ConsolidatedArticle.builder()
+                .documentId("loi-2024-15").articleIndex(1).content("Article premier").build());
+        service.onArticlesReplaced("loi-2024-15", articles);
+        service.onDocumentDeleted("decret-2019-7");
+        verifyNoInteractions(index);
+
+        // When
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then - commit Lucene unique, après les mises à jour de la transaction
+        InOrder order = inOrder(index);
+        order.verify(index).replaceDocument(eq("loi-2024-15"), anyList());
+        order.verify(index).deleteDocument("decret-2019-7");
+        order.verify(index).commit();
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void givenUnexpectedIndexFailure_whenUpdateOutsideTransaction_thenSwallowedAndCommitted() {
+        // Given
+        doThrow(new IllegalStateException("writer closed")).when(index).deleteDocument("loi-2024-15");
+
+        // When / Then
+        assertThatCode(() -> service.onDocumentDeleted("loi-2024-15")).doesNotThrowAnyException();
+        verify(index).commit();
+    }
+
+    @Test
+    void givenIndexWithoutBootstrapMarker_whenFirstSearch_thenRebuiltFromDatabase() {
+        // Given - index déjà non vide (mises à jour incrémentales) mais jamais reconstruit
+        ConsolidatedArticle legacy = ConsolidatedArticle.builder()
+                .id(1L).documentId("loi-2010-3").articleIndex(1).content("Article premier").build();
+        ArticleSearchQuery query = ArticleSearchQuery.builder().text("article").build();
+        when(index.isBootstrapped()).thenReturn(false);
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(legacy));
+        when(index.search(eq(query), anyInt())).thenReturn(ArticleSearchResult.empty());
+
+        // When
+        service.search(query);
+        service.search(query);
+
+        // Then - une seule reconstruction, marqueur inscrit avant le commit
+        InOrder order = inOrder(index);
+        order.verify(index).deleteAll();
+        order.verify(index).addArticles(List.of(legacy));
+        order.verify(index).markBootstrapped();
+        order.verify(index).commit();
+        verify(index, times(1)).isBootstrapped();
+    }
+
+    @Test
+    void givenBootstrapMarker_whenSearch_thenNoRebuild() {
+        // Given
+        ArticleSearchQuery query = ArticleSearchQuery.builder().text("article").build();
+        when(index.isBootstrapped()).thenReturn(true);
+        when(index.search(eq(query), anyInt())).thenReturn(ArticleSearchResult.empty());
+
+        // When
+        service.search(query);
+
+        // Then
+        verify(index, never()).deleteAll();
+        verifyNoInteractions(articleRepository);
+    }
+}
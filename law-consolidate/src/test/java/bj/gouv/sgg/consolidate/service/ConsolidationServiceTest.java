@@ -0,0 +1,155 @@
+package bj.gouv.sgg.consolidate.service;
+
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedMetadataRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedSignatoryRepository;
+import bj.gouv.sgg.consolidate.search.ArticleSearchService;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.service.FileStorageService;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsolidationServiceTest {
+
+    private static final String JSON = """
+            {
+              "_metadata": {"confidence": 0.9, "source": "OCR:PROGRAMMATIC", "timestamp": "2025-01-10T08:30:00Z"},
+              "title": "Loi n° 2024-15",
+              "articles": [
+                {"index": 1, "content": "Article 1er : inchangé."},
+                {"index": 2, "content": "Article 2 : nouvelle rédaction."}
+              ]
+            }
+            """;
+
+    @Mock
+    private FileStorageService fileStorageService;
+    @Mock
+    private ConsolidatedArticleRepository articleRepository;
+    @Mock
+    private ConsolidatedMetadataRepository metadataRepository;
+    @Mock
+    private ConsolidatedSignatoryRepository signatoryRepository;
+    @Mock
+    private ArticleSearchService articleSearchService;
+
+    private ConsolidationService service;
+    private LawDocument document;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ConsolidationService(fileStorageService, articleRepository, metadataRepository,
+                signatoryRepository, articleSearchService, new Gson());
+        document = LawDocument.builder().type("loi").year(2024).number(15)
+                .status(LawDocument.ProcessingStatus.EXTRACTED).build();
+
+        when(fileStorageService.jsonExists("loi", "loi-2024-15")).thenReturn(true);
+        when(fileStorageService.readJson("loi", "loi-2024-15")).thenReturn(JSON);
+    }
+
+    @Test
+    void givenSameJsonAlreadyConsolidated_whenConsolidate_thenNoDatabaseWrite() {
+        // Given - 1re consolidation enregistre l'empreinte du JSON
+        when(metadataRepository.findByDocumentId("loi-2024-15")).thenReturn(Optional.empty());
+        service.consolidateDocument(document);
+        ArgumentCaptor<ConsolidatedMetadata> saved = ArgumentCaptor.forClass(ConsolidatedMetadata.class);
+        verify(metadataRepository).save(saved.capture());
+        String sha256 = saved.getValue().getSourceSha256();
+
+        when(metadataRepository.findByDocumentId("loi-2024-15")).thenReturn(Optional.of(
+                ConsolidatedMetadata.builder().documentId("loi-2024-15").extractionConfidence(0.5)
+                        .sourceSha256(sha256).build()));
+
+        // When
+        boolean consolidated = service.consolidateDocument(document);
+
+        // Then
+        assertThat(sha256).hasSize(64);
+        assertThat(consolidated).isFalse();
+        verify(articleRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void givenOneArticleChanged_whenConsolidate_thenOnlyChangedAndStaleRowsWritten() {
+        // Given - base consolidée à 0.5 : article 1 identique, article 2 différent, article 3 disparu du JSON
+        when(metadataRepository.findByDocumentId("loi-2024-15")).thenReturn(Optional.of(
+                ConsolidatedMetadata.builder().documentId("loi-2024-15").extractionConfidence(0.5)
+                        .sourceSha256("old").consolidatedAt(LocalDateTime.now()).build()));
+        ConsolidatedArticle unchanged = existing(1, "Article 1er : inchangé.", 0.5);
+        ConsolidatedArticle modified = existing(2, "Article 2 : ancienne rédaction.", 0.5);
+        ConsolidatedArticle stale = existing(3, "Article 3 : abrogé.", 0.5);
+        when(articleRepository.findByDocumentIdOrderByArticleIndexAsc("loi-2024-15"))
+                .thenReturn(new ArrayList<>(List.of(unchanged, modified, stale)));
+
+        // When
+        boolean consolidated = service.consolidateDocument(document);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ConsolidatedArticle>> written = ArgumentCaptor.forClass(List.class);
+        verify(articleRepository).saveAll(written.capture());
+        assertThat(consolidated).isTrue();
+        verify(articleRepository).updateExtractionConfidence("loi-2024-15", 0.9);
+        assertThat(written.getValue()).containsExactly(modified);
+        assertThat(modified.getContent()).isEqualTo("Article 2 : nouvelle rédaction.");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<ConsolidatedArticle>> deleted = ArgumentCaptor.forClass(Iterable.class);
+        verify(articleRepository).deleteAll(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(stale);
+        verify(articleSearchService).onArticlesReplaced(eq("loi-2024-15"), eq(List.of(unchanged, modified)));
+    }
+
+    @Test
+    void givenLowerConfidenceJson_whenConsolidate_thenSkippedButFingerprintRecorded() {
+        // Given - consolidation existante de meilleure confiance, JSON jamais vu
+        ConsolidatedMetadata existingMetadata = ConsolidatedMetadata.builder().documentId("loi-2024-15")
+                .extractionConfidence(0.95).sourceSha256("old").consolidatedAt(LocalDateTime.now()).build();
+        when(metadataRepository.findByDocumentId("loi-2024-15")).thenReturn(Optional.of(existingMetadata));
+
+        // When
+        boolean consolidated = service.consolidateDocument(document);
+
+        // Then - seule l'empreinte est enregistrée, la confiance existante est conservée
+        assertThat(consolidated).isFalse();
+        verify(metadataRepository).save(existingMetadata);
+        assertThat(existingMetadata.getSourceSha256()).hasSize(64);
+        assertThat(existingMetadata.getExtractionConfidence()).isEqualTo(0.95);
+        verifyNoInteractions(articleRepository);
+    }
+
+    private static ConsolidatedArticle existing(int index, String content, double confidence) {
+        return ConsolidatedArticle.builder()
+                .id((long) index)
+                .documentId("loi-2024-15")
+                .articleIndex(index)
+                .content(content)
+                .documentType("loi")
+                .documentYear(2024)
+                .documentNumber(15)
+                .extractionConfidence(confidence)
+                .extractionMethod("OCR:PROGRAMMATIC")
+                .consolidatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package bj.gouv.sgg.batch.processor;
 
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
@@ -18,12 +19,15 @@ import java.security.NoSuchAlgorithmException;
 /**
  * Processor qui télécharge le PDF d'un document
  * Note: Le filtrage (skip si déjà téléchargé) est géré par le Reader
+ * Le débit est limité par hôte via {@link AdaptiveRateLimiter} (canal GET).
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DownloadProcessor implements ItemProcessor<LawDocument, LawDocument> {
     
+    private final AdaptiveRateLimiter rateLimiter;
+    
     private boolean forceMode = false;
     
     /**
@@ -53,7 +57,13 @@ public class DownloadProcessor implements ItemProcessor<LawDocument, LawDocument
             HttpGet request = new HttpGet(downloadUrl);
             request.setHeader("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36");
 
+            String rateKey = AdaptiveRateLimiter.key(downloadUrl, AdaptiveRateLimiter.CHANNEL_GET);
+            rateLimiter.acquire(rateKey);
+            long start = System.nanoTime();
+
             try (var response = client.executeOpen(null, request, null)) {
+                // Latence mesurée jusqu'aux en-têtes (indépendante de la taille du PDF)
+                rateLimiter.onResponse(rateKey, response.getCode(), System.nanoTime() - start);
                 if (response.getCode() == 200) {
                     try (InputStream is = response.getEntity().getContent();
                          ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
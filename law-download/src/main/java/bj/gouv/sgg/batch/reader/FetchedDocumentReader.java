@@ -3,6 +3,7 @@ package bj.gouv.sgg.batch.reader;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.DownloadResultRepository;
 import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentPriorityPolicy;
 import bj.gouv.sgg.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,8 @@ import java.util.List;
  * - Si FETCHED → toujours télécharger
  * - Si DOWNLOADED mais PDF absent → re-télécharger automatiquement
  * - Si DOWNLOADED + PDF présent + force → re-télécharger
+ * 
+ * Ordre : {@link DocumentPriorityPolicy} (année en cours d'abord, part réservée à l'arriéré)
  */
 @Slf4j
 @Component
@@ -29,6 +32,7 @@ public class FetchedDocumentReader implements ItemReader<LawDocument> {
     private final LawDocumentRepository lawDocumentRepository;
     private final FileStorageService fileStorageService;
     private final DownloadResultRepository downloadResultRepository;
+    private final DocumentPriorityPolicy priorityPolicy;
     private Iterator<LawDocument> iterator;
     private String targetDocumentId;
     private boolean forceMode = false;
@@ -144,16 +148,8 @@ public class FetchedDocumentReader implements ItemReader<LawDocument> {
                 .filter(this::shouldDownload)
                 .toList(); 
             
-            // Trier du plus récent au plus ancien: year DESC, number DESC
-            toDownload = allToDownload.stream()
-                .sorted((a, b) -> {
-                    if (b.getYear() != a.getYear()) {
-                        return Integer.compare(b.getYear(), a.getYear());
-                    }
-                    return Integer.compare(b.getNumber(), a.getNumber());
-                })
-                .limit(maxDocuments != null ? maxDocuments : Long.MAX_VALUE)
-                .toList();
+            // Ordre de priorité (année en cours, type, ancienneté) avec part réservée à l'arriéré
+            toDownload = priorityPolicy.order(allToDownload, maxDocuments);
         }
         
         log.info("📄 {} document(s) ready to download{}", 
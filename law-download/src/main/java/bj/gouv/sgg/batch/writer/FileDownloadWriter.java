@@ -1,9 +1,9 @@
 package bj.gouv.sgg.batch.writer;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.DownloadResult;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.DownloadResultRepository;
-import bj.gouv.sgg.service.DocumentStatusManager;
 import bj.gouv.sgg.service.DownloadResultUpdateService;
 import bj.gouv.sgg.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
@@ -14,9 +14,16 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Writer qui enregistre les PDFs sur disque, persiste dans download_results et met à jour le statut.
+ * Les fichiers du chunk sont d'abord écrits durablement, puis tous les download_results
+ * et transitions de statut sont persistés en une seule transaction.
  */
 @Slf4j
 @Component
@@ -24,11 +31,15 @@ import java.time.LocalDateTime;
 public class FileDownloadWriter implements ItemWriter<LawDocument> {
 
     private final FileStorageService fileStorageService;
-    private final DocumentStatusManager statusManager;
     private final DownloadResultUpdateService downloadResultUpdateService;
     
-    // Gardé pour la vérification d'existence (read-only)
+    // Gardé pour la vérification d'existence (read-only, une requête IN par chunk)
     private final DownloadResultRepository downloadResultRepository;
+    private final LawMetrics metrics;
+    
+    // Statuts lus par FetchedDocumentReader (DOWNLOADED : re-téléchargement d'un PDF manquant)
+    private static final Set<LawDocument.ProcessingStatus> EXPECTED_STATUSES =
+        EnumSet.of(LawDocument.ProcessingStatus.FETCHED, LawDocument.ProcessingStatus.DOWNLOADED);
     
     private boolean forceMode = false;
     
@@ -42,31 +53,55 @@ public class FileDownloadWriter implements ItemWriter<LawDocument> {
 
     @Override
     public void write(Chunk<? extends LawDocument> chunk) throws IOException {
-        int saved = 0;
+        List<LawDocument> savedDocuments = new ArrayList<>();
+        List<DownloadResult> results = new ArrayList<>();
         int skipped = 0;
+        long bytes = 0;
+        
+        // Résolution ensembliste des download_results existants (1 requête par chunk)
+        List<String> documentIds = chunk.getItems().stream()
+            .filter(doc -> doc != null)
+            .map(LawDocument::getDocumentId)
+            .toList();
+        Set<String> existingInDb = documentIds.isEmpty()
+            ? Set.of()
+            : downloadResultRepository.findByDocumentIdIn(documentIds).stream()
+                .map(DownloadResult::getDocumentId)
+                .collect(Collectors.toSet());
         
+        // 1. Écrire les PDFs durablement sur disque
         for (LawDocument doc : chunk) {
-            if (shouldSkipDocument(doc)) {
+            if (shouldSkipDocument(doc, existingInDb)) {
                 skipped++;
             } else {
-                processDocument(doc);
-                saved++;
+                results.add(saveFile(doc));
+                savedDocuments.add(doc);
+                bytes += doc.getPdfContent().length;
             }
         }
         
-        log.info("📊 DownloadWriter: saved={} skipped={}", saved, skipped);
+        // 2. Persister download_results + statuts du chunk en une transaction
+        if (!savedDocuments.isEmpty()) {
+            downloadResultUpdateService.saveDownloadResults(results, savedDocuments, EXPECTED_STATUSES);
+        }
+        
+        metrics.recordItems(LawMetrics.STAGE_DOWNLOAD, "DOWNLOADED", savedDocuments.size());
+        metrics.recordItems(LawMetrics.STAGE_DOWNLOAD, "SKIPPED", skipped);
+        metrics.recordDownloadBytes(bytes);
+        
+        log.info("📊 DownloadWriter: saved={} skipped={}", savedDocuments.size(), skipped);
     }
     
     /**
      * Vérifie si un document doit être skippé.
      */
-    private boolean shouldSkipDocument(LawDocument doc) {
+    private boolean shouldSkipDocument(LawDocument doc, Set<String> existingInDb) {
         if (doc == null || doc.getPdfContent() == null || doc.getPdfContent().length == 0) {
             return true;
         }
         
         String docId = doc.getDocumentId();
-        boolean existsInDb = downloadResultRepository.existsByDocumentId(docId);
+        boolean existsInDb = existingInDb.contains(docId);
         boolean fileExists = fileStorageService.pdfExists(doc.getType(), docId);
         
         // Skip si déjà en base ET fichier présent, SAUF en mode force
@@ -84,28 +119,22 @@ public class FileDownloadWriter implements ItemWriter<LawDocument> {
     }
     
     /**
-     * Traite et sauvegarde un document.
-     * Utilise DownloadResultUpdateService pour éviter les deadlocks en multi-threading.
+     * Sauvegarde le PDF d'un document sur disque (fsync + renommage atomique)
+     * et prépare son résultat de téléchargement.
      */
-    private void processDocument(LawDocument doc) throws IOException {
+    private DownloadResult saveFile(LawDocument doc) throws IOException {
         String docId = doc.getDocumentId();
         
-        // Sauvegarder le PDF sur disque
         fileStorageService.savePdf(doc.getType(), docId, doc.getPdfContent());
         
-        // Sauvegarder le résultat dans download_results avec transaction isolée
-        String pdfPath = fileStorageService.pdfPath(doc.getType(), docId).toString();
-        downloadResultUpdateService.saveDownloadResult(
-            docId,
-            doc.getUrl(),
-            pdfPath,
-            doc.getSha256(),
-            (long) doc.getPdfContent().length
-        );
-        
-        // Mettre à jour le statut du document (transaction séparée via @Transactional)
-        statusManager.updateStatus(doc.getDocumentId(), LawDocument.ProcessingStatus.DOWNLOADED);
-        
-        log.info("✅ PDF saved: {} ({} bytes)", doc.getDocumentId(), doc.getPdfContent().length);
+        log.info("✅ PDF saved: {} ({} bytes)", docId, doc.getPdfContent().length);
+        return DownloadResult.builder()
+            .documentId(docId)
+            .url(doc.getUrl())
+            .pdfPath(fileStorageService.pdfPath(doc.getType(), docId).toString())
+            .sha256(doc.getSha256())
+            .fileSize((long) doc.getPdfContent().length)
+            .downloadedAt(LocalDateTime.now())
+            .build();
     }
 }
@@ -2,8 +2,12 @@ package bj.gouv.sgg.config;
 
 import bj.gouv.sgg.batch.processor.DownloadProcessor;
 import bj.gouv.sgg.batch.reader.FetchedDocumentReader;
+import bj.gouv.sgg.batch.reader.WorkQueueItemReader;
 import bj.gouv.sgg.batch.writer.FileDownloadWriter;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.model.WorkStage;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.WorkQueueService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -29,6 +33,8 @@ public class DownloadJobConfig {
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
     private final LawProperties properties;
+    private final WorkQueueService workQueueService;
+    private final LawDocumentRepository lawDocumentRepository;
     
     /**
      * TaskExecutor pour traitement multi-threads.
@@ -75,7 +81,7 @@ public class DownloadJobConfig {
         
         return new StepBuilder("downloadStep", jobRepository)
             .<LawDocument, LawDocument>chunk(properties.getBatch().getChunkSize(), transactionManager)
-            .reader(reader)
+            .reader(new WorkQueueItemReader(WorkStage.DOWNLOAD, reader, workQueueService, lawDocumentRepository, properties))
             .processor(downloadProcessor)
             .writer(writer) // Sauvegarde dans download_results
             .taskExecutor(downloadTaskExecutor) // ✅ Traitement multi-threads
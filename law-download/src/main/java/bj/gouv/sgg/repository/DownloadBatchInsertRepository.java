@@ -0,0 +1,60 @@
+package bj.gouv.sgg.repository;
+
+import bj.gouv.sgg.model.DownloadResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Insertions JDBC par lots des résultats de téléchargement.
+ *
+ * <p>{@link DownloadResult} utilise une clé IDENTITY : Hibernate n'agrège pas ses INSERT.
+ * Comme pour {@code FetchBatchInsertRepository}, les nouvelles lignes d'un chunk passent
+ * par {@link JdbcTemplate#batchUpdate}, par lots de {@code hibernate.jdbc.batch_size},
+ * dans la transaction du chunk.
+ */
+@Slf4j
+@Repository
+public class DownloadBatchInsertRepository {
+
+    private static final String INSERT_DOWNLOAD_RESULT =
+        "INSERT INTO download_results (document_id, url, pdf_path, sha256, file_size, downloaded_at, " +
+        "error_message) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public DownloadBatchInsertRepository(JdbcTemplate jdbcTemplate,
+                                         @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize > 0 ? batchSize : 50;
+    }
+
+    /**
+     * Insère de nouveaux résultats de téléchargement par lots
+     */
+    public void insertDownloadResults(List<DownloadResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_DOWNLOAD_RESULT, results, batchSize, (ps, result) -> {
+            ps.setString(1, result.getDocumentId());
+            ps.setString(2, result.getUrl());
+            ps.setString(3, result.getPdfPath());
+            ps.setString(4, result.getSha256());
+            if (result.getFileSize() != null) {
+                ps.setLong(5, result.getFileSize());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setTimestamp(6, Timestamp.valueOf(result.getDownloadedAt()));
+            ps.setString(7, result.getErrorMessage());
+        });
+        log.debug("➕ Batch inserted {} download results (batch size {})", results.size(), batchSize);
+    }
+}
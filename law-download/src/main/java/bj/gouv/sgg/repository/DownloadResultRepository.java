@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -18,6 +20,11 @@ public interface DownloadResultRepository extends JpaRepository<DownloadResult,
     
     boolean existsByDocumentId(String documentId);
     
+    /**
+     * Trouve les résultats d'un ensemble de documentIds (résolution d'un chunk en une requête)
+     */
+    List<DownloadResult> findByDocumentIdIn(Collection<String> documentIds);
+    
     @Transactional
     @Modifying
     void deleteByDocumentId(String documentId);
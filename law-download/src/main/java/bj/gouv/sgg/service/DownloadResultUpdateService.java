@@ -1,6 +1,9 @@
 package bj.gouv.sgg.service;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.DownloadResult;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.DownloadBatchInsertRepository;
 import bj.gouv.sgg.repository.DownloadResultRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,13 +12,22 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service dédié à la mise à jour des résultats de téléchargement en mode thread-safe.
- * Utilise REQUIRES_NEW pour isoler chaque transaction et éviter les deadlocks MySQL.
+ * Unitaire : REQUIRES_NEW pour isoler chaque transaction et éviter les deadlocks MySQL.
+ * Par chunk : {@link #saveDownloadResults} groupe résultats et statuts dans une transaction.
  */
 @Service
 @RequiredArgsConstructor
@@ -23,6 +35,9 @@ import java.util.concurrent.locks.ReentrantLock;
 public class DownloadResultUpdateService {
 
     private final DownloadResultRepository downloadResultRepository;
+    private final DownloadBatchInsertRepository batchInsertRepository;
+    private final DocumentStatusManager statusManager;
+    private final LawMetrics metrics;
     
     // Map de locks par documentId pour paralléliser les updates de documents différents
     private static final ConcurrentHashMap<String, Lock> DOCUMENT_LOCKS = new ConcurrentHashMap<>();
@@ -72,6 +87,64 @@ public class DownloadResultUpdateService {
         }
     }
 
+    /**
+     * Persiste les résultats de téléchargement d'un chunk et la transition de statut
+     * en une seule transaction (celle du chunk) : une requête IN pour les lignes existantes,
+     * un saveAll pour les mises à jour (batch Hibernate), des INSERT JDBC par lots pour les
+     * nouvelles lignes (clé IDENTITY) et un UPDATE ensembliste du statut. L'ordre stable par
+     * documentId évite les deadlocks entre chunks parallèles.
+     * À appeler une fois les PDFs écrits durablement sur disque.
+     *
+     * @param results Résultats à persister (un par document)
+     * @param documents Documents correspondants
+     * @param expectedStatuses Statuts attendus en base avant la transition
+     * @return documentIds passés à DOWNLOADED
+     */
+    @Transactional
+    public Set<String> saveDownloadResults(List<DownloadResult> results,
+                                           List<? extends LawDocument> documents,
+                                           Collection<LawDocument.ProcessingStatus> expectedStatuses) {
+        if (results.isEmpty()) {
+            return Set.of();
+        }
+        
+        Map<String, DownloadResult> existing = downloadResultRepository
+            .findByDocumentIdIn(results.stream().map(DownloadResult::getDocumentId).toList())
+            .stream()
+            .collect(Collectors.toMap(DownloadResult::getDocumentId, Function.identity(), (a, b) -> a));
+        
+        List<DownloadResult> toUpdate = new ArrayList<>();
+        List<DownloadResult> toInsert = new ArrayList<>();
+        results.stream()
+            .sorted(Comparator.comparing(DownloadResult::getDocumentId))
+            .forEach(result -> {
+                DownloadResult target = existing.get(result.getDocumentId());
+                if (target == null) {
+                    toInsert.add(result);
+                    return;
+                }
+                // Mettre à jour la ligne existante (conserve l'ID)
+                target.setUrl(result.getUrl());
+                target.setPdfPath(result.getPdfPath());
+                target.setSha256(result.getSha256());
+                target.setFileSize(result.getFileSize());
+                target.setDownloadedAt(result.getDownloadedAt());
+                target.setErrorMessage(null);
+                toUpdate.add(target);
+            });
+        if (!toUpdate.isEmpty()) {
+            downloadResultRepository.saveAll(toUpdate);
+        }
+        batchInsertRepository.insertDownloadResults(toInsert);
+        metrics.recordDbBatch("download-results-upsert", toUpdate.size() + toInsert.size());
+        
+        Set<String> moved = statusManager.transitionStatus(documents, expectedStatuses,
+                                                           LawDocument.ProcessingStatus.DOWNLOADED);
+        log.debug("✅ {} DownloadResults saved ({} inserted, {} updated), {} documents DOWNLOADED",
+                  toUpdate.size() + toInsert.size(), toInsert.size(), toUpdate.size(), moved.size());
+        return moved;
+    }
+
     /**
      * Nettoie le lock d'un document si personne ne l'attend.
      * Évite l'accumulation de locks en mémoire.
@@ -1,6 +1,10 @@
 package bj.gouv.sgg.batch.processor;
 
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
@@ -86,7 +90,7 @@ class DownloadProcessorTest {
 
     @Test
     void givenDownloadProcessor_whenSetForceMode_thenNoException() {
-        DownloadProcessor processor = new DownloadProcessor();
+        DownloadProcessor processor = new DownloadProcessor(new AdaptiveRateLimiter(new LawProperties(), new LawMetrics(new SimpleMeterRegistry())));
         assertDoesNotThrow(() -> {
             processor.setForceMode(true);
             processor.setForceMode(false);
@@ -0,0 +1,114 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.metrics.LawMetrics;
+import bj.gouv.sgg.model.DownloadResult;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.DownloadBatchInsertRepository;
+import bj.gouv.sgg.repository.DownloadResultRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DownloadResultUpdateServiceTest {
+
+    @Mock
+    private DownloadResultRepository downloadResultRepository;
+
+    @Mock
+    private DownloadBatchInsertRepository batchInsertRepository;
+
+    @Mock
+    private DocumentStatusManager statusManager;
+
+    @Captor
+    private ArgumentCaptor<List<DownloadResult>> resultsCaptor;
+
+    private DownloadResultUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DownloadResultUpdateService(downloadResultRepository, batchInsertRepository, statusManager,
+            new LawMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void givenNewAndExistingResults_whenSaveDownloadResults_thenNewRowsBatchInsertedAndExistingUpdated() {
+        // Given
+        DownloadResult existingRow = DownloadResult.builder()
+            .id(7L).documentId("loi-2024-1").url("old").pdfPath("old.pdf").fileSize(1L)
+            .downloadedAt(LocalDateTime.now().minusDays(1)).errorMessage("timeout")
+            .build();
+        DownloadResult updated = result("loi-2024-1");
+        DownloadResult inserted = result("loi-2024-2");
+        List<LawDocument> documents = List.of(document(1), document(2));
+        when(downloadResultRepository.findByDocumentIdIn(anyCollection())).thenReturn(List.of(existingRow));
+        when(statusManager.transitionStatus(eq(documents), anyCollection(), eq(LawDocument.ProcessingStatus.DOWNLOADED)))
+            .thenReturn(Set.of("loi-2024-1", "loi-2024-2"));
+
+        // When
+        Set<String> moved = service.saveDownloadResults(List.of(inserted, updated), documents,
+            List.of(LawDocument.ProcessingStatus.FETCHED));
+
+        // Then - la ligne existante garde son ID, la nouvelle passe par l'INSERT par lots
+        verify(downloadResultRepository).saveAll(resultsCaptor.capture());
+        assertThat(resultsCaptor.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getId()).isEqualTo(7L);
+            assertThat(row.getPdfPath()).isEqualTo("loi-2024-1.pdf");
+            assertThat(row.getErrorMessage()).isNull();
+        });
+        verify(batchInsertRepository).insertDownloadResults(List.of(inserted));
+        assertThat(moved).containsExactlyInAnyOrder("loi-2024-1", "loi-2024-2");
+    }
+
+    @Test
+    void givenOnlyNewResults_whenSaveDownloadResults_thenNoHibernateSave() {
+        // Given
+        List<LawDocument> documents = List.of(document(3));
+        when(downloadResultRepository.findByDocumentIdIn(anyCollection())).thenReturn(List.of());
+        when(statusManager.transitionStatus(eq(documents), anyCollection(), any()))
+            .thenReturn(Set.of("loi-2024-3"));
+
+        // When
+        service.saveDownloadResults(List.of(result("loi-2024-3")), documents,
+            List.of(LawDocument.ProcessingStatus.FETCHED));
+
+        // Then
+        verify(downloadResultRepository, never()).saveAll(anyList());
+        verify(batchInsertRepository).insertDownloadResults(resultsCaptor.capture());
+        assertThat(resultsCaptor.getValue()).extracting(DownloadResult::getDocumentId).containsExactly("loi-2024-3");
+    }
+
+    private DownloadResult result(String documentId) {
+        return DownloadResult.builder()
+            .documentId(documentId)
+            .url("https://sgg.gouv.bj/doc/" + documentId + "/download")
+            .pdfPath(documentId + ".pdf")
+            .sha256("abc")
+            .fileSize(1024L)
+            .downloadedAt(LocalDateTime.now())
+            .build();
+    }
+
+    private LawDocument document(int number) {
+        return LawDocument.builder().type("loi").year(2024).number(number).build();
+    }
+}
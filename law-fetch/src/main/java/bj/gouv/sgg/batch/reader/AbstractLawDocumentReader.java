@@ -220,6 +220,9 @@ public abstract class AbstractLawDocumentReader implements ItemReader<LawDocumen
         // Limite globale pour cette exécution (utilisé par fetchPreviousJob)
         int maxDocumentsPerExecution = getMaxDocumentsPerExecution();
 
+        // Hook : documents additionnels prioritaires (ex: extensions de bornes d'années)
+        addExtraDocuments(lawDocuments, startCursors, maxNumber, maxDocumentsPerExecution);
+
         // Parcourir pour loi et decret
         for (FetchCursor cursor : startCursors) {
             // Vérifier si on a atteint la limite globale
@@ -250,6 +253,12 @@ public abstract class AbstractLawDocumentReader implements ItemReader<LawDocumen
     private int processDocumentsForCursor(List<LawDocument> lawDocuments, FetchCursor cursor, int maxNumber) {
         int count = 0;
         int skipped = 0;
+
+        // Hook : permet aux sous-classes d'abaisser le point de départ (ex: borne apprise de l'année)
+        if (cursor.getCurrentNumber() > 0) {
+            cursor.setCurrentNumber(adjustStartNumber(
+                cursor.getDocumentType(), cursor.getCurrentYear(), cursor.getCurrentNumber()));
+        }
         int lastProcessedNumber = cursor.getCurrentNumber();
         
         // Parcourir du plus récent au plus ancien
@@ -316,9 +325,37 @@ public abstract class AbstractLawDocumentReader implements ItemReader<LawDocumen
         return false; // Par défaut : ne skip rien
     }
 
+    /**
+     * Hook pour permettre aux sous-classes d'ajuster le numéro de départ d'un cursor.
+     * Par défaut, conserve la position du cursor.
+     * PreviousYearLawDocumentReader surcharge cette méthode pour partir de la borne apprise de l'année.
+     *
+     * @param type Type du document ("loi" ou "decret")
+     * @param year Année du cursor
+     * @param currentNumber Numéro de départ du cursor
+     * @return numéro de départ effectif
+     */
+    protected int adjustStartNumber(String type, int year, int currentNumber) {
+        return currentNumber; // Par défaut : pas d'ajustement
+    }
+
+    /**
+     * Hook pour permettre aux sous-classes d'ajouter des documents avant le parcours des cursors.
+     * Par défaut, n'ajoute rien.
+     *
+     * @param lawDocuments Liste des documents générés (à compléter)
+     * @param cursors Cursors de départ (après filtre de type)
+     * @param maxNumber Numéro maximal par année
+     * @param maxDocumentsPerExecution Limite globale de documents pour cette exécution
+     */
+    protected void addExtraDocuments(List<LawDocument> lawDocuments, List<FetchCursor> cursors,
+                                     int maxNumber, int maxDocumentsPerExecution) {
+        // Par défaut : rien à ajouter
+    }
+
     /**
      * Sauvegarde la position du cursor en base de données (UPSERT)
-     * Thread-safe : délègue au CursorUpdateService avec transaction isolée (REQUIRES_NEW)
+     * Thread-safe et multi-instances : délègue au CursorUpdateService (UPDATE conditionnel qui ne fait qu'avancer)
      */
     private void saveCursorPosition(FetchCursor cursor) {
         try {
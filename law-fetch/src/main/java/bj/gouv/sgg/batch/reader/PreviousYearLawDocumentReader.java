@@ -3,10 +3,12 @@ package bj.gouv.sgg.batch.reader;
 import bj.gouv.sgg.util.LawDocumentFactory;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.model.FetchCursor;
+import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.FetchCursorRepository;
 import bj.gouv.sgg.repository.FetchResultRepository;
 import bj.gouv.sgg.service.CursorUpdateService;
 import bj.gouv.sgg.service.NotFoundService;
+import bj.gouv.sgg.service.YearBoundaryService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -19,19 +21,24 @@ import static bj.gouv.sgg.model.LawDocument.TYPE_LOI;
  * Reader pour les années précédentes (1960 à année-1)
  * Utilise le cache BD pour éviter les URLs déjà vérifiées
  * Skip automatiquement les plages NOT_FOUND pour optimiser le scan
+ * Démarre chaque année à sa borne apprise (plus grand numéro trouvé + série de NOT_FOUND)
+ * Les bornes des plages générées ne sont enregistrées qu'après le succès du step ({@link #recordScannedRanges()})
  */
 @Slf4j
 @Component
 public class PreviousYearLawDocumentReader extends AbstractLawDocumentReader {
 
     private final NotFoundService notFoundService;
+    private final YearBoundaryService yearBoundaryService;
+    private final List<YearBoundaryService.Extension> scannedRanges = new ArrayList<>();
 
     public PreviousYearLawDocumentReader(LawProperties properties,
                                          FetchResultRepository fetchResultRepository,
                                          FetchCursorRepository fetchCursorRepository,
                                          CursorUpdateService cursorUpdateService,
                                          LawDocumentFactory documentFactory,
-                                         NotFoundService notFoundService) {
+                                         NotFoundService notFoundService,
+                                         YearBoundaryService yearBoundaryService) {
         super(properties,
                 fetchResultRepository,
                 fetchCursorRepository,
@@ -39,6 +46,7 @@ public class PreviousYearLawDocumentReader extends AbstractLawDocumentReader {
                 documentFactory,
                 FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS);
         this.notFoundService = notFoundService;
+        this.yearBoundaryService = yearBoundaryService;
     }
 
 
@@ -83,6 +91,24 @@ public class PreviousYearLawDocumentReader extends AbstractLawDocumentReader {
         return Arrays.asList(lawCursor, decretCursor);
     }
 
+    @Override
+    protected List<LawDocument> generateAllDocuments() {
+        scannedRanges.clear();
+        return super.generateAllDocuments();
+    }
+
+    /**
+     * Enregistre les bornes des plages générées par la dernière exécution.
+     * À appeler uniquement quand le step s'est terminé avec succès.
+     */
+    public void recordScannedRanges() {
+        if (scannedRanges.isEmpty()) {
+            return;
+        }
+        yearBoundaryService.recordScannedRanges(List.copyOf(scannedRanges));
+        scannedRanges.clear();
+    }
+
     /**
      * Skip les documents marqués NOT_FOUND pour optimiser le scan
      */
@@ -95,6 +121,46 @@ public class PreviousYearLawDocumentReader extends AbstractLawDocumentReader {
         return isNotFound;
     }
 
+    /**
+     * Démarre l'année à sa borne apprise au lieu de max-number-per-year
+     */
+    @Override
+    protected int adjustStartNumber(String type, int year, int currentNumber) {
+        int start = yearBoundaryService.clampStartNumber(type, year, currentNumber);
+        if (start < currentNumber) {
+            scannedRanges.add(new YearBoundaryService.Extension(type, year, 1, start));
+        }
+        return start;
+    }
+
+    /**
+     * Ajoute en tête les numéros au-dessus des bornes d'années où un document
+     * a été trouvé près de la borne (la série de NOT_FOUND n'est pas encore complète).
+     * Les numéros de l'année du cursor qu'il balaiera lui-même sont exclus (pas de doublon dans le chunk) :
+     * le départ effectif du cursor n'est jamais supérieur à sa position.
+     */
+    @Override
+    protected void addExtraDocuments(List<LawDocument> lawDocuments, List<FetchCursor> cursors,
+                                     int maxNumber, int maxDocumentsPerExecution) {
+        for (FetchCursor cursor : cursors) {
+            int budget = maxDocumentsPerExecution - lawDocuments.size();
+            if (budget <= 0) {
+                return;
+            }
+            int cursorStart = Math.max(0, cursor.getCurrentNumber());
+            List<YearBoundaryService.Extension> extensions = yearBoundaryService.pendingExtensions(
+                    cursor.getDocumentType(), maxNumber, budget, cursor.getCurrentYear(), cursorStart);
+            scannedRanges.addAll(extensions);
+            for (YearBoundaryService.Extension extension : extensions) {
+                for (int number = extension.toNumber(); number >= extension.fromNumber(); number--) {
+                    if (!shouldSkipDocument(extension.documentType(), extension.year(), number)) {
+                        lawDocuments.add(documentFactory.create(extension.documentType(), extension.year(), number));
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     protected int getMinYear() {
         return properties.getEndYear(); // 1960 depuis application.yml
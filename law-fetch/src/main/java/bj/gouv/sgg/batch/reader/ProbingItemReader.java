@@ -0,0 +1,67 @@
+package bj.gouv.sgg.batch.reader;
+
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.service.AsyncHeadProbeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Reader qui lit les documents par lots et les probe en asynchrone avant de les livrer au chunk.
+ *
+ * <p>Utilisé quand {@code law.fetch.async-probing=true} : le step tourne alors sans transaction
+ * de base de données (les probes HEAD n'occupent ni connexion ni transaction), et seul le
+ * {@code FetchWriter} ouvre sa propre transaction pour persister le chunk déjà probé.
+ */
+@Slf4j
+public class ProbingItemReader implements ItemStreamReader<LawDocument> {
+
+    private final ItemReader<LawDocument> delegate;
+    private final AsyncHeadProbeService asyncHeadProbeService;
+    private final int batchSize;
+    private final Deque<LawDocument> probed = new ArrayDeque<>();
+
+    /**
+     * @param delegate Reader générant les documents à vérifier
+     * @param asyncHeadProbeService Moteur de probes HEAD asynchrones
+     * @param batchSize Documents lus et probés ensemble (taille de chunk)
+     */
+    public ProbingItemReader(ItemReader<LawDocument> delegate, AsyncHeadProbeService asyncHeadProbeService,
+                             int batchSize) {
+        this.delegate = delegate;
+        this.asyncHeadProbeService = asyncHeadProbeService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public LawDocument read() throws Exception {
+        if (probed.isEmpty()) {
+            List<LawDocument> batch = new ArrayList<>(batchSize);
+            LawDocument document;
+            while (batch.size() < batchSize && (document = delegate.read()) != null) {
+                batch.add(document);
+            }
+            if (batch.isEmpty()) {
+                return null; // End of data
+            }
+            log.debug("🔍 Probing batch of {} documents", batch.size());
+            asyncHeadProbeService.probeAll(batch);
+            probed.addAll(batch);
+        }
+        return probed.poll();
+    }
+
+    /**
+     * Oublie les documents probés d'une exécution précédente interrompue.
+     */
+    @Override
+    public void open(ExecutionContext executionContext) {
+        probed.clear();
+    }
+}
@@ -1,8 +1,10 @@
 package bj.gouv.sgg.batch.writer;
 
 import bj.gouv.sgg.exception.BatchProcessingException;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.FetchResult;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.FetchBatchInsertRepository;
 import bj.gouv.sgg.repository.FetchResultRepository;
 import bj.gouv.sgg.repository.LawDocumentRepository;
 import bj.gouv.sgg.service.NotFoundService;
@@ -11,15 +13,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Writer spécialisé pour les fetch results avec pattern UPSERT.
- * Utilise findByDocumentId().orElse() + save() pour éviter les duplicate entry errors.
+ * Les lignes existantes du chunk sont résolues en quelques requêtes ensemblistes
+ * (fetch_results par documentId IN, law_documents par type/année/numéro IN),
+ * puis les UPDATE passent par saveAll (batch Hibernate) et les INSERT par lots JDBC.
  * Supporte mode force pour re-traiter les documents existants.
  */
 @Slf4j
@@ -30,6 +40,8 @@ public class FetchWriter implements ItemWriter<LawDocument> {
     private final FetchResultRepository repository;
     private final LawDocumentRepository lawDocumentRepository;
     private final NotFoundService notFoundService;
+    private final FetchBatchInsertRepository batchInsertRepository;
+    private final LawMetrics metrics;
     
     private boolean forceMode = false;
     private boolean enableNotFoundConsolidation = false; // Désactivé par défaut (CurrentYear)
@@ -50,17 +62,33 @@ public class FetchWriter implements ItemWriter<LawDocument> {
         log.info("FetchWriter NOT_FOUND consolidation: {}", enable);
     }
     
+    /**
+     * Transactionnel : rejoint la transaction du chunk (mode bloquant) ou ouvre la sienne
+     * quand le step tourne sans transaction de base (probing asynchrone).
+     */
     @Override
+    @Transactional
     public void write(Chunk<? extends LawDocument> chunk) throws BatchProcessingException {
         List<FetchResult> results = new ArrayList<>();
+        List<FetchResult> updatedResults = new ArrayList<>();
+        List<FetchResult> newResults = new ArrayList<>();
         int newCount = 0;
         int updatedCount = 0;
         int skippedCount = 0;
         
+        // Résolution ensembliste des fetch_results existants (1 requête par chunk)
+        Set<String> documentIds = chunk.getItems().stream()
+            .map(LawDocument::getDocumentId)
+            .collect(Collectors.toSet());
+        Map<String, FetchResult> existingResults = documentIds.isEmpty()
+            ? Map.of()
+            : repository.findByDocumentIdIn(documentIds).stream()
+                .collect(Collectors.toMap(FetchResult::getDocumentId, Function.identity(), (a, b) -> a));
+        
         for (LawDocument document : chunk) {
             String docId = document.getDocumentId();
-            Optional<FetchResult> existingOpt = repository.findByDocumentId(docId);
-            boolean exists = existingOpt.isPresent();
+            FetchResult existing = existingResults.get(docId);
+            boolean exists = existing != null;
             
             if (shouldSkipDocument(exists)) {
                 skippedCount++;
@@ -68,9 +96,9 @@ public class FetchWriter implements ItemWriter<LawDocument> {
             }
             
             // ✅ UPSERT: récupérer existant ou créer nouveau
-            FetchResult result = existingOpt.orElse(FetchResult.builder()
+            FetchResult result = exists ? existing : FetchResult.builder()
                 .documentId(docId)
-                .build());
+                .build();
             
             // Mettre à jour tous les champs
             result.setDocumentType(document.getType());
@@ -85,15 +113,18 @@ public class FetchWriter implements ItemWriter<LawDocument> {
             results.add(result);
             
             if (exists) {
+                updatedResults.add(result);
                 updatedCount++;
             } else {
+                newResults.add(result);
                 newCount++;
             }
             
             logDocumentProcessed(document, exists);
         }
         
-        saveResults(results);
+        saveResults(results, updatedResults, newResults);
+        recordMetrics(results, skippedCount);
         
         // Consolider les NOT_FOUND si activé (PreviousYears uniquement)
         if (enableNotFoundConsolidation) {
@@ -138,26 +169,83 @@ public class FetchWriter implements ItemWriter<LawDocument> {
     }
     
     /**
-     * Sauvegarde les résultats en batch dans fetch_results ET law_documents
+     * Sauvegarde les résultats en batch dans fetch_results ET law_documents.
+     * UPDATE via saveAll (batch Hibernate), INSERT via lots JDBC (clés IDENTITY).
      */
-    private void saveResults(List<FetchResult> results) {
-        if (!results.isEmpty()) {
-            // Sauvegarder dans fetch_results (table de tracking)
-            repository.saveAll(results);
-            
-            // Sauvegarder aussi dans law_documents (table principale pour downloadJob)
-            List<LawDocument> documents = results.stream()
-                .map(this::convertOrUpdateLawDocument)
-                .toList();
-            lawDocumentRepository.saveAll(documents);
+    private void saveResults(List<FetchResult> results, List<FetchResult> updatedResults,
+                             List<FetchResult> newResults) {
+        if (results.isEmpty()) {
+            return;
+        }
+        
+        // Sauvegarder dans fetch_results (table de tracking)
+        if (!updatedResults.isEmpty()) {
+            repository.saveAll(updatedResults);
+        }
+        batchInsertRepository.insertFetchResults(newResults);
+        metrics.recordDbBatch("fetch-results-update", updatedResults.size());
+        metrics.recordDbBatch("fetch-results-insert", newResults.size());
+        
+        // Sauvegarder aussi dans law_documents (table principale pour downloadJob)
+        Map<String, LawDocument> existingDocuments = findExistingLawDocuments(results);
+        List<LawDocument> updatedDocuments = new ArrayList<>();
+        List<LawDocument> newDocuments = new ArrayList<>();
+        for (FetchResult result : results) {
+            LawDocument existing = existingDocuments.get(result.getDocumentId());
+            LawDocument document = convertOrUpdateLawDocument(result, existing);
+            if (existing != null) {
+                updatedDocuments.add(document);
+            } else {
+                newDocuments.add(document);
+            }
+        }
+        if (!updatedDocuments.isEmpty()) {
+            lawDocumentRepository.saveAll(updatedDocuments);
         }
+        batchInsertRepository.insertLawDocuments(newDocuments);
+        metrics.recordDbBatch("law-documents-update", updatedDocuments.size());
+        metrics.recordDbBatch("law-documents-insert", newDocuments.size());
+    }
+    
+    /**
+     * Compte les items écrits par statut de fetch (FETCHED, FAILED, RATE_LIMITED...) et les ignorés
+     */
+    private void recordMetrics(List<FetchResult> results, int skippedCount) {
+        Map<String, Long> countsByStatus = results.stream()
+            .collect(Collectors.groupingBy(FetchResult::getStatus, Collectors.counting()));
+        countsByStatus.forEach((status, count) -> metrics.recordItems(LawMetrics.STAGE_FETCH, status, count));
+        metrics.recordItems(LawMetrics.STAGE_FETCH, "SKIPPED", skippedCount);
+    }
+    
+    /**
+     * Résout les law_documents existants du chunk : une requête par (type, année),
+     * au lieu d'une requête CONCAT par document.
+     */
+    private Map<String, LawDocument> findExistingLawDocuments(List<FetchResult> results) {
+        Map<String, List<Integer>> numbersByTypeYear = new LinkedHashMap<>();
+        for (FetchResult result : results) {
+            numbersByTypeYear
+                .computeIfAbsent(result.getDocumentType() + "-" + result.getYear(), k -> new ArrayList<>())
+                .add(result.getNumber());
+        }
+        
+        Map<String, LawDocument> existing = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : numbersByTypeYear.entrySet()) {
+            int separator = entry.getKey().lastIndexOf('-');
+            String type = entry.getKey().substring(0, separator);
+            int year = Integer.parseInt(entry.getKey().substring(separator + 1));
+            for (LawDocument document : lawDocumentRepository.findByTypeAndYearAndNumberIn(type, year, entry.getValue())) {
+                existing.putIfAbsent(document.getDocumentId(), document);
+            }
+        }
+        return existing;
     }
     
     /**
      * Convertit FetchResult vers LawDocument OU met à jour document existant.
-     * Évite les doublons en récupérant l'entity existante si présente (conserve l'ID).
+     * Évite les doublons en réutilisant l'entity existante si présente (conserve l'ID).
      */
-    private LawDocument convertOrUpdateLawDocument(FetchResult result) {
+    private LawDocument convertOrUpdateLawDocument(FetchResult result, LawDocument existing) {
         // Mapper le statut de FetchResult vers LawDocument.ProcessingStatus
         LawDocument.ProcessingStatus status;
         try {
@@ -171,12 +259,8 @@ public class FetchWriter implements ItemWriter<LawDocument> {
         
         String documentId = result.getDocumentId();
         
-        // Chercher entity existante pour éviter création de doublon
-        Optional<LawDocument> existingOpt = lawDocumentRepository.findByDocumentId(documentId);
-        
-        if (existingOpt.isPresent()) {
+        if (existing != null) {
             // ✅ UPDATE : Mettre à jour document existant (conserve l'ID)
-            LawDocument existing = existingOpt.get();
             existing.setUrl(result.getUrl());
             existing.setExists(result.getExists());
             existing.setStatus(status);
@@ -4,8 +4,10 @@ import bj.gouv.sgg.batch.processor.CurrentYearLawDocumentProcessor;
 import bj.gouv.sgg.batch.processor.PreviousYearLawDocumentProcessor;
 import bj.gouv.sgg.batch.reader.CurrentYearLawDocumentReader;
 import bj.gouv.sgg.batch.reader.PreviousYearLawDocumentReader;
+import bj.gouv.sgg.batch.reader.ProbingItemReader;
 import bj.gouv.sgg.batch.writer.FetchWriter;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.service.AsyncHeadProbeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.Job;
@@ -13,7 +15,12 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
@@ -78,16 +85,9 @@ public class FetchJobConfiguration {
     public Step fetchCurrentStep(CurrentYearLawDocumentReader currentYearReader, 
                                  CurrentYearLawDocumentProcessor processor,
                                  FetchWriter fetchWriter,
+                                 AsyncHeadProbeService asyncHeadProbeService,
                                  TaskExecutor fetchTaskExecutor) {
-        return new StepBuilder("fetchCurrentStep", jobRepository)
-            .<LawDocument, LawDocument>chunk(properties.getBatch().getChunkSize(), transactionManager)
-            .reader(currentYearReader)
-            .processor(processor)
-            .writer(fetchWriter)
-            .faultTolerant()
-            .skip(Exception.class)
-            .skipLimit(Integer.MAX_VALUE)
-            .taskExecutor(fetchTaskExecutor) // ✅ Traitement multi-threads
+        return probingStep("fetchCurrentStep", currentYearReader, processor, fetchWriter, asyncHeadProbeService, fetchTaskExecutor)
             .listener(new org.springframework.batch.core.StepExecutionListener() {
                 @Override
                 public void beforeStep(org.springframework.batch.core.StepExecution stepExecution) {
@@ -147,16 +147,9 @@ public class FetchJobConfiguration {
     public Step fetchPreviousStep(PreviousYearLawDocumentReader previousYearsReader,
                                   PreviousYearLawDocumentProcessor processor,
                                   FetchWriter fetchWriter,
+                                  AsyncHeadProbeService asyncHeadProbeService,
                                   TaskExecutor fetchTaskExecutor) {
-        return new StepBuilder("fetchPreviousStep", jobRepository)
-            .<LawDocument, LawDocument>chunk(properties.getBatch().getChunkSize(), transactionManager)
-            .reader(previousYearsReader)
-            .processor(processor)
-            .writer(fetchWriter)
-            .faultTolerant()
-            .skip(Exception.class)
-            .skipLimit(Integer.MAX_VALUE)
-            .taskExecutor(fetchTaskExecutor) // ✅ Traitement multi-threads
+        return probingStep("fetchPreviousStep", previousYearsReader, processor, fetchWriter, asyncHeadProbeService, fetchTaskExecutor)
             .listener(new org.springframework.batch.core.StepExecutionListener() {
                 @Override
                 public void beforeStep(org.springframework.batch.core.StepExecution stepExecution) {
@@ -193,7 +186,56 @@ public class FetchJobConfiguration {
                         }
                     }
                 }
+                
+                @Override
+                public org.springframework.batch.core.ExitStatus afterStep(org.springframework.batch.core.StepExecution stepExecution) {
+                    // Bornes d'années enregistrées seulement si toute la plage a été probée et persistée
+                    if (stepExecution.getStatus() == org.springframework.batch.core.BatchStatus.COMPLETED) {
+                        previousYearsReader.recordScannedRanges();
+                    }
+                    return stepExecution.getExitStatus();
+                }
             })
             .build();
     }
+    
+    /**
+     * Construit un step de fetch selon le mode de probing :
+     * <ul>
+     *   <li><b>Asynchrone</b> ({@code law.fetch.async-probing=true}) : pas de processor,
+     *       le reader probe chaque lot avec des centaines de requêtes en vol sur quelques threads I/O.
+     *       Le chunk tourne sans transaction de base ; seul le {@link FetchWriter} ouvre la sienne
+     *       pour persister, les probes ne retiennent donc ni connexion ni verrou</li>
+     *   <li><b>Bloquant</b> : processor HEAD par item, multi-threads via {@code fetchTaskExecutor}</li>
+     * </ul>
+     */
+    private FaultTolerantStepBuilder<LawDocument, LawDocument> probingStep(
+            String stepName,
+            ItemReader<LawDocument> reader,
+            ItemProcessor<LawDocument, LawDocument> processor,
+            FetchWriter fetchWriter,
+            AsyncHeadProbeService asyncHeadProbeService,
+            TaskExecutor fetchTaskExecutor) {
+        int chunkSize = properties.getBatch().getChunkSize();
+        SimpleStepBuilder<LawDocument, LawDocument> builder;
+        
+        if (properties.getFetch().isAsyncProbing()) {
+            log.info("🚀 {} : probing HEAD asynchrone (max {} en vol)", stepName, properties.getFetch().getMaxInFlight());
+            builder = new StepBuilder(stepName, jobRepository)
+                .<LawDocument, LawDocument>chunk(chunkSize, new ResourcelessTransactionManager())
+                .reader(new ProbingItemReader(reader, asyncHeadProbeService, chunkSize))
+                .writer(fetchWriter);
+        } else {
+            builder = new StepBuilder(stepName, jobRepository)
+                .<LawDocument, LawDocument>chunk(chunkSize, transactionManager)
+                .reader(reader)
+                .processor(processor)
+                .writer(fetchWriter)
+                .taskExecutor(fetchTaskExecutor); // ✅ Traitement multi-threads
+        }
+        
+        return builder.faultTolerant()
+            .skip(Exception.class)
+            .skipLimit(Integer.MAX_VALUE);
+    }
 }
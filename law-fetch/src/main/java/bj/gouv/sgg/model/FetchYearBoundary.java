@@ -0,0 +1,47 @@
+package bj.gouv.sgg.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Borne haute de balayage d'une année (fetchPrevious).
+ * Le balayage descendant d'une année démarre à (plus grand numéro trouvé + série de NOT_FOUND),
+ * et non plus à max-number-per-year. La borne est étendue si un document est trouvé près de celle-ci.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fetch_year_boundary",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"documentType", "document_year"})
+)
+public class FetchYearBoundary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 20)
+    private String documentType; // "loi" ou "decret"
+    
+    @Column(name = "document_year", nullable = false)  // "year" est un mot réservé SQL
+    private Integer year;
+    
+    @Column(nullable = false)
+    private Integer boundaryNumber; // Plus grand numéro couvert par le balayage
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
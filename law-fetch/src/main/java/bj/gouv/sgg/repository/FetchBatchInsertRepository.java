@@ -0,0 +1,85 @@
+package bj.gouv.sgg.repository;
+
+import bj.gouv.sgg.model.FetchResult;
+import bj.gouv.sgg.model.LawDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Insertions JDBC par lots pour le FetchWriter.
+ *
+ * <p>Les entités utilisent des clés IDENTITY : Hibernate désactive alors le batch des INSERT
+ * et émet une requête par ligne. Les nouvelles lignes d'un chunk sont donc insérées ici
+ * via {@link JdbcTemplate#batchUpdate}, par lots de {@code hibernate.jdbc.batch_size}
+ * (réécrits en INSERT multi-lignes par le driver MySQL avec {@code rewriteBatchedStatements}).
+ * Les INSERT participent à la transaction du chunk.
+ */
+@Slf4j
+@Repository
+public class FetchBatchInsertRepository {
+
+    private static final String INSERT_FETCH_RESULT =
+        "INSERT INTO fetch_results (document_id, document_type, document_year, number, url, status, " +
+        "document_exists, fetched_at, error_message) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LAW_DOCUMENT =
+        "INSERT INTO law_documents (type, document_year, number, url, document_exists, status, " +
+        "status_changed_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public FetchBatchInsertRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize > 0 ? batchSize : 50;
+    }
+
+    /**
+     * Insère de nouveaux résultats de fetch par lots
+     */
+    public void insertFetchResults(List<FetchResult> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_FETCH_RESULT, results, batchSize, (ps, result) -> {
+            ps.setString(1, result.getDocumentId());
+            ps.setString(2, result.getDocumentType());
+            ps.setInt(3, result.getYear());
+            ps.setInt(4, result.getNumber());
+            ps.setString(5, result.getUrl());
+            ps.setString(6, result.getStatus());
+            ps.setBoolean(7, result.getExists());
+            ps.setTimestamp(8, Timestamp.valueOf(result.getFetchedAt()));
+            ps.setString(9, result.getErrorMessage());
+        });
+        log.debug("➕ Batch inserted {} fetch results (batch size {})", results.size(), batchSize);
+    }
+
+    /**
+     * Insère de nouveaux documents par lots (dates de suivi renseignées comme le ferait @PrePersist)
+     */
+    public void insertLawDocuments(List<LawDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_LAW_DOCUMENT, documents, batchSize, (ps, document) -> {
+            ps.setString(1, document.getType());
+            ps.setInt(2, document.getYear());
+            ps.setInt(3, document.getNumber());
+            ps.setString(4, document.getUrl());
+            ps.setBoolean(5, document.isExists());
+            ps.setString(6, document.getStatus() != null ? document.getStatus().name() : null);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        log.debug("➕ Batch inserted {} law documents (batch size {})", documents.size(), batchSize);
+    }
+}
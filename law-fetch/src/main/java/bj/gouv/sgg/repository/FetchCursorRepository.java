@@ -2,8 +2,12 @@ package bj.gouv.sgg.repository;
 
 import bj.gouv.sgg.model.FetchCursor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +23,39 @@ public interface FetchCursorRepository extends JpaRepository<FetchCursor, Long>
      * Vérifie si le cursor existe
      */
     boolean existsByDocumentType(String documentType);
+    
+    /**
+     * Vérifie si le cursor existe pour un cursorType et un type de document
+     */
+    boolean existsByCursorTypeAndDocumentType(String cursorType, String documentType);
+    
+    /**
+     * Avance atomiquement un cursor fetch-previous : uniquement vers une position plus ancienne
+     * (année inférieure, ou même année et numéro inférieur).
+     * @return 1 si le cursor a avancé, 0 sinon (absent ou position non plus avancée)
+     */
+    @Modifying
+    @Query("UPDATE FetchCursor c SET c.currentYear = :year, c.currentNumber = :number, c.updatedAt = :now " +
+           "WHERE c.cursorType = :cursorType AND c.documentType = :documentType " +
+           "AND (c.currentYear > :year OR (c.currentYear = :year AND c.currentNumber > :number))")
+    int advanceBackward(@Param("cursorType") String cursorType,
+                        @Param("documentType") String documentType,
+                        @Param("year") Integer year,
+                        @Param("number") Integer number,
+                        @Param("now") LocalDateTime now);
+    
+    /**
+     * Avance atomiquement un cursor fetch-current : numéro inférieur dans la même année,
+     * ou passage à une nouvelle année courante.
+     * @return 1 si le cursor a avancé, 0 sinon (absent ou position non plus avancée)
+     */
+    @Modifying
+    @Query("UPDATE FetchCursor c SET c.currentYear = :year, c.currentNumber = :number, c.updatedAt = :now " +
+           "WHERE c.cursorType = :cursorType AND c.documentType = :documentType " +
+           "AND (c.currentYear < :year OR (c.currentYear = :year AND c.currentNumber > :number))")
+    int advanceWithinYear(@Param("cursorType") String cursorType,
+                          @Param("documentType") String documentType,
+                          @Param("year") Integer year,
+                          @Param("number") Integer number,
+                          @Param("now") LocalDateTime now);
 }
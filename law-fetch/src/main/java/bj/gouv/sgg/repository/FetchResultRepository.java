@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +20,11 @@ public interface FetchResultRepository extends JpaRepository<FetchResult, Long>
      */
     Optional<FetchResult> findByDocumentId(String documentId);
     
+    /**
+     * Trouve les résultats d'un ensemble de documentIds (résolution d'un chunk en une requête)
+     */
+    List<FetchResult> findByDocumentIdIn(Collection<String> documentIds);
+    
     /**
      * Vérifie si un document existe par son documentId
      */
@@ -92,4 +98,19 @@ public interface FetchResultRepository extends JpaRepository<FetchResult, Long>
      * Compte les documents par type
      */
     long countByDocumentType(String documentType);
+    
+    /**
+     * Plus grand numéro trouvé (exists=true) pour un type et une année
+     * @return numéro max, ou null si aucun document trouvé
+     */
+    @Query("SELECT MAX(f.number) FROM FetchResult f WHERE f.documentType = :type AND f.year = :year AND f.exists = true")
+    Integer findMaxFoundNumber(@org.springframework.data.repository.query.Param("type") String type,
+                               @org.springframework.data.repository.query.Param("year") Integer year);
+    
+    /**
+     * Plus grand numéro trouvé par année pour un type
+     * @return lignes [year (Integer), maxNumber (Integer)]
+     */
+    @Query("SELECT f.year, MAX(f.number) FROM FetchResult f WHERE f.documentType = :type AND f.exists = true GROUP BY f.year")
+    List<Object[]> findMaxFoundNumberByYear(@org.springframework.data.repository.query.Param("type") String type);
 }
@@ -0,0 +1,25 @@
+package bj.gouv.sgg.repository;
+
+import bj.gouv.sgg.model.FetchYearBoundary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour les bornes de balayage par (type, année)
+ */
+@Repository
+public interface FetchYearBoundaryRepository extends JpaRepository<FetchYearBoundary, Long> {
+    
+    /**
+     * Trouve la borne d'une année pour un type
+     */
+    Optional<FetchYearBoundary> findByDocumentTypeAndYear(String documentType, Integer year);
+    
+    /**
+     * Trouve toutes les bornes d'un type
+     */
+    List<FetchYearBoundary> findByDocumentType(String documentType);
+}
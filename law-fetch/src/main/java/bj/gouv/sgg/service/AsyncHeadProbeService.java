@@ -0,0 +1,255 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.stereotype.Service;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moteur de probes HEAD asynchrones (HttpClient5 async, HTTP/2 négocié via ALPN,
+ * sinon HTTP/1.1 avec pool de connexions persistantes).
+ *
+ * <p>Des centaines de probes restent en vol sur quelques threads I/O :
+ * <ul>
+ *   <li>Chaque probe réserve un jeton ({@link AdaptiveRateLimiter}, canal HEAD) et est
+ *       planifiée à l'échéance de son jeton, sans bloquer de thread</li>
+ *   <li>Retry sur 429 et sur connexion fermée/réinitialisée (replanifiés via le seau de jetons,
+ *       jamais par le client HTTP), fallback URL zéro-paddée si 404 et numéro &lt; 10</li>
+ *   <li>Le résultat est appliqué au {@link LawDocument} selon les mêmes règles que
+ *       {@code AbstractFetchProcessor} (FETCHED / RATE_LIMITED / FAILED)</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class AsyncHeadProbeService {
+
+    private static final int MAX_RETRIES = 3;
+    private static final int NETWORK_ERROR_CODE = 500;
+    // Connexion persistante fermée ou réinitialisée avant la réponse : la requête peut être rejouée
+    private static final int CONNECTION_LOST_CODE = -1;
+
+    private final LawProperties properties;
+    private final AdaptiveRateLimiter rateLimiter;
+    // Démarrés au premier lot : rien n'est créé si law.fetch.async-probing=false
+    private volatile CloseableHttpAsyncClient client;
+    private volatile ScheduledExecutorService scheduler;
+
+    public AsyncHeadProbeService(LawProperties properties, AdaptiveRateLimiter rateLimiter) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+    }
+
+    private synchronized void ensureStarted() {
+        if (client != null) {
+            return;
+        }
+        LawProperties.Fetch fetch = properties.getFetch();
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(fetch.getMaxConnections())
+            .setMaxConnPerRoute(fetch.getMaxConnections())
+            .setDefaultTlsConfig(TlsConfig.custom()
+                .setVersionPolicy(HttpVersionPolicy.NEGOTIATE) // HTTP/2 si le serveur le propose
+                .build())
+            .build();
+
+        int timeoutMs = properties.getHttp().getTimeout() > 0 ? properties.getHttp().getTimeout() : 30000;
+        CloseableHttpAsyncClient asyncClient = HttpAsyncClients.custom()
+            .setConnectionManager(connectionManager)
+            .setIOReactorConfig(IOReactorConfig.custom()
+                .setIoThreadCount(fetch.getIoThreads())
+                .build())
+            .setDefaultRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                .build())
+            // Les 429/503 sont repris par probe() via le seau de jetons, pas renvoyés en douce par le client
+            .disableAutomaticRetries()
+            .build();
+        asyncClient.start();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "probe-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = asyncClient;
+
+        log.info("🚀 Async HEAD probe engine started (maxInFlight={}, maxConnections={}, ioThreads={})",
+                 fetch.getMaxInFlight(), fetch.getMaxConnections(), fetch.getIoThreads());
+    }
+
+    /**
+     * Probe tous les documents (au plus {@code law.fetch.max-in-flight} en vol) et met à jour
+     * leur statut. Bloque uniquement l'appelant jusqu'à la fin du lot.
+     *
+     * @param documents Documents à vérifier (statut, exists et url mis à jour sur place)
+     */
+    public void probeAll(List<? extends LawDocument> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        ensureStarted();
+        long start = System.nanoTime();
+        Semaphore inFlight = new Semaphore(Math.max(1, properties.getFetch().getMaxInFlight()));
+        List<CompletableFuture<Void>> futures = new ArrayList<>(documents.size());
+
+        try {
+            for (LawDocument document : documents) {
+                inFlight.acquire();
+                futures.add(probeDocument(document).whenComplete((r, e) -> inFlight.release()));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("⚠️ Probes interrompues ({} lancées sur {})", futures.size(), documents.size());
+        }
+
+        long found = documents.stream()
+            .filter(d -> d.getStatus() == LawDocument.ProcessingStatus.FETCHED)
+            .count();
+        log.info("📊 {} probes HEAD en {} ms ({} trouvés)",
+                 documents.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), found);
+    }
+
+    /**
+     * Probe un document : URL principale puis, si 404 et numéro &lt; 10, URL zéro-paddée.
+     */
+    private CompletableFuture<Void> probeDocument(LawDocument document) {
+        String url = document.getUrl();
+        return probe(url, 0)
+            .thenCompose(code -> {
+                if (code == 404 && document.getNumber() < 10) {
+                    String paddedUrl = buildUrlWithPadding(document);
+                    return probe(paddedUrl, 0).thenApply(paddedCode -> {
+                        if (paddedCode == 200) {
+                            document.setUrl(paddedUrl);
+                            log.info("✅ Found (200) with padding: {} → {}", document.getDocumentId(), paddedUrl);
+                            return paddedCode;
+                        }
+                        return code;
+                    });
+                }
+                return CompletableFuture.completedFuture(code);
+            })
+            .thenAccept(code -> applyStatus(document, code))
+            .exceptionally(e -> {
+                log.error("💥 Error fetching {} ({}): {}", document.getDocumentId(), url, e.getMessage());
+                document.setExists(false);
+                document.setStatus(LawDocument.ProcessingStatus.FAILED);
+                return null;
+            });
+    }
+
+    /**
+     * Planifie un HEAD à l'échéance du jeton réservé, avec retry sur 429.
+     */
+    private CompletableFuture<Integer> probe(String url, int attempt) {
+        String key = AdaptiveRateLimiter.key(url, AdaptiveRateLimiter.CHANNEL_HEAD);
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        long delayNanos = rateLimiter.reserve(key);
+        scheduler.schedule(() -> send(url, key, result), delayNanos, TimeUnit.NANOSECONDS);
+
+        return result.thenCompose(code -> {
+            if ((code == 429 || code == CONNECTION_LOST_CODE) && attempt + 1 < MAX_RETRIES) {
+                log.info("retry-after-{} url={} attempt={}",
+                         code == 429 ? "429" : "connection-lost", url, attempt + 1);
+                return probe(url, attempt + 1);
+            }
+            if (code == 429) {
+                log.warn("retry-exhausted url={} attempts={}", url, MAX_RETRIES);
+            }
+            return CompletableFuture.completedFuture(code);
+        });
+    }
+
+    private void send(String url, String key, CompletableFuture<Integer> result) {
+        SimpleHttpRequest request = SimpleRequestBuilder.head(url)
+            .setHeader("User-Agent", properties.getUserAgent())
+            .build();
+        long start = System.nanoTime();
+
+        client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                rateLimiter.onResponse(key, response.getCode(), System.nanoTime() - start);
+                result.complete(response.getCode());
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                log.error("Error checking URL {}: {}", url, ex.getMessage());
+                rateLimiter.onResponse(key, NETWORK_ERROR_CODE, System.nanoTime() - start);
+                // Un timeout n'est pas rejoué : le portail est lent, pas la connexion perdue
+                result.complete(ex instanceof InterruptedIOException ? NETWORK_ERROR_CODE : CONNECTION_LOST_CODE);
+            }
+
+            @Override
+            public void cancelled() {
+                result.complete(NETWORK_ERROR_CODE);
+            }
+        });
+    }
+
+    private void applyStatus(LawDocument document, int code) {
+        if (code == 200) {
+            document.setExists(true);
+            document.setStatus(LawDocument.ProcessingStatus.FETCHED);
+            log.info("✅ Found (200): {} → {}", document.getDocumentId(), document.getUrl());
+        } else if (code == 429) {
+            // Si 429 après tous les retries → RATE_LIMITED (sera repris)
+            document.setExists(false);
+            document.setStatus(LawDocument.ProcessingStatus.RATE_LIMITED);
+            log.warn("⚠️ Rate limited (429) after retries: {} [RATE_LIMITED - will be retried]",
+                     document.getDocumentId());
+        } else {
+            document.setExists(false);
+            document.setStatus(LawDocument.ProcessingStatus.FAILED);
+            log.debug("❌ Not found ({}): {} [FAILED - permanent]", code, document.getDocumentId());
+        }
+    }
+
+    private String buildUrlWithPadding(LawDocument document) {
+        // Format: https://sgg.gouv.bj/doc/loi-2024-01
+        return String.format("%s/%s-%d-%02d",
+                properties.getBaseUrl(),
+                document.getType(),
+                document.getYear(),
+                document.getNumber()
+        );
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (client == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        client.close(CloseMode.GRACEFUL);
+        client = null;
+        log.info("🛑 Async HEAD probe engine stopped");
+    }
+}
@@ -8,13 +8,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.time.LocalDateTime;
 
 /**
- * Service dédié à la mise à jour du cursor en mode thread-safe.
- * Utilise REQUIRES_NEW pour isoler chaque transaction et éviter les deadlocks MySQL.
+ * Service dédié à l'avancement du cursor, sans verrou applicatif.
+ * Chaque sauvegarde est un UPDATE conditionnel atomique sur la ligne (cursorType, documentType)
+ * qui ne fait qu'avancer : une position plus ancienne (thread ou instance en retard) est ignorée.
+ * Sûr entre threads et entre plusieurs JVM ; REQUIRES_NEW garde la transaction courte et isolée.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,49 +22,46 @@ import java.util.concurrent.locks.ReentrantLock;
 public class CursorUpdateService {
 
     private final FetchCursorRepository fetchCursorRepository;
-    
-    // Lock statique pour synchroniser l'accès entre tous les threads
-    private static final Lock CURSOR_LOCK = new ReentrantLock();
 
     /**
-     * Sauvegarde ou met à jour le cursor en base de données de manière thread-safe.
+     * Avance le cursor en base si la position demandée est plus avancée que la position enregistrée.
+     * Crée le cursor s'il n'existe pas encore.
      * 
      * @param cursorType Le type de cursor (CURRENT ou PREVIOUS)
      * @param documentType Le type de document (loi ou decret)
      * @param currentYear L'année courante du cursor
      * @param currentNumber Le numéro courant du cursor
+     * @return true si le cursor a été créé ou avancé, false si la position était en retard
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void updateCursor(String cursorType, String documentType, Integer currentYear, Integer currentNumber) {
-        CURSOR_LOCK.lock();
-        try {
-            Optional<FetchCursor> existingOpt = fetchCursorRepository
-                .findByCursorTypeAndDocumentType(cursorType, documentType);
-            
-            FetchCursor cursorToSave;
-            
-            if (existingOpt.isPresent()) {
-                // UPDATE : Mettre à jour cursor existant
-                cursorToSave = existingOpt.get();
-                cursorToSave.setCurrentYear(currentYear);
-                cursorToSave.setCurrentNumber(currentNumber);
-                log.debug("✅ Updated cursor for {} ({}) to year={}, number={}", 
-                         documentType, cursorType, currentYear, currentNumber);
-            } else {
-                // INSERT : Créer nouveau cursor
-                cursorToSave = FetchCursor.builder()
-                    .cursorType(cursorType)
-                    .documentType(documentType)
-                    .currentYear(currentYear)
-                    .currentNumber(currentNumber)
-                    .build();
-                log.info("➕ Created cursor for {} ({}) at year={}, number={}", 
-                         documentType, cursorType, currentYear, currentNumber);
-            }
-            
-            fetchCursorRepository.save(cursorToSave);
-        } finally {
-            CURSOR_LOCK.unlock();
+    public boolean updateCursor(String cursorType, String documentType, Integer currentYear, Integer currentNumber) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = FetchCursor.CURSOR_TYPE_FETCH_CURRENT.equals(cursorType)
+            ? fetchCursorRepository.advanceWithinYear(cursorType, documentType, currentYear, currentNumber, now)
+            : fetchCursorRepository.advanceBackward(cursorType, documentType, currentYear, currentNumber, now);
+        
+        if (updated > 0) {
+            log.debug("✅ Updated cursor for {} ({}) to year={}, number={}", 
+                     documentType, cursorType, currentYear, currentNumber);
+            return true;
         }
+        
+        if (fetchCursorRepository.existsByCursorTypeAndDocumentType(cursorType, documentType)) {
+            // Position identique ou en retard : le cursor ne recule jamais
+            log.debug("⏭️ Cursor for {} ({}) already at or beyond year={}, number={}", 
+                     documentType, cursorType, currentYear, currentNumber);
+            return false;
+        }
+        
+        // INSERT : Créer nouveau cursor (contrainte unique (cursorType, documentType) en cas de course)
+        fetchCursorRepository.save(FetchCursor.builder()
+            .cursorType(cursorType)
+            .documentType(documentType)
+            .currentYear(currentYear)
+            .currentNumber(currentNumber)
+            .build());
+        log.info("➕ Created cursor for {} ({}) at year={}, number={}", 
+                 documentType, cursorType, currentYear, currentNumber);
+        return true;
     }
 }
@@ -3,17 +3,21 @@ package bj.gouv.sgg.service;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.model.FetchResult;
 import bj.gouv.sgg.repository.FetchResultRepository;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDateTime;
 
 /**
  * Service pour le fetch d'un document unique
+ * Partage le limiteur de débit HEAD du fetch batch ({@link AdaptiveRateLimiter}).
  */
 @Slf4j
 @Service
@@ -23,6 +27,7 @@ public class LawFetchService {
     private final FetchResultRepository fetchResultRepository;
     private final LawProperties properties;
     private final RestTemplate restTemplate;
+    private final AdaptiveRateLimiter rateLimiter;
 
     public FetchResult fetchSingleDocument(String type, int year, int number) {
         String documentId = String.format("%s-%d-%d", type, year, number);
@@ -30,8 +35,13 @@ public class LawFetchService {
 
         log.info("Fetching document: {} from {}", documentId, url);
 
+        String rateKey = AdaptiveRateLimiter.key(url, AdaptiveRateLimiter.CHANNEL_HEAD);
+        rateLimiter.acquire(rateKey);
+        long start = System.nanoTime();
+
         try {
             restTemplate.headForHeaders(url);
+            rateLimiter.onResponse(rateKey, 200, System.nanoTime() - start);
             
             // Vérifier si le FetchResult existe déjà
             FetchResult result = fetchResultRepository.findByDocumentId(documentId)
@@ -52,6 +62,7 @@ public class LawFetchService {
             return result;
 
         } catch (HttpClientErrorException e) {
+            rateLimiter.onResponse(rateKey, e.getStatusCode().value(), System.nanoTime() - start);
             if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
                 log.warn("Document not found (404): {}", documentId);
                 
@@ -72,6 +83,13 @@ public class LawFetchService {
                 return result;
             }
             throw e;
+        } catch (HttpServerErrorException e) {
+            rateLimiter.onResponse(rateKey, e.getStatusCode().value(), System.nanoTime() - start);
+            throw e;
+        } catch (ResourceAccessException e) {
+            // Timeout ou erreur d'E/S : compté comme une erreur serveur par le limiteur
+            rateLimiter.onResponse(rateKey, 500, System.nanoTime() - start);
+            throw e;
         }
     }
 }
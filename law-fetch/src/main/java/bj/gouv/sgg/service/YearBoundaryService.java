@@ -0,0 +1,169 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.FetchYearBoundary;
+import bj.gouv.sgg.repository.FetchResultRepository;
+import bj.gouv.sgg.repository.FetchYearBoundaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service de terminaison anticipée des années pour fetchPrevious.
+ *
+ * <p><b>Principe</b> : le balayage d'une année est descendant. Au lieu de partir de
+ * max-number-per-year (2000), il part de {@code plus grand numéro trouvé + N}
+ * où N = {@code law.fetch.consecutive-not-found-to-stop}. Les N numéros au-dessus du plus grand
+ * numéro connu forment la série de NOT_FOUND consécutifs qui termine l'année.
+ *
+ * <p>Si un document est trouvé dans cette série, la borne est étendue au cycle suivant
+ * ({@link #pendingExtensions}) jusqu'à obtenir N NOT_FOUND consécutifs au-dessus du plus grand trouvé.
+ * Aucun numéro sous le plus grand numéro connu n'est jamais sauté.
+ *
+ * <p>Les bornes ne sont enregistrées qu'après le succès du balayage ({@link #recordScannedRanges}) :
+ * un step en échec ne fait pas avancer la borne au-dessus de numéros jamais vérifiés.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class YearBoundaryService {
+
+    private final FetchResultRepository fetchResultRepository;
+    private final FetchYearBoundaryRepository fetchYearBoundaryRepository;
+    private final LawProperties properties;
+
+    /**
+     * Plage de numéros à (re)balayer pour étendre la borne d'une année.
+     */
+    public record Extension(String documentType, int year, int fromNumber, int toNumber) {
+        public int size() {
+            return toNumber - fromNumber + 1;
+        }
+    }
+
+    /**
+     * Ramène le numéro de départ d'une année à la borne apprise si le cursor est au-dessus.
+     * Sans document trouvé dans l'année, rien ne permet de borner : le départ est conservé.
+     * Lecture seule : la borne n'est enregistrée qu'une fois la plage balayée ({@link #recordScannedRanges}).
+     *
+     * @param documentType Type ("loi" ou "decret")
+     * @param year Année balayée
+     * @param currentNumber Numéro de départ prévu (cursor)
+     * @return numéro de départ effectif (jamais supérieur à currentNumber)
+     */
+    @Transactional(readOnly = true)
+    public int clampStartNumber(String documentType, int year, int currentNumber) {
+        int run = properties.getFetch().getConsecutiveNotFoundToStop();
+        if (run <= 0 || currentNumber <= 0) {
+            return currentNumber; // Heuristique désactivée
+        }
+
+        Integer highestFound = fetchResultRepository.findMaxFoundNumber(documentType, year);
+        if (highestFound == null) {
+            return currentNumber; // Aucun document connu : balayage complet de l'année
+        }
+        int boundary = highestFound + run;
+        if (currentNumber <= boundary) {
+            return currentNumber; // Déjà dans la plage connue
+        }
+
+        log.info("✂️ {}-{} : départ ramené de {} à {} (plus grand trouvé: {}, série NOT_FOUND: {})",
+                 documentType, year, currentNumber, boundary, highestFound, run);
+        return boundary;
+    }
+
+    /**
+     * Calcule les extensions de bornes pour un type : années dont un document
+     * a été trouvé à moins de N numéros de la borne.
+     * Les plages ne recouvrent jamais celle du cursor (numéros ≤ {@code cursorStart} de {@code cursorYear}),
+     * qui sont déjà générés par le balayage normal.
+     *
+     * @param documentType Type ("loi" ou "decret")
+     * @param maxNumber Numéro maximal autorisé par année
+     * @param budget Nombre maximal de numéros à générer
+     * @param cursorYear Année en cours de balayage par le cursor du type
+     * @param cursorStart Numéro de départ effectif du cursor dans cette année (0 si aucun)
+     * @return plages à balayer (ordre des années décroissant)
+     */
+    @Transactional(readOnly = true)
+    public List<Extension> pendingExtensions(String documentType, int maxNumber, int budget,
+                                             int cursorYear, int cursorStart) {
+        int run = properties.getFetch().getConsecutiveNotFoundToStop();
+        List<Extension> extensions = new ArrayList<>();
+        if (run <= 0 || budget <= 0) {
+            return extensions;
+        }
+
+        List<FetchYearBoundary> boundaries = fetchYearBoundaryRepository.findByDocumentType(documentType);
+        if (boundaries.isEmpty()) {
+            return extensions;
+        }
+
+        Map<Integer, Integer> highestByYear = new HashMap<>();
+        for (Object[] row : fetchResultRepository.findMaxFoundNumberByYear(documentType)) {
+            highestByYear.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+        }
+
+        int remaining = budget;
+        boundaries.sort((a, b) -> Integer.compare(b.getYear(), a.getYear()));
+        for (FetchYearBoundary boundary : boundaries) {
+            Integer highest = highestByYear.get(boundary.getYear());
+            if (highest == null || remaining <= 0) {
+                continue;
+            }
+            int target = Math.min(maxNumber, highest + run);
+            int from = boundary.getBoundaryNumber() + 1;
+            if (boundary.getYear() == cursorYear) {
+                from = Math.max(from, cursorStart + 1); // Numéros déjà couverts par le cursor
+            }
+            int to = Math.min(target, from + remaining - 1);
+            if (from > to) {
+                continue;
+            }
+
+            extensions.add(new Extension(documentType, boundary.getYear(), from, to));
+            remaining -= to - from + 1;
+
+            log.info("📈 {}-{} : extension de la borne {} à {} (document trouvé n°{})",
+                     documentType, boundary.getYear(), boundary.getBoundaryNumber(), to, highest);
+        }
+        return extensions;
+    }
+
+    /**
+     * Enregistre les bornes des plages effectivement balayées (appelé après le succès du step) :
+     * la borne d'une année devient le plus haut numéro balayé, sans jamais reculer.
+     *
+     * @param ranges Plages balayées (départs ramenés et extensions)
+     */
+    @Transactional
+    public void recordScannedRanges(Collection<Extension> ranges) {
+        Map<String, Extension> highestByYear = new HashMap<>();
+        for (Extension range : ranges) {
+            highestByYear.merge(range.documentType() + "-" + range.year(), range,
+                (a, b) -> a.toNumber() >= b.toNumber() ? a : b);
+        }
+
+        for (Extension range : highestByYear.values()) {
+            FetchYearBoundary record = fetchYearBoundaryRepository
+                .findByDocumentTypeAndYear(range.documentType(), range.year())
+                .orElseGet(() -> FetchYearBoundary.builder()
+                    .documentType(range.documentType())
+                    .year(range.year())
+                    .boundaryNumber(0)
+                    .build());
+            if (range.toNumber() > record.getBoundaryNumber()) {
+                record.setBoundaryNumber(range.toNumber());
+                fetchYearBoundaryRepository.save(record);
+                log.debug("📌 {}-{} : borne enregistrée à {}", range.documentType(), range.year(), range.toNumber());
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import bj.gouv.sgg.repository.FetchCursorRepository;
 import bj.gouv.sgg.repository.FetchResultRepository;
 import bj.gouv.sgg.service.CursorUpdateService;
 import bj.gouv.sgg.service.NotFoundService;
+import bj.gouv.sgg.service.YearBoundaryService;
 import bj.gouv.sgg.util.LawDocumentFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,11 +16,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class PreviousYearsLawDocumentReaderTest {
@@ -42,6 +49,9 @@ class PreviousYearsLawDocumentReaderTest {
     @Mock
     private NotFoundService notFoundService;
 
+    @Mock
+    private YearBoundaryService yearBoundaryService;
+
     private PreviousYearLawDocumentReader reader;
 
     @BeforeEach
@@ -64,8 +74,15 @@ class PreviousYearsLawDocumentReaderTest {
                 org.mockito.ArgumentMatchers.anyString()))
                 .thenReturn(false);
         
+        // Mock yearBoundaryService : pas de borne apprise (départ inchangé)
+        lenient().when(yearBoundaryService.clampStartNumber(
+                org.mockito.ArgumentMatchers.anyString(),
+                org.mockito.ArgumentMatchers.anyInt(),
+                org.mockito.ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
         LawDocumentFactory documentFactory = new LawDocumentFactory(properties);
-        reader = new PreviousYearLawDocumentReader(properties, fetchResultRepository, cursorRepository, cursorUpdateService, documentFactory, notFoundService);
+        reader = new PreviousYearLawDocumentReader(properties, fetchResultRepository, cursorRepository, cursorUpdateService, documentFactory, notFoundService, yearBoundaryService);
     }
 
     @Test
@@ -146,4 +163,63 @@ class PreviousYearsLawDocumentReaderTest {
         // Then
         assertThat(result).isNull();
     }
+
+    @Test
+    void givenLearnedBoundary_whenRead_thenStartsFromBoundary() {
+        // Given - Curseur en début d'année 2020, borne apprise à 5
+        FetchCursor loiCursor = FetchCursor.builder()
+                .documentType("loi")
+                .currentYear(2020)
+                .currentNumber(2000)
+                .build();
+        lenient().when(cursorRepository.findByCursorTypeAndDocumentType(
+                FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "loi"))
+                .thenReturn(Optional.of(loiCursor));
+        lenient().when(cursorRepository.findByCursorTypeAndDocumentType(
+                FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "decret"))
+                .thenReturn(Optional.empty());
+        lenient().when(yearBoundaryService.clampStartNumber("loi", 2020, 2000)).thenReturn(5);
+
+        // When
+        LawDocument doc = reader.read();
+
+        // Then - Les numéros au-dessus de la borne ne sont pas générés
+        assertThat(doc).isNotNull();
+        assertThat(doc.getDocumentId()).isEqualTo("loi-2020-5");
+    }
+
+    @Test
+    void givenBoundaryExtension_whenReadAll_thenExtensionExcludesCursorRangeAndBoundariesRecordedOnDemand() {
+        // Given - Curseur loi en 2020 à 10 (borne apprise à 5), extension en attente pour 2019
+        FetchCursor loiCursor = FetchCursor.builder()
+                .documentType("loi")
+                .currentYear(2020)
+                .currentNumber(10)
+                .build();
+        lenient().when(cursorRepository.findByCursorTypeAndDocumentType(
+                FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "loi"))
+                .thenReturn(Optional.of(loiCursor));
+        lenient().when(yearBoundaryService.clampStartNumber("loi", 2020, 10)).thenReturn(5);
+        YearBoundaryService.Extension extension = new YearBoundaryService.Extension("loi", 2019, 6, 8);
+        when(yearBoundaryService.pendingExtensions("loi", 10, 100, 2020, 10)).thenReturn(List.of(extension));
+        reader.setTypeFilter("loi");
+
+        // When
+        List<String> documentIds = new ArrayList<>();
+        for (LawDocument doc = reader.read(); doc != null; doc = reader.read()) {
+            documentIds.add(doc.getDocumentId());
+        }
+
+        // Then - Extension d'abord, puis la plage du cursor ; aucune borne enregistrée avant succès
+        assertThat(documentIds).containsExactly("loi-2019-8", "loi-2019-7", "loi-2019-6",
+                "loi-2020-5", "loi-2020-4", "loi-2020-3", "loi-2020-2", "loi-2020-1");
+        verify(yearBoundaryService, never()).recordScannedRanges(any());
+
+        // When - step terminé avec succès
+        reader.recordScannedRanges();
+
+        // Then
+        verify(yearBoundaryService).recordScannedRanges(List.of(extension,
+                new YearBoundaryService.Extension("loi", 2020, 1, 5)));
+    }
 }
@@ -0,0 +1,52 @@
+package bj.gouv.sgg.reader;
+
+import bj.gouv.sgg.batch.reader.ProbingItemReader;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.service.AsyncHeadProbeService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.support.ListItemReader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class ProbingItemReaderTest {
+
+    @Mock
+    private AsyncHeadProbeService asyncHeadProbeService;
+
+    @Test
+    void givenThreeDocumentsAndBatchOfTwo_whenRead_thenEachBatchProbedBeforeBeingReturned() throws Exception {
+        // Given
+        LawDocument doc1 = document(1);
+        LawDocument doc2 = document(2);
+        LawDocument doc3 = document(3);
+        ProbingItemReader reader = new ProbingItemReader(
+            new ListItemReader<>(List.of(doc1, doc2, doc3)), asyncHeadProbeService, 2);
+
+        // When
+        List<LawDocument> read = new ArrayList<>();
+        for (LawDocument document = reader.read(); document != null; document = reader.read()) {
+            read.add(document);
+        }
+
+        // Then
+        assertThat(read).containsExactly(doc1, doc2, doc3);
+        InOrder order = inOrder(asyncHeadProbeService);
+        order.verify(asyncHeadProbeService).probeAll(List.of(doc1, doc2));
+        order.verify(asyncHeadProbeService).probeAll(List.of(doc3));
+        order.verifyNoMoreInteractions();
+    }
+
+    private static LawDocument document(int number) {
+        return LawDocument.builder().type("loi").year(2024).number(number)
+            .url("https://sgg.gouv.bj/doc/loi-2024-" + number).build();
+    }
+}
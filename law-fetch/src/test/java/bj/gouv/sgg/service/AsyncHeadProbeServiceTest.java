@@ -0,0 +1,177 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests du moteur de probes HEAD asynchrones contre un serveur HTTP local.
+ */
+class AsyncHeadProbeServiceTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private LawProperties properties;
+    private AsyncHeadProbeService probeService;
+
+    private final Map<String, Integer> responses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long responseDelayMs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                String path = exchange.getRequestURI().getPath();
+                hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                long delay = path.contains("slow") ? 2_000 : responseDelayMs;
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                exchange.sendResponseHeaders(responses.getOrDefault(path, 404), -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        properties = new LawProperties();
+        properties.setBaseUrl(baseUrl);
+        properties.setUserAgent("law-test");
+        properties.getHttp().setTimeout(300);
+        properties.getRateLimit().setInitialRate(50.0);
+        properties.getRateLimit().setBurst(50.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (probeService != null) {
+            probeService.shutdown();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void givenMaxInFlightTwo_whenProbeAll_thenAtMostTwoRequestsOutstanding() {
+        // Given
+        properties.getFetch().setMaxInFlight(2);
+        probeService = newProbeService();
+        responseDelayMs = 100;
+        List<LawDocument> documents = new ArrayList<>();
+        for (int number = 10; number < 18; number++) {
+            responses.put("/loi-2024-" + number, 200);
+            documents.add(document(number));
+        }
+
+        // When
+        probeService.probeAll(documents);
+
+        // Then
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(documents).extracting(LawDocument::getStatus)
+            .containsOnly(LawDocument.ProcessingStatus.FETCHED);
+    }
+
+    @Test
+    void givenNotFoundAndRateLimitedResponses_whenProbeAll_thenFailedVersusRateLimited() {
+        // Given
+        probeService = newProbeService();
+        responses.put("/loi-2024-11", 200);
+        responses.put("/loi-2024-12", 404);
+        responses.put("/loi-2024-13", 429);
+        LawDocument found = document(11);
+        LawDocument notFound = document(12);
+        LawDocument rateLimited = document(13);
+
+        // When
+        probeService.probeAll(List.of(found, notFound, rateLimited));
+
+        // Then - 404 définitif (FAILED), 429 repris après 3 tentatives (RATE_LIMITED)
+        assertThat(found.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FETCHED);
+        assertThat(found.isExists()).isTrue();
+        assertThat(notFound.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FAILED);
+        assertThat(notFound.isExists()).isFalse();
+        assertThat(rateLimited.getStatus()).isEqualTo(LawDocument.ProcessingStatus.RATE_LIMITED);
+        assertThat(hits.get("/loi-2024-12").get()).isEqualTo(1);
+        assertThat(hits.get("/loi-2024-13").get()).isEqualTo(3);
+    }
+
+    @Test
+    void givenSingleDigitNotFound_whenProbeAll_thenPaddedUrlTriedAndKept() {
+        // Given
+        probeService = newProbeService();
+        responses.put("/loi-2024-07", 200);
+        LawDocument document = document(7);
+
+        // When
+        probeService.probeAll(List.of(document));
+
+        // Then
+        assertThat(document.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FETCHED);
+        assertThat(document.getUrl()).isEqualTo(baseUrl + "/loi-2024-07");
+    }
+
+    @Test
+    void givenResponseSlowerThanTimeout_whenProbeAll_thenFailedWithoutBlockingOthers() {
+        // Given
+        probeService = newProbeService();
+        responses.put("/loi-2024-20", 200);
+        LawDocument slow = document(21);
+        slow.setUrl(baseUrl + "/slow/loi-2024-21");
+        LawDocument fast = document(20);
+        long start = System.nanoTime();
+
+        // When
+        probeService.probeAll(List.of(slow, fast));
+
+        // Then - délai de réponse de 300 ms, bien avant les 2 s du serveur
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(slow.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FAILED);
+        assertThat(fast.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FETCHED);
+        assertThat(elapsedMs).isLessThan(1_500);
+    }
+
+    private AsyncHeadProbeService newProbeService() {
+        return new AsyncHeadProbeService(properties, new AdaptiveRateLimiter(properties, new LawMetrics(new SimpleMeterRegistry())));
+    }
+
+    private LawDocument document(int number) {
+        return LawDocument.builder()
+            .type("loi")
+            .year(2024)
+            .number(number)
+            .url(baseUrl + "/loi-2024-" + number)
+            .build();
+    }
+}
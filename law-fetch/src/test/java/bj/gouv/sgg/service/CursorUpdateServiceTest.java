@@ -0,0 +1,74 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.model.FetchCursor;
+import bj.gouv.sgg.repository.FetchCursorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursorUpdateServiceTest {
+
+    @Mock
+    private FetchCursorRepository fetchCursorRepository;
+
+    private CursorUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CursorUpdateService(fetchCursorRepository);
+    }
+
+    @Test
+    void givenPreviousCursorBehindNewPosition_whenUpdateCursor_thenAdvancedWithSingleUpdate() {
+        // Given
+        when(fetchCursorRepository.advanceBackward(eq(FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS), eq("loi"),
+                eq(2020), eq(150), any()))
+                .thenReturn(1);
+
+        // When
+        boolean advanced = service.updateCursor(FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "loi", 2020, 150);
+
+        // Then - Pas de lecture préalable ni de save
+        assertThat(advanced).isTrue();
+        verify(fetchCursorRepository, never()).findByCursorTypeAndDocumentType(any(), any());
+        verify(fetchCursorRepository, never()).save(any());
+    }
+
+    @Test
+    void givenStalePosition_whenUpdateCursor_thenCursorNeverMovesBack() {
+        // Given - Une autre instance a déjà avancé le cursor
+        when(fetchCursorRepository.advanceBackward(any(), any(), any(), any(), any())).thenReturn(0);
+        when(fetchCursorRepository.existsByCursorTypeAndDocumentType(FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "loi"))
+                .thenReturn(true);
+
+        // When
+        boolean advanced = service.updateCursor(FetchCursor.CURSOR_TYPE_FETCH_PREVIOUS, "loi", 2021, 900);
+
+        // Then
+        assertThat(advanced).isFalse();
+        verify(fetchCursorRepository, never()).save(any());
+    }
+
+    @Test
+    void givenMissingCurrentCursor_whenUpdateCursor_thenCreated() {
+        // Given
+        when(fetchCursorRepository.advanceWithinYear(any(), any(), any(), any(), any())).thenReturn(0);
+        when(fetchCursorRepository.existsByCursorTypeAndDocumentType(FetchCursor.CURSOR_TYPE_FETCH_CURRENT, "decret"))
+                .thenReturn(false);
+
+        // When
+        boolean advanced = service.updateCursor(FetchCursor.CURSOR_TYPE_FETCH_CURRENT, "decret", 2025, 1999);
+
+        // Then
+        assertThat(advanced).isTrue();
+        verify(fetchCursorRepository).save(argThat(c ->
+                "decret".equals(c.getDocumentType()) && c.getCurrentNumber() == 1999));
+    }
+}
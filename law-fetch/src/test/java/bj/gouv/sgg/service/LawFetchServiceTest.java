@@ -1,8 +1,11 @@
 package bj.gouv.sgg.service;
 
 import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.FetchResult;
 import bj.gouv.sgg.repository.FetchResultRepository;
+import bj.gouv.sgg.util.AdaptiveRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,11 +14,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -31,12 +37,15 @@ class LawFetchServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private AdaptiveRateLimiter rateLimiter;
+
     private LawFetchService service;
 
     @BeforeEach
     void setUp() {
         lenient().when(properties.getBaseUrl()).thenReturn("https://sgg.gouv.bj/doc");
-        service = new LawFetchService(fetchResultRepository, properties, restTemplate);
+        rateLimiter = new AdaptiveRateLimiter(new LawProperties(), new LawMetrics(new SimpleMeterRegistry()));
+        service = new LawFetchService(fetchResultRepository, properties, restTemplate, rateLimiter);
     }
 
     @Test
@@ -131,4 +140,42 @@ class LawFetchServiceTest {
             assertThat(e.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    @Test
+    void givenServiceUnavailable_whenFetchSingleDocument_thenRateLimiterSlowsDown() {
+        // Given
+        String rateKey = AdaptiveRateLimiter.key("https://sgg.gouv.bj/doc", AdaptiveRateLimiter.CHANNEL_HEAD);
+        double initialRate = rateLimiter.getStats(rateKey).ratePerSecond;
+        when(restTemplate.headForHeaders(anyString()))
+            .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When
+        assertThatThrownBy(() -> service.fetchSingleDocument("loi", 2022, 5))
+            .isInstanceOf(HttpServerErrorException.class);
+
+        // Then
+        AdaptiveRateLimiter.Stats stats = rateLimiter.getStats(rateKey);
+        assertThat(stats.totalResponses).isEqualTo(1);
+        assertThat(stats.ratePerSecond).isLessThan(initialRate);
+        verifyNoInteractions(fetchResultRepository);
+    }
+
+    @Test
+    void givenTimeout_whenFetchSingleDocument_thenRateLimiterSlowsDown() {
+        // Given
+        String rateKey = AdaptiveRateLimiter.key("https://sgg.gouv.bj/doc", AdaptiveRateLimiter.CHANNEL_HEAD);
+        double initialRate = rateLimiter.getStats(rateKey).ratePerSecond;
+        when(restTemplate.headForHeaders(anyString()))
+            .thenThrow(new ResourceAccessException("Read timed out"));
+
+        // When
+        assertThatThrownBy(() -> service.fetchSingleDocument("loi", 2022, 5))
+            .isInstanceOf(ResourceAccessException.class);
+
+        // Then
+        AdaptiveRateLimiter.Stats stats = rateLimiter.getStats(rateKey);
+        assertThat(stats.totalResponses).isEqualTo(1);
+        assertThat(stats.ratePerSecond).isLessThan(initialRate);
+        verifyNoInteractions(fetchResultRepository);
+    }
 }
@@ -0,0 +1,151 @@
+package bj.gouv.sgg.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.model.FetchYearBoundary;
+import bj.gouv.sgg.repository.FetchResultRepository;
+import bj.gouv.sgg.repository.FetchYearBoundaryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class YearBoundaryServiceTest {
+
+    @Mock
+    private FetchResultRepository fetchResultRepository;
+
+    @Mock
+    private FetchYearBoundaryRepository fetchYearBoundaryRepository;
+
+    private YearBoundaryService service;
+
+    @BeforeEach
+    void setUp() {
+        LawProperties properties = new LawProperties();
+        properties.getFetch().setConsecutiveNotFoundToStop(100);
+        service = new YearBoundaryService(fetchResultRepository, fetchYearBoundaryRepository, properties);
+    }
+
+    @Test
+    void givenCursorAboveBoundary_whenClampStartNumber_thenStartsAfterHighestFound() {
+        // Given - Plus grand numéro trouvé en 2015 : 250
+        when(fetchResultRepository.findMaxFoundNumber("loi", 2015)).thenReturn(250);
+
+        // When
+        int start = service.clampStartNumber("loi", 2015, 2000);
+
+        // Then - Départ à 250 + 100, borne enregistrée seulement après le balayage
+        assertThat(start).isEqualTo(350);
+        verify(fetchYearBoundaryRepository, never()).save(any());
+    }
+
+    @Test
+    void givenNoDocumentFoundInYear_whenClampStartNumber_thenFullYearScanned() {
+        // Given - Année jamais trouvée : pas de borne à 0 + 100
+        when(fetchResultRepository.findMaxFoundNumber("loi", 2015)).thenReturn(null);
+
+        // When
+        int start = service.clampStartNumber("loi", 2015, 2000);
+
+        // Then
+        assertThat(start).isEqualTo(2000);
+    }
+
+    @Test
+    void givenCursorInsideKnownRange_whenClampStartNumber_thenUnchanged() {
+        // Given - Reprise en milieu d'année
+        when(fetchResultRepository.findMaxFoundNumber("loi", 2015)).thenReturn(250);
+
+        // When
+        int start = service.clampStartNumber("loi", 2015, 120);
+
+        // Then - Aucun numéro sous la borne n'est sauté
+        assertThat(start).isEqualTo(120);
+        verify(fetchYearBoundaryRepository, never()).save(any());
+    }
+
+    @Test
+    void givenDocumentFoundNearBoundary_whenPendingExtensions_thenExtendsRange() {
+        // Given - Borne 2015 à 350, document n°340 trouvé depuis
+        FetchYearBoundary boundary = FetchYearBoundary.builder()
+            .documentType("loi").year(2015).boundaryNumber(350).build();
+        when(fetchYearBoundaryRepository.findByDocumentType("loi")).thenReturn(new ArrayList<>(List.of(boundary)));
+        List<Object[]> highest = new ArrayList<>();
+        highest.add(new Object[]{2015, 340});
+        when(fetchResultRepository.findMaxFoundNumberByYear("loi")).thenReturn(highest);
+
+        // When
+        List<YearBoundaryService.Extension> extensions = service.pendingExtensions("loi", 2000, 8000, 2014, 2000);
+
+        // Then - Plage 351..440 à balayer, borne inchangée tant que la plage n'est pas balayée
+        assertThat(extensions).containsExactly(new YearBoundaryService.Extension("loi", 2015, 351, 440));
+        assertThat(boundary.getBoundaryNumber()).isEqualTo(350);
+        verify(fetchYearBoundaryRepository, never()).save(any());
+    }
+
+    @Test
+    void givenExtensionInCursorYear_whenPendingExtensions_thenStartsAboveCursorRange() {
+        // Given - Borne 2015 à 350, n°340 trouvé, cursor de 2015 reparti de 400
+        FetchYearBoundary boundary = FetchYearBoundary.builder()
+            .documentType("loi").year(2015).boundaryNumber(350).build();
+        when(fetchYearBoundaryRepository.findByDocumentType("loi")).thenReturn(new ArrayList<>(List.of(boundary)));
+        List<Object[]> highest = new ArrayList<>();
+        highest.add(new Object[]{2015, 340});
+        when(fetchResultRepository.findMaxFoundNumberByYear("loi")).thenReturn(highest);
+
+        // When
+        List<YearBoundaryService.Extension> extensions = service.pendingExtensions("loi", 2000, 8000, 2015, 400);
+
+        // Then - Seuls les numéros au-dessus du cursor (401..440), pas de doublon avec sa plage
+        assertThat(extensions).containsExactly(new YearBoundaryService.Extension("loi", 2015, 401, 440));
+    }
+
+    @Test
+    void givenScannedRanges_whenRecordScannedRanges_thenHighestNumberSavedAndNeverLowered() {
+        // Given - Borne 2015 existante à 500, aucune pour 2014
+        FetchYearBoundary existing = FetchYearBoundary.builder()
+            .documentType("loi").year(2015).boundaryNumber(500).build();
+        when(fetchYearBoundaryRepository.findByDocumentTypeAndYear("loi", 2015)).thenReturn(Optional.of(existing));
+        when(fetchYearBoundaryRepository.findByDocumentTypeAndYear("loi", 2014)).thenReturn(Optional.empty());
+
+        // When
+        service.recordScannedRanges(List.of(
+            new YearBoundaryService.Extension("loi", 2015, 1, 350),
+            new YearBoundaryService.Extension("loi", 2014, 1, 120),
+            new YearBoundaryService.Extension("loi", 2014, 121, 180)));
+
+        // Then
+        verify(fetchYearBoundaryRepository).save(argThat(b -> b.getYear() == 2014 && b.getBoundaryNumber() == 180));
+        verify(fetchYearBoundaryRepository, never()).save(argThat(b -> b.getYear() == 2015));
+        assertThat(existing.getBoundaryNumber()).isEqualTo(500);
+    }
+
+    @Test
+    void givenRunComplete_whenPendingExtensions_thenNothingToExtend() {
+        // Given - Aucun document trouvé au-dessus de 250 : série complète
+        FetchYearBoundary boundary = FetchYearBoundary.builder()
+            .documentType("loi").year(2015).boundaryNumber(350).build();
+        when(fetchYearBoundaryRepository.findByDocumentType("loi")).thenReturn(new ArrayList<>(List.of(boundary)));
+        List<Object[]> highest = new ArrayList<>();
+        highest.add(new Object[]{2015, 250});
+        when(fetchResultRepository.findMaxFoundNumberByYear("loi")).thenReturn(highest);
+
+        // When
+        List<YearBoundaryService.Extension> extensions = service.pendingExtensions("loi", 2000, 8000, 2014, 2000);
+
+        // Then
+        assertThat(extensions).isEmpty();
+        verify(fetchYearBoundaryRepository, never()).save(any());
+    }
+}
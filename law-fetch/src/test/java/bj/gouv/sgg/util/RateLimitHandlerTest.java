@@ -1,6 +1,9 @@
 package bj.gouv.sgg.util;
 
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.util.RateLimitHandler.ProbeFunction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -12,7 +15,7 @@ class RateLimitHandlerTest {
 
     @BeforeEach
     void setUp() {
-        handler = new RateLimitHandler();
+        handler = new RateLimitHandler(new AdaptiveRateLimiter(new LawProperties(), new LawMetrics(new SimpleMeterRegistry())));
     }
 
     @Test
@@ -66,8 +69,8 @@ class RateLimitHandlerTest {
     @Test
     void givenMultipleRequests_whenBeforeRequest_thenNoException() {
         // When/Then - Ne devrait pas lancer d'exception
-        handler.beforeRequest();
-        handler.beforeRequest();
+        handler.beforeRequest("https://example.com/test");
+        handler.beforeRequest("https://example.com/test");
     }
 
     @Test
@@ -77,6 +80,6 @@ class RateLimitHandlerTest {
         handler.on429("https://example.com/test2");
 
         // Then - Vérifie que le handler a bien enregistré les 429
-        // (pas d'exception levée)
+        assertThat(handler.getStats().count429).isEqualTo(2);
     }
 }
@@ -1,11 +1,14 @@
 package bj.gouv.sgg.writer;
 
 import bj.gouv.sgg.batch.writer.FetchWriter;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.FetchResult;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.FetchBatchInsertRepository;
 import bj.gouv.sgg.repository.FetchResultRepository;
 import bj.gouv.sgg.repository.LawDocumentRepository;
 import bj.gouv.sgg.service.NotFoundService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +19,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.batch.item.Chunk;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +38,9 @@ class FetchWriterTest {
     @Mock
     private NotFoundService notFoundService;
 
+    @Mock
+    private FetchBatchInsertRepository batchInsertRepository;
+
     @Captor
     private ArgumentCaptor<List<FetchResult>> fetchResultCaptor;
 
@@ -45,8 +51,9 @@ class FetchWriterTest {
 
     @BeforeEach
     void setUp() {
-        writer = new FetchWriter(fetchResultRepository, lawDocumentRepository, notFoundService);
-        when(fetchResultRepository.findByDocumentId(anyString())).thenReturn(Optional.empty());
+        writer = new FetchWriter(fetchResultRepository, lawDocumentRepository, notFoundService, batchInsertRepository,
+                new LawMetrics(new SimpleMeterRegistry()));
+        lenient().when(fetchResultRepository.findByDocumentIdIn(anyCollection())).thenReturn(List.of());
     }
 
     @Test
@@ -66,9 +73,10 @@ class FetchWriterTest {
         // When
         writer.write(chunk);
 
-        // Then
-        verify(fetchResultRepository).saveAll(fetchResultCaptor.capture());
-        verify(lawDocumentRepository).saveAll(lawDocumentCaptor.capture());
+        // Then - Nouvelles lignes insérées par lots JDBC
+        verify(batchInsertRepository).insertFetchResults(fetchResultCaptor.capture());
+        verify(batchInsertRepository).insertLawDocuments(lawDocumentCaptor.capture());
+        verify(fetchResultRepository, never()).saveAll(any());
 
         List<FetchResult> savedFetchResults = fetchResultCaptor.getValue();
         assertThat(savedFetchResults).hasSize(1);
@@ -90,8 +98,8 @@ class FetchWriterTest {
             .status("PENDING")
             .build();
 
-        when(fetchResultRepository.findByDocumentId("loi-2025-1"))
-            .thenReturn(Optional.of(existing));
+        when(fetchResultRepository.findByDocumentIdIn(anyCollection()))
+            .thenReturn(List.of(existing));
 
         LawDocument doc = LawDocument.builder()
             .type("loi")
@@ -125,8 +133,8 @@ class FetchWriterTest {
             .status("FETCHED")
             .build();
 
-        when(fetchResultRepository.findByDocumentId("loi-2025-1"))
-            .thenReturn(Optional.of(existing));
+        when(fetchResultRepository.findByDocumentIdIn(anyCollection()))
+            .thenReturn(List.of(existing));
 
         LawDocument doc = LawDocument.builder()
             .type("loi")
@@ -145,6 +153,7 @@ class FetchWriterTest {
         // Then
         verify(fetchResultRepository, never()).saveAll(any());
         verify(lawDocumentRepository, never()).saveAll(any());
+        verify(batchInsertRepository, never()).insertFetchResults(anyList());
     }
 
     @Test
@@ -178,4 +187,45 @@ class FetchWriterTest {
             docs.size() == 2 && docs.stream().allMatch(d -> !d.isExists())
         ));
     }
+
+    @Test
+    void givenChunkWithExistingLawDocument_whenWrite_thenResolvedInOneQueryAndUpdated() {
+        // Given - loi-2025-1 existe déjà dans law_documents, loi-2025-2 est nouveau
+        writer.setForceMode(true);
+
+        LawDocument existingDocument = LawDocument.builder()
+            .id(42L)
+            .type("loi")
+            .year(2025)
+            .number(1)
+            .status(LawDocument.ProcessingStatus.PENDING)
+            .build();
+        when(lawDocumentRepository.findByTypeAndYearAndNumberIn(eq("loi"), eq(2025), anyCollection()))
+            .thenReturn(List.of(existingDocument));
+
+        LawDocument doc1 = LawDocument.builder()
+            .type("loi").year(2025).number(1).url("https://sgg.gouv.bj/doc/loi-2025-1")
+            .exists(true).status(LawDocument.ProcessingStatus.FETCHED).build();
+        LawDocument doc2 = LawDocument.builder()
+            .type("loi").year(2025).number(2).url("https://sgg.gouv.bj/doc/loi-2025-2")
+            .exists(true).status(LawDocument.ProcessingStatus.FETCHED).build();
+
+        // When
+        writer.write(new Chunk<>(List.of(doc1, doc2)));
+
+        // Then - Une seule requête par (type, année), UPDATE pour l'existant, INSERT par lot pour le nouveau
+        verify(lawDocumentRepository, times(1)).findByTypeAndYearAndNumberIn(eq("loi"), eq(2025), anyCollection());
+        verify(lawDocumentRepository, never()).findByDocumentId(anyString());
+        verify(fetchResultRepository, never()).findByDocumentId(anyString());
+
+        verify(lawDocumentRepository).saveAll(lawDocumentCaptor.capture());
+        assertThat(lawDocumentCaptor.getValue()).singleElement()
+            .satisfies(d -> {
+                assertThat(d.getId()).isEqualTo(42L);
+                assertThat(d.getStatus()).isEqualTo(LawDocument.ProcessingStatus.FETCHED);
+            });
+
+        verify(batchInsertRepository).insertLawDocuments(argThat(docs ->
+            docs.size() == 1 && docs.get(0).getNumber() == 2));
+    }
 }
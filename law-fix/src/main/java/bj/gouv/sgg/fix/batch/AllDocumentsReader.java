@@ -1,20 +1,42 @@
 package bj.gouv.sgg.fix.batch;
 
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.fix.model.FixScanState;
+import bj.gouv.sgg.fix.service.FixScanStateService;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.LawDocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.ItemReader;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Reader qui lit TOUS les documents (tous statuts) pour détection d'issues.
+ * Reader incrémental pour la détection d'issues (tous statuts sauf FAILED).
+ * 
+ * <p>Documents lus à chaque exécution :
+ * <ul>
+ *   <li>Documents modifiés (statut, chemins, hash...) depuis la dernière analyse réussie,
+ *       chargés par pages de {@code law.fix.changed-page-size} au fil de la lecture</li>
+ *   <li>Tranche suivante du balayage complet lent ({@code law.fix.sweep-batch-size} documents),
+ *       relancé tous les {@code law.fix.full-sweep-interval-hours} ; il renseigne la date de
+ *       modification des documents antérieurs au suivi</li>
+ * </ul>
+ * 
+ * <p>L'état n'est enregistré qu'en fin de step réussie ({@link #complete()}). La nouvelle borne
+ * dépasse les écritures du fixJob lui-même ({@link #recordFix}) : un document qu'il vient de
+ * corriger n'est pas ré-analysé au cycle suivant, sauf modification par un autre traitement.
  */
 @Component
 @RequiredArgsConstructor
@@ -22,10 +44,25 @@ import java.util.Iterator;
 public class AllDocumentsReader implements ItemReader<LawDocument> {
     
     private final LawDocumentRepository lawDocumentRepository;
+    private final FixScanStateService fixScanStateService;
+    private final LawProperties properties;
     
-    private Iterator<LawDocument> documentIterator;
     private boolean initialized = false;
     
+    private LocalDateTime scanStartedAt;
+    private long sweepLastId;
+    private boolean sweepCompleted;
+    private final Set<Long> fixedIds = ConcurrentHashMap.newKeySet(); // Documents corrigés pendant l'analyse
+    
+    // Documents modifiés : page courante et position de la pagination par id
+    private LocalDateTime changedSince;
+    private long changedLastId;
+    private Iterator<LawDocument> changedPage = Collections.emptyIterator();
+    private final Set<Long> changedIds = new HashSet<>();
+    
+    private Iterator<LawDocument> sweepIterator = Collections.emptyIterator();
+    private final Map<String, Long> statusCounts = new TreeMap<>();
+    
     @Nullable
     @Override
     public LawDocument read() {
@@ -34,40 +71,163 @@ public class AllDocumentsReader implements ItemReader<LawDocument> {
             initialized = true;
         }
         
-        if (documentIterator != null && documentIterator.hasNext()) {
-            return documentIterator.next();
+        LawDocument next = nextChanged();
+        while (next == null && sweepIterator.hasNext()) {
+            LawDocument candidate = sweepIterator.next();
+            if (!changedIds.contains(candidate.getId())) {
+                next = candidate;
+            }
         }
-        
-        return null; // Fin du reader
+        if (next != null) {
+            statusCounts.merge(String.valueOf(next.getStatus()), 1L, Long::sum);
+        }
+        return next; // null : fin du reader
+    }
+    
+    /**
+     * Réinitialise le reader avant chaque exécution du step.
+     */
+    public void reset() {
+        initialized = false;
+        scanStartedAt = null;
+        sweepLastId = 0L;
+        sweepCompleted = false;
+        fixedIds.clear();
+        changedSince = null;
+        changedLastId = 0L;
+        changedPage = Collections.emptyIterator();
+        changedIds.clear();
+        sweepIterator = Collections.emptyIterator();
+        statusCounts.clear();
+    }
+    
+    /**
+     * Signale un document corrigé par le fixJob pendant cette analyse.
+     */
+    public void recordFix(LawDocument document) {
+        if (document.getId() != null) {
+            fixedIds.add(document.getId());
+        }
+    }
+    
+    /**
+     * Enregistre l'état de l'analyse (à appeler uniquement si le step a réussi).
+     */
+    public void complete() {
+        if (!initialized || scanStartedAt == null) {
+            return;
+        }
+        // Log distribution par statut (hors FAILED)
+        log.info("📄 {} documents analysés ({} modifiés depuis la dernière analyse)",
+            statusCounts.values().stream().mapToLong(Long::longValue).sum(), changedIds.size());
+        statusCounts.forEach((status, count) -> log.info("   {} : {} documents", status, count));
+        fixScanStateService.recordScan(nextWatermark(), sweepLastId, sweepCompleted);
+    }
+    
+    /**
+     * Borne de la prochaine analyse : fin de l'analyse si seuls des documents corrigés par le
+     * fixJob ont changé depuis son début, sinon la plus ancienne modification faite par un autre
+     * traitement (ré-analysée au cycle suivant, borne inclusive).
+     */
+    private LocalDateTime nextWatermark() {
+        if (fixedIds.isEmpty()) {
+            return scanStartedAt;
+        }
+        LocalDateTime completedAt = LocalDateTime.now();
+        LocalDateTime watermark = completedAt;
+        int pageSize = changedPageSize();
+        long afterId = 0L;
+        List<LawDocument> page;
+        do {
+            page = lawDocumentRepository.findChangedSince(scanStartedAt, LawDocument.ProcessingStatus.FAILED,
+                afterId, PageRequest.of(0, pageSize));
+            for (LawDocument doc : page) {
+                if (!fixedIds.contains(doc.getId()) && doc.getUpdatedAt() != null
+                        && doc.getUpdatedAt().isBefore(watermark)) {
+                    watermark = doc.getUpdatedAt();
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+        if (watermark.isBefore(scanStartedAt)) {
+            return scanStartedAt;
+        }
+        log.debug("🔖 Borne d'analyse avancée au-delà de {} correction(s) du fixJob: {}", fixedIds.size(), watermark);
+        return watermark;
     }
     
     private void initialize() {
-        log.info("🔍 Chargement de tous les documents pour analyse...");
-        
-        // Charger tous les documents SAUF FAILED (404 permanents, non corrigibles)
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<LawDocument> page = lawDocumentRepository.findAll(pageable);
-        
-        // Filtrer les documents FAILED
-        java.util.List<LawDocument> documents = page.getContent().stream()
-            .filter(doc -> doc.getStatus() != LawDocument.ProcessingStatus.FAILED)
-            .toList();
+        // Borne prise AVANT la lecture : une modification concurrente sera vue à la prochaine exécution
+        scanStartedAt = LocalDateTime.now();
+        FixScanState state = fixScanStateService.loadState();
+        sweepLastId = state.getSweepLastId() != null ? state.getSweepLastId() : 0L;
         
-        long totalDocuments = documents.size();
-        long excludedFailed = page.getTotalElements() - totalDocuments;
+        // 1. Documents modifiés depuis la dernière analyse réussie (chargés page par page dans read())
+        changedSince = state.getLastScanAt();
         
-        log.info("📄 {} documents à analyser ({} FAILED exclus)", totalDocuments, excludedFailed);
-        
-        documentIterator = documents.iterator();
+        // 2. Tranche du balayage complet lent
+        int sweepCount = 0;
+        if (fixScanStateService.isFullSweepDue(state)) {
+            int batchSize = Math.max(1, properties.getFix().getSweepBatchSize());
+            List<LawDocument> slice = lawDocumentRepository.findSliceAfterId(
+                sweepLastId, LawDocument.ProcessingStatus.FAILED, PageRequest.of(0, batchSize));
+            sweepCount = slice.size();
+            backfillUpdatedAt(slice);
+            
+            if (!slice.isEmpty()) {
+                sweepLastId = slice.get(slice.size() - 1).getId();
+            }
+            sweepCompleted = slice.size() < batchSize;
+            sweepIterator = slice.iterator();
+        }
         
-        // Log distribution par statut (hors FAILED)
-        documents.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                LawDocument::getStatus,
-                java.util.stream.Collectors.counting()
-            ))
-            .forEach((status, count) -> 
-                log.info("   {} : {} documents", status, count)
-            );
+        log.info("📄 Analyse des documents modifiés depuis {} et de {} documents du balayage complet après id={}",
+            changedSince, sweepCount, state.getSweepLastId());
+    }
+    
+    /**
+     * Document modifié suivant, en chargeant la page suivante si besoin (null une fois épuisés).
+     */
+    private LawDocument nextChanged() {
+        while (!changedPage.hasNext()) {
+            if (changedSince == null) {
+                return null;
+            }
+            int pageSize = changedPageSize();
+            List<LawDocument> page = lawDocumentRepository.findChangedSince(
+                changedSince, LawDocument.ProcessingStatus.FAILED, changedLastId, PageRequest.of(0, pageSize));
+            if (!page.isEmpty()) {
+                changedLastId = page.get(page.size() - 1).getId();
+            }
+            if (page.size() < pageSize) {
+                changedSince = null; // Dernière page
+            }
+            changedPage = page.iterator();
+        }
+        LawDocument document = changedPage.next();
+        changedIds.add(document.getId());
+        return document;
+    }
+    
+    /**
+     * Documents antérieurs au suivi : date de modification renseignée juste avant le début de
+     * l'analyse, pour qu'ils sortent du balayage sans entrer dans l'analyse incrémentale.
+     */
+    private void backfillUpdatedAt(List<LawDocument> slice) {
+        List<Long> untracked = slice.stream()
+            .filter(doc -> doc.getUpdatedAt() == null)
+            .map(LawDocument::getId)
+            .toList();
+        if (untracked.isEmpty()) {
+            return;
+        }
+        int backfilled = lawDocumentRepository.backfillUpdatedAt(untracked, scanStartedAt.minusSeconds(1));
+        log.debug("🕰️ Date de modification renseignée pour {} document(s) antérieur(s) au suivi", backfilled);
+    }
+    
+    private int changedPageSize() {
+        return Math.max(1, properties.getFix().getChangedPageSize());
     }
 }
@@ -20,6 +20,7 @@ import java.util.List;
 public class FixProcessor implements ItemProcessor<LawDocument, LawDocument> {
     
     private final FixOrchestrator fixOrchestrator;
+    private final AllDocumentsReader allDocumentsReader;
     
     @Override
     public LawDocument process(@NonNull LawDocument document) throws Exception {
@@ -45,6 +46,9 @@ public class FixProcessor implements ItemProcessor<LawDocument, LawDocument> {
             
             log.info("📊 [{}] Corrections: {} succès, {} échecs, {} ignorés", 
                 docId, successCount, failedCount, skippedCount);
+            if (successCount > 0) {
+                allDocumentsReader.recordFix(document);
+            }
         }
         
         return document;
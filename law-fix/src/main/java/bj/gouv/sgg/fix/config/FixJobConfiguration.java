@@ -3,14 +3,20 @@ package bj.gouv.sgg.fix.config;
 import bj.gouv.sgg.fix.batch.AllDocumentsReader;
 import bj.gouv.sgg.fix.batch.FixProcessor;
 import bj.gouv.sgg.fix.batch.FixWriter;
+import bj.gouv.sgg.fix.service.FixOrchestrator;
 import bj.gouv.sgg.model.LawDocument;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -19,7 +25,9 @@ import org.springframework.transaction.PlatformTransactionManager;
  * Configuration du job de correction automatique.
  * 
  * Ce job :
- * 1. Analyse TOUS les documents (tous statuts)
+ * 0. Détecte les documents bloqués (requête SQL par statut + seuil d'âge)
+ * 1. Analyse les documents modifiés depuis la dernière exécution réussie
+ *    + une tranche du balayage complet lent (voir AllDocumentsReader)
  * 2. Détecte les problèmes (statut, fichiers, qualité)
  * 3. Applique les corrections automatiques
  * 4. Prépare les documents pour re-traitement
@@ -37,11 +45,24 @@ public class FixJobConfiguration {
     private final AllDocumentsReader allDocumentsReader;
     private final FixProcessor fixProcessor;
     private final FixWriter fixWriter;
+    private final FixOrchestrator fixOrchestrator;
     
     @Bean
     public Job fixJob() {
         return new JobBuilder("fixJob", jobRepository)
-            .start(fixStep())
+            .start(stuckStatusStep())
+            .next(fixStep())
+            .build();
+    }
+    
+    @Bean
+    public Step stuckStatusStep() {
+        return new StepBuilder("stuckStatusStep", jobRepository)
+            .tasklet((contribution, chunkContext) -> {
+                int fixed = fixOrchestrator.detectAndFixStuck();
+                contribution.incrementWriteCount(fixed);
+                return RepeatStatus.FINISHED;
+            }, transactionManager)
             .build();
     }
     
@@ -52,6 +73,24 @@ public class FixJobConfiguration {
             .reader(allDocumentsReader)
             .processor(fixProcessor)
             .writer(fixWriter)
+            .listener(new StepExecutionListener() {
+                @Override
+                public void beforeStep(StepExecution stepExecution) {
+                    // Réinitialiser le reader avant chaque exécution
+                    allDocumentsReader.reset();
+                }
+                
+                @Override
+                public ExitStatus afterStep(StepExecution stepExecution) {
+                    // Avancer la borne incrémentale uniquement si le step a réussi
+                    if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+                        allDocumentsReader.complete();
+                    } else {
+                        log.warn("⚠️ fixStep non terminé ({}), état d'analyse conservé", stepExecution.getStatus());
+                    }
+                    return stepExecution.getExitStatus();
+                }
+            })
             .build();
     }
 }
@@ -9,8 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -43,13 +41,12 @@ public class QualityIssueDetector {
         }
         
         // Charger le JSON d'extraction
-        Path jsonPath = fileStorageService.jsonPath(document.getType(), docId);
-        if (!Files.exists(jsonPath)) {
+        if (!fileStorageService.jsonExists(document.getType(), docId)) {
             return issues; // Sera détecté par FileIssueDetector
         }
         
         try {
-            String jsonContent = Files.readString(jsonPath);
+            String jsonContent = fileStorageService.readJson(document.getType(), docId);
             JsonObject json = gson.fromJson(jsonContent, JsonObject.class);
             
             if (json.has("_metadata")) {
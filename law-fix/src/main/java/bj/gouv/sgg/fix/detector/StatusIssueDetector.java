@@ -1,120 +1,150 @@
 package bj.gouv.sgg.fix.detector;
 
+import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.fix.model.Issue;
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.DownloadResultRepository;
+import bj.gouv.sgg.repository.LawDocumentRepository;
 import bj.gouv.sgg.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Détecteur de documents bloqués dans un statut.
+ * 
+ * <p>Un document est considéré bloqué s'il est dans un statut non-final depuis
+ * plus longtemps que le seuil configuré ({@code law.fix.stuck-*-hours}).
+ * La détection se fait par requêtes SQL paginées par statut (date d'entrée dans le statut),
+ * et non document par document : un document simplement en file d'attente n'est pas signalé.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class StatusIssueDetector {
     
+    private final LawDocumentRepository lawDocumentRepository;
     private final DownloadResultRepository downloadResultRepository;
     private final FileStorageService fileStorageService;
+    private final LawProperties properties;
     
     /**
-     * Détecte les documents bloqués dans un statut.
-     * Un document est considéré bloqué s'il est dans un statut non-final
-     * depuis trop longtemps (critère à affiner selon besoin).
+     * Détecte tous les documents bloqués (requêtes paginées par statut non-final)
+     * et transmet chaque problème au fur et à mesure, sans charger tous les documents.
+     * 
+     * @param handler Traitement de chaque problème détecté (correction, rapport...)
+     * @return Nombre de documents bloqués détectés
      */
-    public List<Issue> detect(LawDocument document) {
-        List<Issue> issues = new ArrayList<>();
-        String docId = document.getDocumentId();
+    public int detectStuck(Consumer<Issue> handler) {
+        LocalDateTime now = LocalDateTime.now();
+        LawProperties.Fix fix = properties.getFix();
+        int detected = 0;
         
         // Documents en PENDING (ne devraient pas rester longtemps)
-        if (document.getStatus() == LawDocument.ProcessingStatus.PENDING) {
-            issues.add(Issue.builder()
-                .documentId(docId)
-                .type(Issue.IssueType.STUCK_IN_PENDING)
-                .severity(Issue.IssueSeverity.MEDIUM)
-                .description("Document en PENDING - devrait passer à FETCHED")
-                .currentStatus(document.getStatus().name())
-                .suggestedAction("Exécuter fetchCurrentJob pour ce document")
-                .detectedAt(LocalDateTime.now())
-                .autoFixable(true)
-                .build());
-            
-            log.info("📋 [{}] Bloqué en PENDING", docId);
-        }
+        detected += forEachStuck(LawDocument.ProcessingStatus.PENDING, now, fix.getStuckPendingHours(), document ->
+            handler.accept(stuckIssue(document, Issue.IssueType.STUCK_IN_PENDING, Issue.IssueSeverity.MEDIUM,
+                "Document en PENDING - devrait passer à FETCHED",
+                "Exécuter fetchCurrentJob pour ce document")));
         
         // Documents en FETCHED (doivent être téléchargés)
-        if (document.getStatus() == LawDocument.ProcessingStatus.FETCHED) {
-            // Vérifier incohérence : FETCHED mais déjà dans download_results + PDF présent
-            boolean inDownloadResults = downloadResultRepository.existsByDocumentId(docId);
-            boolean pdfExists = fileStorageService.pdfExists(document.getType(), docId);
-            
-            if (inDownloadResults && pdfExists) {
-                issues.add(Issue.builder()
-                    .documentId(docId)
-                    .type(Issue.IssueType.STATUS_INCONSISTENT)
-                    .severity(Issue.IssueSeverity.MEDIUM)
-                    .description("Document FETCHED mais PDF déjà téléchargé et en download_results")
-                    .currentStatus(document.getStatus().name())
-                    .suggestedAction("Mettre à jour statut vers DOWNLOADED")
-                    .detectedAt(LocalDateTime.now())
-                    .autoFixable(true)
-                    .build());
-                
-                log.info("⚠️ [{}] Incohérence: FETCHED mais PDF existe", docId);
-            } else {
-                issues.add(Issue.builder()
-                    .documentId(docId)
-                    .type(Issue.IssueType.STUCK_IN_FETCHED)
-                    .severity(Issue.IssueSeverity.HIGH)
-                    .description("Document en FETCHED - PDF non téléchargé")
-                    .currentStatus(document.getStatus().name())
-                    .suggestedAction("Exécuter downloadJob pour ce document")
-                    .detectedAt(LocalDateTime.now())
-                    .autoFixable(true)
-                    .build());
-                
-                log.info("📥 [{}] Bloqué en FETCHED", docId);
+        detected += forEachStuck(LawDocument.ProcessingStatus.FETCHED, now, fix.getStuckFetchedHours(), document ->
+            handler.accept(detectStuckFetched(document)));
+        
+        // Documents en DOWNLOADED (doivent être extraits)
+        detected += forEachStuck(LawDocument.ProcessingStatus.DOWNLOADED, now, fix.getStuckDownloadedHours(), document ->
+            handler.accept(stuckIssue(document, Issue.IssueType.STUCK_IN_DOWNLOADED, Issue.IssueSeverity.HIGH,
+                "Document en DOWNLOADED - extraction non effectuée",
+                "Exécuter pdfToJsonJob pour ce document")));
+        
+        // Documents en EXTRACTED (doivent être consolidés)
+        detected += forEachStuck(LawDocument.ProcessingStatus.EXTRACTED, now, fix.getStuckExtractedHours(), document ->
+            handler.accept(stuckIssue(document, Issue.IssueType.STUCK_IN_EXTRACTED, Issue.IssueSeverity.MEDIUM,
+                "Document en EXTRACTED - consolidation non effectuée",
+                "Exécuter consolidateJob")));
+        
+        if (detected > 0) {
+            log.info("📋 {} document(s) bloqué(s) détecté(s)", detected);
+        }
+        return detected;
+    }
+    
+    /**
+     * Parcourt page par page (id croissant) les documents bloqués dans un statut.
+     * La pagination par id reste stable même si le traitement change le statut des documents déjà lus.
+     */
+    private int forEachStuck(LawDocument.ProcessingStatus status, LocalDateTime now, int thresholdHours,
+                             Consumer<LawDocument> action) {
+        LocalDateTime before = now.minusHours(thresholdHours);
+        Pageable page = PageRequest.of(0, Math.max(1, properties.getFix().getStuckPageSize()));
+        int count = 0;
+        long afterId = 0L;
+        
+        List<LawDocument> stuck = lawDocumentRepository.findStuckInStatus(status, before, afterId, page);
+        while (!stuck.isEmpty()) {
+            for (LawDocument document : stuck) {
+                action.accept(document);
             }
+            count += stuck.size();
+            if (stuck.size() < page.getPageSize()) {
+                break;
+            }
+            afterId = stuck.get(stuck.size() - 1).getId();
+            stuck = lawDocumentRepository.findStuckInStatus(status, before, afterId, page);
         }
         
-        // Documents en DOWNLOADED (doivent être extraits)
-        if (document.getStatus() == LawDocument.ProcessingStatus.DOWNLOADED) {
-            issues.add(Issue.builder()
-                .documentId(docId)
-                .type(Issue.IssueType.STUCK_IN_DOWNLOADED)
-                .severity(Issue.IssueSeverity.HIGH)
-                .description("Document en DOWNLOADED - extraction non effectuée")
-                .currentStatus(document.getStatus().name())
-                .suggestedAction("Exécuter pdfToJsonJob pour ce document")
-                .detectedAt(LocalDateTime.now())
-                .autoFixable(true)
-                .build());
-            
-            log.info("📄 [{}] Bloqué en DOWNLOADED", docId);
+        if (count > 0) {
+            log.info("⏳ {} document(s) en {} depuis plus de {}h", count, status, thresholdHours);
         }
+        return count;
+    }
+    
+    /**
+     * FETCHED bloqué : vérifier l'incohérence (déjà dans download_results + PDF présent).
+     * Ces vérifications ne concernent que les documents au-delà du seuil.
+     */
+    private Issue detectStuckFetched(LawDocument document) {
+        String docId = document.getDocumentId();
+        boolean inDownloadResults = downloadResultRepository.existsByDocumentId(docId);
+        boolean pdfExists = inDownloadResults && fileStorageService.pdfExists(document.getType(), docId);
         
-        // Documents en EXTRACTED (doivent être consolidés)
-        if (document.getStatus() == LawDocument.ProcessingStatus.EXTRACTED) {
-            issues.add(Issue.builder()
+        if (pdfExists) {
+            log.info("⚠️ [{}] Incohérence: FETCHED mais PDF existe", docId);
+            return Issue.builder()
                 .documentId(docId)
-                .type(Issue.IssueType.STUCK_IN_EXTRACTED)
+                .type(Issue.IssueType.STATUS_INCONSISTENT)
                 .severity(Issue.IssueSeverity.MEDIUM)
-                .description("Document en EXTRACTED - consolidation non effectuée")
+                .description("Document FETCHED mais PDF déjà téléchargé et en download_results")
                 .currentStatus(document.getStatus().name())
-                .suggestedAction("Exécuter consolidateJob")
+                .suggestedAction("Mettre à jour statut vers DOWNLOADED")
                 .detectedAt(LocalDateTime.now())
                 .autoFixable(true)
-                .build());
-            
-            log.info("💾 [{}] Bloqué en EXTRACTED", docId);
+                .build();
         }
         
-        return issues;
+        return stuckIssue(document, Issue.IssueType.STUCK_IN_FETCHED, Issue.IssueSeverity.HIGH,
+            "Document en FETCHED - PDF non téléchargé",
+            "Exécuter downloadJob pour ce document");
+    }
+    
+    private Issue stuckIssue(LawDocument document, Issue.IssueType type, Issue.IssueSeverity severity,
+                             String description, String suggestedAction) {
+        log.debug("📋 [{}] Bloqué en {} depuis {}", document.getDocumentId(), document.getStatus(), 
+            document.getStatusChangedAt());
+        return Issue.builder()
+            .documentId(document.getDocumentId())
+            .type(type)
+            .severity(severity)
+            .description(description)
+            .currentStatus(document.getStatus().name())
+            .suggestedAction(suggestedAction)
+            .detectedAt(LocalDateTime.now())
+            .autoFixable(true)
+            .build();
     }
 }
@@ -0,0 +1,55 @@
+package bj.gouv.sgg.fix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * État persistant de l'analyse incrémentale du fixJob.
+ * 
+ * <ul>
+ *   <li><b>lastScanAt</b> : début de la dernière analyse réussie (les documents
+ *       modifiés depuis cette date sont ré-analysés)</li>
+ *   <li><b>sweepLastId</b> : position du balayage complet lent (dernier id analysé)</li>
+ *   <li><b>sweepCompletedAt</b> : fin du dernier balayage complet</li>
+ * </ul>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "fix_scan_state",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"scanName"})
+)
+public class FixScanState {
+
+    public static final String SCAN_NAME_FIX = "fix";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 50)
+    private String scanName;
+    
+    private LocalDateTime lastScanAt;
+    
+    @Column(nullable = false)
+    private Long sweepLastId;
+    
+    private LocalDateTime sweepCompletedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,19 @@
+package bj.gouv.sgg.fix.repository;
+
+import bj.gouv.sgg.fix.model.FixScanState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository pour l'état de l'analyse incrémentale du fixJob.
+ */
+@Repository
+public interface FixScanStateRepository extends JpaRepository<FixScanState, Long> {
+    
+    /**
+     * Trouve l'état d'analyse par son nom.
+     */
+    Optional<FixScanState> findByScanName(String scanName);
+}
@@ -69,7 +69,7 @@ public class FileFixService {
                 
                 case CORRUPTED_PDF -> {
                     // Supprimer PDF corrompu et réinitialiser
-                    Path pdfPath = fileStorageService.pdfPath(document.getType(), docId);
+                    Path pdfPath = fileStorageService.resolvePdfPath(document.getType(), docId);
                     if (Files.exists(pdfPath)) {
                         Files.delete(pdfPath);
                         log.info("🗑️  [{}] PDF corrompu supprimé", docId);
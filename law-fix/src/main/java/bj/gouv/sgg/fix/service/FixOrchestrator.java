@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Orchestrateur de détection et correction d'issues.
@@ -31,13 +32,11 @@ public class FixOrchestrator {
     
     /**
      * Détecte tous les problèmes pour un document.
+     * Les documents bloqués sont détectés à part, par requête SQL ({@link #detectAndFixStuck()}).
      */
     public List<Issue> detectAllIssues(LawDocument document) {
         List<Issue> allIssues = new ArrayList<>();
         
-        // Détecter problèmes de statut
-        allIssues.addAll(statusIssueDetector.detect(document));
-        
         // Détecter problèmes de fichiers
         allIssues.addAll(fileIssueDetector.detect(document));
         
@@ -56,7 +55,7 @@ public class FixOrchestrator {
         return switch (issue.getType()) {
             // Problèmes de statut
             case STUCK_IN_PENDING, STUCK_IN_FETCHED, 
-                 STUCK_IN_DOWNLOADED, STUCK_IN_EXTRACTED -> 
+                 STUCK_IN_DOWNLOADED, STUCK_IN_EXTRACTED, STATUS_INCONSISTENT -> 
                 statusFixService.fix(issue);
             
             // Problèmes de fichiers
@@ -79,6 +78,30 @@ public class FixOrchestrator {
         };
     }
     
+    /**
+     * Détecte (requêtes paginées par statut) et corrige les documents bloqués au fil de l'eau.
+     * 
+     * @return Nombre de corrections réussies
+     */
+    public int detectAndFixStuck() {
+        AtomicInteger fixed = new AtomicInteger();
+        
+        int detected = statusIssueDetector.detectStuck(issue -> {
+            FixResult result = fixIssue(issue);
+            if (result.getStatus() == FixResult.FixStatus.SUCCESS) {
+                fixed.incrementAndGet();
+            } else if (result.getStatus() == FixResult.FixStatus.FAILED) {
+                log.error("❌ [{}] Échec correction: {} - {}", 
+                    issue.getDocumentId(), issue.getType(), result.getDetails());
+            }
+        });
+        
+        if (detected > 0) {
+            log.info("📊 Documents bloqués: {} détectés, {} corrigés", detected, fixed.get());
+        }
+        return fixed.get();
+    }
+    
     /**
      * Détecte et corrige tous les problèmes pour un document.
      */
@@ -0,0 +1,83 @@
+package bj.gouv.sgg.fix.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.fix.model.FixScanState;
+import bj.gouv.sgg.fix.repository.FixScanStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Service de gestion de l'état d'analyse incrémentale du fixJob.
+ * 
+ * <p>Chaque exécution du fixJob n'analyse que :
+ * <ul>
+ *   <li>les documents modifiés depuis la dernière analyse réussie</li>
+ *   <li>une tranche du balayage complet lent (si un balayage est dû ou en cours)</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FixScanStateService {
+    
+    private final FixScanStateRepository fixScanStateRepository;
+    private final LawProperties properties;
+    
+    /**
+     * Charge l'état courant (état vierge non persisté si première exécution).
+     */
+    @Transactional(readOnly = true)
+    public FixScanState loadState() {
+        return fixScanStateRepository.findByScanName(FixScanState.SCAN_NAME_FIX)
+            .orElseGet(() -> FixScanState.builder()
+                .scanName(FixScanState.SCAN_NAME_FIX)
+                .sweepLastId(0L)
+                .build());
+    }
+    
+    /**
+     * Indique si le balayage complet doit avancer lors de cette exécution :
+     * balayage en cours, jamais terminé, ou dernier balayage plus ancien que l'intervalle configuré.
+     */
+    public boolean isFullSweepDue(FixScanState state) {
+        if (state.getSweepLastId() != null && state.getSweepLastId() > 0) {
+            return true;
+        }
+        if (state.getSweepCompletedAt() == null) {
+            return true;
+        }
+        LocalDateTime nextSweep = state.getSweepCompletedAt()
+            .plusHours(properties.getFix().getFullSweepIntervalHours());
+        return !LocalDateTime.now().isBefore(nextSweep);
+    }
+    
+    /**
+     * Enregistre la fin d'une analyse réussie.
+     * 
+     * @param scanStartedAt Début de l'analyse (nouvelle borne des modifications)
+     * @param sweepLastId Dernier id balayé (0 si balayage terminé ou non démarré)
+     * @param sweepCompleted true si le balayage complet vient de se terminer
+     */
+    @Transactional
+    public void recordScan(LocalDateTime scanStartedAt, long sweepLastId, boolean sweepCompleted) {
+        FixScanState state = fixScanStateRepository.findByScanName(FixScanState.SCAN_NAME_FIX)
+            .orElseGet(() -> FixScanState.builder()
+                .scanName(FixScanState.SCAN_NAME_FIX)
+                .build());
+        
+        state.setLastScanAt(scanStartedAt);
+        state.setSweepLastId(sweepCompleted ? 0L : sweepLastId);
+        if (sweepCompleted) {
+            state.setSweepCompletedAt(LocalDateTime.now());
+            log.info("✅ Balayage complet du fixJob terminé");
+        }
+        
+        fixScanStateRepository.save(state);
+        log.debug("💾 État fixJob enregistré: lastScanAt={}, sweepLastId={}", 
+            scanStartedAt, state.getSweepLastId());
+    }
+}
@@ -0,0 +1,153 @@
+package bj.gouv.sgg.fix.batch;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.fix.model.FixScanState;
+import bj.gouv.sgg.fix.service.FixScanStateService;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AllDocumentsReaderTest {
+
+    private static final LocalDateTime LAST_SCAN = LocalDateTime.of(2025, 1, 10, 8, 0);
+
+    @Mock
+    private LawDocumentRepository lawDocumentRepository;
+    @Mock
+    private FixScanStateService fixScanStateService;
+
+    private AllDocumentsReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new AllDocumentsReader(lawDocumentRepository, fixScanStateService, new LawProperties());
+        reader.reset();
+        when(fixScanStateService.loadState()).thenReturn(FixScanState.builder()
+                .scanName(FixScanState.SCAN_NAME_FIX)
+                .lastScanAt(LAST_SCAN)
+                .sweepLastId(0L)
+                .sweepCompletedAt(LAST_SCAN)
+                .build());
+        when(fixScanStateService.isFullSweepDue(any())).thenReturn(false);
+    }
+
+    @Test
+    void givenChangedDocumentsWithoutFix_whenReadAndComplete_thenOnlyChangedReadAndWatermarkIsScanStart() {
+        // Given
+        LawDocument changed = document(1L, LAST_SCAN.plusHours(1));
+        when(lawDocumentRepository.findChangedSince(eq(LAST_SCAN), eq(LawDocument.ProcessingStatus.FAILED), eq(0L), any()))
+                .thenReturn(List.of(changed));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        List<LawDocument> read = readAll();
+        LocalDateTime after = LocalDateTime.now();
+        reader.complete();
+
+        // Then
+        assertThat(read).containsExactly(changed);
+        LocalDateTime watermark = recordedWatermark();
+        assertThat(watermark).isAfterOrEqualTo(before).isBeforeOrEqualTo(after);
+    }
+
+    @Test
+    void givenDocumentsFixedDuringScan_whenComplete_thenWatermarkPassesOwnWritesButNotForeignOnes() {
+        // Given - doc 1 corrigé par le fixJob, doc 2 modifié par un autre traitement pendant l'analyse
+        LawDocument fixed = document(1L, LAST_SCAN.plusHours(1));
+        when(lawDocumentRepository.findChangedSince(eq(LAST_SCAN), eq(LawDocument.ProcessingStatus.FAILED), eq(0L), any()))
+                .thenReturn(List.of(fixed));
+        List<LawDocument> read = readAll();
+        reader.recordFix(read.get(0));
+
+        LocalDateTime fixWrite = LocalDateTime.now();
+        LocalDateTime foreignWrite = fixWrite.plusNanos(5_000_000);
+        when(lawDocumentRepository.findChangedSince(argThat(since -> since.isAfter(LAST_SCAN)),
+                eq(LawDocument.ProcessingStatus.FAILED), eq(0L), any()))
+                .thenReturn(List.of(document(1L, fixWrite)))
+                .thenReturn(List.of(document(1L, fixWrite), document(2L, foreignWrite)));
+
+        // When - seul le document corrigé a changé
+        reader.complete();
+        LocalDateTime ownOnly = recordedWatermark();
+
+        // When - un autre traitement a aussi modifié un document
+        reader.complete();
+        ArgumentCaptor<LocalDateTime> watermarks = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(fixScanStateService, times(2)).recordScan(watermarks.capture(), anyLong(), eq(false));
+
+        // Then
+        assertThat(ownOnly).isAfterOrEqualTo(fixWrite);
+        assertThat(watermarks.getAllValues().get(1)).isEqualTo(foreignWrite);
+    }
+
+    @Test
+    void givenMoreChangesThanPageSize_whenRead_thenPagedByIdAndLegacySweepRowsBackfilled() {
+        // Given - pages de 2 documents modifiés ; la tranche du balayage contient un document sans date
+        LawProperties properties = new LawProperties();
+        properties.getFix().setChangedPageSize(2);
+        reader = new AllDocumentsReader(lawDocumentRepository, fixScanStateService, properties);
+        reader.reset();
+        when(fixScanStateService.isFullSweepDue(any())).thenReturn(true);
+        LawDocument first = document(1L, LAST_SCAN.plusHours(1));
+        LawDocument second = document(2L, LAST_SCAN.plusHours(1));
+        LawDocument third = document(5L, LAST_SCAN.plusHours(1));
+        LawDocument legacy = document(3L, null);
+        when(lawDocumentRepository.findChangedSince(eq(LAST_SCAN), eq(LawDocument.ProcessingStatus.FAILED), eq(0L), any()))
+                .thenReturn(List.of(first, second));
+        when(lawDocumentRepository.findChangedSince(eq(LAST_SCAN), eq(LawDocument.ProcessingStatus.FAILED), eq(2L), any()))
+                .thenReturn(List.of(third));
+        when(lawDocumentRepository.findSliceAfterId(eq(0L), eq(LawDocument.ProcessingStatus.FAILED), any()))
+                .thenReturn(List.of(first, legacy));
+
+        // When
+        List<LawDocument> read = readAll();
+
+        // Then - chaque document lu une fois, seul le document antérieur au suivi est daté
+        assertThat(read).containsExactly(first, second, third, legacy);
+        verify(lawDocumentRepository).backfillUpdatedAt(eq(List.of(3L)), argThat(at -> at.isBefore(LocalDateTime.now())));
+    }
+
+    private List<LawDocument> readAll() {
+        List<LawDocument> documents = new ArrayList<>();
+        for (LawDocument document = reader.read(); document != null; document = reader.read()) {
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    private LocalDateTime recordedWatermark() {
+        ArgumentCaptor<LocalDateTime> watermark = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(fixScanStateService).recordScan(watermark.capture(), anyLong(), eq(false));
+        return watermark.getValue();
+    }
+
+    private static LawDocument document(Long id, LocalDateTime updatedAt) {
+        return LawDocument.builder()
+                .id(id)
+                .type("loi")
+                .year(2024)
+                .number(id.intValue())
+                .status(LawDocument.ProcessingStatus.EXTRACTED)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package bj.gouv.sgg.fix.detector;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.fix.model.Issue;
+import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.repository.DownloadResultRepository;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatusIssueDetectorTest {
+
+    @Mock
+    private LawDocumentRepository lawDocumentRepository;
+    @Mock
+    private DownloadResultRepository downloadResultRepository;
+    @Mock
+    private FileStorageService fileStorageService;
+
+    private LawProperties properties;
+    private StatusIssueDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LawProperties();
+        properties.getFix().setStuckPageSize(2);
+        detector = new StatusIssueDetector(lawDocumentRepository, downloadResultRepository, fileStorageService, properties);
+        when(lawDocumentRepository.findStuckInStatus(any(), any(), anyLong(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void givenThreeStuckPendingDocumentsAndPageOfTwo_whenDetectStuck_thenPagesByIdAndReportsEach() {
+        // Given
+        LawDocument first = document(3L, LawDocument.ProcessingStatus.PENDING);
+        LawDocument second = document(7L, LawDocument.ProcessingStatus.PENDING);
+        LawDocument third = document(12L, LawDocument.ProcessingStatus.PENDING);
+        when(lawDocumentRepository.findStuckInStatus(eq(LawDocument.ProcessingStatus.PENDING), any(), eq(0L), any()))
+                .thenReturn(List.of(first, second));
+        when(lawDocumentRepository.findStuckInStatus(eq(LawDocument.ProcessingStatus.PENDING), any(), eq(7L), any()))
+                .thenReturn(List.of(third));
+        LocalDateTime before = LocalDateTime.now();
+
+        // When
+        List<Issue> issues = new ArrayList<>();
+        int detected = detector.detectStuck(issues::add);
+        LocalDateTime after = LocalDateTime.now();
+
+        // Then
+        assertThat(detected).isEqualTo(3);
+        assertThat(issues).extracting(Issue::getDocumentId)
+                .containsExactly("loi-2020-3", "loi-2020-7", "loi-2020-12");
+        assertThat(issues).extracting(Issue::getType).containsOnly(Issue.IssueType.STUCK_IN_PENDING);
+
+        ArgumentCaptor<LocalDateTime> threshold = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(lawDocumentRepository).findStuckInStatus(eq(LawDocument.ProcessingStatus.PENDING),
+                threshold.capture(), eq(0L), page.capture());
+        int hours = properties.getFix().getStuckPendingHours();
+        assertThat(threshold.getValue()).isBetween(before.minusHours(hours), after.minusHours(hours));
+        assertThat(page.getValue().getPageSize()).isEqualTo(2);
+    }
+
+    @Test
+    void givenStuckFetchedDocumentAlreadyDownloaded_whenDetectStuck_thenStatusInconsistent() {
+        // Given
+        LawDocument downloaded = document(5L, LawDocument.ProcessingStatus.FETCHED);
+        LawDocument missing = document(9L, LawDocument.ProcessingStatus.FETCHED);
+        when(lawDocumentRepository.findStuckInStatus(eq(LawDocument.ProcessingStatus.FETCHED), any(), eq(0L), any()))
+                .thenReturn(List.of(downloaded, missing));
+        when(downloadResultRepository.existsByDocumentId("loi-2020-5")).thenReturn(true);
+        when(downloadResultRepository.existsByDocumentId("loi-2020-9")).thenReturn(false);
+        when(fileStorageService.pdfExists("loi", "loi-2020-5")).thenReturn(true);
+
+        // When
+        List<Issue> issues = new ArrayList<>();
+        detector.detectStuck(issues::add);
+
+        // Then
+        assertThat(issues).extracting(Issue::getType)
+                .containsExactly(Issue.IssueType.STATUS_INCONSISTENT, Issue.IssueType.STUCK_IN_FETCHED);
+    }
+
+    private static LawDocument document(Long id, LawDocument.ProcessingStatus status) {
+        return LawDocument.builder()
+                .id(id)
+                .type("loi")
+                .year(2020)
+                .number(id.intValue())
+                .status(status)
+                .statusChangedAt(LocalDateTime.now().minusDays(3))
+                .build();
+    }
+}
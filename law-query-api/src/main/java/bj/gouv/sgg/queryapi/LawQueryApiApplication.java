@@ -0,0 +1,27 @@
+package bj.gouv.sgg.queryapi;
+
+import bj.gouv.sgg.config.LawProperties;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.batch.BatchAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * API HTTP de consultation des données consolidées, déployée à part du pipeline batch.
+ *
+ * <p>Ne scanne que ses propres composants et les repositories consolidés : aucun job batch,
+ * aucun service d'écriture n'est chargé. Pointer {@code spring.datasource.url} sur un
+ * réplica en lecture pour isoler totalement les consommateurs de la base de production.
+ */
+@SpringBootApplication(exclude = BatchAutoConfiguration.class)
+@Import(LawProperties.class)
+@EntityScan("bj.gouv.sgg.consolidate.model")
+@EnableJpaRepositories("bj.gouv.sgg.consolidate.repository")
+public class LawQueryApiApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(LawQueryApiApplication.class, args);
+    }
+}
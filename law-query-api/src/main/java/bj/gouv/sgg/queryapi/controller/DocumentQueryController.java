@@ -0,0 +1,108 @@
+package bj.gouv.sgg.queryapi.controller;
+
+import bj.gouv.sgg.queryapi.dto.ArticleView;
+import bj.gouv.sgg.queryapi.dto.DocumentDetail;
+import bj.gouv.sgg.queryapi.dto.DocumentSummary;
+import bj.gouv.sgg.queryapi.dto.KeysetPage;
+import bj.gouv.sgg.queryapi.dto.SignatoryView;
+import bj.gouv.sgg.queryapi.service.DocumentQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * API HTTP en lecture seule sur les lois et décrets consolidés.
+ *
+ * <p>Toutes les réponses portent un ETag : un client qui renvoie {@code If-None-Match}
+ * reçoit {@code 304 Not Modified} sans corps si la ressource n'a pas changé.
+ * Les listes sont paginées par clé : repasser {@code nextCursor} dans {@code cursor}.
+ *
+ * <pre>
+ * GET /api/v1/documents?type=loi&amp;year=2024&amp;limit=50&amp;cursor=...
+ * GET /api/v1/documents/{documentId}
+ * GET /api/v1/documents/{documentId}/articles?cursor=...
+ * GET /api/v1/documents/{documentId}/articles/{index}
+ * GET /api/v1/documents/{documentId}/signatories
+ * GET /api/v1/articles?type=decret&amp;year=2019&amp;cursor=...
+ * GET /api/v1/signatories?type=loi&amp;cursor=...
+ * </pre>
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+public class DocumentQueryController {
+
+    private final DocumentQueryService queryService;
+
+    @GetMapping("/documents")
+    public ResponseEntity<KeysetPage<DocumentSummary>> listDocuments(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return conditional(queryService.listDocuments(type, year, cursor, limit));
+    }
+
+    @GetMapping("/documents/{documentId}")
+    public ResponseEntity<DocumentDetail> getDocument(@PathVariable String documentId) {
+        DocumentDetail document = queryService.getDocument(documentId);
+        return ResponseEntity.ok()
+                .eTag(document.version())
+                .cacheControl(CacheControl.maxAge(queryService.maxAge()))
+                .body(document);
+    }
+
+    @GetMapping("/documents/{documentId}/articles")
+    public ResponseEntity<KeysetPage<ArticleView>> getArticles(
+            @PathVariable String documentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return conditional(queryService.getArticles(documentId, cursor, limit));
+    }
+
+    @GetMapping("/documents/{documentId}/articles/{index}")
+    public ResponseEntity<ArticleView> getArticle(@PathVariable String documentId, @PathVariable int index) {
+        return conditional(queryService.getArticle(documentId, index));
+    }
+
+    @GetMapping("/documents/{documentId}/signatories")
+    public ResponseEntity<List<SignatoryView>> getSignatories(@PathVariable String documentId) {
+        return conditional(queryService.getDocument(documentId).signatories());
+    }
+
+    @GetMapping("/articles")
+    public ResponseEntity<KeysetPage<ArticleView>> listArticles(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return conditional(queryService.listArticles(type, year, cursor, limit));
+    }
+
+    @GetMapping("/signatories")
+    public ResponseEntity<KeysetPage<SignatoryView>> listSignatories(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return conditional(queryService.listSignatories(type, year, cursor, limit));
+    }
+
+    /**
+     * Réponse avec ETag faible calculé sur le contenu (records immuables : hash profond).
+     * Spring répond 304 lui-même si l'ETag correspond à {@code If-None-Match}.
+     */
+    private <T> ResponseEntity<T> conditional(T body) {
+        return ResponseEntity.ok()
+                .eTag("W/\"" + Integer.toHexString(body.hashCode()) + "\"")
+                .cacheControl(CacheControl.maxAge(queryService.maxAge()))
+                .body(body);
+    }
+}
@@ -0,0 +1,46 @@
+package bj.gouv.sgg.queryapi.controller;
+
+import bj.gouv.sgg.exception.DocumentNotFoundException;
+import bj.gouv.sgg.exception.ErrorResponse;
+import bj.gouv.sgg.exception.InvalidDocumentIdException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+/**
+ * Gestionnaire des exceptions de l'API de consultation : 404 / 400 au format {@link ErrorResponse}.
+ */
+@Slf4j
+@RestControllerAdvice
+public class QueryApiExceptionHandler {
+
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(DocumentNotFoundException ex, WebRequest request) {
+        log.debug("Not found: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.fromException(ex, getPath(request), HttpStatus.NOT_FOUND.value()));
+    }
+
+    @ExceptionHandler(InvalidDocumentIdException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidDocumentId(InvalidDocumentIdException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.fromException(ex, getPath(request), HttpStatus.BAD_REQUEST.value()));
+    }
+
+    /**
+     * Curseur altéré ou paramètre numérique invalide (400).
+     */
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.create(HttpStatus.BAD_REQUEST.value(), "BadRequest", ex.getMessage(), getPath(request)));
+    }
+
+    private String getPath(WebRequest request) {
+        return request.getDescription(false).replace("uri=", "");
+    }
+}
@@ -0,0 +1,28 @@
+package bj.gouv.sgg.queryapi.dto;
+
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+
+/**
+ * Article consolidé exposé par l'API.
+ */
+public record ArticleView(
+        String documentId,
+        Integer articleIndex,
+        String content,
+        String documentType,
+        Integer documentYear,
+        Integer documentNumber,
+        Double extractionConfidence
+) {
+
+    public static ArticleView from(ConsolidatedArticle article) {
+        return new ArticleView(
+                article.getDocumentId(),
+                article.getArticleIndex(),
+                article.getContent(),
+                article.getDocumentType(),
+                article.getDocumentYear(),
+                article.getDocumentNumber(),
+                article.getExtractionConfidence());
+    }
+}
@@ -0,0 +1,50 @@
+package bj.gouv.sgg.queryapi.dto;
+
+import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Document consolidé complet : métadonnées, articles (par index) et signataires (par ordre).
+ *
+ * <p>Objet immuable, partagé tel quel par le cache mémoire de l'API.
+ *
+ * @param version Version du document (dérivée de {@code consolidatedAt}), base de l'ETag
+ */
+public record DocumentDetail(
+        String documentId,
+        String documentType,
+        Integer documentYear,
+        Integer documentNumber,
+        String title,
+        String promulgationDate,
+        String promulgationCity,
+        String sourceUrl,
+        Double extractionConfidence,
+        String extractionMethod,
+        LocalDateTime consolidatedAt,
+        List<ArticleView> articles,
+        List<SignatoryView> signatories,
+        String version
+) {
+
+    public static DocumentDetail of(ConsolidatedMetadata metadata, List<ArticleView> articles,
+                                    List<SignatoryView> signatories, String version) {
+        return new DocumentDetail(
+                metadata.getDocumentId(),
+                metadata.getDocumentType(),
+                metadata.getDocumentYear(),
+                metadata.getDocumentNumber(),
+                metadata.getTitle(),
+                metadata.getPromulgationDate(),
+                metadata.getPromulgationCity(),
+                metadata.getSourceUrl(),
+                metadata.getExtractionConfidence(),
+                metadata.getExtractionMethod(),
+                metadata.getConsolidatedAt(),
+                List.copyOf(articles),
+                List.copyOf(signatories),
+                version);
+    }
+}
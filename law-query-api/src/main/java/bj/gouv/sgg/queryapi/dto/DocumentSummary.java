@@ -0,0 +1,32 @@
+package bj.gouv.sgg.queryapi.dto;
+
+import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+
+import java.time.LocalDateTime;
+
+/**
+ * Élément de liste de documents consolidés (métadonnées seules, sans articles).
+ */
+public record DocumentSummary(
+        String documentId,
+        String documentType,
+        Integer documentYear,
+        Integer documentNumber,
+        String title,
+        String promulgationDate,
+        Integer totalArticles,
+        LocalDateTime consolidatedAt
+) {
+
+    public static DocumentSummary from(ConsolidatedMetadata metadata) {
+        return new DocumentSummary(
+                metadata.getDocumentId(),
+                metadata.getDocumentType(),
+                metadata.getDocumentYear(),
+                metadata.getDocumentNumber(),
+                metadata.getTitle(),
+                metadata.getPromulgationDate(),
+                metadata.getTotalArticles(),
+                metadata.getConsolidatedAt());
+    }
+}
@@ -0,0 +1,12 @@
+package bj.gouv.sgg.queryapi.dto;
+
+import java.util.List;
+
+/**
+ * Page d'une liste paginée par clé.
+ *
+ * @param items      Éléments de la page
+ * @param nextCursor Curseur opaque à repasser en {@code cursor} pour la page suivante (null = dernière page)
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,28 @@
+package bj.gouv.sgg.queryapi.dto;
+
+import bj.gouv.sgg.consolidate.model.ConsolidatedSignatory;
+
+import java.time.LocalDate;
+
+/**
+ * Signataire consolidé exposé par l'API.
+ */
+public record SignatoryView(
+        String documentId,
+        Integer signatoryOrder,
+        String role,
+        String name,
+        LocalDate mandateStart,
+        LocalDate mandateEnd
+) {
+
+    public static SignatoryView from(ConsolidatedSignatory signatory) {
+        return new SignatoryView(
+                signatory.getDocumentId(),
+                signatory.getSignatoryOrder(),
+                signatory.getRole(),
+                signatory.getName(),
+                signatory.getMandateStart(),
+                signatory.getMandateEnd());
+    }
+}
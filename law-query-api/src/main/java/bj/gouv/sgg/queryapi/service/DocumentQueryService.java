@@ -0,0 +1,187 @@
+package bj.gouv.sgg.queryapi.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+import bj.gouv.sgg.consolidate.model.ConsolidatedSignatory;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedMetadataRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedSignatoryRepository;
+import bj.gouv.sgg.exception.DocumentNotFoundException;
+import bj.gouv.sgg.exception.InvalidDocumentIdException;
+import bj.gouv.sgg.queryapi.dto.ArticleView;
+import bj.gouv.sgg.queryapi.dto.DocumentDetail;
+import bj.gouv.sgg.queryapi.dto.DocumentSummary;
+import bj.gouv.sgg.queryapi.dto.KeysetPage;
+import bj.gouv.sgg.queryapi.dto.SignatoryView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Lecture des données consolidées pour l'API HTTP.
+ *
+ * <p><b>Documents</b> : un document complet (métadonnées + articles + signataires) est chargé
+ * en une transaction en lecture seule puis gardé en cache mémoire (LRU borné, TTL
+ * {@code law.query-api.cache-ttl-seconds}) : les documents consultés souvent ne touchent plus
+ * la base. Les sous-ressources (articles, signataires) sont servies depuis ce même cache.
+ *
+ * <p><b>Listes</b> : pagination par clé (jamais d'OFFSET) pour que la 1000e page coûte
+ * autant que la première, y compris pendant que le pipeline écrit.
+ */
+@Slf4j
+@Service
+public class DocumentQueryService {
+
+    private static final Pattern DOCUMENT_ID = Pattern.compile("^[a-z]+-\\d{4}-\\d+$");
+
+    private final ConsolidatedMetadataRepository metadataRepository;
+    private final ConsolidatedArticleRepository articleRepository;
+    private final ConsolidatedSignatoryRepository signatoryRepository;
+    private final LawProperties.QueryApi config;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<String, DocumentDetail> documentCache;
+
+    public DocumentQueryService(ConsolidatedMetadataRepository metadataRepository,
+                                ConsolidatedArticleRepository articleRepository,
+                                ConsolidatedSignatoryRepository signatoryRepository,
+                                LawProperties properties,
+                                PlatformTransactionManager transactionManager) {
+        this.metadataRepository = metadataRepository;
+        this.articleRepository = articleRepository;
+        this.signatoryRepository = signatoryRepository;
+        this.config = properties.getQueryApi();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.documentCache = Caffeine.newBuilder()
+                .maximumSize(config.getCacheMaxDocuments())
+                .expireAfterWrite(Duration.ofSeconds(config.getCacheTtlSeconds()))
+                .build();
+    }
+
+    /**
+     * Document complet, depuis le cache si présent.
+     *
+     * @throws InvalidDocumentIdException si l'ID n'a pas le format {type}-{year}-{number}
+     * @throws DocumentNotFoundException si le document n'est pas consolidé
+     */
+    public DocumentDetail getDocument(String documentId) {
+        if (!DOCUMENT_ID.matcher(documentId).matches()) {
+            throw new InvalidDocumentIdException(documentId);
+        }
+        return documentCache.get(documentId, this::loadDocument);
+    }
+
+    /**
+     * Articles d'un document par index croissant (servis depuis le document en cache).
+     */
+    public KeysetPage<ArticleView> getArticles(String documentId, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long afterIndex = cursor != null ? KeysetCursor.decode(cursor, 1)[0] : Long.MIN_VALUE;
+        List<ArticleView> rows = getDocument(documentId).articles().stream()
+                .filter(article -> article.articleIndex() > afterIndex)
+                .limit(size + 1L)
+                .toList();
+        return mapPage(rows, size, Function.identity(), last -> KeysetCursor.encode(last.articleIndex()));
+    }
+
+    public ArticleView getArticle(String documentId, int articleIndex) {
+        return getDocument(documentId).articles().stream()
+                .filter(article -> article.articleIndex() == articleIndex)
+                .findFirst()
+                .orElseThrow(() -> new DocumentNotFoundException(
+                        "Article " + articleIndex + " not found in " + documentId));
+    }
+
+    /**
+     * Documents triés par année puis numéro décroissants.
+     */
+    public KeysetPage<DocumentSummary> listDocuments(String documentType, Integer year, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long[] after = cursor != null ? KeysetCursor.decode(cursor, 3)
+                : new long[] {Integer.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE};
+        List<ConsolidatedMetadata> rows = metadataRepository.findPageAfter(
+                documentType, year, (int) after[0], (int) after[1], after[2], PageRequest.of(0, size + 1));
+        return mapPage(rows, size, DocumentSummary::from, last -> KeysetCursor.encode(
+                last.getDocumentYear(), last.getDocumentNumber(), last.getId()));
+    }
+
+    /**
+     * Articles de tous les documents (export incrémental), par ID croissant.
+     */
+    public KeysetPage<ArticleView> listArticles(String documentType, Integer year, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long afterId = cursor != null ? KeysetCursor.decode(cursor, 1)[0] : 0L;
+        List<ConsolidatedArticle> rows = articleRepository.findPageAfter(
+                documentType, year, afterId, PageRequest.of(0, size + 1));
+        return mapPage(rows, size, ArticleView::from, last -> KeysetCursor.encode(last.getId()));
+    }
+
+    /**
+     * Signataires de tous les documents, par ID croissant.
+     */
+    public KeysetPage<SignatoryView> listSignatories(String documentType, Integer year, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        long afterId = cursor != null ? KeysetCursor.decode(cursor, 1)[0] : 0L;
+        List<ConsolidatedSignatory> rows = signatoryRepository.findPageAfter(
+                documentType, year, afterId, PageRequest.of(0, size + 1));
+        return mapPage(rows, size, SignatoryView::from, last -> KeysetCursor.encode(last.getId()));
+    }
+
+    /**
+     * Durée de fraîcheur annoncée aux clients (Cache-Control), alignée sur le TTL du cache.
+     */
+    public Duration maxAge() {
+        return Duration.ofSeconds(config.getCacheTtlSeconds());
+    }
+
+    private DocumentDetail loadDocument(String documentId) {
+        DocumentDetail detail = readOnlyTransaction.execute(status -> {
+            ConsolidatedMetadata metadata = metadataRepository.findByDocumentId(documentId)
+                    .orElseThrow(() -> new DocumentNotFoundException("Consolidated document not found: " + documentId));
+            List<ArticleView> articles = articleRepository.findByDocumentIdOrderByArticleIndexAsc(documentId)
+                    .stream().map(ArticleView::from).toList();
+            List<SignatoryView> signatories = signatoryRepository.findByDocumentIdOrderBySignatoryOrderAsc(documentId)
+                    .stream().map(SignatoryView::from).toList();
+            return DocumentDetail.of(metadata, articles, signatories, version(metadata));
+        });
+        log.debug("📖 [{}] Document chargé en cache", documentId);
+        return detail;
+    }
+
+    /**
+     * Version d'un document : {@code consolidatedAt} est réécrit à chaque consolidation,
+     * dans la même transaction que les articles et signataires.
+     */
+    private static String version(ConsolidatedMetadata metadata) {
+        long millis = metadata.getConsolidatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        return metadata.getDocumentId() + "-" + Long.toString(millis, 36);
+    }
+
+    private int pageSize(Integer limit) {
+        int requested = limit != null ? limit : config.getDefaultPageSize();
+        return Math.max(1, Math.min(requested, config.getMaxPageSize()));
+    }
+
+    /**
+     * Construit une page à partir de {@code size + 1} lignes lues : la ligne en trop indique
+     * qu'une page suivante existe, sans requête COUNT.
+     */
+    private static <E, T> KeysetPage<T> mapPage(List<E> rows, int size, Function<E, T> mapper,
+                                                Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> items = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(size - 1)) : null;
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
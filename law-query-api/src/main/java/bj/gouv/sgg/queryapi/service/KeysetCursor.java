@@ -0,0 +1,44 @@
+package bj.gouv.sgg.queryapi.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Curseur opaque de pagination par clé : valeurs de clé du dernier élément d'une page,
+ * encodées en Base64 URL ({@code "2024:15:8812"} → {@code MjAyNDoxNTo4ODEy}).
+ *
+ * <p>Le client ne fait que renvoyer le curseur reçu ; son contenu n'est pas un contrat.
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(long... keys) {
+        String raw = Arrays.stream(keys).mapToObj(Long::toString).collect(Collectors.joining(":"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Décode un curseur.
+     *
+     * @param cursor Curseur reçu du client
+     * @param expectedKeys Nombre de clés attendu
+     * @return Valeurs de clé
+     * @throws IllegalArgumentException si le curseur est altéré ou ne correspond pas à la liste
+     */
+    public static long[] decode(String cursor, int expectedKeys) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            long[] keys = Arrays.stream(raw.split(":")).mapToLong(Long::parseLong).toArray();
+            if (keys.length != expectedKeys) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return keys;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package bj.gouv.sgg.queryapi.service;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.consolidate.model.ConsolidatedArticle;
+import bj.gouv.sgg.consolidate.model.ConsolidatedMetadata;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedArticleRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedMetadataRepository;
+import bj.gouv.sgg.consolidate.repository.ConsolidatedSignatoryRepository;
+import bj.gouv.sgg.exception.DocumentNotFoundException;
+import bj.gouv.sgg.exception.InvalidDocumentIdException;
+import bj.gouv.sgg.queryapi.dto.ArticleView;
+import bj.gouv.sgg.queryapi.dto.DocumentDetail;
+import bj.gouv.sgg.queryapi.dto.DocumentSummary;
+import bj.gouv.sgg.queryapi.dto.KeysetPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentQueryServiceTest {
+
+    @Mock
+    private ConsolidatedMetadataRepository metadataRepository;
+    @Mock
+    private ConsolidatedArticleRepository articleRepository;
+    @Mock
+    private ConsolidatedSignatoryRepository signatoryRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DocumentQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        LawProperties properties = new LawProperties();
+        properties.getQueryApi().setDefaultPageSize(2);
+        service = new DocumentQueryService(metadataRepository, articleRepository, signatoryRepository,
+                properties, transactionManager);
+    }
+
+    @Test
+    void givenDocumentLoadedOnce_whenRequestedAgain_thenServedFromCache() {
+        // Given
+        when(metadataRepository.findByDocumentId("loi-2024-15")).thenReturn(Optional.of(metadata("loi-2024-15", 1L)));
+        when(articleRepository.findByDocumentIdOrderByArticleIndexAsc("loi-2024-15"))
+                .thenReturn(articles("loi-2024-15", 5));
+        when(signatoryRepository.findByDocumentIdOrderBySignatoryOrderAsc("loi-2024-15")).thenReturn(List.of());
+
+        // When
+        DocumentDetail first = service.getDocument("loi-2024-15");
+        DocumentDetail second = service.getDocument("loi-2024-15");
+        KeysetPage<ArticleView> articles = service.getArticles("loi-2024-15", null, null);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.version()).startsWith("loi-2024-15-");
+        assertThat(articles.items()).extracting(ArticleView::articleIndex).containsExactly(1, 2);
+        assertThat(service.getArticles("loi-2024-15", articles.nextCursor(), 10).items())
+                .extracting(ArticleView::articleIndex).containsExactly(3, 4, 5);
+        verify(metadataRepository, times(1)).findByDocumentId("loi-2024-15");
+        verify(articleRepository, times(1)).findByDocumentIdOrderByArticleIndexAsc("loi-2024-15");
+    }
+
+    @Test
+    void givenMoreRowsThanPage_whenListDocuments_thenCursorResumesAfterLastKey() {
+        // Given - size + 1 lignes lues : une page suivante existe
+        when(metadataRepository.findPageAfter(eq("loi"), isNull(), eq(Integer.MAX_VALUE), eq(Integer.MAX_VALUE),
+                eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(metadata("loi-2024-15", 30L), metadata("loi-2024-14", 20L), metadata("loi-2024-13", 10L)));
+
+        // When
+        KeysetPage<DocumentSummary> page = service.listDocuments("loi", null, null, null);
+
+        // Then
+        assertThat(page.items()).extracting(DocumentSummary::documentId).containsExactly("loi-2024-15", "loi-2024-14");
+        assertThat(KeysetCursor.decode(page.nextCursor(), 3)).containsExactly(2024L, 14L, 20L);
+    }
+
+    @Test
+    void givenUnknownOrMalformedId_whenGetDocument_thenNotFoundOrInvalid() {
+        // Given
+        when(metadataRepository.findByDocumentId("decret-2019-999")).thenReturn(Optional.empty());
+
+        // When / Then
+        assertThatThrownBy(() -> service.getDocument("decret-2019-999")).isInstanceOf(DocumentNotFoundException.class);
+        assertThatThrownBy(() -> service.getDocument("../etc")).isInstanceOf(InvalidDocumentIdException.class);
+        assertThatThrownBy(() -> service.listArticles(null, null, "not-a-cursor!", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(metadataRepository, never()).findByDocumentId("../etc");
+    }
+
+    private static ConsolidatedMetadata metadata(String documentId, long id) {
+        String[] parts = documentId.split("-");
+        return ConsolidatedMetadata.builder()
+                .id(id)
+                .documentId(documentId)
+                .documentType(parts[0])
+                .documentYear(Integer.parseInt(parts[1]))
+                .documentNumber(Integer.parseInt(parts[2]))
+                .consolidatedAt(LocalDateTime.of(2025, 1, 10, 8, 30))
+                .build();
+    }
+
+    private static List<ConsolidatedArticle> articles(String documentId, int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> ConsolidatedArticle.builder()
+                        .id((long) i)
+                        .documentId(documentId)
+                        .articleIndex(i)
+                        .content("Article " + i)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package bj.gouv.sgg.testsupport.harness;
+
+import bj.gouv.sgg.testsupport.portal.FakePortalConfig;
+import bj.gouv.sgg.testsupport.portal.FakePortalServer;
+import bj.gouv.sgg.testsupport.portal.LatencyDistribution;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Harnais de charge hors ligne : fetchCurrentJob puis downloadJob contre le portail simulé,
+ * base H2 en mémoire, fichiers dans un répertoire temporaire.
+ *
+ * <p><b>Usage</b> :
+ * <pre>
+ * java -cp law-test-support.jar:... bj.gouv.sgg.testsupport.harness.LoadHarnessApplication \
+ *     --portal.not-found-ratio=0.3 --portal.max-number=500 --portal.padded-ratio=0.5 \
+ *     --portal.head-latency-ms=40 --portal.latency-sigma=0.8 --portal.download-latency-ms=150 \
+ *     --portal.rate-limit-every=200 --portal.rate-limit-burst=5 --portal.fixtures=src/test/resources/pdfs \
+ *     --law.rate-limit.initial-rate=20 --law.fetch.async-probing=false
+ * </pre>
+ *
+ * <p>Toute propriété {@code law.*} peut être surchargée pour comparer des réglages ;
+ * {@code law.base-url} est imposée sur le portail simulé.
+ */
+@Slf4j
+@SpringBootApplication(scanBasePackages = "bj.gouv.sgg")
+@EntityScan("bj.gouv.sgg")
+@EnableJpaRepositories("bj.gouv.sgg")
+public class LoadHarnessApplication {
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource cli = new SimpleCommandLinePropertySource(args);
+        FakePortalConfig portalConfig = portalConfig(cli);
+        Path dataDir = Files.createTempDirectory("law-loadtest");
+
+        try (FakePortalServer portal = new FakePortalServer(portalConfig).start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadHarnessApplication.class)
+                     .profiles("loadtest")
+                     .properties(
+                             "law.base-url=" + portal.getBaseUrl(),
+                             "law.max-number-per-year=" + (portalConfig.getMaxNumberPerYear() + 10),
+                             "law.directories.data=" + dataDir)
+                     .run(args)) {
+
+            PortalLoadHarness harness = new PortalLoadHarness(context.getBean(JobLauncher.class), portal);
+            String type = cli.containsProperty("type") ? cli.getProperty("type") : "loi";
+            int year = Year.now().getValue();
+
+            List<LoadReport> reports = new ArrayList<>();
+            reports.add(harness.run(context.getBean("fetchCurrentJob", Job.class), Map.of("type", type)));
+            reports.add(harness.run(context.getBean("downloadJob", Job.class),
+                    Map.of("type", type, "maxDocuments", String.valueOf(Integer.MAX_VALUE))));
+
+            log.info("📋 Load harness summary (published {} {} documents: {}):", type, year,
+                    portal.countPublished(type, year));
+            reports.forEach(report -> log.info("{}", report));
+        }
+    }
+
+    private static FakePortalConfig portalConfig(SimpleCommandLinePropertySource cli) {
+        FakePortalConfig.FakePortalConfigBuilder builder = FakePortalConfig.builder();
+        if (cli.containsProperty("portal.seed")) {
+            builder.seed(Long.parseLong(cli.getProperty("portal.seed")));
+        }
+        if (cli.containsProperty("portal.not-found-ratio")) {
+            builder.notFoundRatio(Double.parseDouble(cli.getProperty("portal.not-found-ratio")));
+        }
+        if (cli.containsProperty("portal.max-number")) {
+            builder.maxNumberPerYear(Integer.parseInt(cli.getProperty("portal.max-number")));
+        }
+        if (cli.containsProperty("portal.padded-ratio")) {
+            builder.paddedRatio(Double.parseDouble(cli.getProperty("portal.padded-ratio")));
+        }
+        double sigma = cli.containsProperty("portal.latency-sigma")
+                ? Double.parseDouble(cli.getProperty("portal.latency-sigma")) : 0.0;
+        if (cli.containsProperty("portal.head-latency-ms")) {
+            builder.headLatency(latency(Long.parseLong(cli.getProperty("portal.head-latency-ms")), sigma));
+        }
+        if (cli.containsProperty("portal.download-latency-ms")) {
+            builder.downloadLatency(latency(Long.parseLong(cli.getProperty("portal.download-latency-ms")), sigma));
+        }
+        if (cli.containsProperty("portal.rate-limit-every")) {
+            builder.rateLimitEvery(Integer.parseInt(cli.getProperty("portal.rate-limit-every")));
+        }
+        if (cli.containsProperty("portal.rate-limit-burst")) {
+            builder.rateLimitBurst(Integer.parseInt(cli.getProperty("portal.rate-limit-burst")));
+        }
+        if (cli.containsProperty("portal.fixtures")) {
+            builder.pdfFixturesDir(Path.of(cli.getProperty("portal.fixtures")));
+        }
+        return builder.build();
+    }
+
+    private static LatencyDistribution latency(long medianMs, double sigma) {
+        Duration median = Duration.ofMillis(medianMs);
+        return sigma > 0 ? LatencyDistribution.logNormal(median, sigma) : LatencyDistribution.fixed(median);
+    }
+}
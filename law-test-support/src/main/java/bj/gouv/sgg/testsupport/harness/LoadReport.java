@@ -0,0 +1,58 @@
+package bj.gouv.sgg.testsupport.harness;
+
+import bj.gouv.sgg.testsupport.portal.LatencyRecorder;
+import bj.gouv.sgg.testsupport.portal.PortalStats;
+
+/**
+ * Résultat d'une exécution de job contre le portail simulé.
+ *
+ * @param jobName        Nom du job Spring Batch
+ * @param exitStatus     Statut de fin du job
+ * @param elapsedNanos   Durée murale du job
+ * @param requests       Requêtes reçues par le portail (HEAD + GET)
+ * @param notFound       Réponses 404
+ * @param rateLimited    Réponses 429
+ * @param bytesServed    Octets PDF servis
+ * @param head           Latences de service des HEAD (latence injectée comprise)
+ * @param download       Latences de service des GET /download
+ */
+public record LoadReport(
+        String jobName,
+        String exitStatus,
+        long elapsedNanos,
+        long requests,
+        long notFound,
+        long rateLimited,
+        long bytesServed,
+        LatencyRecorder.Snapshot head,
+        LatencyRecorder.Snapshot download
+) {
+
+    static LoadReport of(String jobName, String exitStatus, long elapsedNanos, PortalStats stats) {
+        return new LoadReport(jobName, exitStatus, elapsedNanos,
+                stats.getTotalRequests(), stats.getNotFound(), stats.getRateLimited(), stats.getBytesServed(),
+                stats.getHeadLatency().snapshot(), stats.getDownloadLatency().snapshot());
+    }
+
+    public double requestsPerSecond() {
+        return elapsedNanos <= 0 ? 0.0 : requests * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s [%s] %d req in %.1f s → %.1f req/s (404=%d, 429=%d, %d KB)%n"
+                        + "  HEAD     n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n"
+                        + "  DOWNLOAD n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                jobName, exitStatus, requests, elapsedNanos / 1e9, requestsPerSecond(),
+                notFound, rateLimited, bytesServed / 1024,
+                head.count(), millis(head.percentileNanos(50)), millis(head.percentileNanos(95)),
+                millis(head.percentileNanos(99)), millis(head.maxNanos()),
+                download.count(), millis(download.percentileNanos(50)), millis(download.percentileNanos(95)),
+                millis(download.percentileNanos(99)), millis(download.maxNanos()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
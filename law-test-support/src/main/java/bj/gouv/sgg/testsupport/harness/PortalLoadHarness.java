@@ -0,0 +1,51 @@
+package bj.gouv.sgg.testsupport.harness;
+
+import bj.gouv.sgg.testsupport.portal.FakePortalServer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+
+import java.util.Map;
+
+/**
+ * Pilote les jobs fetch / download contre le {@link FakePortalServer} et mesure
+ * débit (requêtes/s) et latence de queue (p95, p99, max) vues par le portail.
+ *
+ * <p>Les compteurs du portail sont remis à zéro avant chaque job : un rapport ne
+ * contient que le trafic du job mesuré.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PortalLoadHarness {
+
+    private final JobLauncher jobLauncher;
+    private final FakePortalServer portal;
+
+    /**
+     * Exécute un job (synchrone) et retourne son rapport de charge.
+     *
+     * @param job        Job à exécuter (ex. fetchCurrentJob, downloadJob)
+     * @param parameters Paramètres additionnels (ex. maxDocuments, type)
+     */
+    public LoadReport run(Job job, Map<String, String> parameters) throws Exception {
+        JobParametersBuilder builder = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis());
+        parameters.forEach(builder::addString);
+        JobParameters jobParameters = builder.toJobParameters();
+
+        portal.getStats().reset();
+        log.info("🚀 Load run: {} {}", job.getName(), parameters);
+        long start = System.nanoTime();
+        JobExecution execution = jobLauncher.run(job, jobParameters);
+        long elapsed = System.nanoTime() - start;
+
+        LoadReport report = LoadReport.of(job.getName(), execution.getExitStatus().getExitCode(),
+                elapsed, portal.getStats());
+        log.info("📊 {}", report);
+        return report;
+    }
+}
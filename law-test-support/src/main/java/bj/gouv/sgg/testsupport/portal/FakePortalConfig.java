@@ -0,0 +1,53 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Comportement du portail simulé.
+ *
+ * <p>L'existence d'un document est déterministe (graine + identifiant) : HEAD et GET
+ * répondent de façon cohérente et deux exécutions avec la même graine sont comparables.
+ */
+@Getter
+@Builder
+public class FakePortalConfig {
+
+    @Builder.Default
+    private final long seed = 42L;                    // Graine des tirages existence / padding
+
+    @Builder.Default
+    private final String contextPath = "/doc";        // Préfixe des URLs, comme law.base-url en production
+
+    @Builder.Default
+    private final double notFoundRatio = 0.3;         // Densité de 404 parmi les numéros <= maxNumberPerYear
+
+    @Builder.Default
+    private final int maxNumberPerYear = 200;         // Au-delà : 404 systématique (fin d'année)
+
+    @Builder.Default
+    private final double paddedRatio = 0.5;           // Part des numéros < 10 publiés uniquement en "-01".."-09"
+
+    @Builder.Default
+    private final LatencyDistribution headLatency = LatencyDistribution.NONE;
+
+    @Builder.Default
+    private final LatencyDistribution downloadLatency = LatencyDistribution.NONE;
+
+    @Builder.Default
+    private final int rateLimitEvery = 0;             // Toutes les N requêtes, une rafale de 429 (0 = désactivé)
+
+    @Builder.Default
+    private final int rateLimitBurst = 0;             // Nombre de 429 consécutifs par rafale
+
+    private final Path pdfFixturesDir;                // PDFs servis par /download (null = PDF minimal intégré)
+
+    @Builder.Default
+    private final int serverThreads = 32;             // Requêtes servies en parallèle (la latence bloque un thread)
+
+    public static FakePortalConfig defaults() {
+        return FakePortalConfig.builder().build();
+    }
+}
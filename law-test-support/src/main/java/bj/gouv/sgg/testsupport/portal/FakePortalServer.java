@@ -0,0 +1,239 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Portail sgg.gouv.bj simulé, embarquable dans un test ou un harnais de charge.
+ *
+ * <p><b>Contrat reproduit</b> :
+ * <ul>
+ *   <li>{@code HEAD {contextPath}/{type}-{year}-{number}} : 200 si publié, 404 sinon
+ *       (utilisé par le fetch, y compris la variante "-01".."-09")</li>
+ *   <li>{@code GET {contextPath}/{type}-{year}-{number}/download} : PDF (utilisé par le download)</li>
+ *   <li>Rafales de 429 toutes les N requêtes, latence tirée d'une {@link LatencyDistribution}</li>
+ * </ul>
+ *
+ * <p>Serveur JDK ({@code com.sun.net.httpserver}) : aucune dépendance, démarrage en quelques ms.
+ * Pointer {@code law.base-url} sur {@link #getBaseUrl()} suffit à détourner fetch et download.
+ */
+@Slf4j
+public class FakePortalServer implements AutoCloseable {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    // PDF minimal valide servi à défaut de fixtures
+    private static final byte[] BUILTIN_PDF = ("%PDF-1.4\n"
+            + "1 0 obj<</Type/Catalog/Pages 2 0 R>>endobj\n"
+            + "2 0 obj<</Type/Pages/Kids[3 0 R]/Count 1>>endobj\n"
+            + "3 0 obj<</Type/Page/Parent 2 0 R/MediaBox[0 0 595 842]>>endobj\n"
+            + "trailer<</Root 1 0 R>>\n%%EOF\n").getBytes(StandardCharsets.US_ASCII);
+
+    private final FakePortalConfig config;
+    private final Pattern documentPath;
+    private final PortalStats stats = new PortalStats();
+    private final AtomicLong requestCounter = new AtomicLong();
+    private final List<byte[]> pdfPayloads;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public FakePortalServer(FakePortalConfig config) {
+        this.config = config;
+        this.documentPath = Pattern.compile(
+                "^" + Pattern.quote(config.getContextPath()) + "/([a-z]+)-(\\d{4})-(\\d{1,4})(/download)?/?$");
+        this.pdfPayloads = loadFixtures(config.getPdfFixturesDir());
+    }
+
+    /**
+     * Démarre sur un port libre de la boucle locale.
+     */
+    public FakePortalServer start() throws IOException {
+        return start(0);
+    }
+
+    public FakePortalServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(config.getServerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "fake-portal-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(config.getContextPath(), this::handle);
+        server.start();
+        log.info("🧪 Fake portal started on {} ({} PDF fixtures)", getBaseUrl(), pdfPayloads.size());
+        return this;
+    }
+
+    /**
+     * URL à placer dans {@code law.base-url}, ex. {@code http://127.0.0.1:54321/doc}.
+     */
+    public String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Fake portal not started");
+        }
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + config.getContextPath();
+    }
+
+    public PortalStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Indique si l'identifiant est publié sous cette forme exacte (ex. "loi-2024-03" ou "loi-2024-3").
+     */
+    public boolean isPublished(String type, int year, String numberToken) {
+        int number = Integer.parseInt(numberToken);
+        if (number < 1 || number > config.getMaxNumberPerYear()) {
+            return false;
+        }
+        SplittableRandom random = documentRandom(type, year, number);
+        if (random.nextDouble() < config.getNotFoundRatio()) {
+            return false;
+        }
+        boolean paddedOnly = number < 10 && random.nextDouble() < config.getPaddedRatio();
+        boolean paddedRequest = numberToken.length() > 1 && numberToken.charAt(0) == '0';
+        return paddedOnly == paddedRequest;
+    }
+
+    /**
+     * Nombre de documents publiés pour un type et une année (sous l'une ou l'autre forme).
+     * Permet au harnais de vérifier que le fetch les a tous trouvés.
+     */
+    public int countPublished(String type, int year) {
+        int count = 0;
+        for (int number = 1; number <= config.getMaxNumberPerYear(); number++) {
+            if (isPublished(type, year, Integer.toString(number))
+                    || (number < 10 && isPublished(type, year, "%02d".formatted(number)))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            boolean download = false;
+            int status = 404;
+            byte[] body = EMPTY;
+
+            Matcher matcher = documentPath.matcher(exchange.getRequestURI().getPath());
+            if (matcher.matches()) {
+                download = matcher.group(4) != null;
+                simulateLatency(download);
+                if (isRateLimited()) {
+                    status = 429;
+                    exchange.getResponseHeaders().set("Retry-After", "1");
+                } else if (isPublished(matcher.group(1), Integer.parseInt(matcher.group(2)), matcher.group(3))) {
+                    status = 200;
+                    if (download) {
+                        body = pdfFor(matcher.group(1), matcher.group(2), matcher.group(3));
+                        exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+                    }
+                }
+            }
+
+            // Statistiques enregistrées avant l'envoi : visibles dès que le client a sa réponse
+            boolean withBody = body.length > 0 && !"HEAD".equalsIgnoreCase(exchange.getRequestMethod());
+            stats.onResponse(download, status, withBody ? body.length : 0, System.nanoTime() - start);
+
+            exchange.sendResponseHeaders(status, withBody ? body.length : -1);
+            if (withBody) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    private boolean isRateLimited() {
+        int every = config.getRateLimitEvery();
+        int burst = config.getRateLimitBurst();
+        if (every <= 0 || burst <= 0) {
+            return false;
+        }
+        long n = requestCounter.incrementAndGet();
+        return n >= every && (n % every) < burst;
+    }
+
+    private void simulateLatency(boolean download) {
+        LatencyDistribution distribution = download ? config.getDownloadLatency() : config.getHeadLatency();
+        long nanos = distribution.sampleNanos(ThreadLocalRandom.current());
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] pdfFor(String type, String year, String numberToken) {
+        if (pdfPayloads.isEmpty()) {
+            return BUILTIN_PDF;
+        }
+        int number = Integer.parseInt(numberToken);
+        long pick = documentRandom(type, Integer.parseInt(year), number).nextLong();
+        return pdfPayloads.get((int) Math.floorMod(pick, (long) pdfPayloads.size()));
+    }
+
+    private SplittableRandom documentRandom(String type, int year, int number) {
+        long key = (type + '-' + year + '-' + number).hashCode();
+        return new SplittableRandom(config.getSeed() ^ (key * 0x9E3779B97F4A7C15L));
+    }
+
+    private static List<byte[]> loadFixtures(Path dir) {
+        List<byte[]> payloads = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return payloads;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .sorted().toList()) {
+                payloads.add(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load PDF fixtures from " + dir, e);
+        }
+        return payloads;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
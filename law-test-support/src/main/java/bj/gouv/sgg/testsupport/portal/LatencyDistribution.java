@@ -0,0 +1,48 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution de latence injectée par le portail simulé avant chaque réponse.
+ *
+ * <p>Les fabriques couvrent les cas utiles au réglage du débit :
+ * <ul>
+ *   <li>{@link #fixed(Duration)} : latence constante (référence)</li>
+ *   <li>{@link #uniform(Duration, Duration)} : gigue bornée</li>
+ *   <li>{@link #logNormal(Duration, double)} : queue lourde, proche d'un serveur réel chargé</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0L;
+
+    /**
+     * Tire une latence en nanosecondes.
+     */
+    long sampleNanos(RandomGenerator random);
+
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("max < min: " + max + " < " + min);
+        }
+        return random -> maxNanos == minNanos ? minNanos : random.nextLong(minNanos, maxNanos + 1);
+    }
+
+    /**
+     * Distribution log-normale : la médiane vaut {@code median}, {@code sigma} règle la queue
+     * (0.5 ≈ p99 à 3× la médiane, 1.0 ≈ p99 à 10×).
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(Math.max(1L, median.toNanos()));
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+}
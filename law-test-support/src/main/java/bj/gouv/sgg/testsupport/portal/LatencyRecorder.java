@@ -0,0 +1,72 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import java.util.Arrays;
+
+/**
+ * Enregistre des latences brutes (nanosecondes) et calcule des percentiles exacts.
+ *
+ * <p>Volumes d'un harnais de charge (quelques centaines de milliers de requêtes) :
+ * un tableau de longs suffit, sans histogramme approché. Thread-safe.
+ */
+public final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Fige les échantillons courants pour calculer les percentiles hors verrou.
+     */
+    public synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted);
+    }
+
+    /**
+     * Échantillons triés à un instant donné.
+     */
+    public static final class Snapshot {
+
+        private final long[] sorted;
+
+        private Snapshot(long[] sorted) {
+            this.sorted = sorted;
+        }
+
+        public int count() {
+            return sorted.length;
+        }
+
+        /**
+         * Percentile par rang le plus proche (0 si aucun échantillon).
+         *
+         * @param percentile Valeur entre 0 et 100
+         */
+        public long percentileNanos(double percentile) {
+            if (sorted.length == 0) {
+                return 0L;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.min(sorted.length - 1, Math.max(0, rank - 1))];
+        }
+
+        public long maxNanos() {
+            return sorted.length == 0 ? 0L : sorted[sorted.length - 1];
+        }
+    }
+}
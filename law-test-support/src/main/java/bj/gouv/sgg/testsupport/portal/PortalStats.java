@@ -0,0 +1,78 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs côté serveur du portail simulé : volume par méthode et par statut,
+ * latence de service (latence injectée comprise).
+ */
+public final class PortalStats {
+
+    private final AtomicLong headRequests = new AtomicLong();
+    private final AtomicLong getRequests = new AtomicLong();
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final LatencyRecorder headLatency = new LatencyRecorder();
+    private final LatencyRecorder downloadLatency = new LatencyRecorder();
+
+    void onResponse(boolean download, int status, long bytes, long nanos) {
+        (download ? getRequests : headRequests).incrementAndGet();
+        switch (status) {
+            case 200 -> ok.incrementAndGet();
+            case 404 -> notFound.incrementAndGet();
+            case 429 -> rateLimited.incrementAndGet();
+            default -> { }
+        }
+        bytesServed.addAndGet(bytes);
+        (download ? downloadLatency : headLatency).record(nanos);
+    }
+
+    public void reset() {
+        headRequests.set(0);
+        getRequests.set(0);
+        ok.set(0);
+        notFound.set(0);
+        rateLimited.set(0);
+        bytesServed.set(0);
+        headLatency.reset();
+        downloadLatency.reset();
+    }
+
+    public long getHeadRequests() {
+        return headRequests.get();
+    }
+
+    public long getGetRequests() {
+        return getRequests.get();
+    }
+
+    public long getTotalRequests() {
+        return headRequests.get() + getRequests.get();
+    }
+
+    public long getOk() {
+        return ok.get();
+    }
+
+    public long getNotFound() {
+        return notFound.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    public LatencyRecorder getHeadLatency() {
+        return headLatency;
+    }
+
+    public LatencyRecorder getDownloadLatency() {
+        return downloadLatency;
+    }
+}
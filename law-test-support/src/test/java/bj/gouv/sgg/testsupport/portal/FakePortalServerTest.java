@@ -0,0 +1,91 @@
+package bj.gouv.sgg.testsupport.portal;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakePortalServerTest {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @Test
+    void givenPaddedDocument_whenHeadBothForms_thenOnlyPaddedFormFound() throws Exception {
+        // Given - tous les numéros < 10 publiés uniquement sous la forme "-0N"
+        FakePortalConfig config = FakePortalConfig.builder()
+                .notFoundRatio(0.0)
+                .paddedRatio(1.0)
+                .maxNumberPerYear(20)
+                .build();
+
+        try (FakePortalServer portal = new FakePortalServer(config).start()) {
+            // When / Then
+            assertThat(head(portal, "loi-2024-3")).isEqualTo(404);
+            assertThat(head(portal, "loi-2024-03")).isEqualTo(200);
+            assertThat(head(portal, "loi-2024-15")).isEqualTo(200);
+            assertThat(head(portal, "loi-2024-21")).isEqualTo(404); // Au-delà de la fin d'année
+            assertThat(portal.countPublished("loi", 2024)).isEqualTo(20);
+            assertThat(portal.getStats().getHeadRequests()).isEqualTo(4);
+            assertThat(portal.getStats().getNotFound()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void givenRateLimitBursts_whenRequests_thenBurstOf429EveryN() throws Exception {
+        // Given - toutes les 5 requêtes, 2 réponses 429
+        FakePortalConfig config = FakePortalConfig.builder()
+                .notFoundRatio(0.0)
+                .rateLimitEvery(5)
+                .rateLimitBurst(2)
+                .headLatency(LatencyDistribution.fixed(Duration.ofMillis(1)))
+                .build();
+
+        try (FakePortalServer portal = new FakePortalServer(config).start()) {
+            // When
+            int[] codes = new int[10];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = head(portal, "decret-2023-" + (20 + i));
+            }
+
+            // Then - requêtes 5, 6 et 10 limitées
+            assertThat(codes).containsExactly(200, 200, 200, 200, 429, 429, 200, 200, 200, 429);
+            assertThat(portal.getStats().getRateLimited()).isEqualTo(3);
+            assertThat(portal.getStats().getHeadLatency().snapshot().percentileNanos(50))
+                    .isGreaterThanOrEqualTo(Duration.ofMillis(1).toNanos());
+        }
+    }
+
+    @Test
+    void givenPublishedDocument_whenDownload_thenPdfServed() throws Exception {
+        // Given
+        FakePortalConfig config = FakePortalConfig.builder().notFoundRatio(0.0).build();
+
+        try (FakePortalServer portal = new FakePortalServer(config).start()) {
+            // When
+            HttpResponse<byte[]> response = client.send(
+                    HttpRequest.newBuilder(URI.create(portal.getBaseUrl() + "/loi-2024-42/download")).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+
+            // Then
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(new String(response.body(), 0, 5, StandardCharsets.US_ASCII)).isEqualTo("%PDF-");
+            assertThat(portal.getStats().getBytesServed()).isEqualTo(response.body().length);
+        }
+    }
+
+    private int head(FakePortalServer portal, String documentId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(portal.getBaseUrl() + "/" + documentId))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,7 +1,6 @@
 package bj.gouv.sgg.ai.chunking;
 
 import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -19,65 +18,77 @@ import java.util.List;
  *   <li>Métadonnées copiées dans chaque chunk</li>
  *   <li>Recombine en fusionnant arrays</li>
  * </ul>
+ * 
+ * <p><b>Coût</b> : chaque article est sérialisé une seule fois, les tailles sont cumulées
+ * arithmétiquement (coût linéaire en nombre d'articles).
  */
 @Component
 @Slf4j
 public class JsonChunker implements ChunkingService<JsonObject> {
     
     private static final String ARTICLES_KEY = "articles";
+    private static final int ARTICLES_FIELD_OVERHEAD = "\"articles\":[]".length();
     
     @Override
     public List<JsonObject> chunk(JsonObject content, int maxChunkSize, int overlap) {
-        if (!needsChunking(content, maxChunkSize)) {
+        if (content == null || !content.has(ARTICLES_KEY) || !content.get(ARTICLES_KEY).isJsonArray()) {
+            if (needsChunking(content, maxChunkSize)) {
+                log.warn("⚠️ JSON sans array 'articles', chunking impossible");
+            }
             return List.of(content);
         }
         
-        log.debug("📦 Chunking JSON: {} chars → max {} chars/chunk", 
-                content.toString().length(), maxChunkSize);
-        
-        List<JsonObject> chunks = new ArrayList<>();
-        
         // Extrait métadonnées (conservées dans chaque chunk)
         JsonObject metadata = new JsonObject();
         content.entrySet().stream()
                 .filter(e -> !e.getKey().equals(ARTICLES_KEY))
                 .forEach(e -> metadata.add(e.getKey(), e.getValue()));
+        int metadataSize = metadata.toString().length();
         
-        // Extrait articles
-        if (!content.has(ARTICLES_KEY) || !content.get(ARTICLES_KEY).isJsonArray()) {
-            log.warn("⚠️ JSON sans array 'articles', chunking impossible");
+        // Chaque article est sérialisé une seule fois ; les tailles sont ensuite cumulées
+        JsonArray allArticles = content.getAsJsonArray(ARTICLES_KEY);
+        int[] articleSizes = new int[allArticles.size()];
+        long articlesSize = 0;
+        for (int i = 0; i < articleSizes.length; i++) {
+            articleSizes[i] = allArticles.get(i).toString().length();
+            articlesSize += articleSizes[i];
+        }
+        
+        long totalSize = serializedSize(metadata, metadataSize, articleSizes.length, articlesSize);
+        if (totalSize <= maxChunkSize) {
             return List.of(content);
         }
         
-        JsonArray allArticles = content.getAsJsonArray(ARTICLES_KEY);
+        log.debug("📦 Chunking JSON: {} chars → max {} chars/chunk", totalSize, maxChunkSize);
+        
+        List<JsonObject> chunks = new ArrayList<>();
         
-        // Découpage par taille estimée
-        JsonObject currentChunk = createChunkWithMetadata(metadata);
+        // Découpage par taille exacte : métadonnées + "articles":[] + articles + virgules séparatrices
+        long emptyChunkSize = metadataSize + ARTICLES_FIELD_OVERHEAD + (metadata.size() > 0 ? 1 : 0);
         JsonArray currentArticles = new JsonArray();
-        int currentSize = metadata.toString().length();
+        long currentSize = emptyChunkSize;
         
-        for (JsonElement article : allArticles) {
-            int articleSize = article.toString().length();
+        for (int i = 0; i < articleSizes.length; i++) {
+            int articleSize = articleSizes[i];
+            int separator = currentArticles.size() > 0 ? 1 : 0;
             
-            if (currentSize + articleSize > maxChunkSize && currentArticles.size() > 0) {
+            if (currentSize + separator + articleSize > maxChunkSize && currentArticles.size() > 0) {
                 // Flush chunk actuel
-                currentChunk.add(ARTICLES_KEY, currentArticles);
-                chunks.add(currentChunk);
+                chunks.add(createChunk(metadata, currentArticles));
                 
                 // Nouveau chunk
-                currentChunk = createChunkWithMetadata(metadata);
                 currentArticles = new JsonArray();
-                currentSize = metadata.toString().length();
+                currentSize = emptyChunkSize;
+                separator = 0;
             }
             
-            currentArticles.add(article);
-            currentSize += articleSize;
+            currentArticles.add(allArticles.get(i));
+            currentSize += separator + articleSize;
         }
         
         // Flush dernier chunk
         if (currentArticles.size() > 0) {
-            currentChunk.add(ARTICLES_KEY, currentArticles);
-            chunks.add(currentChunk);
+            chunks.add(createChunk(metadata, currentArticles));
         }
         
         log.info("✅ JSON chunked: {} articles → {} chunks", allArticles.size(), chunks.size());
@@ -130,9 +141,19 @@ public class JsonChunker implements ChunkingService<JsonObject> {
     
     // ==================== Méthodes privées ====================
     
-    private JsonObject createChunkWithMetadata(JsonObject metadata) {
+    private JsonObject createChunk(JsonObject metadata, JsonArray articles) {
         JsonObject chunk = new JsonObject();
         metadata.entrySet().forEach(e -> chunk.add(e.getKey(), e.getValue()));
+        chunk.add(ARTICLES_KEY, articles);
         return chunk;
     }
+    
+    /**
+     * Taille exacte de {@code content.toString()} calculée sans re-sérialiser :
+     * métadonnées + {@code "articles":[...]} + virgules séparatrices.
+     */
+    private long serializedSize(JsonObject metadata, int metadataSize, int articleCount, long articlesSize) {
+        long size = metadataSize + ARTICLES_FIELD_OVERHEAD + articlesSize + Math.max(0, articleCount - 1);
+        return metadata.size() > 0 ? size + 1 : size; // Virgule entre métadonnées et articles
+    }
 }
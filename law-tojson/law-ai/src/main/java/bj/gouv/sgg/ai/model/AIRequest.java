@@ -47,6 +47,14 @@ public class AIRequest {
     @Builder.Default
     boolean stream = false;
     
+    /**
+     * Indique que la réponse attendue est un objet JSON : en streaming, la génération
+     * s'arrête dès qu'un objet complet et valide est reçu, et un JSON partiel est récupéré
+     * en cas de timeout.
+     */
+    @Builder.Default
+    boolean expectJson = false;
+    
     /**
      * Options additionnelles spécifiques au provider.
      */
@@ -0,0 +1,34 @@
+package bj.gouv.sgg.ai.provider;
+
+import okhttp3.OkHttpClient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clients HTTP partagés des providers IA.
+ *
+ * <p>Un seul {@link OkHttpClient} de base (pool de connexions + dispatcher) est créé au
+ * chargement de la classe ; chaque provider en dérive son client via {@code newBuilder()}
+ * avec ses propres timeouts. Les clients OkHttp sont immuables et thread-safe : ils sont
+ * construits une fois, à la création du bean, et partagés par tous les threads.
+ */
+public final class AiHttpClients {
+
+    private static final OkHttpClient BASE = new OkHttpClient();
+
+    private AiHttpClients() {
+    }
+
+    /**
+     * Client partageant le pool de connexions commun, avec des timeouts connexion/lecture/écriture identiques.
+     *
+     * @param timeoutSeconds Timeout appliqué à la connexion, à la lecture et à l'écriture
+     */
+    public static OkHttpClient withTimeout(int timeoutSeconds) {
+        return BASE.newBuilder()
+                .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+}
@@ -2,9 +2,11 @@ package bj.gouv.sgg.ai.provider.impl;
 
 import bj.gouv.sgg.ai.model.AIRequest;
 import bj.gouv.sgg.ai.model.AIResponse;
+import bj.gouv.sgg.ai.provider.AiHttpClients;
 import bj.gouv.sgg.ai.provider.IAProvider;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.exception.IAException;
+import bj.gouv.sgg.metrics.LawMetrics;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +18,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Implémentation IAProvider pour Groq Cloud API.
@@ -47,18 +48,8 @@ public class GroqProvider implements IAProvider {
     
     private final LawProperties properties;
     private final Gson gson;
-    private OkHttpClient client;
-
-    private OkHttpClient getClient() {
-        if (client == null) {
-            client = new OkHttpClient.Builder()
-                    .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .writeTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .build();
-        }
-        return client;
-    }
+    private final LawMetrics metrics;
+    private final OkHttpClient client = AiHttpClients.withTimeout(TIMEOUT_SECONDS);
 
     @Override
     public String getProviderName() {
@@ -94,6 +85,18 @@ public class GroqProvider implements IAProvider {
 
     @Override
     public AIResponse complete(AIRequest request) throws IAException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            AIResponse response = doComplete(request);
+            outcome = "success";
+            return response;
+        } finally {
+            metrics.recordAiCall("groq", request.getModel(), outcome, System.nanoTime() - start);
+        }
+    }
+
+    private AIResponse doComplete(AIRequest request) throws IAException {
         String apiKey = properties.getGroq().getApiKey();
         
         if (apiKey == null || apiKey.isBlank()) {
@@ -108,7 +111,7 @@ public class GroqProvider implements IAProvider {
             requestBody.addProperty("model", request.getModel());
             requestBody.addProperty("temperature", request.getTemperature());
             requestBody.addProperty("max_tokens", request.getMaxTokens());
-            requestBody.addProperty("stream", request.isStream());
+            requestBody.addProperty("stream", false); // Réponse lue en un bloc (SSE non géré par ce provider)
             
             // Messages format
             com.google.gson.JsonArray messages = new com.google.gson.JsonArray();
@@ -155,7 +158,7 @@ public class GroqProvider implements IAProvider {
                     .post(body)
                     .build();
             
-            try (Response response = getClient().newCall(httpRequest).execute()) {
+            try (Response response = client.newCall(httpRequest).execute()) {
                 if (!response.isSuccessful()) {
                     String errorBody = response.body() != null ? response.body().string() : "";
                     throw new IAException("Groq API failed: HTTP " + response.code() + " - " + errorBody);
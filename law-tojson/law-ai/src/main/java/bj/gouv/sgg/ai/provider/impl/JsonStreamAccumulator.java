@@ -0,0 +1,195 @@
+package bj.gouv.sgg.ai.provider.impl;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Accumulateur incrémental d'une génération JSON reçue en streaming.
+ *
+ * <p><b>Principe</b> :
+ * <ul>
+ *   <li>Chaque fragment est analysé une seule fois (chaînes et échappements pris en compte)</li>
+ *   <li>Le texte avant la première accolade (prose, bloc markdown) est ignoré</li>
+ *   <li>{@link #isComplete()} devient vrai dès que l'objet racine est refermé et valide :
+ *       la génération peut alors être interrompue</li>
+ *   <li>{@link #salvage()} reconstruit un JSON valide à partir d'une génération interrompue
+ *       (timeout) : coupe après le dernier article complet du tableau racine {@code "articles"}
+ *       et referme les conteneurs ouverts</li>
+ * </ul>
+ *
+ * <p>Non thread-safe : un accumulateur par génération.
+ */
+public final class JsonStreamAccumulator {
+
+    private static final String ARTICLES_KEY = "articles";
+
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder openContainers = new StringBuilder(); // Pile des '{' / '[' ouverts
+
+    private int jsonStart = -1;
+    private int jsonEnd = -1;
+    private boolean inString;
+    private boolean escaped;
+    private boolean complete;
+
+    // Dernière chaîne lue au niveau racine (clé du membre en cours) et tableau "articles" ouvert
+    private int stringStart = -1;
+    private String lastRootString;
+    private boolean inArticles;
+
+    // Dernier point de coupe sûr : fin d'un élément complet, avec la pile à cet instant
+    private int safeCut = -1;
+    private String safeContainers = "";
+
+    /**
+     * Ajoute un fragment généré.
+     *
+     * @return true si un objet JSON complet et valide est désormais disponible
+     */
+    public boolean append(String fragment) {
+        if (fragment == null || fragment.isEmpty() || complete) {
+            return complete;
+        }
+        int offset = text.length();
+        text.append(fragment);
+
+        for (int i = offset; i < text.length() && !complete; i++) {
+            scan(text.charAt(i), i);
+        }
+        return complete;
+    }
+
+    private void scan(char c, int index) {
+        if (jsonStart < 0) {
+            if (c == '{') {
+                jsonStart = index;
+                openContainers.append(c);
+            }
+            return;
+        }
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (openContainers.length() == 1) {
+                    lastRootString = text.substring(stringStart + 1, index);
+                }
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                stringStart = index;
+            }
+            case '{', '[' -> openContainer(c);
+            case '}', ']' -> closeContainer(index);
+            case ',' -> markSafeCut(index);
+            default -> { }
+        }
+    }
+
+    private void openContainer(char c) {
+        if (openContainers.length() == 1) {
+            inArticles = c == '[' && ARTICLES_KEY.equals(lastRootString);
+        }
+        openContainers.append(c);
+    }
+
+    private void closeContainer(int index) {
+        if (openContainers.length() == 0) {
+            return;
+        }
+        openContainers.setLength(openContainers.length() - 1);
+        if (openContainers.length() == 1) {
+            inArticles = false; // Valeur racine refermée (dont le tableau "articles")
+        }
+        if (openContainers.length() > 0) {
+            markSafeCut(index + 1);
+            return;
+        }
+        // Objet racine refermé : vérifier qu'il est valide avant d'annoncer la complétude
+        String candidate = text.substring(jsonStart, index + 1);
+        if (isValidJson(candidate)) {
+            jsonEnd = index + 1;
+            complete = true;
+        } else {
+            // Accolade parasite (texte non JSON) : repartir sur la prochaine accolade ouvrante
+            jsonStart = -1;
+            safeCut = -1;
+            safeContainers = "";
+            lastRootString = null;
+        }
+    }
+
+    /**
+     * Enregistre un point de coupe uniquement entre deux articles du tableau racine
+     * {@code "articles"} (profondeur 2) : un article à moitié généré est écarté plutôt que
+     * conservé incomplet, et aucun tableau imbriqué dans un article n'est tronqué.
+     */
+    private void markSafeCut(int cut) {
+        if (openContainers.length() == 2 && inArticles) {
+            safeCut = cut;
+            safeContainers = openContainers.toString();
+        }
+    }
+
+    /**
+     * Indique si un objet JSON complet et valide a été reçu.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Retourne l'objet JSON complet (sans texte parasite autour), ou null si incomplet.
+     */
+    public String completedJson() {
+        return complete ? text.substring(jsonStart, jsonEnd) : null;
+    }
+
+    /**
+     * Reconstruit un JSON valide à partir d'une génération interrompue.
+     *
+     * @return JSON partiel valide, ou null si rien n'est récupérable
+     */
+    public String salvage() {
+        if (complete) {
+            return completedJson();
+        }
+        if (jsonStart < 0 || safeCut <= jsonStart) {
+            return null;
+        }
+        StringBuilder salvaged = new StringBuilder(text.substring(jsonStart, safeCut));
+        for (int i = safeContainers.length() - 1; i >= 0; i--) {
+            salvaged.append(safeContainers.charAt(i) == '{' ? '}' : ']');
+        }
+        String candidate = salvaged.toString();
+        return isValidJson(candidate) ? candidate : null;
+    }
+
+    /**
+     * Texte brut reçu jusqu'ici.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Nombre de caractères reçus.
+     */
+    public int length() {
+        return text.length();
+    }
+
+    private static boolean isValidJson(String candidate) {
+        try {
+            return JsonParser.parseString(candidate).isJsonObject();
+        } catch (JsonParseException e) {
+            return false;
+        }
+    }
+}
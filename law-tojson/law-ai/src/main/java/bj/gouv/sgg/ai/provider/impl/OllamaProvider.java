@@ -2,19 +2,24 @@ package bj.gouv.sgg.ai.provider.impl;
 
 import bj.gouv.sgg.ai.model.AIRequest;
 import bj.gouv.sgg.ai.model.AIResponse;
+import bj.gouv.sgg.ai.provider.AiHttpClients;
 import bj.gouv.sgg.ai.provider.IAProvider;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.exception.IAException;
+import bj.gouv.sgg.metrics.LawMetrics;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import okio.BufferedSource;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -42,23 +47,13 @@ public class OllamaProvider implements IAProvider {
 
     private static final String OLLAMA_GENERATE_ENDPOINT = "/api/generate";
     private static final String OLLAMA_TAGS_ENDPOINT = "/api/tags";
+    private static final long GENERATION_TIMEOUT_SECONDS = 300; // 5 minutes
     private static final MediaType JSON_MEDIA_TYPE = MediaType.get("application/json; charset=utf-8");
     
     private final LawProperties properties;
     private final Gson gson;
-    private OkHttpClient client;
-
-    private OkHttpClient getClient() {
-        if (client == null) {
-            int timeout = 300; // 5 minutes
-            client = new OkHttpClient.Builder()
-                    .connectTimeout(timeout, TimeUnit.SECONDS)
-                    .readTimeout(timeout, TimeUnit.SECONDS)
-                    .writeTimeout(timeout, TimeUnit.SECONDS)
-                    .build();
-        }
-        return client;
-    }
+    private final LawMetrics metrics;
+    private final OkHttpClient client = AiHttpClients.withTimeout((int) GENERATION_TIMEOUT_SECONDS);
 
     @Override
     public String getProviderName() {
@@ -71,7 +66,7 @@ public class OllamaProvider implements IAProvider {
             String url = properties.getCapacity().getOllamaUrl() + OLLAMA_TAGS_ENDPOINT;
             Request request = new Request.Builder().url(url).get().build();
             
-            try (Response response = getClient().newCall(request).execute()) {
+            try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     return false;
                 }
@@ -95,38 +90,28 @@ public class OllamaProvider implements IAProvider {
 
     @Override
     public AIResponse complete(AIRequest request) throws IAException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            AIResponse response = doComplete(request);
+            outcome = "success";
+            return response;
+        } finally {
+            metrics.recordAiCall("ollama", request.getModel(), outcome, System.nanoTime() - start);
+        }
+    }
+
+    private AIResponse doComplete(AIRequest request) throws IAException {
         long startTime = System.currentTimeMillis();
         
         try {
-            String ollamaUrl = properties.getCapacity().getOllamaUrl();
-            
-            // Construire requête JSON
-            JsonObject requestBody = new JsonObject();
-            requestBody.addProperty("model", request.getModel());
-            requestBody.addProperty("prompt", request.getPrompt());
-            requestBody.addProperty("stream", request.isStream());
+            Request httpRequest = buildGenerateRequest(request);
             
-            // Options
-            JsonObject options = new JsonObject();
-            options.addProperty("temperature", request.getTemperature());
-            options.addProperty("num_predict", request.getMaxTokens());
-            requestBody.add("options", options);
-            
-            // Images si présentes (vision)
-            if (!request.getImagesBase64().isEmpty()) {
-                com.google.gson.JsonArray images = new com.google.gson.JsonArray();
-                request.getImagesBase64().forEach(images::add);
-                requestBody.add("images", images);
+            if (request.isStream()) {
+                return completeStreaming(request, httpRequest, startTime);
             }
             
-            // Envoyer requête
-            RequestBody body = RequestBody.create(requestBody.toString(), JSON_MEDIA_TYPE);
-            Request httpRequest = new Request.Builder()
-                    .url(ollamaUrl + OLLAMA_GENERATE_ENDPOINT)
-                    .post(body)
-                    .build();
-            
-            try (Response response = getClient().newCall(httpRequest).execute()) {
+            try (Response response = client.newCall(httpRequest).execute()) {
                 if (!response.isSuccessful()) {
                     throw new IAException("Ollama request failed: HTTP " + response.code());
                 }
@@ -161,6 +146,121 @@ public class OllamaProvider implements IAProvider {
         }
     }
 
+    /**
+     * Construit la requête /api/generate.
+     */
+    private Request buildGenerateRequest(AIRequest request) {
+        String ollamaUrl = properties.getCapacity().getOllamaUrl();
+        
+        // Construire requête JSON
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", request.getModel());
+        requestBody.addProperty("prompt", request.getPrompt());
+        requestBody.addProperty("stream", request.isStream());
+        
+        // Options
+        JsonObject options = new JsonObject();
+        options.addProperty("temperature", request.getTemperature());
+        options.addProperty("num_predict", request.getMaxTokens());
+        requestBody.add("options", options);
+        
+        // Images si présentes (vision)
+        if (!request.getImagesBase64().isEmpty()) {
+            com.google.gson.JsonArray images = new com.google.gson.JsonArray();
+            request.getImagesBase64().forEach(images::add);
+            requestBody.add("images", images);
+        }
+        
+        RequestBody body = RequestBody.create(requestBody.toString(), JSON_MEDIA_TYPE);
+        return new Request.Builder()
+                .url(ollamaUrl + OLLAMA_GENERATE_ENDPOINT)
+                .post(body)
+                .build();
+    }
+
+    /**
+     * Génération en streaming (une ligne NDJSON par fragment).
+     * 
+     * <p>Si la requête attend du JSON ({@link AIRequest#isExpectJson()}) :
+     * <ul>
+     *   <li>Arrêt anticipé dès qu'un objet JSON complet et valide est reçu (l'appel est
+     *       annulé, Ollama cesse de générer)</li>
+     *   <li>Sur timeout, le JSON partiel est récupéré ({@link JsonStreamAccumulator#salvage()})
+     *       et la réponse est marquée {@code truncated}</li>
+     * </ul>
+     */
+    private AIResponse completeStreaming(AIRequest request, Request httpRequest, long startTime) throws IOException {
+        Call call = client.newCall(httpRequest);
+        call.timeout().timeout(GENERATION_TIMEOUT_SECONDS, TimeUnit.SECONDS); // Durée totale de génération
+        
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+        StringBuilder rawText = new StringBuilder();
+        int tokensUsed = 0;
+        boolean earlyStop = false;
+        
+        try (Response response = call.execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IAException("Ollama request failed: HTTP " + response.code());
+            }
+            
+            BufferedSource source = response.body().source();
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonObject fragment = gson.fromJson(line, JsonObject.class);
+                if (fragment.has("error")) {
+                    throw new IAException("Ollama generation failed: " + fragment.get("error").getAsString());
+                }
+                String token = fragment.has("response") ? fragment.get("response").getAsString() : "";
+                rawText.append(token);
+                
+                if (fragment.has("done") && fragment.get("done").getAsBoolean()) {
+                    if (fragment.has("eval_count")) {
+                        tokensUsed = fragment.get("eval_count").getAsInt();
+                    }
+                    accumulator.append(token);
+                    break;
+                }
+                if (request.isExpectJson() && accumulator.append(token)) {
+                    earlyStop = true;
+                    call.cancel();
+                    log.debug("⏹️ Ollama: JSON complet reçu après {} caractères, génération arrêtée",
+                             accumulator.length());
+                    break;
+                }
+            }
+        } catch (InterruptedIOException e) {
+            String salvaged = request.isExpectJson() ? accumulator.salvage() : null;
+            if (salvaged == null) {
+                throw new IAException("Ollama generation timed out after " + GENERATION_TIMEOUT_SECONDS + "s", e);
+            }
+            log.warn("⚠️ Ollama timeout après {} caractères : JSON partiel récupéré ({} caractères)",
+                     rawText.length(), salvaged.length());
+            return AIResponse.builder()
+                    .generatedText(salvaged)
+                    .model(request.getModel())
+                    .provider(getProviderName())
+                    .processingTimeMs(System.currentTimeMillis() - startTime)
+                    .truncated(true)
+                    .metadata(Map.of("streamed", true, "salvaged", true))
+                    .build();
+        }
+        
+        String generatedText = request.isExpectJson() && accumulator.isComplete()
+                ? accumulator.completedJson()
+                : rawText.toString();
+        return AIResponse.builder()
+                .generatedText(generatedText)
+                .model(request.getModel())
+                .provider(getProviderName())
+                .tokensUsed(tokensUsed)
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .metadata(Map.of("streamed", true, "earlyStop", earlyStop))
+                .build();
+    }
+
     @Override
     public ProviderCapabilities getCapabilities() {
         // Ollama supporte vision avec certains modèles (llava, bakllava, etc.)
@@ -182,7 +282,7 @@ public class OllamaProvider implements IAProvider {
             String url = properties.getCapacity().getOllamaUrl() + OLLAMA_TAGS_ENDPOINT;
             Request request = new Request.Builder().url(url).get().build();
             
-            try (Response response = getClient().newCall(request).execute()) {
+            try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     return models;
                 }
@@ -2,8 +2,10 @@ package bj.gouv.sgg.ai.service;
 
 import bj.gouv.sgg.exception.IAException;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +13,8 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -31,6 +35,9 @@ import java.util.List;
  *   <li>Compression JPEG à 85% pour réduire taille</li>
  *   <li>Limitation nombre de pages pour éviter dépassement contexte</li>
  *   <li>Estimation taille base64 avant conversion</li>
+ *   <li>Une {@link RenderingSession} charge le PDF une seule fois (cache disque pour les gros scans)
+ *       pour le comptage, l'estimation et le rendu des seules pages demandées</li>
+ *   <li>JPEG encodé directement dans le flux base64 (pas de tableau d'octets intermédiaire)</li>
  * </ul>
  */
 @Service
@@ -39,6 +46,25 @@ public class PdfToImageService {
 
     private static final int DEFAULT_DPI = 150;
     private static final int MAX_PAGES_PER_REQUEST = 10;
+    private static final double BASE_SIZE_PER_PAGE_MB = 0.5; // ~500KB par page en base64 à 150 DPI
+    
+    /**
+     * Ouvre une session de rendu : le PDF est chargé une seule fois et libéré à la fermeture.
+     * 
+     * @param pdfPath Chemin vers fichier PDF
+     * @return Session à fermer (try-with-resources)
+     * @throws IAException Si le fichier est absent ou illisible
+     */
+    public RenderingSession openSession(Path pdfPath) throws IAException {
+        if (!Files.exists(pdfPath)) {
+            throw new IAException("PDF file not found: " + pdfPath);
+        }
+        try {
+            return new RenderingSession(pdfPath, Loader.loadPDF(pdfPath.toFile(), IOUtils.createTempFileOnlyStreamCache()));
+        } catch (IOException e) {
+            throw new IAException("Failed to load PDF: " + pdfPath, e);
+        }
+    }
     
     /**
      * Convertit un PDF en liste d'images base64.
@@ -64,53 +90,8 @@ public class PdfToImageService {
      * @throws IAException Si conversion échoue
      */
     public List<String> convertToBase64Images(Path pdfPath, int dpi, int maxPages) throws IAException {
-        if (!Files.exists(pdfPath)) {
-            throw new IAException("PDF file not found: " + pdfPath);
-        }
-        
-        List<String> base64Images = new ArrayList<>();
-        
-        try (PDDocument document = Loader.loadPDF(pdfPath.toFile())) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            int totalPages = document.getNumberOfPages();
-            int pagesToProcess = Math.min(totalPages, maxPages);
-            
-            log.info("📄 Converting PDF to images: {} pages (max: {})", pagesToProcess, maxPages);
-            
-            for (int pageIndex = 0; pageIndex < pagesToProcess; pageIndex++) {
-                BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi);
-                String base64 = imageToBase64(image);
-                base64Images.add(base64);
-                
-                log.debug("✅ Page {}/{} converted ({} KB)", 
-                         pageIndex + 1, pagesToProcess, base64.length() / 1024);
-            }
-            
-            if (totalPages > maxPages) {
-                log.warn("⚠️ PDF has {} pages but only {} converted (limit reached)", 
-                        totalPages, maxPages);
-            }
-            
-            return base64Images;
-            
-        } catch (IOException e) {
-            throw new IAException("Failed to convert PDF to images: " + pdfPath, e);
-        }
-    }
-    
-    /**
-     * Convertit une image en base64 JPEG.
-     * 
-     * @param image Image à convertir
-     * @return String base64
-     * @throws IOException Si conversion échoue
-     */
-    private String imageToBase64(BufferedImage image) throws IOException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            // Convertir en JPEG avec compression
-            ImageIO.write(image, "JPEG", baos);
-            byte[] imageBytes = baos.toByteArray();
-            return Base64.getEncoder().encodeToString(imageBytes);
+        try (RenderingSession session = openSession(pdfPath)) {
+            return session.renderFirstPages(dpi, maxPages);
         }
     }
     
@@ -118,6 +99,7 @@ public class PdfToImageService {
      * Estime la taille totale en MB des images base64 qui seront générées.
      * 
      * <p>Utile pour vérifier si PDF dépasse limites du modèle avant conversion.
+     * Préférer {@link RenderingSession#estimateSizeMB} si le PDF est ensuite rendu.
      * 
      * @param pdfPath Chemin vers PDF
      * @param dpi Résolution prévue
@@ -125,18 +107,11 @@ public class PdfToImageService {
      * @return Taille estimée en MB
      */
     public double estimateSizeMB(Path pdfPath, int dpi, int maxPages) {
-        try (PDDocument document = Loader.loadPDF(pdfPath.toFile())) {
-            int pages = Math.min(document.getNumberOfPages(), maxPages);
-            
-            // Estimation empirique : ~500KB par page en base64 à 150 DPI
-            double baseSizePerPage = 0.5; // MB
-            double dpiMultiplier = Math.pow((double) dpi / 150, 2);
-            
-            return pages * baseSizePerPage * dpiMultiplier;
-            
-        } catch (IOException e) {
+        try (RenderingSession session = openSession(pdfPath)) {
+            return session.estimateSizeMB(dpi, maxPages);
+        } catch (IAException e) {
             log.warn("Failed to estimate PDF size: {}", e.getMessage());
-            return maxPages * 0.5; // Estimation par défaut
+            return maxPages * BASE_SIZE_PER_PAGE_MB; // Estimation par défaut
         }
     }
     
@@ -148,10 +123,125 @@ public class PdfToImageService {
      * @throws IAException Si lecture échoue
      */
     public int countPages(Path pdfPath) throws IAException {
-        try (PDDocument document = Loader.loadPDF(pdfPath.toFile())) {
+        try (RenderingSession session = openSession(pdfPath)) {
+            return session.getPageCount();
+        }
+    }
+    
+    /**
+     * Session de rendu d'un PDF chargé une seule fois.
+     * 
+     * <p>Non thread-safe : une session par requête vision.
+     */
+    public static final class RenderingSession implements AutoCloseable {
+        
+        private final Path pdfPath;
+        private final PDDocument document;
+        private final PDFRenderer renderer;
+        
+        private RenderingSession(Path pdfPath, PDDocument document) {
+            this.pdfPath = pdfPath;
+            this.document = document;
+            this.renderer = new PDFRenderer(document);
+        }
+        
+        /**
+         * Nombre de pages du PDF.
+         */
+        public int getPageCount() {
             return document.getNumberOfPages();
-        } catch (IOException e) {
-            throw new IAException("Failed to count PDF pages: " + pdfPath, e);
         }
+        
+        /**
+         * Estime la taille en MB des images base64 des {@code maxPages} premières pages.
+         */
+        public double estimateSizeMB(int dpi, int maxPages) {
+            int pages = Math.min(getPageCount(), maxPages);
+            double dpiMultiplier = Math.pow((double) dpi / 150, 2);
+            return pages * BASE_SIZE_PER_PAGE_MB * dpiMultiplier;
+        }
+        
+        /**
+         * Rend les premières pages (au plus {@code maxPages}, plafonné à 10).
+         */
+        public List<String> renderFirstPages(int dpi, int maxPages) throws IAException {
+            int totalPages = getPageCount();
+            int limit = Math.min(maxPages, MAX_PAGES_PER_REQUEST);
+            int pagesToProcess = Math.min(totalPages, limit);
+            
+            log.info("📄 Converting PDF to images: {} pages (max: {})", pagesToProcess, limit);
+            List<Integer> pageIndexes = new ArrayList<>(pagesToProcess);
+            for (int pageIndex = 0; pageIndex < pagesToProcess; pageIndex++) {
+                pageIndexes.add(pageIndex);
+            }
+            
+            List<String> base64Images = renderPages(pageIndexes, dpi);
+            if (totalPages > limit) {
+                log.warn("⚠️ PDF has {} pages but only {} converted (limit reached)", totalPages, limit);
+            }
+            return base64Images;
+        }
+        
+        /**
+         * Rend uniquement les pages demandées (index 0-based), plafonnées à 10 par requête.
+         * 
+         * @param pageIndexes Pages à rendre (les index hors document sont ignorés)
+         * @param dpi Résolution des images
+         * @return Images base64 JPEG, dans l'ordre demandé
+         * @throws IAException Si le rendu échoue
+         */
+        public List<String> renderPages(List<Integer> pageIndexes, int dpi) throws IAException {
+            int totalPages = getPageCount();
+            List<String> base64Images = new ArrayList<>(Math.min(pageIndexes.size(), MAX_PAGES_PER_REQUEST));
+            
+            for (int pageIndex : pageIndexes) {
+                if (base64Images.size() >= MAX_PAGES_PER_REQUEST) {
+                    log.warn("⚠️ {} pages requested, only {} rendered (limit reached)",
+                            pageIndexes.size(), MAX_PAGES_PER_REQUEST);
+                    break;
+                }
+                if (pageIndex < 0 || pageIndex >= totalPages) {
+                    continue;
+                }
+                try {
+                    BufferedImage image = renderer.renderImageWithDPI(pageIndex, dpi, ImageType.RGB);
+                    String base64 = imageToBase64(image);
+                    image.flush();
+                    base64Images.add(base64);
+                    
+                    log.debug("✅ Page {}/{} converted ({} KB)", 
+                             pageIndex + 1, totalPages, base64.length() / 1024);
+                } catch (IOException e) {
+                    throw new IAException("Failed to convert PDF to images: " + pdfPath, e);
+                }
+            }
+            return base64Images;
+        }
+        
+        @Override
+        public void close() throws IAException {
+            try {
+                document.close();
+            } catch (IOException e) {
+                throw new IAException("Failed to close PDF: " + pdfPath, e);
+            }
+        }
+    }
+    
+    /**
+     * Convertit une image en base64 JPEG : le JPEG est encodé directement dans le flux base64.
+     * 
+     * @param image Image à convertir
+     * @return String base64
+     * @throws IOException Si conversion échoue
+     */
+    private static String imageToBase64(BufferedImage image) throws IOException {
+        ByteArrayOutputStream base64Bytes = new ByteArrayOutputStream();
+        try (OutputStream base64 = Base64.getEncoder().wrap(base64Bytes)) {
+            if (!ImageIO.write(image, "JPEG", base64)) {
+                throw new IOException("No JPEG writer available");
+            }
+        }
+        return base64Bytes.toString(StandardCharsets.US_ASCII);
     }
 }
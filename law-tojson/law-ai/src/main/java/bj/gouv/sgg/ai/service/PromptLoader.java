@@ -1,12 +1,17 @@
 package bj.gouv.sgg.ai.service;
 
+import bj.gouv.sgg.exception.PromptLoadException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,39 +28,71 @@ import java.util.Map;
  *   <li>pdf-to-ocr.txt : Extraction texte depuis images PDF</li>
  *   <li>pdf-to-json.txt : Extraction JSON directe depuis images PDF</li>
  * </ul>
+ * 
+ * <p><b>Concurrence</b> : tous les prompts sont chargés au démarrage et précompilés
+ * ({@link PromptTemplate}) dans une map immuable, republiée en bloc par {@link #reloadAll()}.
+ * Le rendu ne reparse pas le format à chaque appel : une seule passe d'ajout des segments.
  */
 @Service
 @Slf4j
 public class PromptLoader {
 
-    private final Map<String, String> promptCache = new HashMap<>();
-    
     private static final String PROMPTS_DIR = "prompts/";
+    private static final String[] AVAILABLE_PROMPTS = {
+        "ocr-correction",
+        "ocr-to-json",
+        "json-correction",
+        "pdf-to-ocr",
+        "pdf-to-json"
+    };
+    
+    // Map immuable, remplacée en bloc au rechargement (lecture sans verrou)
+    private volatile Map<String, PromptTemplate> templates = Map.of();
+    
+    /**
+     * Charge et précompile tous les prompts disponibles.
+     */
+    @PostConstruct
+    public void init() {
+        reloadAll();
+    }
     
     /**
      * Charge un prompt depuis les ressources.
      * 
      * @param promptName Nom du fichier sans extension (ex: "ocr-correction")
      * @return Contenu du prompt
-     * @throws IllegalStateException Si le prompt n'existe pas
+     * @throws PromptLoadException Si le prompt n'existe pas
      */
     public String loadPrompt(String promptName) {
-        // Cache pour éviter de recharger à chaque fois
-        return promptCache.computeIfAbsent(promptName, this::loadPromptFromFile);
+        return getTemplate(promptName).getText();
     }
     
     /**
      * Charge un prompt avec substitution de variables.
      * 
-     * <p>Utilise String.format() pour insérer les valeurs.
+     * <p>Les marqueurs {@code %s} (séquentiels) et {@code %1$s} (indexés) sont remplacés
+     * par {@code String.valueOf(arg)}, comme avec String.format().
      * 
      * @param promptName Nom du prompt
      * @param args Variables à substituer dans le prompt
      * @return Prompt avec variables substituées
      */
     public String loadPrompt(String promptName, Object... args) {
-        String template = loadPrompt(promptName);
-        return String.format(template, args);
+        return getTemplate(promptName).render(args);
+    }
+    
+    /**
+     * Retourne le template précompilé d'un prompt.
+     * 
+     * @throws PromptLoadException Si le prompt n'existe pas
+     */
+    public PromptTemplate getTemplate(String promptName) {
+        PromptTemplate template = templates.get(promptName);
+        if (template == null) {
+            throw new PromptLoadException("Prompt introuvable: " + PROMPTS_DIR + promptName + ".txt");
+        }
+        return template;
     }
     
     /**
@@ -63,45 +100,176 @@ public class PromptLoader {
      */
     private String loadPromptFromFile(String promptName) {
         String path = PROMPTS_DIR + promptName + ".txt";
+        ClassPathResource resource = new ClassPathResource(path);
         
-        try {
-            ClassPathResource resource = new ClassPathResource(path);
-            
-            if (!resource.exists()) {
-                throw new IllegalStateException("Prompt introuvable: " + path);
-            }
-            
-            byte[] bytes = resource.getInputStream().readAllBytes();
-            String content = new String(bytes, StandardCharsets.UTF_8);
-            
+        if (!resource.exists()) {
+            throw new PromptLoadException("Prompt introuvable: " + path);
+        }
+        
+        try (InputStream input = resource.getInputStream()) {
+            String content = new String(input.readAllBytes(), StandardCharsets.UTF_8);
             log.debug("✅ Prompt chargé: {} ({} caractères)", path, content.length());
-            
             return content;
-            
         } catch (IOException e) {
-            throw new IllegalStateException("Erreur chargement prompt: " + path, e);
+            throw new PromptLoadException("Erreur chargement prompt: " + path, e);
         }
     }
     
     /**
-     * Recharge tous les prompts (vide le cache).
+     * Recharge et recompile tous les prompts, puis publie la nouvelle map en une fois.
      * Utile pour les tests ou le hot-reload.
      */
     public void reloadAll() {
-        promptCache.clear();
-        log.info("🔄 Cache des prompts vidé");
+        Map<String, PromptTemplate> loaded = new LinkedHashMap<>();
+        for (String promptName : AVAILABLE_PROMPTS) {
+            loaded.put(promptName, PromptTemplate.compile(promptName, loadPromptFromFile(promptName)));
+        }
+        templates = Map.copyOf(loaded);
+        log.info("🔄 {} prompts chargés et précompilés", loaded.size());
     }
     
     /**
      * Liste tous les prompts disponibles.
      */
     public String[] getAvailablePrompts() {
-        return new String[]{
-            "ocr-correction",
-            "ocr-to-json",
-            "json-correction",
-            "pdf-to-ocr",
-            "pdf-to-json"
-        };
+        return AVAILABLE_PROMPTS.clone();
+    }
+    
+    /**
+     * Prompt précompilé en segments littéraux et marqueurs de variables.
+     * 
+     * <p>Immuable et thread-safe. Syntaxe supportée (sous-ensemble de String.format) :
+     * {@code %s}, {@code %n$s}, {@code %%} et {@code %n}.
+     */
+    public static final class PromptTemplate {
+        
+        private static final int LITERAL = -1;
+        
+        private final String name;
+        private final String text;
+        private final String[] literals;   // literals[i] si argIndexes[i] == LITERAL
+        private final int[] argIndexes;    // Index de l'argument à insérer, sinon LITERAL
+        private final int literalLength;
+        private final int requiredArgs;
+        
+        private PromptTemplate(String name, String text, List<String> literals, List<Integer> argIndexes) {
+            this.name = name;
+            this.text = text;
+            this.literals = literals.toArray(new String[0]);
+            this.argIndexes = argIndexes.stream().mapToInt(Integer::intValue).toArray();
+            int length = 0;
+            int maxIndex = -1;
+            for (int i = 0; i < this.argIndexes.length; i++) {
+                if (this.argIndexes[i] == LITERAL) {
+                    length += this.literals[i].length();
+                } else {
+                    maxIndex = Math.max(maxIndex, this.argIndexes[i]);
+                }
+            }
+            this.literalLength = length;
+            this.requiredArgs = maxIndex + 1;
+        }
+        
+        /**
+         * Découpe le texte en segments (une seule analyse, au chargement).
+         * 
+         * @throws PromptLoadException Si un marqueur n'est pas supporté
+         */
+        static PromptTemplate compile(String name, String text) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> argIndexes = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int nextSequential = 0;
+            
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (c != '%') {
+                    literal.append(c);
+                    i++;
+                    continue;
+                }
+                if (i + 1 >= text.length()) {
+                    throw new PromptLoadException("Marqueur incomplet en fin de prompt: " + name);
+                }
+                char next = text.charAt(i + 1);
+                if (next == '%') {
+                    literal.append('%');
+                    i += 2;
+                } else if (next == 'n') {
+                    literal.append(System.lineSeparator());
+                    i += 2;
+                } else if (next == 's') {
+                    addPlaceholder(literals, argIndexes, literal, nextSequential++);
+                    i += 2;
+                } else {
+                    // Forme indexée %<n>$s (n >= 1)
+                    int dollar = text.indexOf('$', i + 1);
+                    String position = dollar > i + 1 ? text.substring(i + 1, dollar) : "";
+                    if (position.isEmpty() || !position.chars().allMatch(Character::isDigit)
+                            || dollar + 1 >= text.length() || text.charAt(dollar + 1) != 's'
+                            || Integer.parseInt(position) < 1) {
+                        throw new PromptLoadException("Marqueur non supporté dans le prompt " + name
+                                + " (position " + i + ")");
+                    }
+                    addPlaceholder(literals, argIndexes, literal, Integer.parseInt(position) - 1);
+                    i = dollar + 2;
+                }
+            }
+            if (literal.length() > 0) {
+                literals.add(literal.toString());
+                argIndexes.add(LITERAL);
+            }
+            return new PromptTemplate(name, text, literals, argIndexes);
+        }
+        
+        private static void addPlaceholder(List<String> literals, List<Integer> argIndexes,
+                                           StringBuilder literal, int argIndex) {
+            if (literal.length() > 0) {
+                literals.add(literal.toString());
+                argIndexes.add(LITERAL);
+                literal.setLength(0);
+            }
+            literals.add(null);
+            argIndexes.add(argIndex);
+        }
+        
+        /**
+         * Rend le prompt en une passe : segments littéraux et arguments ajoutés à la suite.
+         * 
+         * @throws IllegalArgumentException S'il manque des arguments
+         */
+        public String render(Object... args) {
+            Object[] values = args != null ? args : new Object[0];
+            if (values.length < requiredArgs) {
+                throw new IllegalArgumentException("Prompt " + name + " : " + requiredArgs
+                        + " variable(s) attendue(s), " + values.length + " fournie(s)");
+            }
+            
+            String[] rendered = new String[values.length];
+            int capacity = literalLength;
+            for (int i = 0; i < argIndexes.length; i++) {
+                int argIndex = argIndexes[i];
+                if (argIndex != LITERAL) {
+                    if (rendered[argIndex] == null) {
+                        rendered[argIndex] = String.valueOf(values[argIndex]);
+                    }
+                    capacity += rendered[argIndex].length();
+                }
+            }
+            
+            StringBuilder builder = new StringBuilder(capacity);
+            for (int i = 0; i < argIndexes.length; i++) {
+                builder.append(argIndexes[i] == LITERAL ? literals[i] : rendered[argIndexes[i]]);
+            }
+            return builder.toString();
+        }
+        
+        /**
+         * Texte brut du template.
+         */
+        public String getText() {
+            return text;
+        }
     }
 }
@@ -43,6 +43,7 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
     private static final String INDEX_FIELD = "index";
     private static final String ARTICLES_FIELD = "articles";
     private static final String PROMPT_NAME = "ocr-to-json";
+    private static final String TRUNCATED_KEY = "truncated";
 
     @Override
     public String getName() {
@@ -97,6 +98,24 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
                 result = extractDirect(ocrText, context, warnings, metadata);
             }
 
+            // Réponse IA tronquée (JSON partiel récupéré sur timeout) : des articles manquent,
+            // le résultat ne doit pas remplacer le JSON existant ni faire supprimer d'articles
+            if (Boolean.TRUE.equals(metadata.get(TRUNCATED_KEY))) {
+                log.warn("⚠️ [{}] Extraction JSON tronquée, résultat rejeté",
+                        context.getDocument().getDocumentId());
+                return TransformationResult.<JsonObject>builder()
+                        .output(new JsonObject())
+                        .confidence(0.0)
+                        .method(TRANSFORMATION_NAME)
+                        .timestamp(Instant.now())
+                        .durationMs(System.currentTimeMillis() - startTime)
+                        .warnings(warnings)
+                        .metadata(metadata)
+                        .success(false)
+                        .errorMessage("Réponse IA tronquée (limite de génération atteinte)")
+                        .build();
+            }
+
             // Validation résultat
             double confidence = calculateConfidence(result);
             metadata.put("articlesCount", result.has(ARTICLES_FIELD) ? result.getAsJsonArray(ARTICLES_FIELD).size() : 0);
@@ -175,13 +194,18 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
                 .prompt(prompt)
                 .temperature(0.1) // Précision maximale
                 .maxTokens(context.getConfig().getMaxTokens())
-                .stream(false)
+                .stream(true) // Arrêt dès le JSON complet, récupération partielle sur timeout
+                .expectJson(true)
                 .build();
 
         try {
             AIResponse response = context.getProvider().complete(request);
             metadata.put("tokensUsed", response.getTokensUsed());
             metadata.put("processingTimeMs", response.getProcessingTimeMs());
+            if (response.isTruncated()) {
+                metadata.put(TRUNCATED_KEY, true);
+                warnings.add("Réponse IA tronquée");
+            }
 
             String jsonText = cleanJsonResponse(response.getGeneratedText());
             JsonObject result = JsonParser.parseString(jsonText).getAsJsonObject();
@@ -220,7 +244,8 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
                     i + 1, chunks.size(), chunkText.length());
 
             try {
-                JsonObject chunkResult = extractChunk(chunkText, context, i + 1, chunks.size());
+                JsonObject chunkResult = extractChunk(chunkText, context, i + 1, chunks.size(),
+                        warnings, metadata);
                 if (chunkResult != null && chunkResult.has(ARTICLES_FIELD)) {
                     chunkResults.add(chunkResult);
                 }
@@ -245,7 +270,8 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
      */
     private JsonObject extractChunk(String chunkText,
                                      TransformationContext context,
-                                     int chunkIndex, int totalChunks) {
+                                     int chunkIndex, int totalChunks,
+                                     List<String> warnings, Map<String, Object> metadata) {
         String prompt = promptLoader.loadPrompt(PROMPT_NAME, chunkText);
 
         IAProvider.ModelInfo model = context.getProvider()
@@ -257,10 +283,15 @@ public class OcrToJsonTransformation implements IATransformation<String, JsonObj
                 .prompt(prompt)
                 .temperature(0.1)
                 .maxTokens(context.getConfig().getMaxTokens())
-                .stream(false)
+                .stream(true) // Arrêt dès le JSON complet, récupération partielle sur timeout
+                .expectJson(true)
                 .build();
 
         AIResponse response = context.getProvider().complete(request);
+        if (response.isTruncated()) {
+            metadata.put(TRUNCATED_KEY, true);
+            warnings.add(String.format("Chunk %d/%d: réponse IA tronquée", chunkIndex, totalChunks));
+        }
         String jsonText = cleanJsonResponse(response.getGeneratedText());
 
         try {
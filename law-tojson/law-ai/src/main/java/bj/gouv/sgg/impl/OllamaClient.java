@@ -1,5 +1,6 @@
 package bj.gouv.sgg.impl;
 
+import bj.gouv.sgg.ai.provider.AiHttpClients;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.exception.IAException;
 import bj.gouv.sgg.service.IAService;
@@ -11,7 +12,7 @@ import okhttp3.*;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Implémentation IAService pour Ollama local
@@ -27,18 +28,9 @@ public class OllamaClient implements IAService {
 
     private final LawProperties properties;
     private final Gson gson = new Gson();
-    private OkHttpClient client;
-
-    private OkHttpClient getClient() {
-        if (client == null) {
-            client = new OkHttpClient.Builder()
-                    .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .writeTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                    .build();
-        }
-        return client;
-    }
+    private final OkHttpClient client = AiHttpClients.withTimeout(TIMEOUT_SECONDS);
+    // Ping de disponibilité différé au premier appel de génération, jamais au démarrage
+    private final AtomicBoolean availabilityChecked = new AtomicBoolean();
 
     @Override
     public String getSourceName() {
@@ -55,7 +47,7 @@ public class OllamaClient implements IAService {
                     .get()
                     .build();
             
-            try (Response response = getClient().newCall(request).execute()) {
+            try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     log.debug("Ollama ping failed: HTTP {}", response.code());
                     return false;
@@ -122,6 +114,7 @@ public class OllamaClient implements IAService {
      * @throws IAException Si erreur réseau ou parsing
      */
     public String complete(String prompt) throws IAException {
+        checkAvailabilityOnce();
         try {
             String ollamaUrl = properties.getCapacity().getOllamaUrl();
             String model = properties.getCapacity().getOllamaModelsRequired();
@@ -144,7 +137,7 @@ public class OllamaClient implements IAService {
                     .post(body)
                     .build();
             
-            try (Response response = getClient().newCall(request).execute()) {
+            try (Response response = client.newCall(request).execute()) {
                 if (!response.isSuccessful()) {
                     throw new IAException("Ollama HTTP " + response.code() + ": " + response.message());
                 }
@@ -164,4 +157,12 @@ public class OllamaClient implements IAService {
         }
     }
 
+    /**
+     * Vérifie une seule fois, au premier appel, qu'Ollama répond avec le modèle requis.
+     */
+    private void checkAvailabilityOnce() {
+        if (availabilityChecked.compareAndSet(false, true) && !isAvailable()) {
+            log.warn("⚠️ OllamaClient non disponible (Ollama non pingable ou modèle manquant)");
+        }
+    }
 }
@@ -0,0 +1,73 @@
+package bj.gouv.sgg.ai.chunking;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonChunkerTest {
+
+    private final JsonChunker chunker = new JsonChunker();
+
+    @Test
+    void givenDocumentAtExactLimit_whenChunk_thenNotSplit() {
+        // Given - taille calculée arithmétiquement = toString().length()
+        JsonObject content = document(5);
+        int size = content.toString().length();
+
+        // When
+        List<JsonObject> atLimit = chunker.chunk(content, size, 0);
+        List<JsonObject> belowLimit = chunker.chunk(content, size - 1, 0);
+
+        // Then
+        assertThat(atLimit).containsExactly(content);
+        assertThat(belowLimit).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void givenLargeDocument_whenChunk_thenBoundariesFollowMetadataPlusArticleSizes() {
+        // Given
+        JsonObject content = document(500);
+        JsonObject metadata = content.deepCopy();
+        metadata.remove("articles");
+        int metadataSize = metadata.toString().length();
+        int maxChunkSize = 4000;
+
+        // When
+        List<JsonObject> chunks = chunker.chunk(content, maxChunkSize, 0);
+
+        // Then - chaque chunk sérialisé respecte la borne (enveloppe "articles" et virgules comprises)
+        int total = 0;
+        for (JsonObject chunk : chunks) {
+            JsonArray articles = chunk.getAsJsonArray("articles");
+            int estimated = metadataSize;
+            for (int i = 0; i < articles.size(); i++) {
+                estimated += articles.get(i).toString().length();
+            }
+            assertThat(estimated).isLessThanOrEqualTo(maxChunkSize);
+            assertThat(chunk.toString().length()).isLessThanOrEqualTo(maxChunkSize);
+            assertThat(chunk.get("type").getAsString()).isEqualTo("loi");
+            total += articles.size();
+        }
+        assertThat(total).isEqualTo(500);
+        assertThat(chunker.combine(chunks).getAsJsonArray("articles")).isEqualTo(content.getAsJsonArray("articles"));
+    }
+
+    private JsonObject document(int articleCount) {
+        JsonObject content = new JsonObject();
+        content.addProperty("type", "loi");
+        content.addProperty("year", 2024);
+        JsonArray articles = new JsonArray();
+        for (int i = 1; i <= articleCount; i++) {
+            JsonObject article = new JsonObject();
+            article.addProperty("index", i);
+            article.addProperty("content", "Article " + i + " : disposition " + "x".repeat(i % 50));
+            articles.add(article);
+        }
+        content.add("articles", articles);
+        return content;
+    }
+}
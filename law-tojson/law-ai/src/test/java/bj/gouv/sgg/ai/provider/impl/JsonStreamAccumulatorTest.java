@@ -0,0 +1,83 @@
+package bj.gouv.sgg.ai.provider.impl;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonStreamAccumulatorTest {
+
+    @Test
+    void givenFragmentsWithMarkdownAndBracesInStrings_whenAppend_thenCompleteOnRootClose() {
+        // Given
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+
+        // When - accolades dans une chaîne ignorées, bloc markdown autour ignoré
+        assertThat(accumulator.append("```json\n{\"title\": \"Loi {n°1}\",")).isFalse();
+        assertThat(accumulator.append(" \"articles\": [{\"index\": 1, \"content\": \"a \\\"}\\\" b\"}")).isFalse();
+        boolean complete = accumulator.append("]}\n```");
+
+        // Then
+        assertThat(complete).isTrue();
+        JsonObject json = JsonParser.parseString(accumulator.completedJson()).getAsJsonObject();
+        assertThat(json.get("title").getAsString()).isEqualTo("Loi {n°1}");
+        assertThat(json.getAsJsonArray("articles")).hasSize(1);
+    }
+
+    @Test
+    void givenGenerationInterruptedMidArticle_whenSalvage_thenKeepsCompleteArticles() {
+        // Given - génération coupée au milieu du 3e article
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+        accumulator.append("{\"title\": \"Loi\", \"articles\": [");
+        accumulator.append("{\"index\": 1, \"content\": \"un\"}, {\"index\": 2, \"content\": \"deux\"}, ");
+        accumulator.append("{\"index\": 3, \"content\": \"tr");
+
+        // When
+        String salvaged = accumulator.salvage();
+
+        // Then
+        assertThat(accumulator.isComplete()).isFalse();
+        JsonObject json = JsonParser.parseString(salvaged).getAsJsonObject();
+        assertThat(json.get("title").getAsString()).isEqualTo("Loi");
+        assertThat(json.getAsJsonArray("articles")).hasSize(2);
+    }
+
+    @Test
+    void givenGenerationInterruptedInsideNestedArray_whenSalvage_thenCutsOnlyBetweenArticles() {
+        // Given - tableau racine hors "articles" et tableau imbriqué coupé dans le 2e article
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+        accumulator.append("{\"title\": \"Loi\", \"visas\": [\"v1\", \"v2\"], \"articles\": [");
+        accumulator.append("{\"index\": 1, \"refs\": [\"a\", \"b\"]}, ");
+        accumulator.append("{\"index\": 2, \"refs\": [\"c\", \"d\", \"e");
+
+        // When
+        String salvaged = accumulator.salvage();
+
+        // Then - le 2e article (références tronquées) est écarté en entier
+        JsonObject json = JsonParser.parseString(salvaged).getAsJsonObject();
+        assertThat(json.getAsJsonArray("visas")).hasSize(2);
+        assertThat(json.getAsJsonArray("articles")).hasSize(1);
+        assertThat(json.getAsJsonArray("articles").get(0).getAsJsonObject().getAsJsonArray("refs")).hasSize(2);
+    }
+
+    @Test
+    void givenGenerationInterruptedBeforeFirstArticle_whenSalvage_thenNull() {
+        // Given - seules les métadonnées et un tableau hors "articles" sont complets
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+        accumulator.append("{\"title\": \"Loi\", \"visas\": [\"v1\", \"v2\"], \"articles\": [{\"index\": 1, \"con");
+
+        // When / Then
+        assertThat(accumulator.salvage()).isNull();
+    }
+
+    @Test
+    void givenNoJsonStarted_whenSalvage_thenNull() {
+        // Given
+        JsonStreamAccumulator accumulator = new JsonStreamAccumulator();
+        accumulator.append("Voici le résultat demandé :");
+
+        // When / Then
+        assertThat(accumulator.salvage()).isNull();
+    }
+}
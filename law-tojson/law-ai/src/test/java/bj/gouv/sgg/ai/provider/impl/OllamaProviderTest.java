@@ -0,0 +1,110 @@
+package bj.gouv.sgg.ai.provider.impl;
+
+import bj.gouv.sgg.ai.model.AIRequest;
+import bj.gouv.sgg.ai.model.AIResponse;
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.exception.IAException;
+import bj.gouv.sgg.metrics.LawMetrics;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la génération en streaming d'Ollama contre un serveur NDJSON local.
+ */
+class OllamaProviderTest {
+
+    private final Gson gson = new Gson();
+    private MockWebServer server;
+    private OllamaProvider provider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        LawProperties properties = new LawProperties();
+        String url = server.url("/").toString();
+        properties.getCapacity().setOllamaUrl(url.substring(0, url.length() - 1));
+        provider = new OllamaProvider(properties, gson, new LawMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void givenJsonCompletedBeforeDone_whenCompleteStreaming_thenEarlyStopWithCompletedJson() throws IAException {
+        // Given - JSON complet au 3e fragment, puis texte parasite que le modèle continue de générer
+        server.enqueue(new MockResponse().setBody(ndjson(
+                fragment("```json\n{\"title\": \"Loi\", ", false),
+                fragment("\"articles\": [{\"index\": 1, \"content\": \"un\"}", false),
+                fragment("]}", false),
+                fragment("\n```\nJ'espère que cela vous aide.", false),
+                done(42))));
+
+        // When
+        AIResponse response = provider.complete(jsonRequest());
+
+        // Then
+        assertThat(response.getMetadata()).containsEntry("earlyStop", true);
+        assertThat(response.isTruncated()).isFalse();
+        JsonObject json = JsonParser.parseString(response.getGeneratedText()).getAsJsonObject();
+        assertThat(json.get("title").getAsString()).isEqualTo("Loi");
+        assertThat(json.getAsJsonArray("articles")).hasSize(1);
+        assertThat(response.getGeneratedText()).doesNotContain("```");
+    }
+
+    @Test
+    void givenStreamEndsWithDone_whenCompleteStreaming_thenCompletedJsonAndTokenCount() throws IAException {
+        // Given - l'accolade fermante arrive avec le fragment final
+        server.enqueue(new MockResponse().setBody(ndjson(
+                fragment("{\"title\": \"Loi\", \"articles\": [", false),
+                fragment("{\"index\": 1, \"content\": \"un\"}]", false),
+                fragment("}", true, 42))));
+
+        // When
+        AIResponse response = provider.complete(jsonRequest());
+
+        // Then
+        assertThat(response.getMetadata()).containsEntry("earlyStop", false);
+        assertThat(response.getTokensUsed()).isEqualTo(42);
+        assertThat(JsonParser.parseString(response.getGeneratedText()).getAsJsonObject()
+                .getAsJsonArray("articles")).hasSize(1);
+    }
+
+    private static AIRequest jsonRequest() {
+        return AIRequest.builder().model("m").prompt("p").stream(true).expectJson(true).build();
+    }
+
+    private String fragment(String response, boolean done) {
+        JsonObject line = new JsonObject();
+        line.addProperty("response", response);
+        line.addProperty("done", done);
+        return gson.toJson(line);
+    }
+
+    private String fragment(String response, boolean done, int evalCount) {
+        JsonObject line = gson.fromJson(fragment(response, done), JsonObject.class);
+        line.addProperty("eval_count", evalCount);
+        return gson.toJson(line);
+    }
+
+    private String done(int evalCount) {
+        return fragment("", true, evalCount);
+    }
+
+    private static String ndjson(String... lines) {
+        return String.join("\n", lines) + "\n";
+    }
+}
@@ -0,0 +1,68 @@
+package bj.gouv.sgg.ai.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfToImageServiceTest {
+
+    private final PdfToImageService service = new PdfToImageService();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenSession_whenRenderRequestedPages_thenOnlyThosePagesCappedAtTen() throws IOException {
+        // Given - PDF de 15 pages
+        Path pdf = createPdf(15);
+
+        try (PdfToImageService.RenderingSession session = service.openSession(pdf)) {
+            // When
+            List<String> twoPages = session.renderPages(List.of(3, 7), 72);
+            List<String> tooMany = session.renderPages(IntStream.range(0, 15).boxed().toList(), 72);
+
+            // Then
+            assertThat(session.getPageCount()).isEqualTo(15);
+            assertThat(session.estimateSizeMB(150, 10)).isEqualTo(5.0);
+            assertThat(twoPages).hasSize(2);
+            assertThat(tooMany).hasSize(10);
+            byte[] jpeg = Base64.getDecoder().decode(twoPages.get(0));
+            assertThat(jpeg[0]).isEqualTo((byte) 0xFF); // Marqueur SOI JPEG
+            assertThat(jpeg[1]).isEqualTo((byte) 0xD8);
+        }
+    }
+
+    @Test
+    void givenShortPdf_whenConvertToBase64Images_thenOneImagePerPage() throws IOException {
+        // Given
+        Path pdf = createPdf(3);
+
+        // When
+        List<String> images = service.convertToBase64Images(pdf, 72, 10);
+
+        // Then
+        assertThat(images).hasSize(3);
+        assertThat(service.countPages(pdf)).isEqualTo(3);
+    }
+
+    private Path createPdf(int pages) throws IOException {
+        Path pdf = tempDir.resolve("doc-" + pages + ".pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                document.addPage(new PDPage(PDRectangle.A6));
+            }
+            document.save(pdf.toFile());
+        }
+        return pdf;
+    }
+}
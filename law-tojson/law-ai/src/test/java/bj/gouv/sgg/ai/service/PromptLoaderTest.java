@@ -0,0 +1,45 @@
+package bj.gouv.sgg.ai.service;
+
+import bj.gouv.sgg.exception.PromptLoadException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromptLoaderTest {
+
+    private PromptLoader promptLoader;
+
+    @BeforeEach
+    void setUp() {
+        promptLoader = new PromptLoader();
+        promptLoader.init();
+    }
+
+    @Test
+    void givenAllPrompts_whenRender_thenSameAsStringFormat() {
+        for (String promptName : promptLoader.getAvailablePrompts()) {
+            // Given
+            String template = promptLoader.loadPrompt(promptName);
+
+            // When
+            String rendered = promptLoader.loadPrompt(promptName, "loi", 2024, "Article 1er : 100 %");
+
+            // Then - rendu précompilé identique à String.format
+            assertThat(rendered).isEqualTo(String.format(template, "loi", 2024, "Article 1er : 100 %"));
+        }
+    }
+
+    @Test
+    void givenIndexedAndEscapedMarkers_whenRender_thenSubstituted() {
+        // Given
+        PromptLoader.PromptTemplate template =
+            PromptLoader.PromptTemplate.compile("test", "%2$s puis %1$s (%%) et %s");
+
+        // When / Then
+        assertThat(template.render("a", "b")).isEqualTo("b puis a (%) et a");
+        assertThatThrownBy(() -> template.render("a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> promptLoader.loadPrompt("inconnu")).isInstanceOf(PromptLoadException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package bj.gouv.sgg.ai.transformation;
+
+import bj.gouv.sgg.ai.chunking.TextChunker;
+import bj.gouv.sgg.ai.model.AIResponse;
+import bj.gouv.sgg.ai.model.TransformationContext;
+import bj.gouv.sgg.ai.model.TransformationResult;
+import bj.gouv.sgg.ai.provider.IAProvider;
+import bj.gouv.sgg.ai.service.PromptLoader;
+import bj.gouv.sgg.model.LawDocument;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OcrToJsonTransformationTest {
+
+    private static final String ARTICLES_JSON =
+        "{\"articles\":[{\"index\":1,\"content\":\"Article premier\"},{\"index\":2,\"content\":\"Article 2\"}]}";
+
+    @Mock
+    private TextChunker textChunker;
+
+    @Mock
+    private PromptLoader promptLoader;
+
+    @Mock
+    private IAProvider provider;
+
+    private OcrToJsonTransformation transformation;
+
+    @BeforeEach
+    void setUp() {
+        transformation = new OcrToJsonTransformation(textChunker, promptLoader, new Gson());
+        when(promptLoader.loadPrompt(eq("ocr-to-json"), any(Object[].class))).thenReturn("prompt");
+        when(provider.selectBestModel(anyBoolean(), anyInt()))
+            .thenReturn(Optional.of(new IAProvider.ModelInfo("qwen", false, 8192, "test")));
+    }
+
+    @Test
+    void givenCompleteResponse_whenTransform_thenSuccessWithArticles() {
+        // Given
+        when(provider.complete(any())).thenReturn(response(false));
+
+        // When
+        TransformationResult<JsonObject> result = transformation.transform("Article premier ...", context(2000));
+
+        // Then
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getOutput().getAsJsonArray("articles")).hasSize(2);
+    }
+
+    @Test
+    void givenTruncatedResponse_whenTransform_thenFailedAndPartialJsonDropped() {
+        // Given
+        when(provider.complete(any())).thenReturn(response(true));
+
+        // When
+        TransformationResult<JsonObject> result = transformation.transform("Article premier ...", context(2000));
+
+        // Then - le JSON partiel ne doit jamais remplacer un JSON complet
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getConfidence()).isZero();
+        assertThat(result.getOutput().has("articles")).isFalse();
+        assertThat(result.getWarnings()).contains("Réponse IA tronquée");
+    }
+
+    @Test
+    void givenOneTruncatedChunk_whenTransform_thenWholeDocumentFailed() {
+        // Given
+        String ocrText = "x".repeat(300);
+        when(textChunker.chunk(anyString(), anyInt(), anyInt())).thenReturn(List.of("chunk 1", "chunk 2"));
+        when(provider.complete(any())).thenReturn(response(false), response(true));
+
+        // When
+        TransformationResult<JsonObject> result = transformation.transform(ocrText, context(200));
+
+        // Then
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getWarnings()).contains("Chunk 2/2: réponse IA tronquée");
+    }
+
+    private AIResponse response(boolean truncated) {
+        return AIResponse.builder()
+            .generatedText(ARTICLES_JSON)
+            .model("qwen")
+            .provider("ollama")
+            .truncated(truncated)
+            .build();
+    }
+
+    private TransformationContext context(int chunkSize) {
+        return TransformationContext.builder()
+            .document(LawDocument.builder().type("loi").year(2024).number(1).build())
+            .provider(provider)
+            .config(TransformationContext.TransformationConfig.builder()
+                .chunkSize(chunkSize)
+                .chunkOverlap(50)
+                .build())
+            .build();
+    }
+}
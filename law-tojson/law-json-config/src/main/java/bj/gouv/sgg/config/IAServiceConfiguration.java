@@ -44,6 +44,9 @@ public class IAServiceConfiguration {
      *   <li>Score 4+ : Machine moyenne/puissante → IA locale possible</li>
      * </ul>
      * 
+     * <p>Aucun appel réseau ici : le ping Ollama (jusqu'au timeout HTTP) est différé au
+     * premier appel de génération d'{@link OllamaClient}, jamais au démarrage.
+     * 
      * @return IAService instance (OllamaClient)
      */
     @Bean
@@ -56,26 +59,15 @@ public class IAServiceConfiguration {
         log.info("🖥️ Capacité machine détectée : {} GB RAM, {} CPU → Score: {}", 
                  totalMemoryGB, availableProcessors, capacityScore);
         
-        // Vérifier si capacité IA suffisante (>=4)
+        // Vérifier si capacité IA suffisante (>=4) ; disponibilité d'Ollama vérifiée au premier usage
         if (capacityScore >= lawProperties.getCapacity().getIa()) {
-            // Vérifier si Ollama est disponible
-            try {
-                if (ollamaClient.isAvailable()) {
-                    log.info("✅ IAService sélectionné : OllamaClient (capacité IA suffisante + Ollama disponible)");
-                    return ollamaClient;
-                } else {
-                    log.warn("⚠️ OllamaClient non disponible (Ollama non pingable ou modèle manquant)");
-                }
-            } catch (Exception e) {
-                log.warn("⚠️ Erreur vérification OllamaClient : {}", e.getMessage());
-            }
+            log.info("✅ IAService sélectionné : OllamaClient (capacité IA suffisante)");
         } else {
             log.info("⏭️ OllamaClient ignoré (capacité {} < minimum {})", 
                      capacityScore, lawProperties.getCapacity().getIa());
         }
         
-        // Si Ollama non disponible, retourner OllamaClient quand même (le processor fera fallback vers OCR)
-        log.info("ℹ️ IAService retourne OllamaClient (fallback vers OCR dans le processor si indisponible)");
+        // Retourner OllamaClient dans tous les cas (le processor fera fallback vers OCR)
         return ollamaClient;
     }
     
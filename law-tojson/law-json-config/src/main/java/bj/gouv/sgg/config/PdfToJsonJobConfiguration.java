@@ -1,8 +1,13 @@
 package bj.gouv.sgg.config;
 
+import bj.gouv.sgg.batch.reader.WorkQueueItemReader;
 import bj.gouv.sgg.model.LawDocument;
+import bj.gouv.sgg.model.WorkStage;
 import bj.gouv.sgg.processor.PdfToJsonProcessor;
 import bj.gouv.sgg.reader.DownloadedPdfReader;
+import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentPriorityPolicy;
+import bj.gouv.sgg.service.WorkQueueService;
 import bj.gouv.sgg.writer.JsonResultWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -80,6 +85,9 @@ public class PdfToJsonJobConfiguration {
     
     private final PdfToJsonProcessor pdfToJsonProcessor;
     private final JsonResultWriter jsonResultWriter;
+    private final WorkQueueService workQueueService;
+    private final LawDocumentRepository lawDocumentRepository;
+    private final LawProperties properties;
     
     /**
      * Job principal : Transformation PDF → JSON avec stratégie fallback.
@@ -111,6 +119,10 @@ public class PdfToJsonJobConfiguration {
      * <p><b>Skip limit</b> : Illimité (continue malgré erreurs individuelles)
      * <p><b>Exceptions skippées</b> : Toutes exceptions (log + continue)
      * 
+     * <p><b>File durable</b> : avec {@code law.queue.enabled=true}, les documents DOWNLOADED sont
+     * réservés dans {@code work_queue} (plusieurs processus d'extraction en parallèle) ; le reader
+     * historique reste utilisé pour {@code --doc}.
+     * 
      * @param reader Reader configuré avec paramètres du job (injection automatique)
      * @return Step pdfToJsonStep
      */
@@ -118,7 +130,7 @@ public class PdfToJsonJobConfiguration {
     public Step pdfToJsonStep(DownloadedPdfReader reader) {
         return new StepBuilder("pdfToJsonStep", jobRepository)
                 .<LawDocument, LawDocument>chunk(1, transactionManager)
-                .reader(reader)
+                .reader(new WorkQueueItemReader(WorkStage.EXTRACT, reader, workQueueService, lawDocumentRepository, properties))
                 .processor(pdfToJsonProcessor)
                 .writer(jsonResultWriter)
                 .faultTolerant()
@@ -142,6 +154,7 @@ public class PdfToJsonJobConfiguration {
      * @param force Mode force ("true" ou null)
      * @param maxDocuments Nombre max de documents (défaut: 10)
      * @param repository Repository JPA pour LawDocument
+     * @param priorityPolicy Ordre de traitement des documents
      * @return DownloadedPdfReader configuré
      */
     @Bean
@@ -152,9 +165,10 @@ public class PdfToJsonJobConfiguration {
             @org.springframework.beans.factory.annotation.Value("#{jobParameters['force']}") String force,
             @org.springframework.beans.factory.annotation.Value("#{jobParameters['maxDocuments']}") String maxDocuments,
             @org.springframework.beans.factory.annotation.Value("#{jobParameters['type']}") String type,
-            bj.gouv.sgg.repository.LawDocumentRepository repository
+            bj.gouv.sgg.repository.LawDocumentRepository repository,
+            DocumentPriorityPolicy priorityPolicy
     ) {
-        DownloadedPdfReader reader = new DownloadedPdfReader(repository);
+        DownloadedPdfReader reader = new DownloadedPdfReader(repository, priorityPolicy);
         
         // Configuration document ciblé (accepter --doc ou --documentId comme équivalents)
         String targetDoc = (doc != null && !doc.isBlank()) ? doc : documentId;
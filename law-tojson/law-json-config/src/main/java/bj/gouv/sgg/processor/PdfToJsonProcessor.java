@@ -55,7 +55,7 @@ public class PdfToJsonProcessor implements ItemProcessor<LawDocument, LawDocumen
         log.info("🔄 [{}] Démarrage transformation PDF → JSON avec fallback cascade", docId);
         
         // 1. Vérifier que le PDF existe
-        Path pdfPath = fileStorageService.pdfPath(document.getType(), docId);
+        Path pdfPath = fileStorageService.resolvePdfPath(document.getType(), docId);
         if (!Files.exists(pdfPath)) {
             log.error("❌ [{}] PDF non trouvé: {}", docId, pdfPath);
             document.setStatus(LawDocument.ProcessingStatus.FAILED);
@@ -63,8 +63,7 @@ public class PdfToJsonProcessor implements ItemProcessor<LawDocument, LawDocumen
         }
         
         // 2. Lire JSON existant pour comparaison
-        Path jsonPath = fileStorageService.jsonPath(document.getType(), docId);
-        Optional<JsonResult> existingJson = readExistingJson(jsonPath);
+        Optional<JsonResult> existingJson = readExistingJson(document.getType(), docId);
         
         if (existingJson.isPresent()) {
             log.info("📄 [{}] JSON existant trouvé (confiance: {}, source: {})", 
@@ -123,21 +122,22 @@ public class PdfToJsonProcessor implements ItemProcessor<LawDocument, LawDocumen
      * }
      * }</pre>
      * 
-     * @param jsonPath Chemin du fichier JSON
-     * @return JsonResult si fichier existe et parsable, sinon Optional.empty()
+     * @param type Type du document
+     * @param docId ID du document
+     * @return JsonResult si fichier existe (compressé ou non) et parsable, sinon Optional.empty()
      */
-    private Optional<JsonResult> readExistingJson(Path jsonPath) {
-        if (!Files.exists(jsonPath)) {
+    private Optional<JsonResult> readExistingJson(String type, String docId) {
+        if (!fileStorageService.jsonExists(type, docId)) {
             return Optional.empty();
         }
         
         try {
-            String jsonContent = Files.readString(jsonPath);
+            String jsonContent = fileStorageService.readJson(type, docId);
             JsonObject jsonObject = gson.fromJson(jsonContent, JsonObject.class);
             
             // Extraire _metadata
             if (!jsonObject.has("_metadata")) {
-                log.warn("⚠️ JSON existant sans _metadata: {}", jsonPath);
+                log.warn("⚠️ [{}] JSON existant sans _metadata", docId);
                 return Optional.empty();
             }
             
@@ -156,10 +156,10 @@ public class PdfToJsonProcessor implements ItemProcessor<LawDocument, LawDocumen
             ));
             
         } catch (IOException e) {
-            log.warn("⚠️ Impossible de lire JSON existant {}: {}", jsonPath, e.getMessage());
+            log.warn("⚠️ [{}] Impossible de lire JSON existant: {}", docId, e.getMessage());
             return Optional.empty();
         } catch (Exception e) {
-            log.warn("⚠️ Impossible de parser JSON existant {}: {}", jsonPath, e.getMessage());
+            log.warn("⚠️ [{}] Impossible de parser JSON existant: {}", docId, e.getMessage());
             return Optional.empty();
         }
     }
@@ -2,6 +2,7 @@ package bj.gouv.sgg.reader;
 
 import bj.gouv.sgg.model.LawDocument;
 import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentPriorityPolicy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.ItemReader;
@@ -25,6 +26,9 @@ import java.util.List;
  *   <li><b>Mode force</b> (--doc + --force) : Re-traite document spécifique même si EXTRACTED (compare confiance)</li>
  * </ul>
  * 
+ * <p><b>Ordre</b> : {@link DocumentPriorityPolicy} (textes de l'année en cours d'abord, poids par
+ * type et ancienneté, part de chaque exécution réservée aux documents qui attendent le plus).
+ * 
  * <p><b>Note</b> : Le mode force nécessite --doc (document spécifique). En mode global, seuls les DOWNLOADED sont traités.
  * 
  * <p><b>Idempotence</b> : Si status=EXTRACTED déjà présent, le document sera skip
@@ -38,6 +42,7 @@ import java.util.List;
 public class DownloadedPdfReader implements ItemReader<LawDocument> {
 
     private final LawDocumentRepository lawDocumentRepository;
+    private final DocumentPriorityPolicy priorityPolicy;
     
     private Iterator<LawDocument> documentIterator;
     private boolean initialized = false;
@@ -120,16 +125,8 @@ public class DownloadedPdfReader implements ItemReader<LawDocument> {
                         .toList();
             }
             
-            // Trier du plus récent au plus ancien: year DESC, number DESC
-            toProcess = downloadedDocuments.stream()
-                .sorted((a, b) -> {
-                    if (b.getYear() != a.getYear()) {
-                        return Integer.compare(b.getYear(), a.getYear());
-                    }
-                    return Integer.compare(b.getNumber(), a.getNumber());
-                })
-                .limit(maxDocuments != null ? maxDocuments : Long.MAX_VALUE)
-                .toList();
+            // Ordre de priorité (année en cours, type, ancienneté) avec part réservée à l'arriéré
+            toProcess = priorityPolicy.order(downloadedDocuments, maxDocuments);
         }
         
         if (toProcess.isEmpty()) {
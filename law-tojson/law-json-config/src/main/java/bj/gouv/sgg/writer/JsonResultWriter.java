@@ -1,7 +1,8 @@
 package bj.gouv.sgg.writer;
 
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.model.LawDocument;
-import bj.gouv.sgg.repository.LawDocumentRepository;
+import bj.gouv.sgg.service.DocumentStatusManager;
 import bj.gouv.sgg.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,8 +10,12 @@ import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.stereotype.Component;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Writer Spring Batch pour sauvegarder les résultats JSON d'extraction.
@@ -18,7 +23,7 @@ import java.nio.file.Path;
  * <p><b>Responsabilités</b> :
  * <ul>
  *   <li>Sauvegarder fichier JSON dans {@code data/articles/}</li>
- *   <li>Mettre à jour status document (EXTRACTED ou FAILED)</li>
+ *   <li>Mettre à jour status document (EXTRACTED ou FAILED) en une transition ensembliste par chunk</li>
  *   <li>Persister métadonnées extraction (method, confidence) en base</li>
  * </ul>
  * 
@@ -49,53 +54,46 @@ import java.nio.file.Path;
 @Slf4j
 public class JsonResultWriter implements ItemWriter<LawDocument> {
 
-    private final LawDocumentRepository lawDocumentRepository;
+    // Statuts lus par DownloadedPdfReader (EXTRACTED : ré-extraction ciblée)
+    private static final Set<LawDocument.ProcessingStatus> EXPECTED_STATUSES =
+        EnumSet.of(LawDocument.ProcessingStatus.DOWNLOADED, LawDocument.ProcessingStatus.EXTRACTED);
+
+    private final DocumentStatusManager statusManager;
     private final FileStorageService fileStorageService;
+    private final LawMetrics metrics;
     
     @Override
     public void write(Chunk<? extends LawDocument> chunk) throws Exception {
+        Map<LawDocument.ProcessingStatus, List<LawDocument>> byStatus = new EnumMap<>(LawDocument.ProcessingStatus.class);
+        
         for (LawDocument document : chunk) {
             String docId = document.getDocumentId();
             
             try {
                 // 1. Sauvegarder JSON (si extrait avec succès)
                 if (document.getStatus() == LawDocument.ProcessingStatus.EXTRACTED) {
-                    Path jsonPath = fileStorageService.jsonPath(document.getType(), docId);
-                    
                     // Récupérer JSON du champ transient (ocrContent réutilisé)
                     String jsonContent = document.getOcrContent();
                     
                     if (jsonContent != null && !jsonContent.isBlank()) {
-                        // Créer répertoire parent si nécessaire
-                        Files.createDirectories(jsonPath.getParent());
-                        
-                        // Sauvegarder JSON
-                        Files.writeString(jsonPath, jsonContent);
+                        // Sauvegarder JSON (format de stockage géré par FileStorageService)
+                        fileStorageService.saveJson(document.getType(), docId, jsonContent);
                         
-                        log.info("💾 [{}] JSON sauvegardé: {} ({} bytes)", 
-                                 docId, jsonPath, jsonContent.length());
+                        log.info("💾 [{}] JSON sauvegardé ({} caractères)", 
+                                 docId, jsonContent.length());
                     } else {
                         log.warn("⚠️ [{}] Status EXTRACTED mais JSON vide - Skip sauvegarde", docId);
                     }
                 }
                 
-                // 2. Nettoyer champ transient avant sauvegarde DB
+                // 2. Nettoyer champ transient
                 document.setOcrContent(null);
                 
-                // 3. ✅ UPSERT avec flush immédiat pour garantir commit
-                // Note: JPA save() fait automatiquement UPDATE si entity.id existe, INSERT sinon
-                // Le document provient déjà du reader donc a un ID, c'est donc un UPDATE
-                LawDocument saved = lawDocumentRepository.saveAndFlush(document);
-                
-                // Vérification post-sauvegarde
-                if (saved.getStatus() != document.getStatus()) {
-                    log.error("❌ [{}] CRITICAL: Status not persisted! Expected {} but got {}", 
-                             docId, document.getStatus(), saved.getStatus());
+                // 3. Regrouper par statut cible pour la transition ensembliste
+                if (document.getStatus() != null) {
+                    byStatus.computeIfAbsent(document.getStatus(), k -> new ArrayList<>()).add(document);
                 }
                 
-                log.info("✅ [{}] Document mis à jour - Status: {}", 
-                         docId, saved.getStatus());
-                
             } catch (Exception e) {
                 log.error("❌ [{}] Erreur sauvegarde résultat: {} - Document ignoré, job continue", 
                          docId, e.getMessage(), e);
@@ -103,5 +101,20 @@ public class JsonResultWriter implements ItemWriter<LawDocument> {
                 // Le document garde son ancien statut en base
             }
         }
+        
+        // 4. ✅ Une transition par statut cible (UPDATE ... WHERE id IN (...) AND status IN (...))
+        for (Map.Entry<LawDocument.ProcessingStatus, List<LawDocument>> entry : byStatus.entrySet()) {
+            Set<String> moved = statusManager.transitionStatus(entry.getValue(), EXPECTED_STATUSES, entry.getKey());
+            metrics.recordItems(LawMetrics.STAGE_EXTRACT, entry.getKey().name(), moved.size());
+            
+            for (LawDocument document : entry.getValue()) {
+                if (moved.contains(document.getDocumentId())) {
+                    log.info("✅ [{}] Document mis à jour - Status: {}", document.getDocumentId(), entry.getKey());
+                } else {
+                    log.warn("⚠️ [{}] Statut modifié par une autre étape - {} non appliqué", 
+                             document.getDocumentId(), entry.getKey());
+                }
+            }
+        }
     }
 }
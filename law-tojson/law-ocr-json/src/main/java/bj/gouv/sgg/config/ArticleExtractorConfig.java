@@ -3,11 +3,9 @@ package bj.gouv.sgg.config;
 import bj.gouv.sgg.exception.ConfigurationException;
 import bj.gouv.sgg.model.Signatory;
 import bj.gouv.sgg.util.DateParsingUtil;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import jakarta.annotation.PostConstruct;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -19,9 +17,12 @@ import java.util.regex.Pattern;
 /**
  * Configuration holder pour l'extraction d'articles
  * Charge patterns.properties, signatories.csv et dictionnaire français
+ *
+ * <p>Chargement paresseux : les ressources (dictionnaire de plusieurs centaines de milliers
+ * de mots notamment) ne sont lues qu'au premier accès, par un step qui en a besoin.
+ * Les jobs fetch/download/consolidate ne paient donc pas ce coût au démarrage.
  */
 @Slf4j
-@Getter
 @Component
 public class ArticleExtractorConfig {
 
@@ -45,12 +46,85 @@ public class ArticleExtractorConfig {
             "conformément", "application", "notamment", "toutefois"
     };
 
-    @PostConstruct
+    private volatile boolean loaded;
+
+    /**
+     * Force le chargement des ressources (idempotent).
+     * Utile pour les tests ou pour préchauffer explicitement la configuration.
+     */
     public void init() {
-        loadProperties();
-        loadSignatories();
-        loadDictionary();
-        compilePatterns();
+        ensureLoaded();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                long start = System.currentTimeMillis();
+                loadProperties();
+                loadSignatories();
+                loadDictionary();
+                compilePatterns();
+                loaded = true;
+                log.info("✅ Article extractor resources loaded in {} ms", System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    public Properties getProps() {
+        ensureLoaded();
+        return props;
+    }
+
+    public Set<String> getFrenchDict() {
+        ensureLoaded();
+        return frenchDict;
+    }
+
+    public Pattern getArticleStart() {
+        ensureLoaded();
+        return articleStart;
+    }
+
+    public Pattern getArticleEndAny() {
+        ensureLoaded();
+        return articleEndAny;
+    }
+
+    public Pattern getLawTitleStart() {
+        ensureLoaded();
+        return lawTitleStart;
+    }
+
+    public Pattern getLawTitleEnd() {
+        ensureLoaded();
+        return lawTitleEnd;
+    }
+
+    public Pattern getLawEndStart() {
+        ensureLoaded();
+        return lawEndStart;
+    }
+
+    public Pattern getLawEndEnd() {
+        ensureLoaded();
+        return lawEndEnd;
+    }
+
+    public Pattern getPromulgationCity() {
+        ensureLoaded();
+        return promulgationCity;
+    }
+
+    public Pattern getPromulgationDate() {
+        ensureLoaded();
+        return promulgationDate;
+    }
+
+    public String[] getLegalTerms() {
+        return legalTerms;
     }
 
     private void loadProperties() {
@@ -164,6 +238,7 @@ public class ArticleExtractorConfig {
      * Utilisé pour mesurer la qualité de l'OCR
      */
     public double unrecognizedWordsRate(String text) {
+        ensureLoaded();
         if (text == null || text.isEmpty() || frenchDict.isEmpty()) return 0.0;
         String[] words = text.toLowerCase().split("[^a-zàâäéèêëïîôùûüÿçœæ]+");
         int total = 0;
@@ -185,6 +260,7 @@ public class ArticleExtractorConfig {
      * @return Set des mots non reconnus (minuscules, >= 3 chars)
      */
     public java.util.Set<String> getUnrecognizedWords(String text) {
+        ensureLoaded();
         java.util.Set<String> unrecognized = new java.util.HashSet<>();
         if (text == null || text.isEmpty() || frenchDict.isEmpty()) return unrecognized;
         
@@ -212,6 +288,7 @@ public class ArticleExtractorConfig {
     }
 
     public Map<Pattern, Signatory> getSignatoryPatterns() {
+        ensureLoaded();
         return Collections.unmodifiableMap(signatoryPatterns);
     }
 }
@@ -19,11 +19,22 @@ import java.util.Map;
 @Component
 public class CsvCorrector implements CorrectOcrText {
 
-    private final Map<String, String> corrections;
+    // Chargé au premier texte corrigé (step pdfToJson), pas au démarrage de l'application
+    private volatile Map<String, String> corrections;
 
-    public CsvCorrector() {
-        this.corrections = loadCorrections();
-        log.info("✅ Loaded {} OCR corrections from corrections.csv", corrections.size());
+    private Map<String, String> corrections() {
+        Map<String, String> loaded = corrections;
+        if (loaded == null) {
+            synchronized (this) {
+                loaded = corrections;
+                if (loaded == null) {
+                    loaded = loadCorrections();
+                    corrections = loaded;
+                    log.info("✅ Loaded {} OCR corrections from corrections.csv", loaded.size());
+                }
+            }
+        }
+        return loaded;
     }
 
     /**
@@ -79,7 +90,7 @@ public class CsvCorrector implements CorrectOcrText {
         int appliedCorrections = 0;
         
         // Appliquer chaque correction dans l'ordre du CSV
-        for (Map.Entry<String, String> entry : corrections.entrySet()) {
+        for (Map.Entry<String, String> entry : corrections().entrySet()) {
             String wrong = entry.getKey();
             String correct = entry.getValue();
             
@@ -24,6 +24,21 @@ class ArticleExtractorConfigTest {
         config.init();
     }
 
+    @Test
+    void givenConfigNotInitializedWhenFirstAccessThenResourcesLoadedLazily() {
+        // Given - aucun appel à init() : chargement au premier accès
+        ArticleExtractorConfig lazyConfig = new ArticleExtractorConfig();
+
+        // When
+        Pattern articleStart = lazyConfig.getArticleStart();
+
+        // Then
+        assertNotNull(articleStart);
+        assertNotNull(lazyConfig.getProps().getProperty("article.start"));
+        assertFalse(lazyConfig.getSignatoryPatterns().isEmpty());
+        assertSame(articleStart, lazyConfig.getArticleStart(), "Les ressources ne sont chargées qu'une fois");
+    }
+
     @Test
     void givenConfigInitializedWhenGetPropsThenReturnsLoadedProperties() {
         Properties props = config.getProps();
@@ -0,0 +1,129 @@
+package bj.gouv.sgg.impl;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.bytedeco.javacpp.BytePointer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+
+/**
+ * Raster 8 bits en niveaux de gris réutilisé pour toutes les pages OCR d'un moteur Tesseract.
+ *
+ * <p>Les pages sont dessinées directement dans un {@link BufferedImage#TYPE_BYTE_GRAY}
+ * (1 octet par pixel : ~9 Mo pour une page A4 à 300 DPI, contre ~35 Mo en RGB entier),
+ * puis copiées dans un tampon natif unique passé tel quel à {@code TessBaseAPI.SetImage} :
+ * ni image couleur, ni encodage PNG, ni décodage Leptonica par page. Les deux tampons ne
+ * sont réalloués que lorsqu'une page dépasse la taille déjà allouée.
+ *
+ * <p>Non thread-safe : une instance par moteur (document en cours d'OCR).
+ */
+final class OcrPageRaster implements AutoCloseable {
+
+    private static final float POINTS_PER_INCH = 72f;
+
+    private final int binaryThreshold; // 0 = niveaux de gris, sinon seuil de binarisation (1-255)
+
+    private BufferedImage buffer;
+    private BytePointer nativePixels;
+    private int width;
+    private int height;
+
+    /**
+     * @param binaryThreshold Seuil de binarisation (pixels plus sombres → noir), 0 pour garder les niveaux de gris
+     */
+    OcrPageRaster(int binaryThreshold) {
+        this.binaryThreshold = Math.max(0, Math.min(255, binaryThreshold));
+    }
+
+    /**
+     * Dessine une page à la résolution donnée et prépare ses pixels pour Tesseract.
+     *
+     * @return nombre de pixels de la page rendue
+     */
+    long render(PDFRenderer renderer, PDPage page, int pageIndex, int dpi) throws IOException {
+        float scale = dpi / POINTS_PER_INCH;
+        PDRectangle cropBox = page.getCropBox();
+        int widthPx = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int heightPx = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        boolean rotated = page.getRotation() == 90 || page.getRotation() == 270;
+        width = rotated ? heightPx : widthPx;
+        height = rotated ? widthPx : heightPx;
+        ensureCapacity(width, height);
+
+        // Sous-image à l'origine : partage le raster du tampon, rien n'est copié
+        Graphics2D graphics = buffer.getSubimage(0, 0, width, height).createGraphics();
+        try {
+            graphics.setBackground(Color.WHITE);
+            graphics.clearRect(0, 0, width, height);
+            renderer.renderPageToGraphics(pageIndex, graphics, scale);
+        } finally {
+            graphics.dispose();
+        }
+
+        byte[] pixels = ((DataBufferByte) buffer.getRaster().getDataBuffer()).getData();
+        int stride = bytesPerLine();
+        if (binaryThreshold > 0) {
+            binarize(pixels, stride);
+        }
+        nativePixels.position(0).put(pixels, 0, stride * height);
+        return (long) width * height;
+    }
+
+    int width() {
+        return width;
+    }
+
+    int height() {
+        return height;
+    }
+
+    /**
+     * Octets par ligne du tampon (largeur allouée, ≥ largeur de la page).
+     */
+    int bytesPerLine() {
+        return buffer.getWidth();
+    }
+
+    /**
+     * Pixels de la dernière page rendue (1 octet par pixel, {@link #bytesPerLine()} par ligne).
+     */
+    BytePointer pixels() {
+        return nativePixels.position(0);
+    }
+
+    @Override
+    public void close() {
+        if (nativePixels != null) {
+            nativePixels.deallocate();
+            nativePixels = null;
+        }
+        buffer = null;
+    }
+
+    private void ensureCapacity(int requiredWidth, int requiredHeight) {
+        if (buffer != null && buffer.getWidth() >= requiredWidth && buffer.getHeight() >= requiredHeight) {
+            return;
+        }
+        int newWidth = buffer != null ? Math.max(buffer.getWidth(), requiredWidth) : requiredWidth;
+        int newHeight = buffer != null ? Math.max(buffer.getHeight(), requiredHeight) : requiredHeight;
+        buffer = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_BYTE_GRAY);
+        if (nativePixels != null) {
+            nativePixels.deallocate();
+        }
+        nativePixels = new BytePointer((long) newWidth * newHeight);
+    }
+
+    private void binarize(byte[] pixels, int stride) {
+        for (int y = 0; y < height; y++) {
+            int row = y * stride;
+            for (int x = 0; x < width; x++) {
+                pixels[row + x] = (pixels[row + x] & 0xFF) < binaryThreshold ? 0 : (byte) 0xFF;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package bj.gouv.sgg.impl;
 
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.exception.TesseractInitializationException;
+import bj.gouv.sgg.metrics.LawMetrics;
 import bj.gouv.sgg.service.OcrService;
 import bj.gouv.sgg.util.ErrorHandlingUtils;
 import bj.gouv.sgg.util.FileExistenceHelper;
@@ -12,22 +13,20 @@ import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.bytedeco.javacpp.BytePointer;
-import org.bytedeco.leptonica.PIX;
 import org.bytedeco.tesseract.TessBaseAPI;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-
-import static org.bytedeco.leptonica.global.leptonica.*;
+import java.nio.file.attribute.FileTime;
 
 /**
  * Implémentation Tesseract du service OCR.
@@ -37,6 +36,15 @@ import static org.bytedeco.leptonica.global.leptonica.*;
  * 2. Si qualité < seuil → OCR avec Tesseract
  * 3. Support multi-pages avec détection "AMPLIATIONS" (arrêt)
  * 
+ * Résolution adaptative : chaque page est d'abord rendue à {@code law.ocr.initial-dpi},
+ * puis re-rendue à {@code law.ocr.dpi} seulement si la confiance moyenne Tesseract
+ * de la page reste sous {@code law.ocr.min-page-confidence}. Le coût CPU de l'OCR
+ * suit le nombre de pixels (200 DPI ≈ 45 % des pixels de 300 DPI).
+ * 
+ * Rendu : pages dessinées en niveaux de gris 8 bits (ou binarisées, {@code law.ocr.binary-threshold})
+ * dans un raster réutilisé pour toutes les pages d'un document ({@link OcrPageRaster}),
+ * transmis à Tesseract sans passer par une image couleur ni un encodage PNG.
+ * 
  * Clean Code :
  * - Pas de null returns (Optional ou chaîne vide)
  * - Exceptions spécifiques (TesseractInitializationException)
@@ -49,9 +57,27 @@ import static org.bytedeco.leptonica.global.leptonica.*;
 public class TesseractOcrServiceImpl implements OcrService {
     
     private final LawProperties properties;
+    private final LawMetrics metrics;
     
-    // Répertoire temporaire pour tessdata (extrait une seule fois)
-    private static Path tessdataDir;
+    private static final String[] TESSDATA_FILES = { "fra.traineddata" }; // Français uniquement
+
+    // Répertoire tessdata résolu au premier OCR (cache persistant, extrait une seule fois)
+    private volatile Path tessdataDir;
+
+    /**
+     * Résultat d'un OCR complet.
+     *
+     * @param text Texte extrait
+     * @param pages Pages traitées (arrêt possible sur "AMPLIATIONS")
+     * @param escalatedPages Pages re-rendues à la résolution cible
+     * @param meanConfidence Confiance moyenne Tesseract des pages retenues (0-100)
+     * @param renderedPixels Pixels rendus au total, re-rendus compris
+     */
+    public record OcrRun(String text, int pages, int escalatedPages, double meanConfidence, long renderedPixels) {
+    }
+
+    private record PageResult(String text, int confidence, long renderedPixels, boolean escalated) {
+    }
     
     @Override
     public void performOcr(File pdfFile, File ocrFile) {
@@ -104,7 +130,23 @@ public class TesseractOcrServiceImpl implements OcrService {
                 log.info("🔄 Direct extraction quality too low ({:.2f}), using OCR", quality);
             }
             
-            return extractWithOcr(document);
+            return extractWithOcr(document, properties.getOcr().getInitialDpi(), properties.getOcr().getDpi()).text();
+        }
+    }
+
+    /**
+     * OCR de toutes les pages d'un PDF, sans tentative d'extraction directe.
+     * Utilisé pour comparer les stratégies de résolution (benchmark).
+     *
+     * @param pdfBytes Contenu du PDF
+     * @param initialDpi Résolution du premier rendu (≤ 0 ou ≥ targetDpi : rendu unique à targetDpi)
+     * @param targetDpi Résolution des pages dont la confiance est insuffisante
+     * @return Texte et statistiques de l'OCR
+     * @throws IOException si erreur de lecture ou de rendu du PDF
+     */
+    public OcrRun extractWithOcr(byte[] pdfBytes, int initialDpi, int targetDpi) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            return extractWithOcr(document, initialDpi, targetDpi);
         }
     }
     
@@ -134,45 +176,104 @@ public class TesseractOcrServiceImpl implements OcrService {
     }
     
     /**
-     * Extrait et prépare les données Tesseract depuis les resources.
+     * Prépare les données Tesseract depuis les resources, au premier OCR uniquement.
      * Les fichiers .traineddata doivent être dans src/main/resources/tessdata/
+     *
+     * <p>Les fichiers sont extraits dans {@code law.ocr.tessdata-cache-dir} et réutilisés
+     * tant que leur taille et leur date de modification correspondent à la ressource : pas de
+     * copie de plusieurs Mo dans un nouveau répertoire temporaire à chaque exécution.
      */
-    private static synchronized Path extractTessdata() throws IOException {
-        if (tessdataDir == null) {
-            tessdataDir = Files.createTempDirectory("tessdata");
-            String[] files = { "fra.traineddata" }; // Français uniquement
-            
-            for (String file : files) {
-                try (InputStream is = TesseractOcrServiceImpl.class.getResourceAsStream("/tessdata/" + file)) {
-                    if (is != null) {
-                        Path targetFile = tessdataDir.resolve(file);
-                        Files.copy(is, targetFile, StandardCopyOption.REPLACE_EXISTING);
-                        log.debug("📦 Tesseract tessdata extracted: {}", file);
-                    } else {
-                        log.warn("⚠️ Tesseract tessdata not found in resources: {}", file);
-                    }
+    private Path tessdataDirectory() throws IOException {
+        Path dir = tessdataDir;
+        if (dir != null) {
+            return dir;
+        }
+        synchronized (this) {
+            if (tessdataDir == null) {
+                String cacheDir = properties.getOcr().getTessdataCacheDir();
+                Path target = cacheDir == null || cacheDir.isBlank()
+                        ? Files.createTempDirectory("tessdata")
+                        : Path.of(cacheDir);
+                Files.createDirectories(target);
+                for (String file : TESSDATA_FILES) {
+                    cacheTessdata(target, file);
                 }
+                tessdataDir = target;
+            }
+            return tessdataDir;
+        }
+    }
+
+    private static void cacheTessdata(Path dir, String file) throws IOException {
+        Path target = dir.resolve(file);
+        URL resource = TesseractOcrServiceImpl.class.getResource("/tessdata/" + file);
+        if (resource == null) {
+            if (!Files.exists(target)) {
+                log.warn("⚠️ Tesseract tessdata not found in resources: {}", file);
             }
+            return;
+        }
+
+        URLConnection connection = resource.openConnection();
+        long expectedSize = connection.getContentLengthLong();
+        long expectedModified = connection.getLastModified();
+        // Taille ET date de la ressource : un modèle remplacé à taille égale est ré-extrait
+        if (expectedSize >= 0 && expectedModified > 0 && Files.exists(target)
+                && Files.size(target) == expectedSize
+                && Files.getLastModifiedTime(target).toMillis() == expectedModified) {
+            log.debug("📦 Tesseract tessdata reused from cache: {}", target);
+            return;
+        }
+
+        // Copie dans un fichier temporaire du même répertoire puis déplacement atomique :
+        // un process concurrent ne voit jamais un .traineddata partiel
+        Path temp = Files.createTempFile(dir, file, ".tmp");
+        try (InputStream is = connection.getInputStream()) {
+            Files.copy(is, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (expectedModified > 0) {
+                Files.setLastModifiedTime(temp, FileTime.fromMillis(expectedModified));
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.info("📦 Tesseract tessdata extracted to cache: {}", target);
+        } finally {
+            Files.deleteIfExists(temp);
         }
-        return tessdataDir;
     }
     
-    private String extractWithOcr(PDDocument document) throws IOException {
+    private OcrRun extractWithOcr(PDDocument document, int initialDpi, int targetDpi) throws IOException {
         StringBuilder result = new StringBuilder();
         PDFRenderer renderer = new PDFRenderer(document);
         int totalPages = document.getNumberOfPages();
+        int pages = 0;
+        int escalatedPages = 0;
+        long confidenceSum = 0;
+        long renderedPixels = 0;
         
         log.info("🔄 OCR processing {} pages", totalPages);
         
-        // Extraire tessdata dans un répertoire temporaire
-        Path tessDir = extractTessdata();
+        // Tessdata depuis le cache persistant (extrait au premier OCR seulement)
+        Path tessDir = tessdataDirectory();
         
-        try (TessBaseAPI api = new TessBaseAPI()) {
+        try (TessBaseAPI api = new TessBaseAPI();
+             OcrPageRaster raster = new OcrPageRaster(properties.getOcr().getBinaryThreshold())) {
             initializeTesseract(api, tessDir);
             
             for (int page = 0; page < totalPages; page++) {
-                String pageText = processPage(api, renderer, page);
+                long pageStart = System.nanoTime();
+                PageResult pageResult = processPage(api, raster, renderer, document, page, initialDpi, targetDpi);
+                metrics.recordOcrPage(System.nanoTime() - pageStart);
+                pages++;
+                confidenceSum += pageResult.confidence();
+                renderedPixels += pageResult.renderedPixels();
+                if (pageResult.escalated()) {
+                    escalatedPages++;
+                }
                 
+                String pageText = pageResult.text();
                 if (pageText != null && !pageText.isBlank()) {
                     if (totalPages > 1) {
                         result.append("%n%n=== Page ".formatted(page + 1))
@@ -195,7 +296,12 @@ public class TesseractOcrServiceImpl implements OcrService {
             }
         }
         
-        return result.toString();
+        double meanConfidence = pages == 0 ? 0.0 : (double) confidenceSum / pages;
+        if (escalatedPages > 0) {
+            log.info("🔍 {}/{} page(s) re-rendered at {} DPI (mean confidence {})",
+                     escalatedPages, pages, targetDpi, Math.round(meanConfidence));
+        }
+        return new OcrRun(result.toString(), pages, escalatedPages, meanConfidence, renderedPixels);
     }
     
     /**
@@ -229,37 +335,51 @@ public class TesseractOcrServiceImpl implements OcrService {
     }
     
     /**
-     * Traite une page PDF individuelle : conversion en image puis OCR.
+     * Traite une page PDF individuelle : rendu à {@code initialDpi} puis OCR, et nouveau
+     * rendu à {@code targetDpi} si la confiance est sous {@code law.ocr.min-page-confidence}.
+     * Le résultat de meilleure confiance est retenu. Une page sans texte reconnu (blanche,
+     * sceau, image) n'est pas re-rendue : sa confiance nulle ne traduit pas une mauvaise lecture.
      */
-    private String processPage(TessBaseAPI api, PDFRenderer renderer, int pageIndex) throws IOException {
-        BufferedImage image = renderer.renderImageWithDPI(
-            pageIndex, 
-            properties.getOcr().getDpi()
-        );
-        
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, "PNG", baos);
-        byte[] imageBytes = baos.toByteArray();
+    private PageResult processPage(TessBaseAPI api, OcrPageRaster raster, PDFRenderer renderer, PDDocument document,
+                                   int pageIndex, int initialDpi, int targetDpi) throws IOException {
+        if (initialDpi <= 0 || initialDpi >= targetDpi) {
+            return recognizePage(api, raster, renderer, document, pageIndex, targetDpi);
+        }
         
-        PIX pix = pixReadMem(imageBytes, imageBytes.length);
-        if (pix == null) {
-            log.warn("⚠️ Failed to read image for page {}", pageIndex);
-            return "";
+        PageResult first = recognizePage(api, raster, renderer, document, pageIndex, initialDpi);
+        int minConfidence = properties.getOcr().getMinPageConfidence();
+        if (first.confidence() >= minConfidence || first.text().isBlank()) {
+            return first;
         }
         
+        PageResult escalated = recognizePage(api, raster, renderer, document, pageIndex, targetDpi);
+        metrics.recordOcrEscalation();
+        log.debug("🔍 Page {}: confidence {} at {} DPI < {}, re-rendered at {} DPI (confidence {})",
+                  pageIndex + 1, first.confidence(), initialDpi, minConfidence, targetDpi, escalated.confidence());
+        PageResult best = escalated.confidence() >= first.confidence() ? escalated : first;
+        return new PageResult(best.text(), best.confidence(),
+                first.renderedPixels() + escalated.renderedPixels(), true);
+    }
+    
+    /**
+     * Rendu d'une page à la résolution donnée dans le raster réutilisé, puis OCR ;
+     * la confiance est la moyenne Tesseract des mots reconnus (0 si aucun).
+     */
+    private PageResult recognizePage(TessBaseAPI api, OcrPageRaster raster, PDFRenderer renderer, PDDocument document,
+                                     int pageIndex, int dpi) throws IOException {
+        long pixels = raster.render(renderer, document.getPage(pageIndex), pageIndex, dpi);
+        
+        // Tesseract copie l'image : le raster peut être réécrit par la page suivante
+        api.SetImage(raster.pixels(), raster.width(), raster.height(), 1, raster.bytesPerLine());
+        BytePointer textPtr = api.GetUTF8Text();
+        if (textPtr == null) {
+            return new PageResult("", 0, pixels, false);
+        }
         try {
-            api.SetImage(pix);
-            BytePointer textPtr = api.GetUTF8Text();
-            if (textPtr != null) {
-                try {
-                    return textPtr.getString(StandardCharsets.UTF_8);
-                } finally {
-                    textPtr.deallocate();
-                }
-            }
-            return "";
+            String text = textPtr.getString(StandardCharsets.UTF_8);
+            return new PageResult(text, Math.max(0, api.MeanTextConf()), pixels, false);
         } finally {
-            pixDestroy(pix);
+            textPtr.deallocate();
         }
     }
 }
@@ -0,0 +1,77 @@
+package bj.gouv.sgg.impl;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.bytedeco.javacpp.BytePointer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcrPageRasterTest {
+
+    @Test
+    void givenLargeThenSmallPage_whenRender_thenBufferReusedAndSizedToEachPage() throws IOException {
+        // Given: une page A4 puis une page A5
+        try (PDDocument document = new PDDocument();
+             OcrPageRaster raster = new OcrPageRaster(0)) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(PDRectangle.A5));
+            PDFRenderer renderer = new PDFRenderer(document);
+
+            // When: rendu à 72 DPI (1 pixel par point)
+            long a4Pixels = raster.render(renderer, document.getPage(0), 0, 72);
+            int a4Stride = raster.bytesPerLine();
+            long a5Pixels = raster.render(renderer, document.getPage(1), 1, 72);
+
+            // Then: dimensions de chaque page, tampon de la première page conservé, fond blanc
+            assertEquals(595L * 841, a4Pixels);
+            assertEquals(419L * 595, a5Pixels);
+            assertEquals(419, raster.width());
+            assertEquals(595, raster.height());
+            assertEquals(a4Stride, raster.bytesPerLine(), "Le tampon A4 devrait être réutilisé pour la page A5");
+            assertEquals((byte) 0xFF, raster.pixels().get(0), "Le fond devrait être blanc");
+        }
+    }
+
+    @Test
+    void givenBinaryThreshold_whenRenderTextPage_thenOnlyBlackAndWhitePixels() throws IOException {
+        // Given: page avec texte, binarisation au seuil 128
+        try (PDDocument document = new PDDocument();
+             OcrPageRaster raster = new OcrPageRaster(128)) {
+            PDPage page = new PDPage(PDRectangle.A5);
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 24);
+                content.newLineAtOffset(40, 500);
+                content.showText("Article 1er");
+                content.endText();
+            }
+
+            // When
+            raster.render(new PDFRenderer(document), page, 0, 150);
+
+            // Then
+            BytePointer pixels = raster.pixels();
+            int black = 0;
+            for (int y = 0; y < raster.height(); y++) {
+                for (int x = 0; x < raster.width(); x++) {
+                    byte value = pixels.get((long) y * raster.bytesPerLine() + x);
+                    assertTrue(value == 0 || value == (byte) 0xFF, "Pixel non binaire: " + (value & 0xFF));
+                    if (value == 0) {
+                        black++;
+                    }
+                }
+            }
+            assertTrue(black > 0, "Le texte devrait produire des pixels noirs");
+        }
+    }
+}
@@ -3,6 +3,8 @@ package bj.gouv.sgg.service.impl;
 import bj.gouv.sgg.config.LawProperties;
 import bj.gouv.sgg.exception.FileOperationException;
 import bj.gouv.sgg.impl.TesseractOcrServiceImpl;
+import bj.gouv.sgg.metrics.LawMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -44,7 +46,7 @@ class OcrIntegrationTest {
         ocrConfig.setLanguage("fra");
         properties.setOcr(ocrConfig);
         
-        ocrService = new TesseractOcrServiceImpl(properties);
+        ocrService = new TesseractOcrServiceImpl(properties, new LawMetrics(new SimpleMeterRegistry()));
     }
     
     // ==================== Tests Extraction Directe ====================
@@ -164,6 +166,40 @@ class OcrIntegrationTest {
                   "Extraction directe devrait préserver le texte");
     }
     
+    @Test
+    void givenCleanTypedPdfWhenAdaptiveOcrThenLowResolutionKeptWithFewerPixels() throws IOException {
+        // Given: PDF à gros caractères nets
+        File pdfFile = createMultilineTextPdf("""
+                Article 1er : Le présent décret définit les modalités d'application.
+                Article 2 : Le ministre des finances est chargé de son exécution.
+                """);
+        byte[] pdfBytes = Files.readAllBytes(pdfFile.toPath());
+        
+        // When: OCR à 300 DPI fixe puis adaptatif 200 → 300 DPI
+        TesseractOcrServiceImpl.OcrRun fixed = ocrService.extractWithOcr(pdfBytes, 0, 300);
+        TesseractOcrServiceImpl.OcrRun adaptive = ocrService.extractWithOcr(pdfBytes, 200, 300);
+        
+        // Then: Page reconnue dès 200 DPI, moins de pixels rendus, même contenu
+        assertEquals(0, adaptive.escalatedPages(), "Confiance obtenue: " + adaptive.meanConfidence());
+        assertTrue(adaptive.renderedPixels() < fixed.renderedPixels(),
+                  "Le rendu adaptatif devrait rendre moins de pixels");
+        assertTrue(adaptive.text().contains("Article 2"), 
+                  "Le texte devrait contenir 'Article 2', obtenu: " + adaptive.text());
+    }
+    
+    @Test
+    void givenBlankPageWhenAdaptiveOcrThenNotReRendered() throws IOException {
+        // Given: page sans contenu (aucun mot reconnu, confiance nulle)
+        byte[] pdfBytes = Files.readAllBytes(createEmptyPdf().toPath());
+        
+        // When: OCR adaptatif 200 → 300 DPI
+        TesseractOcrServiceImpl.OcrRun adaptive = ocrService.extractWithOcr(pdfBytes, 200, 300);
+        
+        // Then: pas de second rendu pour une page blanche
+        assertEquals(0, adaptive.escalatedPages(), "Une page blanche ne devrait pas être re-rendue");
+        assertTrue(adaptive.text().isBlank(), "Texte obtenu: " + adaptive.text());
+    }
+    
     // ==================== Tests performOcr (File → File) ====================
     
     @Test
@@ -0,0 +1,127 @@
+package bj.gouv.sgg.service.impl;
+
+import bj.gouv.sgg.config.LawProperties;
+import bj.gouv.sgg.impl.TesseractOcrServiceImpl;
+import bj.gouv.sgg.metrics.LawMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark des stratégies de résolution OCR sur des PDFs locaux : temps, confiance
+ * Tesseract et pixels rendus par stratégie (rendu fixe à 300 / 200 / 150 DPI,
+ * rendu adaptatif 200 → 300 DPI).
+ *
+ * <p>Désactivé par défaut (plusieurs minutes de CPU) :
+ * <pre>
+ * mvn -pl law-tojson/law-pdf-ocr test -Dtest=OcrResolutionBenchmarkTest -Docr.benchmark=true \
+ *     [-Docr.benchmark.dir=/chemin/vers/pdfs] [-Docr.benchmark.min-confidence=75]
+ * </pre>
+ * Sans {@code ocr.benchmark.dir}, les PDFs de {@code src/test/resources/samples_pdf} sont utilisés.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "ocr.benchmark", matches = "true")
+class OcrResolutionBenchmarkTest {
+
+    private static final int TARGET_DPI = 300;
+
+    private record Strategy(String name, int initialDpi, int targetDpi) {
+    }
+
+    private record StrategyReport(String name, int documents, int pages, int escalatedPages,
+                                  double meanConfidence, long renderedPixels, long elapsedNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%-18s %3d doc %4d pages  %8.1f s  %7.0f ms/page  confiance %5.1f  "
+                            + "re-rendues %3d  %8.1f Mpx",
+                    name, documents, pages, elapsedNanos / 1e9,
+                    pages == 0 ? 0.0 : elapsedNanos / 1e6 / pages,
+                    meanConfidence, escalatedPages, renderedPixels / 1e6);
+        }
+    }
+
+    @Test
+    void givenSamplePdfs_whenOcrWithEachResolutionStrategy_thenReportTimeAndConfidence() throws IOException {
+        // Given
+        List<Path> pdfs = samplePdfs();
+        assertFalse(pdfs.isEmpty(), "Aucun PDF dans " + sampleDirectory());
+        TesseractOcrServiceImpl ocrService = ocrService();
+        List<Strategy> strategies = List.of(
+                new Strategy("fixed-300", 0, TARGET_DPI),
+                new Strategy("fixed-200", 0, 200),
+                new Strategy("fixed-150", 0, 150),
+                new Strategy("adaptive-200/300", 200, TARGET_DPI));
+
+        // Préchauffage : extraction tessdata, chargement natif Tesseract
+        ocrService.extractWithOcr(Files.readAllBytes(pdfs.get(0)), 0, 150);
+
+        // When
+        List<StrategyReport> reports = new ArrayList<>();
+        for (Strategy strategy : strategies) {
+            reports.add(run(ocrService, strategy, pdfs));
+        }
+
+        // Then
+        log.info("📋 OCR resolution benchmark ({} PDF(s) de {}):", pdfs.size(), sampleDirectory());
+        reports.forEach(report -> log.info("  {}", report));
+        reports.forEach(report -> assertTrue(report.pages() > 0, "Aucune page traitée: " + report.name()));
+    }
+
+    private StrategyReport run(TesseractOcrServiceImpl ocrService, Strategy strategy, List<Path> pdfs) throws IOException {
+        int pages = 0;
+        int escalated = 0;
+        double confidenceSum = 0;
+        long pixels = 0;
+        long start = System.nanoTime();
+
+        for (Path pdf : pdfs) {
+            TesseractOcrServiceImpl.OcrRun run = ocrService.extractWithOcr(
+                    Files.readAllBytes(pdf), strategy.initialDpi(), strategy.targetDpi());
+            pages += run.pages();
+            escalated += run.escalatedPages();
+            confidenceSum += run.meanConfidence() * run.pages();
+            pixels += run.renderedPixels();
+            log.debug("{} {}: {} pages, confiance {}", strategy.name(), pdf.getFileName(),
+                    run.pages(), Math.round(run.meanConfidence()));
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new StrategyReport(strategy.name(), pdfs.size(), pages, escalated,
+                pages == 0 ? 0.0 : confidenceSum / pages, pixels, elapsed);
+    }
+
+    private static TesseractOcrServiceImpl ocrService() {
+        LawProperties properties = new LawProperties();
+        LawProperties.Ocr ocrConfig = new LawProperties.Ocr();
+        ocrConfig.setQualityThreshold(0.5);
+        ocrConfig.setDpi(TARGET_DPI);
+        ocrConfig.setLanguage("fra");
+        ocrConfig.setMinPageConfidence(Integer.getInteger("ocr.benchmark.min-confidence", 75));
+        properties.setOcr(ocrConfig);
+        return new TesseractOcrServiceImpl(properties, new LawMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static List<Path> samplePdfs() throws IOException {
+        try (Stream<Path> files = Files.list(sampleDirectory())) {
+            return files.filter(file -> file.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path sampleDirectory() {
+        return Path.of(System.getProperty("ocr.benchmark.dir", "src/test/resources/samples_pdf"));
+    }
+}
@@ -3,7 +3,6 @@ package bj.gouv.sgg.qa.service.impl;
 import bj.gouv.sgg.model.Article;
 import bj.gouv.sgg.qa.service.OcrQualityService;
 import bj.gouv.sgg.qa.service.UnrecognizedWordsService;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -45,7 +44,7 @@ public class OcrQualityServiceImpl implements OcrQualityService {
     // Termes juridiques chargés depuis propriétés
     private Set<String> legalTerms;
 
-    // Initialisation paresseuse pour les tests sans contexte Spring
+    // Initialisation paresseuse : au premier usage (step pdfToJson), et non au démarrage
     private volatile boolean initialized = false;
 
     // Valeurs depuis ocr-validation.properties
@@ -77,9 +76,8 @@ public class OcrQualityServiceImpl implements OcrQualityService {
     
     
     /**
-     * Initialise les patterns et le dictionnaire au démarrage
+     * Initialise les patterns et le dictionnaire au premier usage
      */
-    @PostConstruct
     private void initialize() {
         // Debug : log des patterns reçus
         log.debug("🔍 Pattern header.republique : [{}]", patternHeaderRepublique);
@@ -183,7 +181,13 @@ public class OcrQualityServiceImpl implements OcrQualityService {
     }
 
     private void ensureInitialized() {
-        if (!initialized) {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (initialized) {
+                return;
+            }
             try {
                 initialize();
             } catch (Exception e) {
@@ -200,6 +204,7 @@ public class OcrQualityServiceImpl implements OcrQualityService {
                 if (articlePattern == null) articlePattern = Pattern.compile("(?i)^(?:Article\\s+(?:1er|premier|\\d+))", flags);
                 if (piedDebutPattern == null) piedDebutPattern = Pattern.compile("(?i)Fait à", flags);
                 if (piedFinPattern == null) piedFinPattern = Pattern.compile("(?i)AMPLIATIONS", flags);
+                if (legalTerms == null) legalTerms = Collections.emptySet();
                 initialized = true;
             }
         }
@@ -365,6 +370,7 @@ public class OcrQualityServiceImpl implements OcrQualityService {
       * Extrait les mots non reconnus du texte
       */
     private Set<String> getUnrecognizedWords(String text) {
+        ensureInitialized();
         if (frenchDictionary.isEmpty()) {
             return Collections.emptySet();
         }
@@ -381,6 +387,7 @@ public class OcrQualityServiceImpl implements OcrQualityService {
      * Calcule le taux de mots non reconnus
      */
     private double calculateUnrecognizedRate(String text) {
+        ensureInitialized();
         if (frenchDictionary.isEmpty()) {
             return 0.0;
         }
@@ -489,6 +496,7 @@ public class OcrQualityServiceImpl implements OcrQualityService {
      * Compte les termes juridiques présents dans le texte
      */
     private int countLegalTerms(String text) {
+        ensureInitialized();
         String lowerText = text.toLowerCase();
         return (int) legalTerms.stream()
             .filter(lowerText::contains)